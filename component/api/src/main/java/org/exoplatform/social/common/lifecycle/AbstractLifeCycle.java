@@ -62,7 +62,8 @@ public abstract class AbstractLifeCycle<T extends LifeCycleListener<E>, E extend
 
   /**
    * Broadcasts an event to the registered listeners. The event is broadcasted
-   * asynchronously but sequentially.
+   * asynchronously but sequentially, using the thread pool of this lifecycle.
+   * Listener errors are counted by the {@link LifeCycleCompletionService}.
    *
    * @see #dispatchEvent(LifeCycleListener, LifeCycleEvent)
    * @param event
@@ -70,13 +71,11 @@ public abstract class AbstractLifeCycle<T extends LifeCycleListener<E>, E extend
   protected void broadcast(final E event) {
     for (final T listener : listeners) {
       if (completionService.isAsync()) {
-        completionService.addTask(new Callable<E>() {
+        completionService.addTask(getClass().getSimpleName(), new Callable<E>() {
           public E call() throws Exception {
             begin();
             try {
               dispatchEvent(listener, event);
-            } catch (Exception e) {
-              LOG.debug(e.getMessage(), e);
             } finally {
               end();
             }
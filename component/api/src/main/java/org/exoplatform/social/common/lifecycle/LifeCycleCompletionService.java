@@ -17,47 +17,100 @@
 
 package org.exoplatform.social.common.lifecycle;
 
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
 import java.util.concurrent.Callable;
-import java.util.concurrent.Executor;
-import java.util.concurrent.ExecutorCompletionService;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.picocontainer.Startable;
 
 import org.exoplatform.container.xml.InitParams;
 import org.exoplatform.container.xml.ValueParam;
+import org.exoplatform.management.annotations.Managed;
+import org.exoplatform.management.annotations.ManagedDescription;
+import org.exoplatform.management.jmx.annotations.NameTemplate;
+import org.exoplatform.management.jmx.annotations.Property;
+import org.exoplatform.services.log.ExoLogger;
+import org.exoplatform.services.log.Log;
 
 /**
- * Process the callable request out of the http request.
+ * Process the callable request out of the http request.<br>
+ * Each lifecycle gets its own thread pool backed by a bounded queue, so that a
+ * burst of events of one lifecycle doesn't delay the others. When the queue of
+ * a lifecycle is full, the task is either run by the calling thread or
+ * discarded, depending on the configured rejection policy.
  *
  * @author <a href="mailto:alain.defrance@exoplatform.com">Alain Defrance</a>
  * @version $Revision$
  */
+@Managed
+@ManagedDescription("Social lifecycle events completion service")
+@NameTemplate({ @Property(key = "service", value = "social"), @Property(key = "view", value = "LifeCycleCompletionService") })
 public class LifeCycleCompletionService implements Startable {
 
+  private static final Log LOG = ExoLogger.getLogger(LifeCycleCompletionService.class);
+
+  public static final String DEFAULT_LIFECYCLE_NAME = "default";
+
+  public static final String REJECTION_POLICY_CALLER_RUNS = "caller-runs";
+
+  public static final String REJECTION_POLICY_DISCARD = "discard";
+
   private final String THREAD_NUMBER_KEY = "thread-number";
 
   private final String ASYNC_EXECUTION_KEY = "async-execution";
 
-  private Executor executor;
+  private final String QUEUE_SIZE_KEY = "queue-size";
 
-  private ExecutorCompletionService ecs;
+  private final String REJECTION_POLICY_KEY = "rejection-policy";
 
   private final int DEFAULT_THREAD_NUMBER = 1;
 
   private final boolean DEFAULT_ASYNC_EXECUTION = true;
 
+  private final int DEFAULT_QUEUE_SIZE = 10000;
+
+  private final Map<String, ThreadPoolExecutor> executors = new ConcurrentHashMap<>();
+
+  private final AtomicInteger pendingTasks = new AtomicInteger();
+
+  private final AtomicLong submittedTasks = new AtomicLong();
+
+  private final AtomicLong completedTasks = new AtomicLong();
+
+  private final AtomicLong failedTasks = new AtomicLong();
+
+  private final AtomicLong rejectedTasks = new AtomicLong();
+
+  private final AtomicLong discardedTasks = new AtomicLong();
+
+  private final AtomicLong totalTaskLatency = new AtomicLong();
+
+  private final AtomicLong maxTaskLatency = new AtomicLong();
+
   private int configThreadNumber;
 
   private boolean configAsyncExecution;
 
+  private int configQueueSize;
+
+  private boolean configCallerRuns;
+
+  private volatile boolean stopped;
+
   public LifeCycleCompletionService(InitParams params) {
 
     //
     ValueParam threadNumber = params.getValueParam(THREAD_NUMBER_KEY);
     ValueParam asyncExecution = params.getValueParam(ASYNC_EXECUTION_KEY);
+    ValueParam queueSize = params.getValueParam(QUEUE_SIZE_KEY);
+    ValueParam rejectionPolicy = params.getValueParam(REJECTION_POLICY_KEY);
 
     //
     try {
@@ -75,31 +128,59 @@ public class LifeCycleCompletionService implements Startable {
       this.configAsyncExecution = DEFAULT_ASYNC_EXECUTION;
     }
 
-
     //
-    if (configAsyncExecution) {
-      this.executor = Executors.newFixedThreadPool(this.configThreadNumber);
+    try {
+      this.configQueueSize = Integer.valueOf(queueSize.getValue());
     }
-    else {
-      this.executor = new DirectExecutor();
+    catch (Exception e) {
+      this.configQueueSize = DEFAULT_QUEUE_SIZE;
+    }
+    if (this.configQueueSize <= 0) {
+      this.configQueueSize = DEFAULT_QUEUE_SIZE;
     }
 
     //
-    this.ecs = new ExecutorCompletionService(executor);
-
+    this.configCallerRuns = rejectionPolicy == null
+        || !REJECTION_POLICY_DISCARD.equalsIgnoreCase(rejectionPolicy.getValue());
   }
 
   public void addTask(Callable callable) {
-    ecs.submit(callable);
+    addTask(DEFAULT_LIFECYCLE_NAME, callable);
+  }
+
+  /**
+   * Executes the task using the thread pool dedicated to the given lifecycle.
+   *
+   * @param lifeCycleName name of the lifecycle that broadcasts the event
+   * @param callable the task to execute
+   */
+  public void addTask(String lifeCycleName, Callable callable) {
+    submittedTasks.incrementAndGet();
+    pendingTasks.incrementAndGet();
+    Runnable task = new LifeCycleTask(callable);
+    if (configAsyncExecution && !stopped) {
+      getExecutor(lifeCycleName).execute(task);
+    } else {
+      if (Thread.interrupted()) {
+        pendingTasks.decrementAndGet();
+        throw new RuntimeException();
+      }
+      task.run();
+    }
   }
 
+  /**
+   * Waits, at most one second, for the submitted tasks to be processed.
+   */
   public void waitCompletionFinished() {
+    long deadline = System.currentTimeMillis() + 1000;
     try {
-      if (executor instanceof ExecutorService) {
-        ((ExecutorService) executor).awaitTermination(1, TimeUnit.SECONDS);
+      while (pendingTasks.get() > 0 && System.currentTimeMillis() < deadline) {
+        Thread.sleep(10);
       }
     }
     catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
       throw new RuntimeException(e);
     }
   }
@@ -108,20 +189,144 @@ public class LifeCycleCompletionService implements Startable {
     return this.configAsyncExecution;
   }
 
+  @Managed
+  @ManagedDescription("Number of tasks waiting in the lifecycles queues")
+  public int getQueueSize() {
+    return executors.values().stream().mapToInt(executor -> executor.getQueue().size()).sum();
+  }
+
+  @Managed
+  @ManagedDescription("Maximum number of tasks waiting in the queue of each lifecycle")
+  public int getQueueCapacity() {
+    return configQueueSize;
+  }
+
+  @Managed
+  @ManagedDescription("Number of tasks currently executed")
+  public int getActiveTasks() {
+    return executors.values().stream().mapToInt(ThreadPoolExecutor::getActiveCount).sum();
+  }
+
+  @Managed
+  @ManagedDescription("Number of tasks submitted and not yet processed")
+  public int getPendingTasks() {
+    return pendingTasks.get();
+  }
+
+  @Managed
+  @ManagedDescription("Number of submitted tasks")
+  public long getSubmittedTasks() {
+    return submittedTasks.get();
+  }
+
+  @Managed
+  @ManagedDescription("Number of tasks processed successfully")
+  public long getCompletedTasks() {
+    return completedTasks.get();
+  }
+
+  @Managed
+  @ManagedDescription("Number of tasks processed with an error")
+  public long getFailedTasks() {
+    return failedTasks.get();
+  }
+
+  @Managed
+  @ManagedDescription("Number of tasks rejected because the queue was full, then run by the caller or discarded")
+  public long getRejectedTasks() {
+    return rejectedTasks.get();
+  }
+
+  @Managed
+  @ManagedDescription("Number of tasks discarded because the queue was full")
+  public long getDiscardedTasks() {
+    return discardedTasks.get();
+  }
+
+  @Managed
+  @ManagedDescription("Average time in milliseconds between the submission of a task and the end of its processing")
+  public long getAverageTaskLatency() {
+    long processedTasks = completedTasks.get() + failedTasks.get();
+    return processedTasks == 0 ? 0 : totalTaskLatency.get() / processedTasks;
+  }
+
+  @Managed
+  @ManagedDescription("Maximum time in milliseconds between the submission of a task and the end of its processing")
+  public long getMaxTaskLatency() {
+    return maxTaskLatency.get();
+  }
+
   public void start() {}
-  
+
   public void stop() {
-    if (executor instanceof ExecutorService) {
-      ((ExecutorService) executor).shutdown();
-    }
+    stopped = true;
+    executors.values().forEach(ThreadPoolExecutor::shutdown);
   };
 
-  private class DirectExecutor implements Executor {
+  private ThreadPoolExecutor getExecutor(String lifeCycleName) {
+    return executors.computeIfAbsent(lifeCycleName, this::createExecutor);
+  }
 
-    public void execute(final Runnable runnable) {
-      if (Thread.interrupted()) throw new RuntimeException();
+  private ThreadPoolExecutor createExecutor(String lifeCycleName) {
+    RejectedExecutionHandler rejectedExecutionHandler = (runnable, executor) -> {
+      rejectedTasks.incrementAndGet();
+      if (configCallerRuns && !executor.isShutdown()) {
+        runnable.run();
+      } else {
+        discardedTasks.incrementAndGet();
+        pendingTasks.decrementAndGet();
+        LOG.warn("Lifecycle '{}' queue is full, event discarded", lifeCycleName);
+      }
+    };
+    return new ThreadPoolExecutor(configThreadNumber,
+                                  configThreadNumber,
+                                  0L,
+                                  TimeUnit.MILLISECONDS,
+                                  new ArrayBlockingQueue<>(configQueueSize),
+                                  new LifeCycleThreadFactory(lifeCycleName),
+                                  rejectedExecutionHandler);
+  }
+
+  private class LifeCycleTask implements Runnable {
+
+    private final Callable callable;
+
+    private final long     submissionTime = System.currentTimeMillis();
+
+    private LifeCycleTask(Callable callable) {
+      this.callable = callable;
+    }
+
+    public void run() {
+      try {
+        callable.call();
+        completedTasks.incrementAndGet();
+      } catch (Exception e) {
+        failedTasks.incrementAndGet();
+        LOG.debug("Error while processing lifecycle event", e);
+      } finally {
+        long latency = System.currentTimeMillis() - submissionTime;
+        totalTaskLatency.addAndGet(latency);
+        maxTaskLatency.accumulateAndGet(latency, Math::max);
+        pendingTasks.decrementAndGet();
+      }
+    }
+  }
+
+  private static class LifeCycleThreadFactory implements ThreadFactory {
+
+    private final String        namePrefix;
+
+    private final AtomicInteger threadNumber = new AtomicInteger(1);
+
+    private LifeCycleThreadFactory(String lifeCycleName) {
+      this.namePrefix = "social-lifecycle-" + lifeCycleName + "-";
+    }
 
-      runnable.run();
+    public Thread newThread(Runnable runnable) {
+      Thread thread = new Thread(runnable, namePrefix + threadNumber.getAndIncrement());
+      thread.setDaemon(true);
+      return thread;
     }
   }
 }
@@ -16,7 +16,10 @@
  */
 package org.exoplatform.social.core;
 
+import java.util.List;
+
 import org.exoplatform.container.component.ComponentPlugin;
+import org.exoplatform.services.log.ExoLogger;
 import org.exoplatform.social.core.activity.model.ExoSocialActivity;
 
 
@@ -26,6 +29,25 @@ import org.exoplatform.social.core.activity.model.ExoSocialActivity;
  */
 public interface ActivityProcessor extends ComponentPlugin {
   void processActivity(ExoSocialActivity activity);
+
+  /**
+   * Process a list of activities, typically the activities of a stream page.
+   * Processors can override this method to retrieve the data of all activities
+   * at once. By default, each activity is processed on its own, so that a
+   * failing activity doesn't prevent processing the rest of the page.
+   *
+   * @param activities {@link List} of {@link ExoSocialActivity} to process
+   */
+  default void processActivities(List<ExoSocialActivity> activities) {
+    for (ExoSocialActivity activity : activities) {
+      try {
+        processActivity(activity);
+      } catch (Exception e) {
+        ExoLogger.getLogger(getClass()).warn("Activity {} processing failed", activity.getId(), e);
+      }
+    }
+  }
+
   int getPriority();
 
   /**
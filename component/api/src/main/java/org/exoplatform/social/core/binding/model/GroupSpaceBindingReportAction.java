@@ -45,6 +45,9 @@ public class GroupSpaceBindingReportAction {
   /** The action endDate */
   private Date               endDate;
 
+  /** The number of group members already processed by the action */
+  private int                processedUsers;
+
   public static final String ADD_ACTION         = "ADD";
 
   public static final String REMOVE_ACTION      = "REMOVE";
@@ -116,4 +119,12 @@ public class GroupSpaceBindingReportAction {
   public void setEndDate(Date endDate) {
     this.endDate = endDate;
   }
+
+  public int getProcessedUsers() {
+    return processedUsers;
+  }
+
+  public void setProcessedUsers(int processedUsers) {
+    this.processedUsers = processedUsers;
+  }
 }
@@ -22,6 +22,7 @@ import org.exoplatform.commons.exception.ObjectNotFoundException;
 import org.exoplatform.social.common.RealtimeListAccess;
 import org.exoplatform.social.core.ActivityProcessor;
 import org.exoplatform.social.core.BaseActivityProcessorPlugin;
+import org.exoplatform.social.core.activity.ActivityCursor;
 import org.exoplatform.social.core.activity.ActivityFilter;
 import org.exoplatform.social.core.activity.ActivityListenerPlugin;
 import org.exoplatform.social.core.activity.ActivitySystemTypePlugin;
@@ -297,6 +298,29 @@ public interface ActivityManager {
     throw new UnsupportedOperationException();
   }
 
+  /**
+   * Gets the positions of activities matching the filter, starting from the
+   * given cursor. Unlike offset based pagination, the cost of retrieving a page
+   * doesn't grow with its depth in the stream and the pages stay stable when
+   * new activities are posted meanwhile.
+   *
+   * @param viewerIdentity The viewer identity.
+   * @param activityFilter The activity filter.
+   * @param cursor The position of the last retrieved activity, null to start
+   *          from the most recent activity.
+   * @param newer true to retrieve activities updated after the cursor, else
+   *          older ones.
+   * @param limit The maximum number of activities to retrieve.
+   * @return The activity positions ordered by update date descending.
+   */
+  default List<ActivityCursor> getActivityCursorsByFilter(Identity viewerIdentity,
+                                                          ActivityFilter activityFilter,
+                                                          ActivityCursor cursor,
+                                                          boolean newer,
+                                                          int limit) {
+    throw new UnsupportedOperationException();
+  }
+
   /**
    * Gets activities posted by all connections with a given identity. The type
    * of returned result is <code>ListAccess</code> which can be lazy loaded.
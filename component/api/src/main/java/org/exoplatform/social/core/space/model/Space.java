@@ -702,6 +702,14 @@ public class Space implements CacheEntry {
     this.managers = managers;
   }
 
+  /**
+   * @param userId user remote id
+   * @return true if the user is a manager of the space
+   */
+  public boolean hasManager(String userId) {
+    return contains(managers, userId);
+  }
+
   /**
    * Gets the members of a space.
    * 
@@ -720,6 +728,30 @@ public class Space implements CacheEntry {
   public void setMembers(String[] members) {
     this.members = members;
   }
+
+  /**
+   * @param userId user remote id
+   * @return true if the user is a member of the space
+   */
+  public boolean hasMember(String userId) {
+    return contains(members, userId);
+  }
+
+  /**
+   * Scans the given array without copying it, so that no lookup structure is
+   * kept alongside the members and managers of cached spaces.
+   */
+  private static boolean contains(String[] users, String userId) {
+    if (users == null || userId == null) {
+      return false;
+    }
+    for (String user : users) {
+      if (userId.equals(user)) {
+        return true;
+      }
+    }
+    return false;
+  }
   
   /**
    * @return the redactors
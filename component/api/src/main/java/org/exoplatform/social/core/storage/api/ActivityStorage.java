@@ -20,6 +20,7 @@ package org.exoplatform.social.core.storage.api;
 import java.util.*;
 
 import org.exoplatform.social.core.ActivityProcessor;
+import org.exoplatform.social.core.activity.ActivityCursor;
 import org.exoplatform.social.core.activity.ActivityFilter;
 import org.exoplatform.social.core.activity.model.ActivityShareAction;
 import org.exoplatform.social.core.activity.model.ExoSocialActivity;
@@ -121,6 +122,30 @@ public interface ActivityStorage {
     throw new UnsupportedOperationException();
   }
 
+  /**
+   * Get the positions of activities matching the filter, starting from the
+   * given cursor rather than from an offset. When the stream type of the
+   * filter is null or {@link org.exoplatform.social.core.activity.ActivityStreamType#ALL_STREAM},
+   * the activity feed of the viewer is used.
+   *
+   * @param viewerIdentity the viewer identity
+   * @param activityFilter the activity filter
+   * @param cursor the position of the last retrieved activity, null to start
+   *          from the most recent activity
+   * @param newer true to retrieve activities updated after the cursor, else
+   *          older ones
+   * @param limit Limit of activities to retrieve
+   * @return {@link List} of {@link ActivityCursor} ordered by update date
+   *         descending
+   */
+  default List<ActivityCursor> getActivityCursorsByFilter(Identity viewerIdentity,
+                                                          ActivityFilter activityFilter,
+                                                          ActivityCursor cursor,
+                                                          boolean newer,
+                                                          int limit) {
+    throw new UnsupportedOperationException();
+  }
+
   /**
    * Gets the activities by identity for upgrade Activity Stream feature Access
    * a user's activity stream by specifying the offset and limit.
@@ -192,6 +192,23 @@ public interface GroupSpaceBindingStorage {
    */
   boolean isUserBoundAndMemberBefore(String spaceId, String userId);
 
+  /**
+   * Get the bindings of a list of users to a space, whatever the group binding.
+   *
+   * @param spaceId The space Id.
+   * @param userNames
+   * @return a list of UserSpaceBindings
+   */
+  List<UserSpaceBinding> findUserSpaceBindingsBySpaceAndUsers(String spaceId, List<String> userNames);
+
+  /**
+   * Saves a list of user bindings in a single transaction.
+   *
+   * @param userSpaceBindings
+   * @throws GroupSpaceBindingStorageException
+   */
+  void saveUserBindings(List<UserSpaceBinding> userSpaceBindings) throws GroupSpaceBindingStorageException;
+
   /**
    * Gets GroupSpaceBinding by Id.
    * 
@@ -245,6 +262,8 @@ public interface GroupSpaceBindingStorage {
   
   void saveGroupSpaceBindingReportUser(GroupSpaceBindingReportUser groupSpaceBindingReportUser);
 
+  void saveGroupSpaceBindingReportUsers(List<GroupSpaceBindingReportUser> groupSpaceBindingReportUsers);
+
   void updateGroupSpaceBindingReportAction(GroupSpaceBindingReportAction bindingReportAction);
 
   GroupSpaceBindingReportAction findGroupSpaceBindingReportAction(long bindingId, String action);
@@ -100,6 +100,19 @@ public interface SpaceStorage {
 
   boolean isSpaceIgnored(String spaceId, String userId);
 
+  /**
+   * Verify if a user has a role in a space, without loading the space members.
+   *
+   * @param spaceId the id of the space
+   * @param userId the id of the user
+   * @param status {@link String} equals to MEMBER, MANAGER, REDACTOR,
+   *          PUBLISHER, PENDING, INVITED, IGNORED
+   * @return true if the user has the role in the space
+   */
+  default boolean hasUserRole(String spaceId, String userId, String status) {
+    throw new UnsupportedOperationException();
+  }
+
   /**
    * Gets the count of the spaces that a user has the "manager" role.
    *
@@ -236,6 +236,20 @@ public interface MetadataService {
    */
   List<MetadataItem> getMetadataItemsByObject(MetadataObject object);
 
+  /**
+   * Retrieves the list of Metadata items attached to each object of a list of
+   * objects of the same type, typically the objects of a stream page
+   *
+   * @param  objectType object type identifier like, ACTIVITY, COMMENT, NOTE,
+   *                      FILE ...
+   * @param  objectIds  {@link List} of objects technical identifiers
+   * @return            {@link Map} of linked {@link MetadataItem} indexed by
+   *                    object identifier
+   */
+  default Map<String, List<MetadataItem>> getMetadataItemsByObjects(String objectType, List<String> objectIds) {
+    throw new UnsupportedOperationException();
+  }
+
   /**
    * Retrieves the list of Metadata items attached to a given {@link Metadata}
    * type and an object identified by its name and identifier
@@ -18,6 +18,7 @@
  */
 package org.exoplatform.social.metadata.model;
 
+import java.io.Serializable;
 import java.util.Map;
 
 import lombok.AllArgsConstructor;
@@ -27,7 +28,9 @@ import lombok.NoArgsConstructor;
 @Data
 @AllArgsConstructor
 @NoArgsConstructor
-public class Metadata {
+public class Metadata implements Serializable {
+
+  private static final long serialVersionUID = 4870129386917163712L;
 
   private long                id;
 
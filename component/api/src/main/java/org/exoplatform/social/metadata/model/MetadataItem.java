@@ -18,13 +18,16 @@
  */
 package org.exoplatform.social.metadata.model;
 
+import java.io.Serializable;
 import java.util.HashMap;
 import java.util.Map;
 
 import lombok.*;
 
 @EqualsAndHashCode
-public class MetadataItem implements Cloneable {
+public class MetadataItem implements Cloneable, Serializable {
+
+  private static final long   serialVersionUID = 3125405262361047718L;
 
   @Getter
   @Setter
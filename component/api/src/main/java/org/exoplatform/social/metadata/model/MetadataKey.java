@@ -18,6 +18,8 @@
  */
 package org.exoplatform.social.metadata.model;
 
+import java.io.Serializable;
+
 import lombok.*;
 
 /**
@@ -26,7 +28,9 @@ import lombok.*;
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
-public class MetadataKey implements Cloneable {
+public class MetadataKey implements Cloneable, Serializable {
+
+  private static final long serialVersionUID = -2165083371230529455L;
 
   private String type;
 
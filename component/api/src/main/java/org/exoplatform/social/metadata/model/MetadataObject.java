@@ -15,6 +15,8 @@
  */
 package org.exoplatform.social.metadata.model;
 
+import java.io.Serializable;
+
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
@@ -22,7 +24,9 @@ import lombok.NoArgsConstructor;
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
-public class MetadataObject implements Cloneable {
+public class MetadataObject implements Cloneable, Serializable {
+
+  private static final long serialVersionUID = -8411216123450384826L;
 
   private String type;
 
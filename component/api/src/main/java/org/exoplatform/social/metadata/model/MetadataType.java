@@ -18,12 +18,16 @@
  */
 package org.exoplatform.social.metadata.model;
 
+import java.io.Serializable;
+
 import lombok.*;
 
 @Data
 @AllArgsConstructor
 @NoArgsConstructor
-public class MetadataType {
+public class MetadataType implements Serializable {
+
+  private static final long serialVersionUID = 6962870412786107219L;
 
   private long   id;
 
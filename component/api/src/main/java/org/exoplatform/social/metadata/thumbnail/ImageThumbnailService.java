@@ -15,6 +15,7 @@
  */
 package org.exoplatform.social.metadata.thumbnail;
 
+import org.exoplatform.commons.file.model.FileInfo;
 import org.exoplatform.commons.file.model.FileItem;
 import org.exoplatform.social.core.identity.model.Identity;
 
@@ -32,4 +33,14 @@ public interface ImageThumbnailService {
     FileItem getOrCreateThumbnail(FileItem file, Identity identity, int width, int height) throws Exception;
 
     void deleteThumbnails(Long fileId);
+
+    /**
+     * Generates asynchronously the thumbnails of configured sizes of a newly
+     * created or updated image, so that they are ready when first requested
+     *
+     * @param fileInfo created or updated file
+     */
+    default void pregenerateThumbnails(FileInfo fileInfo) {
+        // No thumbnails pre-generation by default
+    }
 }
@@ -0,0 +1,41 @@
+/*
+ * This file is part of the Meeds project (https://meeds.io/).
+ * 
+ * Copyright (C) 2022 Meeds Association contact@meeds.io
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.exoplatform.social.notification.service;
+
+import java.util.List;
+import java.util.function.Consumer;
+
+import org.exoplatform.social.core.space.model.Space;
+
+public interface SpaceRecipientsProvider {
+
+  /**
+   * Reads the members of a space page by page and hands the ones who can
+   * receive notifications of a plugin to a consumer, by chunks of bounded
+   * size, so that the whole members list is never loaded in memory.
+   * 
+   * @param space the space which members are notified
+   * @param excludedUser username of the member to not notify, typically the
+   *          author of the notified action
+   * @param pluginId notification plugin identifier
+   * @param recipientsConsumer consumer of each chunk of usernames
+   */
+  void forEachRecipientsChunk(Space space, String excludedUser, String pluginId, Consumer<List<String>> recipientsConsumer);
+
+}
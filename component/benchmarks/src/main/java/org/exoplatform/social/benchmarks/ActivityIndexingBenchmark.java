@@ -0,0 +1,97 @@
+/*
+ * This file is part of the Meeds project (https://meeds.io/).
+ * Copyright (C) 2022 Meeds Association contact@meeds.io
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package org.exoplatform.social.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import org.exoplatform.commons.search.domain.Document;
+import org.exoplatform.container.xml.InitParams;
+import org.exoplatform.container.xml.PropertiesParam;
+import org.exoplatform.social.core.jpa.search.ActivityIndexingServiceConnector;
+import org.exoplatform.social.core.jpa.search.ActivitySearchProcessor;
+import org.exoplatform.social.core.manager.ActivityManager;
+import org.exoplatform.social.core.manager.IdentityManager;
+import org.exoplatform.social.core.processor.I18NActivityProcessor;
+import org.exoplatform.social.metadata.MetadataService;
+
+/**
+ * Measures the indexing document build of
+ * {@link ActivityIndexingServiceConnector}, dominated by the activity body
+ * HTML sanitizing and stripping.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ActivityIndexingBenchmark {
+
+  private static final String              BODY = "<html><head><style>p {color: red;}</style></head><body>"
+      + "<div class=\"content\"><p>Indexed <b>activity</b> body with a <a href=\"https://meeds.io\">link</a></p>"
+      + "<script type=\"text/javascript\">alert('xss')</script><ul><li>first</li><li>second</li></ul>"
+      + "<table><tr><td>cell 1</td><td>cell 2</td></tr></table><br/>&eacute;t&eacute; &amp; hiver</div></body></html>";
+
+  private ActivityIndexingServiceConnector connector;
+
+  private String                           activityId;
+
+  @Setup(Level.Trial)
+  public void setup(SocialContainerState state) {
+    InitParams params = new InitParams();
+    PropertiesParam propertiesParam = new PropertiesParam();
+    propertiesParam.setName("constructor.params");
+    propertiesParam.setProperty("index_current", "activity_alias");
+    params.addParameter(propertiesParam);
+
+    connector = new ActivityIndexingServiceConnector(new ActivitySearchProcessor(),
+                                                     state.getService(I18NActivityProcessor.class),
+                                                     state.getService(IdentityManager.class),
+                                                     state.getService(ActivityManager.class),
+                                                     state.getService(MetadataService.class),
+                                                     params);
+    activityId = state.createActivity("Indexed activity", BODY).getId();
+  }
+
+  @Setup(Level.Iteration)
+  public void begin(SocialContainerState state) {
+    state.begin();
+  }
+
+  @TearDown(Level.Iteration)
+  public void end(SocialContainerState state) {
+    state.end();
+  }
+
+  @Benchmark
+  public Document create() {
+    return connector.create(activityId);
+  }
+
+}
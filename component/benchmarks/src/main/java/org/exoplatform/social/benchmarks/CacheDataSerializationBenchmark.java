@@ -0,0 +1,158 @@
+/*
+ * This file is part of the Meeds project (https://meeds.io/).
+ * Copyright (C) 2022 Meeds Association contact@meeds.io
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package org.exoplatform.social.benchmarks;
+
+import java.io.*;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import org.exoplatform.social.core.activity.model.ActivityStream;
+import org.exoplatform.social.core.activity.model.ExoSocialActivity;
+import org.exoplatform.social.core.activity.model.ExoSocialActivityImpl;
+import org.exoplatform.social.core.identity.model.Identity;
+import org.exoplatform.social.core.identity.model.Profile;
+import org.exoplatform.social.core.space.model.Space;
+import org.exoplatform.social.core.storage.cache.model.data.ActivityData;
+import org.exoplatform.social.core.storage.cache.model.data.ListActivitiesData;
+import org.exoplatform.social.core.storage.cache.model.data.ProfileData;
+import org.exoplatform.social.core.storage.cache.model.data.SpaceData;
+import org.exoplatform.social.core.storage.cache.model.key.ActivityKey;
+
+/**
+ * Measures the Java serialization of the social cache values replicated
+ * across the cluster. The serialized size of each value is printed at setup,
+ * as bytes per entry. The benchmark only uses the public constructors of the
+ * cached values, so it can be run against an older version to compare.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CacheDataSerializationBenchmark {
+
+  @Param({ "ActivityData", "SpaceData", "ProfileData", "ListActivitiesData" })
+  private String       dataType;
+
+  /** Number of likers, mentioned users, space members or list elements */
+  @Param({ "10", "200" })
+  private int          size;
+
+  private Serializable data;
+
+  private byte[]       serializedData;
+
+  @Setup
+  public void setup() throws IOException {
+    data = newData(dataType, size);
+    serializedData = serialize(data);
+    System.out.printf("%n%s with %d ids: %d bytes per entry%n", dataType, size, serializedData.length); // NOSONAR
+  }
+
+  @Benchmark
+  public byte[] serialize() throws IOException {
+    return serialize(data);
+  }
+
+  @Benchmark
+  public Object deserialize() throws IOException, ClassNotFoundException {
+    try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(serializedData))) {
+      return in.readObject();
+    }
+  }
+
+  private static byte[] serialize(Serializable data) throws IOException {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+      out.writeObject(data);
+    }
+    return bytes.toByteArray();
+  }
+
+  private static Serializable newData(String dataType, int size) {
+    switch (dataType) {
+    case "ActivityData":
+      ExoSocialActivity activity = new ExoSocialActivityImpl();
+      activity.setId("125478");
+      activity.setTitle("Benchmark of the serialization of cached activities");
+      activity.setType("DEFAULT_ACTIVITY");
+      activity.setUserId("1032");
+      activity.setPosterId("1032");
+      activity.setLikeIdentityIds(newIds(size, "", ""));
+      activity.setMentionedIds(newIds(size, "", "@1"));
+      activity.setCommentedIds(newIds(size, "", "@2"));
+      activity.setReplyToId(newIds(size, "comment", ""));
+      activity.getActivityStream().setId("2045");
+      activity.getActivityStream().setPrettyId("engineering");
+      activity.getActivityStream().setType(ActivityStream.Type.SPACE);
+      return new ActivityData(activity);
+    case "SpaceData":
+      Space space = new Space();
+      space.setId("2045");
+      space.setPrettyName("engineering");
+      space.setDisplayName("Engineering");
+      space.setGroupId("/spaces/engineering");
+      space.setMembers(newIds(size, "user", ""));
+      space.setManagers(newIds(size / 10, "user", ""));
+      space.setRedactors(newIds(size / 10, "user", ""));
+      space.setPublishers(newIds(size / 10, "user", ""));
+      return new SpaceData(space);
+    case "ProfileData":
+      Identity identity = new Identity("organization", "user1032");
+      identity.setId("1032");
+      Profile profile = new Profile(identity);
+      profile.setId("1032");
+      profile.setProperty(Profile.FIRST_NAME, "John");
+      profile.setProperty(Profile.LAST_NAME, "Smith");
+      profile.setProperty(Profile.FULL_NAME, "John Smith");
+      profile.setProperty(Profile.EMAIL, "john.smith@meeds.io");
+      profile.setProperty(Profile.POSITION, "Developer");
+      profile.setProperty(Profile.USERNAME, "user1032");
+      return new ProfileData(profile);
+    case "ListActivitiesData":
+      List<ActivityKey> ids = new ArrayList<>();
+      for (String id : newIds(size, "", "")) {
+        ids.add(new ActivityKey(id));
+      }
+      return new ListActivitiesData(ids);
+    default:
+      throw new IllegalArgumentException("Unknown cache data type " + dataType);
+    }
+  }
+
+  private static String[] newIds(int size, String prefix, String suffix) {
+    String[] ids = new String[size];
+    for (int i = 0; i < size; i++) {
+      ids[i] = prefix + (1000 + i) + suffix;
+    }
+    return ids;
+  }
+
+}
@@ -0,0 +1,125 @@
+/*
+ * This file is part of the Meeds project (https://meeds.io/).
+ * Copyright (C) 2022 Meeds Association contact@meeds.io
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package org.exoplatform.social.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import org.exoplatform.social.core.identity.model.Identity;
+import org.exoplatform.social.core.identity.provider.OrganizationIdentityProvider;
+import org.exoplatform.social.core.profile.ProfileFilter;
+import org.exoplatform.social.core.space.SpaceFilter;
+import org.exoplatform.social.core.storage.cache.model.key.ActivityCountKey;
+import org.exoplatform.social.core.storage.cache.model.key.ActivityKey;
+import org.exoplatform.social.core.storage.cache.model.key.ActivityType;
+import org.exoplatform.social.core.storage.cache.model.key.CacheKey;
+import org.exoplatform.social.core.storage.cache.model.key.IdentityCompositeKey;
+import org.exoplatform.social.core.storage.cache.model.key.IdentityFilterKey;
+import org.exoplatform.social.core.storage.cache.model.key.IdentityKey;
+import org.exoplatform.social.core.storage.cache.model.key.ListActivitiesKey;
+import org.exoplatform.social.core.storage.cache.model.key.ListIdentitiesKey;
+import org.exoplatform.social.core.storage.cache.model.key.ListSpacesKey;
+import org.exoplatform.social.core.storage.cache.model.key.MetadataCompositeKey;
+import org.exoplatform.social.core.storage.cache.model.key.MetadataObjectKey;
+import org.exoplatform.social.core.storage.cache.model.key.RelationshipIdentityKey;
+import org.exoplatform.social.core.storage.cache.model.key.SpaceFilterKey;
+import org.exoplatform.social.core.storage.cache.model.key.SpaceKey;
+import org.exoplatform.social.core.storage.cache.model.key.SpaceType;
+
+/**
+ * Measures {@link Object#hashCode()} and {@link Object#equals(Object)} of the
+ * social cache keys, which are computed on each cache lookup.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CacheKeyBenchmark {
+
+  @Param({ "ActivityKey", "IdentityCompositeKey", "RelationshipIdentityKey", "SpaceKey", "ListActivitiesKey",
+      "ListIdentitiesKey", "ListSpacesKey", "MetadataCompositeKey", "MetadataObjectKey" })
+  private String   keyType;
+
+  private CacheKey key;
+
+  /**
+   * A key equal to {@link #key} but not the same instance, to avoid the
+   * identity shortcut of equals implementations
+   */
+  private CacheKey equalKey;
+
+  @Setup
+  public void setup() {
+    key = newKey(keyType);
+    equalKey = newKey(keyType);
+  }
+
+  @Benchmark
+  public int keyHashCode() {
+    return key.hashCode();
+  }
+
+  @Benchmark
+  public boolean keyEquals() {
+    return key.equals(equalKey);
+  }
+
+  private static CacheKey newKey(String keyType) {
+    switch (keyType) {
+    case "ActivityKey":
+      return new ActivityKey("12345");
+    case "IdentityCompositeKey":
+      return new IdentityCompositeKey(OrganizationIdentityProvider.NAME, "john");
+    case "RelationshipIdentityKey":
+      return new RelationshipIdentityKey("12", "34");
+    case "SpaceKey":
+      return new SpaceKey("5");
+    case "ListActivitiesKey":
+      ActivityCountKey activityCountKey = new ActivityCountKey(new IdentityKey(new Identity("12")),
+                                                               new IdentityKey(new Identity("34")),
+                                                               ActivityType.FEED);
+      return new ListActivitiesKey(activityCountKey, 0, 20);
+    case "ListIdentitiesKey":
+      ProfileFilter profileFilter = new ProfileFilter();
+      profileFilter.setName("john");
+      profileFilter.setPosition("developer");
+      return new ListIdentitiesKey(new IdentityFilterKey(OrganizationIdentityProvider.NAME, profileFilter), 0, 20);
+    case "ListSpacesKey":
+      SpaceFilter spaceFilter = new SpaceFilter("engineering");
+      return new ListSpacesKey(new SpaceFilterKey("john", spaceFilter, SpaceType.MEMBER), 0, 20);
+    case "MetadataCompositeKey":
+      return new MetadataCompositeKey("tags", "performance", 12L);
+    case "MetadataObjectKey":
+      return new MetadataObjectKey("activity", "12345");
+    default:
+      throw new IllegalArgumentException("Unknown cache key type " + keyType);
+    }
+  }
+
+}
@@ -0,0 +1,84 @@
+/*
+ * This file is part of the Meeds project (https://meeds.io/).
+ * Copyright (C) 2022 Meeds Association contact@meeds.io
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package org.exoplatform.social.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import org.exoplatform.services.security.ConversationState;
+import org.exoplatform.social.core.activity.model.ExoSocialActivity;
+import org.exoplatform.social.core.manager.ActivityManager;
+import org.exoplatform.social.rest.api.EntityBuilder;
+import org.exoplatform.social.rest.entity.ActivityEntity;
+
+/**
+ * Measures {@link EntityBuilder#buildEntityFromActivity} on an activity stored
+ * in H2, with and without expanded fields.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EntityBuilderBenchmark {
+
+  private static final String REST_PATH = "/v1/social/activities";
+
+  @Param({ "", "identity,likes,comments" })
+  private String              expand;
+
+  private String              activityId;
+
+  private ExoSocialActivity   activity;
+
+  @Setup(Level.Trial)
+  public void setup(SocialContainerState state) {
+    activityId = state.createActivity("Activity built as REST entity", "<p>Activity <b>body</b></p>").getId();
+  }
+
+  @Setup(Level.Iteration)
+  public void begin(SocialContainerState state) {
+    ConversationState.setCurrent(new ConversationState(new org.exoplatform.services.security.Identity(SocialContainerState.USERNAME)));
+    state.begin();
+    activity = state.getService(ActivityManager.class).getActivity(activityId);
+  }
+
+  @TearDown(Level.Iteration)
+  public void end(SocialContainerState state) {
+    state.end();
+    ConversationState.setCurrent(null);
+  }
+
+  @Benchmark
+  public ActivityEntity buildEntityFromActivity(SocialContainerState state) {
+    return EntityBuilder.buildEntityFromActivity(activity, state.getIdentity(), REST_PATH, expand);
+  }
+
+}
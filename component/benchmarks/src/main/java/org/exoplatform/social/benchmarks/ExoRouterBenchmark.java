@@ -0,0 +1,89 @@
+/*
+ * This file is part of the Meeds project (https://meeds.io/).
+ * Copyright (C) 2022 Meeds Association contact@meeds.io
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package org.exoplatform.social.benchmarks;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import org.exoplatform.social.common.router.ExoRouter;
+import org.exoplatform.social.common.router.ExoRouter.Route;
+
+/**
+ * Measures {@link ExoRouter#route(String)} with the routes declared by social
+ * and forum applications.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ExoRouterBenchmark {
+
+  private static final Map<String, String> ROUTES = new LinkedHashMap<>();
+
+  static {
+    ROUTES.put("activity.show", "/activity/{activityID}");
+    ROUTES.put("activity.stream.owner.show", "/activities/{streamOwnerId}");
+    ROUTES.put("profile.owner.show", "/profile/{streamOwnerId}");
+    ROUTES.put("connections.network.show", "/connections/{relationshipStatus}/{streamOwnerId}");
+    ROUTES.put("forum.home", "/{pageID}/ForumService");
+    ROUTES.put("forum.search", "/{pageID}/SearchForum");
+    ROUTES.put("forum.tag", "/{pageID}/Tag");
+    ROUTES.put("forum.topic.show", "/{pageID}/topic/{topicID}");
+    ROUTES.put("forum.topic.reply", "/{pageID}/topic/{topicID}/reply");
+    ROUTES.put("forum.topic.quote", "/{pageID}/topic/{topicID}/quote");
+    ROUTES.put("forum.topic.post.show", "/{pageID}/topic/{topicID}/post/{postID}");
+    ROUTES.put("forum.topic.page", "/{pageID}/topic/{topicID}/page/{pageNo}");
+    ROUTES.put("space.access", "{spacePrettyName}");
+    ROUTES.put("space.app.access", "{spacePrettyName}/{appName}");
+    ROUTES.put("space.app.page.access", "{spacePrettyName}/{appName}/{<.*>page}");
+  }
+
+  @Param({ "/activity/4437hg2121", "/connections/network/mary", "/forumpage/topic/topic123/page/2", "mary-space/wiki/mypage/my_sub_page" })
+  private String                           path;
+
+  @Setup
+  public void setup() {
+    ExoRouter.reset();
+    ROUTES.forEach((action, routePath) -> ExoRouter.addRoute(routePath, action));
+  }
+
+  @TearDown
+  public void tearDown() {
+    ExoRouter.reset();
+  }
+
+  @Benchmark
+  public Route route() {
+    return ExoRouter.route(path);
+  }
+
+}
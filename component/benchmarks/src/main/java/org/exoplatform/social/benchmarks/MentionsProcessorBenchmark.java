@@ -0,0 +1,84 @@
+/*
+ * This file is part of the Meeds project (https://meeds.io/).
+ * Copyright (C) 2022 Meeds Association contact@meeds.io
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package org.exoplatform.social.benchmarks;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import org.exoplatform.social.core.activity.model.ExoSocialActivity;
+import org.exoplatform.social.core.activity.model.ExoSocialActivityImpl;
+import org.exoplatform.social.core.processor.MentionsProcessor;
+
+/**
+ * Measures {@link MentionsProcessor#processActivity(ExoSocialActivity)} on an
+ * activity mentioning existing and unknown users.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MentionsProcessorBenchmark {
+
+  private static final String TITLE = "Hello @john and @mary, please review the document with @demo";
+
+  private static final String BODY  = "<p>@root shared it with @john, @mary, @unknown.user and @demo</p>";
+
+  private MentionsProcessor   mentionsProcessor;
+
+  @Setup(Level.Trial)
+  public void setup(SocialContainerState state) {
+    mentionsProcessor = state.getService(MentionsProcessor.class);
+  }
+
+  @Setup(Level.Iteration)
+  public void begin(SocialContainerState state) {
+    state.begin();
+  }
+
+  @TearDown(Level.Iteration)
+  public void end(SocialContainerState state) {
+    state.end();
+  }
+
+  @Benchmark
+  public ExoSocialActivity processActivity() {
+    ExoSocialActivity activity = new ExoSocialActivityImpl();
+    activity.setTitle(TITLE);
+    activity.setBody(BODY);
+    Map<String, String> templateParams = new HashMap<>();
+    templateParams.put("comment", TITLE);
+    activity.setTemplateParams(templateParams);
+    mentionsProcessor.processActivity(activity);
+    return activity;
+  }
+
+}
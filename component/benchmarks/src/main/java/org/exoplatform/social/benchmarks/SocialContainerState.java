@@ -0,0 +1,121 @@
+/*
+ * This file is part of the Meeds project (https://meeds.io/).
+ * Copyright (C) 2022 Meeds Association contact@meeds.io
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package org.exoplatform.social.benchmarks;
+
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import org.exoplatform.component.test.ConfigurationUnit;
+import org.exoplatform.component.test.ConfiguredBy;
+import org.exoplatform.component.test.ContainerScope;
+import org.exoplatform.component.test.KernelBootstrap;
+import org.exoplatform.container.ExoContainerContext;
+import org.exoplatform.container.PortalContainer;
+import org.exoplatform.container.component.RequestLifeCycle;
+import org.exoplatform.social.core.activity.model.ExoSocialActivity;
+import org.exoplatform.social.core.activity.model.ExoSocialActivityImpl;
+import org.exoplatform.social.core.identity.model.Identity;
+import org.exoplatform.social.core.identity.provider.OrganizationIdentityProvider;
+import org.exoplatform.social.core.manager.ActivityManager;
+import org.exoplatform.social.core.manager.IdentityManager;
+
+/**
+ * Shared JMH state booting an eXo container with the social core test
+ * configuration, which stores data in an in-memory H2 database.
+ */
+@State(Scope.Benchmark)
+@ConfiguredBy({
+  @ConfigurationUnit(scope = ContainerScope.ROOT, path = "conf/configuration.xml"),
+  @ConfigurationUnit(scope = ContainerScope.ROOT, path = "conf/exo.social.component.core-local-root-configuration.xml"),
+  @ConfigurationUnit(scope = ContainerScope.PORTAL, path = "conf/portal/configuration.xml"),
+  @ConfigurationUnit(scope = ContainerScope.PORTAL, path = "conf/exo.social.component.core-local-configuration.xml"),
+})
+public class SocialContainerState {
+
+  public static final String USERNAME = "root";
+
+  private KernelBootstrap    bootstrap;
+
+  private PortalContainer    container;
+
+  private Identity           identity;
+
+  @Setup(Level.Trial)
+  public void boot() {
+    bootstrap = new KernelBootstrap(Thread.currentThread().getContextClassLoader());
+    bootstrap.addConfiguration(SocialContainerState.class);
+    bootstrap.boot();
+    container = bootstrap.getContainer();
+    ExoContainerContext.setCurrentContainer(container);
+
+    begin();
+    try {
+      identity = getService(IdentityManager.class).getOrCreateIdentity(OrganizationIdentityProvider.NAME, USERNAME);
+    } finally {
+      end();
+    }
+  }
+
+  @TearDown(Level.Trial)
+  public void dispose() {
+    if (bootstrap != null) {
+      bootstrap.dispose();
+      bootstrap = null;
+    }
+  }
+
+  public <T> T getService(Class<T> clazz) {
+    return container.getComponentInstanceOfType(clazz);
+  }
+
+  public Identity getIdentity() {
+    return identity;
+  }
+
+  public void begin() {
+    RequestLifeCycle.begin(container);
+  }
+
+  public void end() {
+    RequestLifeCycle.end();
+  }
+
+  /**
+   * Stores an activity posted by {@link #USERNAME} in its own stream.
+   *
+   * @param title activity title
+   * @param body activity body
+   * @return stored activity
+   */
+  public ExoSocialActivity createActivity(String title, String body) {
+    ExoSocialActivity activity = new ExoSocialActivityImpl();
+    activity.setTitle(title);
+    activity.setBody(body);
+    activity.setUserId(identity.getId());
+    activity.setPosterId(identity.getId());
+    begin();
+    try {
+      getService(ActivityManager.class).saveActivityNoReturn(identity, activity);
+    } finally {
+      end();
+    }
+    return activity;
+  }
+
+}
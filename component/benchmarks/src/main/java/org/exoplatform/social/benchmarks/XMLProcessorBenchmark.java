@@ -0,0 +1,80 @@
+/*
+ * This file is part of the Meeds project (https://meeds.io/).
+ * Copyright (C) 2022 Meeds Association contact@meeds.io
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package org.exoplatform.social.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import org.exoplatform.social.common.xmlprocessor.XMLProcessor;
+import org.exoplatform.social.common.xmlprocessor.XMLProcessorImpl;
+import org.exoplatform.social.common.xmlprocessor.filters.SanitizeFilterPlugin;
+import org.exoplatform.social.common.xmlprocessor.filters.URLConverterFilterPlugin;
+import org.exoplatform.social.common.xmlprocessor.filters.XMLBalancerFilterPlugin;
+
+/**
+ * Measures {@link XMLProcessorImpl#process(Object)} with the filters chain
+ * used to sanitize activities and comments.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class XMLProcessorBenchmark {
+
+  private static final String MESSAGE = "<p>Hello <b>@john</b>, have a look at http://www.example.com/page?id=1&amp;lang=en "
+      + "and <a href=\"https://meeds.io\" onclick=\"alert(1)\">this link</a><br/>"
+      + "<script>alert('xss')</script><img src=\"javascript:alert(2)\"><i>unbalanced <u>tags</p>";
+
+  @Param({ "1", "20" })
+  private int               repeat;
+
+  private XMLProcessor      processor;
+
+  private String            input;
+
+  @Setup
+  public void setup() {
+    processor = new XMLProcessorImpl();
+    processor.addFilterPlugin(new XMLBalancerFilterPlugin());
+    processor.addFilterPlugin(new URLConverterFilterPlugin(-1));
+    processor.addFilterPlugin(new SanitizeFilterPlugin());
+
+    StringBuilder builder = new StringBuilder(MESSAGE.length() * repeat);
+    for (int i = 0; i < repeat; i++) {
+      builder.append(MESSAGE);
+    }
+    input = builder.toString();
+  }
+
+  @Benchmark
+  public Object process() {
+    return processor.process(input);
+  }
+
+}
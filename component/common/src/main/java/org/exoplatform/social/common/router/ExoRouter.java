@@ -19,10 +19,17 @@ package org.exoplatform.social.common.router;
 import java.io.UnsupportedEncodingException;
 import java.net.URLEncoder;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Predicate;
+import java.util.function.UnaryOperator;
 import java.util.regex.Pattern;
 
 import org.exoplatform.services.log.ExoLogger;
@@ -41,9 +48,32 @@ public class ExoRouter implements Startable {
   static ExoPattern defaultRoutePattern = ExoPattern.compile("^({path}.*/[^\\s]*)\\s+({action}[^\\s(]+)({params}.+)?(\\s*)$");
 
   /**
-   * All the loaded routes.
+   * All the loaded routes. Each modification of this list, including the
+   * direct ones, rebuilds the compiled routes.
    */
-  public static List<Route> routes = new CopyOnWriteArrayList<Route>();
+  public static List<Route> routes = new RoutesList();
+
+  /**
+   * Maximum number of URLs kept by the {@link #reverse(String, Map)} cache.
+   */
+  private static final int REVERSE_CACHE_SIZE = 1000;
+
+  /**
+   * Compiled routes, rebuilt each time the routes are modified.
+   */
+  private static volatile RouteTrie routeTrie = new RouteTrie(routes);
+
+  /**
+   * LRU cache of the URLs built by {@link #reverse(String, Map)}.
+   */
+  private static final Map<ReverseKey, ReverseData> reverseCache = Collections.synchronizedMap(new LinkedHashMap<ReverseKey, ReverseData>(16, 0.75f, true) {
+    private static final long serialVersionUID = -3286512389716367207L;
+
+    @Override
+    protected boolean removeEldestEntry(Map.Entry<ReverseKey, ReverseData> eldest) {
+      return size() > REVERSE_CACHE_SIZE;
+    }
+  });
 
   public static void reset() {
     routes.clear();
@@ -120,16 +150,16 @@ public class ExoRouter implements Startable {
     routes.add(0, getRoute(path, action));
   }
 
+  /**
+   * Finds the first route matching the given path.
+   *
+   * @param path URI path
+   * @return a new {@link Route} instance for each call, holding in
+   *         {@link Route#localArgs} the arguments extracted from the path, or
+   *         null if no route matches
+   */
   public static Route route(String path) {
-    for (Route route : routes) {
-      Map<String, String> args = route.matches(path);
-      if (args != null) {
-        route.localArgs = args;
-        return route;
-      }
-    }
-
-    return null;
+    return getRouteTrie().route(path);
   }
 
   /**
@@ -141,6 +171,32 @@ public class ExoRouter implements Startable {
    * @return
    */
   public static ActionBuilder reverse(String action, Map<String, Object> args) {
+    RouteTrie trie = getRouteTrie();
+    ReverseKey reverseKey = new ReverseKey(action, args);
+    ReverseData reverseData = reverseCache.get(reverseKey);
+    if (reverseData == null) {
+      Map<String, Object> argsbackup = new HashMap<String, Object>(args);
+      ActionBuilder actionBuilder = buildReverse(action, args, trie.getRoutes());
+      if (actionBuilder != null) {
+        // Keep the route args added by the route action pattern to add them on
+        // next calls
+        Map<String, Object> actionArgs = new HashMap<String, Object>(args);
+        actionArgs.keySet().removeAll(argsbackup.keySet());
+        reverseCache.put(reverseKey, new ReverseData(actionBuilder.url, actionArgs));
+      }
+      return actionBuilder;
+    } else {
+      Map<String, Object> argsbackup = new HashMap<String, Object>(args);
+      args.putAll(reverseData.actionArgs);
+      ActionBuilder actionDefinition = new ActionBuilder();
+      actionDefinition.url = reverseData.url;
+      actionDefinition.action = action;
+      actionDefinition.args = argsbackup;
+      return actionDefinition;
+    }
+  }
+
+  private static ActionBuilder buildReverse(String action, Map<String, Object> args, List<Route> routes) {
     Map<String, Object> argsbackup = new HashMap<String, Object>(args);
     // Add routeArgs
     for (Route route : routes) {
@@ -210,6 +266,122 @@ public class ExoRouter implements Startable {
     return null;
   }
 
+  private static RouteTrie getRouteTrie() {
+    return routeTrie;
+  }
+
+  private static synchronized void routesChanged() {
+    routeTrie = new RouteTrie(routes);
+    reverseCache.clear();
+  }
+
+  /**
+   * Routes list rebuilding the compiled routes after each modification.
+   */
+  private static class RoutesList extends CopyOnWriteArrayList<Route> {
+    private static final long serialVersionUID = 2529573850427357442L;
+
+    @Override
+    public Route set(int index, Route element) {
+      Route previous = super.set(index, element);
+      routesChanged();
+      return previous;
+    }
+
+    @Override
+    public boolean add(Route e) {
+      super.add(e);
+      routesChanged();
+      return true;
+    }
+
+    @Override
+    public void add(int index, Route element) {
+      super.add(index, element);
+      routesChanged();
+    }
+
+    @Override
+    public Route remove(int index) {
+      Route removed = super.remove(index);
+      routesChanged();
+      return removed;
+    }
+
+    @Override
+    public boolean remove(Object o) {
+      return changed(super.remove(o));
+    }
+
+    @Override
+    public boolean addIfAbsent(Route e) {
+      return changed(super.addIfAbsent(e));
+    }
+
+    @Override
+    public boolean removeAll(Collection<?> c) {
+      return changed(super.removeAll(c));
+    }
+
+    @Override
+    public boolean retainAll(Collection<?> c) {
+      return changed(super.retainAll(c));
+    }
+
+    @Override
+    public int addAllAbsent(Collection<? extends Route> c) {
+      int added = super.addAllAbsent(c);
+      changed(added > 0);
+      return added;
+    }
+
+    @Override
+    public void clear() {
+      super.clear();
+      routesChanged();
+    }
+
+    @Override
+    public boolean addAll(Collection<? extends Route> c) {
+      return changed(super.addAll(c));
+    }
+
+    @Override
+    public boolean addAll(int index, Collection<? extends Route> c) {
+      return changed(super.addAll(index, c));
+    }
+
+    @Override
+    public boolean removeIf(Predicate<? super Route> filter) {
+      return changed(super.removeIf(filter));
+    }
+
+    @Override
+    public void replaceAll(UnaryOperator<Route> operator) {
+      super.replaceAll(operator);
+      routesChanged();
+    }
+
+    @Override
+    public void sort(Comparator<? super Route> c) {
+      super.sort(c);
+      routesChanged();
+    }
+
+    @Override
+    public List<Route> subList(int fromIndex, int toIndex) {
+      // modifications of a sub list wouldn't go through this list
+      return Collections.unmodifiableList(super.subList(fromIndex, toIndex));
+    }
+
+    private boolean changed(boolean changed) {
+      if (changed) {
+        routesChanged();
+      }
+      return changed;
+    }
+  }
+
   public static class ActionBuilder {
     public String url;
 
@@ -270,6 +442,10 @@ public class ExoRouter implements Startable {
 
     Map<String, String> staticArgs = new HashMap<String, String>(3);
 
+    /**
+     * Arguments extracted from the path, only set on the routes returned by
+     * {@link ExoRouter#route(String)}
+     */
     public Map<String, String> localArgs = null;
 
     public int routesFileLine;
@@ -347,6 +523,28 @@ public class ExoRouter implements Startable {
       return null;
     }
 
+    /**
+     * Creates a copy of this route holding the arguments extracted from a
+     * path, so that the compiled route is never modified by a request.
+     *
+     * @param pathArgs arguments extracted from a path
+     * @return a new route sharing the compiled patterns of this one
+     */
+    Route withLocalArgs(Map<String, String> pathArgs) {
+      Route route = new Route();
+      route.path = path;
+      route.action = action;
+      route.actionPattern = actionPattern;
+      route.actionArgs = actionArgs;
+      route.pattern = pattern;
+      route.routesFile = routesFile;
+      route.args = args;
+      route.staticArgs = staticArgs;
+      route.routesFileLine = routesFileLine;
+      route.localArgs = Collections.unmodifiableMap(pathArgs);
+      return route;
+    }
+
     static class ParamArg {
       String name;
 
@@ -356,6 +554,47 @@ public class ExoRouter implements Startable {
     }
   }
 
+  private static class ReverseKey {
+
+    private final String              action;
+
+    private final Map<String, Object> args;
+
+    private ReverseKey(String action, Map<String, Object> args) {
+      this.action = action;
+      this.args = new HashMap<String, Object>(args);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (!(o instanceof ReverseKey)) {
+        return false;
+      }
+      ReverseKey that = (ReverseKey) o;
+      return Objects.equals(action, that.action) && Objects.equals(args, that.args);
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(action, args);
+    }
+  }
+
+  private static class ReverseData {
+
+    private final String              url;
+
+    private final Map<String, Object> actionArgs;
+
+    private ReverseData(String url, Map<String, Object> actionArgs) {
+      this.url = url;
+      this.actionArgs = actionArgs;
+    }
+  }
+
   @Override
   public void start() {
     
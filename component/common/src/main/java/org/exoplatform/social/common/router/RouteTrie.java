@@ -0,0 +1,127 @@
+/*
+ * Copyright (C) 2003-2022 eXo Platform SAS.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.exoplatform.social.common.router;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.regex.Pattern;
+
+import org.exoplatform.social.common.router.ExoRouter.Route;
+
+/**
+ * Immutable segment trie of the routes of {@link ExoRouter}, built each time
+ * the routes are modified and read without locking.<br>
+ * Routes are indexed by the segments of their path: static segments are looked
+ * up by name, segments with simple parameters such as {@code {pageID}} are
+ * followed whatever the segment value, and routes with a custom regex
+ * parameter, which may span several segments, are kept as leaves of the last
+ * static segment. The trie only selects candidate routes, the first candidate
+ * in routes order that matches the whole path is returned, as would do a
+ * sequential scan of the routes.
+ */
+class RouteTrie {
+
+  private static final Pattern STATIC_SEGMENT = Pattern.compile("[\\w\\-~%@,;=!']*");
+
+  private static final Pattern PARAM_SEGMENT  = Pattern.compile("([\\w\\-~%@,;=!']|\\{[a-zA-Z_][a-zA-Z_0-9]*\\})+");
+
+  private final List<Route>    routes;
+
+  private final TrieNode       root           = new TrieNode();
+
+  RouteTrie(List<Route> routes) {
+    this.routes = Collections.unmodifiableList(new ArrayList<>(routes));
+    for (int i = 0; i < this.routes.size(); i++) {
+      add(i, this.routes.get(i));
+    }
+  }
+
+  List<Route> getRoutes() {
+    return routes;
+  }
+
+  /**
+   * Finds the first route matching the path.
+   *
+   * @param path URI path
+   * @return a new {@link Route} holding the arguments extracted from the path,
+   *         or null if no route matches
+   */
+  Route route(String path) {
+    TreeMap<Integer, Route> candidates = new TreeMap<>();
+    collect(root, path.split("/", -1), 0, candidates);
+    for (Route route : candidates.values()) {
+      Map<String, String> args = route.matches(path);
+      if (args != null) {
+        return route.withLocalArgs(args);
+      }
+    }
+    return null;
+  }
+
+  private void add(int index, Route route) {
+    TrieNode node = root;
+    for (String segment : route.path.split("/", -1)) {
+      if (STATIC_SEGMENT.matcher(segment).matches()) {
+        node = node.staticChildren.computeIfAbsent(segment, key -> new TrieNode());
+      } else if (PARAM_SEGMENT.matcher(segment).matches()) {
+        if (node.paramChild == null) {
+          node.paramChild = new TrieNode();
+        }
+        node = node.paramChild;
+      } else {
+        node.regexRoutes.put(index, route);
+        return;
+      }
+    }
+    node.routes.put(index, route);
+  }
+
+  private void collect(TrieNode node, String[] segments, int position, Map<Integer, Route> candidates) {
+    candidates.putAll(node.regexRoutes);
+    if (position == segments.length) {
+      candidates.putAll(node.routes);
+      return;
+    }
+    TrieNode staticChild = node.staticChildren.get(segments[position]);
+    if (staticChild != null) {
+      collect(staticChild, segments, position + 1, candidates);
+    }
+    if (node.paramChild != null) {
+      collect(node.paramChild, segments, position + 1, candidates);
+    }
+  }
+
+  private static class TrieNode {
+
+    private final Map<String, TrieNode> staticChildren = new HashMap<>();
+
+    private TrieNode                    paramChild;
+
+    /** Routes ending at this node, by index in routes order */
+    private final Map<Integer, Route>   routes         = new HashMap<>();
+
+    /** Routes continuing with a custom regex, by index in routes order */
+    private final Map<Integer, Route>   regexRoutes    = new HashMap<>();
+
+  }
+
+}
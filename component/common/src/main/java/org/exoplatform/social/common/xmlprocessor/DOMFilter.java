@@ -0,0 +1,61 @@
+/*
+ * Copyright (C) 2003-2022 eXo Platform SAS.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.exoplatform.social.common.xmlprocessor;
+
+import org.exoplatform.social.common.xmlprocessor.model.Node;
+
+/**
+ * A {@link Filter} able to work on the DOM tree of the input. When consecutive
+ * filters of a {@link XMLProcessor} chain are DOM filters, the input is parsed
+ * once by the first one, then the same tree is passed through the next ones
+ * and serialized once at the end of the chain.
+ *
+ * @since 6.5.0
+ */
+public interface DOMFilter extends Filter {
+
+  /**
+   * Parses the input to the DOM tree expected by this filter.
+   *
+   * @param xmlString the input to parse
+   * @return the root Node of the DOM tree
+   */
+  default Node parseDOMTree(String xmlString) {
+    return DOMParser.createDOMTree(Tokenizer.tokenize(xmlString));
+  }
+
+  /**
+   * Filters the DOM tree, which was parsed by this filter or by a previous
+   * filter of the chain.
+   *
+   * @param rootNode the root Node of the DOM tree
+   * @return the root Node of the filtered DOM tree
+   */
+  Node filterDOMTree(Node rootNode);
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  default Object doFilter(Object input) {
+    if (input instanceof String) {
+      return filterDOMTree(parseDOMTree((String) input)).toString();
+    }
+    return input;
+  }
+}
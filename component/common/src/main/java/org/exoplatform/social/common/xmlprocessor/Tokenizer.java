@@ -35,52 +35,36 @@ public class Tokenizer {
   public static List<String> tokenize(String html) {
     ArrayList<String> tokens = new ArrayList<String>();
     int pos = 0;
-    String token = "";
+    // start index of the current text token, -1 when no text is pending
+    int textStart = -1;
     int len = html.length();
     while (pos < len) {
       char c = html.charAt(pos);
 
-      String ahead = html.substring(pos, pos > len - 4 ? len : pos + 4);
+      // a comment or a new "<" token is starting
+      if ('<' == c) {
 
-      // a comment is starting
-      if ("<!--".equals(ahead)) {
         // store the current token
-        if (token.length() > 0) {
-          tokens.add(token);
+        if (textStart > -1) {
+          tokens.add(html.substring(textStart, pos));
+          textStart = -1;
         }
 
-        // clear the token
-        token = "";
-
-        // search the end of <......>
-        int end = moveToMarkerEnd(pos, "-->", html);
-        tokens.add(html.substring(pos, end));
-        pos = end;
-
-        // a new "<" token is starting
-      } else if ('<' == c) {
-
-        // store the current token
-        if (token.length() > 0) {
-          tokens.add(token);
-        }
-
-        // clear the token
-        token = "";
-
-        // search the end of <......>
-        int end = moveToMarkerEnd(pos, ">", html);
+        // search the end of <!--......--> or <......>
+        int end = html.startsWith("<!--", pos) ? moveToMarkerEnd(pos, "-->", html) : moveToMarkerEnd(pos, ">", html);
         tokens.add(html.substring(pos, end));
         pos = end;
 
       } else {
-        token = token + c;
+        if (textStart == -1) {
+          textStart = pos;
+        }
         pos++;
       }
 
     }
-    if (token.length() > 0) {
-      tokens.add(token);
+    if (textStart > -1) {
+      tokens.add(html.substring(textStart, len));
     }
     return tokens;
   }
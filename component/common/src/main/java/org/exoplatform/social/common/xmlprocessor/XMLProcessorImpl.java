@@ -21,6 +21,7 @@ import java.util.LinkedList;
 
 import org.exoplatform.services.log.ExoLogger;
 import org.exoplatform.services.log.Log;
+import org.exoplatform.social.common.xmlprocessor.model.Node;
 
 /**
  * Implementation of {@link XMLProcessor}.
@@ -75,15 +76,33 @@ public class XMLProcessorImpl implements XMLProcessor {
 
   /**
    * {@inheritDoc}
+   * Consecutive {@link DOMFilter}s share the same DOM tree: the input is parsed
+   * once by the first one and serialized once after the last one.
    */
   public Object process(Object input) {
     if (input == null) return input;
+    Node rootNode = null;
     for (Iterator<Filter> filterIterator = filters.iterator();
          filterIterator.hasNext();
          ) {
       Filter filter = filterIterator.next();
-      input = filter.doFilter(input);
+      if (filter instanceof DOMFilter && (rootNode != null || input instanceof String)) {
+        DOMFilter domFilter = (DOMFilter) filter;
+        if (rootNode == null) {
+          rootNode = domFilter.parseDOMTree((String) input);
+        } else {
+          // adjacent text nodes would have been merged by a new parsing
+          rootNode.mergeTextNodes();
+        }
+        rootNode = domFilter.filterDOMTree(rootNode);
+      } else {
+        if (rootNode != null) {
+          input = rootNode.toString();
+          rootNode = null;
+        }
+        input = filter.doFilter(input);
+      }
     }
-    return input;
+    return rootNode == null ? input : rootNode.toString();
   }
 }
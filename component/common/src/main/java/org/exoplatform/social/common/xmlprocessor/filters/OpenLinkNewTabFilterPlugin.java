@@ -21,12 +21,10 @@ package org.exoplatform.social.common.xmlprocessor.filters;
 
 import org.exoplatform.commons.utils.CommonsUtils;
 import org.exoplatform.social.common.xmlprocessor.BaseXMLFilterPlugin;
-import org.exoplatform.social.common.xmlprocessor.DOMParser;
-import org.exoplatform.social.common.xmlprocessor.Tokenizer;
+import org.exoplatform.social.common.xmlprocessor.DOMFilter;
 import org.exoplatform.social.common.xmlprocessor.model.Node;
 
 import java.util.LinkedList;
-import java.util.List;
 
 /**
  * This OpenLinkNewTabFilterPlugin is a plugin for XMLProcessor which will force all links have to be open in new tab.
@@ -37,22 +35,17 @@ import java.util.List;
  *
  * @author <a href="mailto:tuyennt@exoplatform.com">Tuyen Nguyen The</a>.
  */
-public class OpenLinkNewTabFilterPlugin extends BaseXMLFilterPlugin {
+public class OpenLinkNewTabFilterPlugin extends BaseXMLFilterPlugin implements DOMFilter {
 
   public static final String TARGET = "target";
-  @Override
-  public Object doFilter(Object input) {
-    if (input instanceof String) {
-      return filterLinkTags((String)input);
-    }
-    return input;
-  }
 
-  private String filterLinkTags(String xmlString){
-    List<String> xmlTokens = Tokenizer.tokenize(xmlString);
-    Node rootNode = DOMParser.createDOMTree(xmlTokens);
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public Node filterDOMTree(Node rootNode) {
     nodeFilter(rootNode);
-    return rootNode.toString();
+    return rootNode;
   }
 
   private void nodeFilter(Node currentNode) {
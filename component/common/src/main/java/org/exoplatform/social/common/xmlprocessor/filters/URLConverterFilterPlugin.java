@@ -18,7 +18,6 @@
 package org.exoplatform.social.common.xmlprocessor.filters;
 
 import java.util.LinkedList;
-import java.util.List;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -27,8 +26,7 @@ import org.exoplatform.container.xml.InitParams;
 import org.exoplatform.services.log.ExoLogger;
 import org.exoplatform.services.log.Log;
 import org.exoplatform.social.common.xmlprocessor.BaseXMLFilterPlugin;
-import org.exoplatform.social.common.xmlprocessor.DOMParser;
-import org.exoplatform.social.common.xmlprocessor.Tokenizer;
+import org.exoplatform.social.common.xmlprocessor.DOMFilter;
 import org.exoplatform.social.common.xmlprocessor.model.Attributes;
 import org.exoplatform.social.common.xmlprocessor.model.Node;
 
@@ -42,7 +40,7 @@ import org.exoplatform.social.common.xmlprocessor.model.Node;
  * @author Ly Minh Phuong - http://phuonglm.net
  * @since 1.2.2
  */
-public class URLConverterFilterPlugin extends BaseXMLFilterPlugin {
+public class URLConverterFilterPlugin extends BaseXMLFilterPlugin implements DOMFilter {
   private int urlMaxLength = -1;
   private static final Log LOG = ExoLogger.getLogger(URLConverterFilterPlugin.class);
 
@@ -90,13 +88,11 @@ public class URLConverterFilterPlugin extends BaseXMLFilterPlugin {
    * {@inheritDoc}
    */
   @Override
-  public Object doFilter(Object input) {
-    if(input instanceof String){
-      return convertURL((String) input);
-    } else {
-      return input;
-    }
+  public Node filterDOMTree(Node rootNode) {
+    nodeFilter(rootNode);
+    return rootNode;
   }
+
   /**
    * Gets max length of URL, if {@literal url.length > urlMaxLength and urlMaxLength >= 3} then the url display will be shorten
    * @return
@@ -113,13 +109,6 @@ public class URLConverterFilterPlugin extends BaseXMLFilterPlugin {
     this.urlMaxLength = urlMaxLength;
   }
 
-  private String convertURL(String xmlString){
-    List<String> xmlTokens = Tokenizer.tokenize(xmlString);
-    Node rootNode = DOMParser.createDOMTree(xmlTokens);
-    nodeFilter(rootNode);
-    return rootNode.toString();
-  }
-
   private int nodeFilter(Node currentNode) {
     LinkedList<Node> currentChildNode = currentNode.getChildNodes();
     if (currentNode.getTitle().isEmpty()) {
@@ -16,11 +16,14 @@
  */
 package org.exoplatform.social.common.xmlprocessor.filters;
 
+import java.util.LinkedList;
 import java.util.List;
 import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
 import org.apache.commons.lang3.StringEscapeUtils;
 import org.exoplatform.social.common.xmlprocessor.BaseXMLFilterPlugin;
+import org.exoplatform.social.common.xmlprocessor.DOMFilter;
 import org.exoplatform.social.common.xmlprocessor.DOMParser;
 import org.exoplatform.social.common.xmlprocessor.Tokenizer;
 import org.exoplatform.social.common.xmlprocessor.model.Node;
@@ -30,16 +33,24 @@ import org.exoplatform.social.common.xmlprocessor.model.Node;
  *
  * @author Ly Minh Phuong - http://phuonglm.net
  */
-public class XMLBalancerFilterPlugin extends BaseXMLFilterPlugin {
+public class XMLBalancerFilterPlugin extends BaseXMLFilterPlugin implements DOMFilter {
+  private static final Pattern TAGTITLEPATTERN = Pattern.compile("\\w+");
+
   /**
    * {@inheritDoc}
+   * The tree may have been parsed by another filter which doesn't balance
+   * tags: its element nodes are moved to a balanced tree, while its text
+   * nodes, which hold the unbalanced tags, are tokenized again.
    */
   @Override
-  public Object doFilter(Object input) {
-    if (input instanceof String) {
-      input = createDOMTree((String) input).toString();
+  public Node filterDOMTree(Node rootNode) {
+    LinkedList<Node> childNodes = rootNode.getChildNodes();
+    rootNode.setChildNodes(new LinkedList<Node>());
+    Node currentNode = rootNode;
+    for (Node childNode : childNodes) {
+      currentNode = balanceNode(currentNode, childNode);
     }
-    return input;
+    return rootNode;
   }
 
   /**
@@ -48,69 +59,105 @@ public class XMLBalancerFilterPlugin extends BaseXMLFilterPlugin {
    * @param xmlString
    * @return
    */
-  private Node createDOMTree(String xmlString) {
+  @Override
+  public Node parseDOMTree(String xmlString) {
     Node rootNode = new Node();
-    Node parsingNode = rootNode;
     Node currentNode = rootNode;
 
     List<String> xmlTokens = Tokenizer.tokenize(xmlString);
 
     for (String token : xmlTokens) {
-      Matcher startMatcher = DOMParser.TAGSTARTPATTERN.matcher(token);
-      Matcher endMatcher = DOMParser.TAGCLOSEPATTERN.matcher(token);
+      currentNode = balanceToken(currentNode, token);
+    }
+    return rootNode;
+  }
 
-      if (DOMParser.COMMENTPATTERN.matcher(token).find()) {
-        parsingNode = new Node();
-        parsingNode.setParentNode(currentNode);
-        currentNode.addChildNode(parsingNode);
-        parsingNode.setTitle(token);
-      } else if (startMatcher.find()) {
-        String tag = startMatcher.group(1).toLowerCase();
+  private Node balanceNode(Node currentNode, Node node) {
+    if (node.isTextNode()) {
+      for (String token : Tokenizer.tokenize(node.getContent())) {
+        currentNode = balanceToken(currentNode, token);
+      }
+    } else if (!TAGTITLEPATTERN.matcher(node.getTitle()).matches()) {
+      // comments and nodes which wouldn't be parsed back as a tag
+      for (String token : Tokenizer.tokenize(node.toString())) {
+        currentNode = balanceToken(currentNode, token);
+      }
+    } else {
+      boolean selfClosed = node.isSelfClosedNode();
+      LinkedList<Node> childNodes = node.getChildNodes();
+      node.setChildNodes(new LinkedList<Node>());
+      node.setParentNode(currentNode);
+      currentNode.addChildNode(node);
+      if (!selfClosed) {
+        currentNode = node;
+        for (Node childNode : childNodes) {
+          currentNode = balanceNode(currentNode, childNode);
+        }
+        currentNode = closeNode(currentNode, node.getTitle(), "</" + node.getTitle() + ">");
+      }
+    }
+    return currentNode;
+  }
 
-        parsingNode = new Node();
-        parsingNode.setParentNode(currentNode);
-        parsingNode.setTitle(tag);
+  private Node balanceToken(Node currentNode, String token) {
+    Node parsingNode;
+    Matcher startMatcher = DOMParser.TAGSTARTPATTERN.matcher(token);
+    Matcher endMatcher = DOMParser.TAGCLOSEPATTERN.matcher(token);
 
-        String tokenBody = startMatcher.group(2);
+    if (DOMParser.COMMENTPATTERN.matcher(token).find()) {
+      parsingNode = new Node();
+      parsingNode.setParentNode(currentNode);
+      currentNode.addChildNode(parsingNode);
+      parsingNode.setTitle(token);
+    } else if (startMatcher.find()) {
+      String tag = startMatcher.group(1).toLowerCase();
 
-        Matcher attributes = DOMParser.ATTRIBUTESPATTERN.matcher(tokenBody);
+      parsingNode = new Node();
+      parsingNode.setParentNode(currentNode);
+      parsingNode.setTitle(tag);
 
-        while (attributes.find()) {
-          String attr = attributes.group(1).toLowerCase();
-          String val = attributes.group(4) == null ? attributes.group(3) : attributes.group(4);
-          parsingNode.addAttribute(attr, val);
-        }
-        currentNode.addChildNode(parsingNode);
-        if (!DOMParser.SELFTCLOSETAGPATTERN.matcher(token).find()) {
-          currentNode = parsingNode;
-        }
-      } else if (endMatcher.find()) {
-        String tag = endMatcher.group(1).toLowerCase();
-        Node searchOpenedNode = currentNode;
-        while (!searchOpenedNode.getTitle().equals(tag)
-                && !(searchOpenedNode.getParentNode() == null)) {
-          searchOpenedNode = searchOpenedNode.getParentNode();
-        }
-        if (searchOpenedNode.getParentNode() == null) {
-          Node invalidNode = new Node();
-          invalidNode.setContent(StringEscapeUtils.escapeHtml4(token));
-          currentNode.addChildNode(invalidNode);
-        } else if (searchOpenedNode.getTitle().equals(currentNode.getTitle())) {
-          currentNode = currentNode.getParentNode();
-        } else {
-          currentNode = searchOpenedNode.getParentNode();
-        }
+      String tokenBody = startMatcher.group(2);
 
-      } else {
-        parsingNode = new Node();
-        parsingNode.setParentNode(currentNode);
-        // make sure the content part which was escaped before don't be escaped again
-        String content = StringEscapeUtils.unescapeHtml4(token);
-        parsingNode.setContent(StringEscapeUtils.escapeHtml4(content));
+      Matcher attributes = DOMParser.ATTRIBUTESPATTERN.matcher(tokenBody);
 
-        currentNode.addChildNode(parsingNode);
+      while (attributes.find()) {
+        String attr = attributes.group(1).toLowerCase();
+        String val = attributes.group(4) == null ? attributes.group(3) : attributes.group(4);
+        parsingNode.addAttribute(attr, val);
+      }
+      currentNode.addChildNode(parsingNode);
+      if (!DOMParser.SELFTCLOSETAGPATTERN.matcher(token).find()) {
+        currentNode = parsingNode;
       }
+    } else if (endMatcher.find()) {
+      currentNode = closeNode(currentNode, endMatcher.group(1).toLowerCase(), token);
+    } else {
+      parsingNode = new Node();
+      parsingNode.setParentNode(currentNode);
+      // make sure the content part which was escaped before don't be escaped again
+      String content = StringEscapeUtils.unescapeHtml4(token);
+      parsingNode.setContent(StringEscapeUtils.escapeHtml4(content));
+
+      currentNode.addChildNode(parsingNode);
     }
-    return rootNode;
+    return currentNode;
+  }
+
+  private Node closeNode(Node currentNode, String tag, String token) {
+    Node searchOpenedNode = currentNode;
+    while (!searchOpenedNode.getTitle().equals(tag)
+            && !(searchOpenedNode.getParentNode() == null)) {
+      searchOpenedNode = searchOpenedNode.getParentNode();
+    }
+    if (searchOpenedNode.getParentNode() == null) {
+      Node invalidNode = new Node();
+      invalidNode.setContent(StringEscapeUtils.escapeHtml4(token));
+      currentNode.addChildNode(invalidNode);
+    } else if (searchOpenedNode.getTitle().equals(currentNode.getTitle())) {
+      currentNode = currentNode.getParentNode();
+    } else {
+      currentNode = searchOpenedNode.getParentNode();
+    }
+    return currentNode;
   }
 }
@@ -16,6 +16,7 @@
  */
 package org.exoplatform.social.common.xmlprocessor.model;
 
+import java.util.Iterator;
 import java.util.LinkedList;
 
 /**
@@ -195,31 +196,57 @@ public class Node {
    */
   @Override
   public String toString() {
-    StringBuilder xmlString = new StringBuilder("");
+    StringBuilder xmlString = new StringBuilder();
+    appendTo(xmlString);
+    return xmlString.toString();
+  }
 
+  /**
+   * Appends the XML String of this Node, including all sub-Node, to the given
+   * builder, so that the whole tree is serialized in one buffer.
+   *
+   * @param xmlString the builder to append to
+   */
+  public void appendTo(StringBuilder xmlString) {
     if (isTextNode()) {
       xmlString.append(this.content);
     } else {
+      boolean selfClosed = isSelfClosedNode();
       if (this.parentNode != null) {
-
-        xmlString.append("<" + this.title);
-
+        xmlString.append('<').append(this.title);
         xmlString.append(attributes.toString());
-
-        if (isSelfClosedNode()) {
+        if (selfClosed) {
           xmlString.append(" /");
         }
-        xmlString.append(">");
+        xmlString.append('>');
       }
       for (Node childNode : childNodes) {
-        xmlString.append(childNode.toString());
+        childNode.appendTo(xmlString);
+      }
+      if (this.parentNode != null && !selfClosed) {
+        xmlString.append("</").append(this.title).append('>');
       }
+    }
+  }
 
-      if (this.parentNode != null && !isSelfClosedNode()) {
-        xmlString.append("</" + this.title + ">");
+  /**
+   * Merges the adjacent text child nodes of this Node and of all its sub-Node,
+   * as it would be the case if the tree was serialized then parsed again.
+   *
+   * @since 6.5.0
+   */
+  public void mergeTextNodes() {
+    Node previousNode = null;
+    for (Iterator<Node> iterator = childNodes.iterator(); iterator.hasNext();) {
+      Node childNode = iterator.next();
+      if (childNode.isTextNode() && previousNode != null && previousNode.isTextNode()) {
+        previousNode.setContent(previousNode.getContent() + childNode.getContent());
+        iterator.remove();
+      } else {
+        childNode.mergeTextNodes();
+        previousNode = childNode;
       }
     }
-    return xmlString.toString();
   }
 
   /**
@@ -121,4 +121,17 @@ public class ExoRouterReserveTest extends AbstractCommonTest {
     assertNotNull(builder);
     assertEquals("/12345/topic/topic987654321/page/3", builder.toString());
   }
-}
\ No newline at end of file
+
+  public void testReserveTwiceWithSameArgs() throws Exception {
+    for (int i = 0; i < 2; i++) {
+      Map<String, Object> args = new HashMap<String, Object>();
+      args.put("pageID", "12345");
+      args.put("topicID", "topic987654321");
+      args.put("lang", "en");
+      ActionBuilder builder = ExoRouter.reverse("forum.topic.show", args);
+      assertNotNull(builder);
+      assertEquals("/12345/topic/topic987654321?lang=en", builder.toString());
+      assertEquals(3, builder.args.size());
+    }
+  }
+}
@@ -224,6 +224,48 @@ public class ExoRouterTest extends AbstractCommonTest {
     }});
   }
   
+  public void testRouterReturnsNewRouteForEachMatch() throws Exception {
+    Route johnRoute = ExoRouter.route("/profile/john");
+    Route maryRoute = ExoRouter.route("/profile/mary");
+
+    assertNotSame(johnRoute, maryRoute);
+    assertEquals("john", johnRoute.localArgs.get("streamOwnerId"));
+    assertEquals("mary", maryRoute.localArgs.get("streamOwnerId"));
+    try {
+      johnRoute.localArgs.put("streamOwnerId", "root");
+      fail("Route arguments shouldn't be modifiable");
+    } catch (UnsupportedOperationException e) {
+      // Expected
+    }
+  }
+
+  public void testRouterForAddedRoute() throws Exception {
+    assertNull(ExoRouter.route("/added/route/12"));
+    ExoRouter.prependRoute("/added/route/{<[0-9]+>id}", "added.route");
+    try {
+      assertRouter(ExoRouter.route("/added/route/12"), "added.route", new HashMap<String,String>(){{
+        put("id","12");
+      }});
+      assertNull(ExoRouter.route("/added/route/twelve"));
+    } finally {
+      ExoRouter.routes.removeIf(route -> "added.route".equals(route.action));
+    }
+    assertNull(ExoRouter.route("/added/route/12"));
+  }
+
+  public void testRouterForReplacedRoute() throws Exception {
+    ExoRouter.prependRoute("/replaced/route/{<[0-9]+>id}", "replaced.route");
+    try {
+      assertNotNull(ExoRouter.route("/replaced/route/12"));
+      ExoRouter.routes.set(0, ExoRouter.getRoute("/replaced/other/{<[0-9]+>id}", "replaced.route"));
+      assertNull(ExoRouter.route("/replaced/route/12"));
+      assertNotNull(ExoRouter.route("/replaced/other/12"));
+    } finally {
+      ExoRouter.routes.removeIf(route -> "replaced.route".equals(route.action));
+    }
+    assertNull(ExoRouter.route("/replaced/other/12"));
+  }
+
   private void assertRouter(Route route, String actionName, Map<String, String> expectedArgs) {
     assertNotNull(route);
     assertEquals(actionName, route.action);
@@ -57,6 +57,19 @@ public class TokenizerTest extends TestCase {
     assertEquals("<a href='hello'>", result.get(0));
     assertEquals(" a ", result.get(1));
     assertEquals("</a>", result.get(2));
+
+    result = Tokenizer.tokenize("a<!-- <b> -->b<br/>c");
+    assertEquals(5, result.size());
+    assertEquals("a", result.get(0));
+    assertEquals("<!-- <b> -->", result.get(1));
+    assertEquals("b", result.get(2));
+    assertEquals("<br/>", result.get(3));
+    assertEquals("c", result.get(4));
+
+    result = Tokenizer.tokenize("text <unclosed");
+    assertEquals(2, result.size());
+    assertEquals("text ", result.get(0));
+    assertEquals("<unclosed", result.get(1));
   }
 
 }
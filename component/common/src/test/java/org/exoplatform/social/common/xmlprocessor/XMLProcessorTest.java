@@ -22,6 +22,9 @@ import java.util.List;
 
 import org.exoplatform.container.PortalContainer;
 import org.exoplatform.social.common.AbstractCommonTest;
+import org.exoplatform.social.common.xmlprocessor.filters.OpenLinkNewTabFilterPlugin;
+import org.exoplatform.social.common.xmlprocessor.filters.URLConverterFilterPlugin;
+import org.exoplatform.social.common.xmlprocessor.filters.XMLBalancerFilterPlugin;
 
 /**
  * Unit Test for {@link XMLProcessor}.
@@ -130,6 +133,39 @@ public class XMLProcessorTest extends AbstractCommonTest {
     assertEquals("test-test2", (String) processedText);
   }
 
+  public void testShouldApplyDOMFiltersOnSameTreeAsSequentialFilters() {
+    // Given
+    XMLProcessor processor = new XMLProcessorImpl();
+    processor.addFilterPlugin(new XMLBalancerFilterPlugin());
+    processor.addFilterPlugin(new URLConverterFilterPlugin(-1));
+    processor.addFilterPlugin(new OpenLinkNewTabFilterPlugin());
+    String input = "<p>see http://www.example.com and</b> <a href=\"https://meeds.io\">link</a> <i>unclosed</p>";
+
+    // When
+    Object processedText = processor.process(input);
+
+    // Then
+    Object expectedText = input;
+    expectedText = new XMLBalancerFilterPlugin().doFilter(expectedText);
+    expectedText = new URLConverterFilterPlugin(-1).doFilter(expectedText);
+    expectedText = new OpenLinkNewTabFilterPlugin().doFilter(expectedText);
+    assertEquals(expectedText, processedText);
+  }
+
+  public void testShouldSerializeDOMTreeBeforeStringFilter() {
+    // Given
+    XMLProcessor processor = new XMLProcessorImpl();
+    processor.addFilterPlugin(new XMLBalancerFilterPlugin());
+    processor.addFilterPlugin(new Test1FilterPlugin());
+    processor.addFilterPlugin(new URLConverterFilterPlugin(-1));
+
+    // When
+    Object processedText = processor.process("<b>test www.example.com");
+
+    // Then
+    assertEquals("<b>test <a href=\"http://www.example.com\" target=\"_blank\">www.example.com</a></b>-test1", processedText);
+  }
+
   class Test1FilterPlugin extends BaseXMLFilterPlugin {
     @Override
     public Object doFilter(Object input) {
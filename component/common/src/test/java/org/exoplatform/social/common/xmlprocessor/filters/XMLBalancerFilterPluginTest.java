@@ -16,7 +16,9 @@
  */
 package org.exoplatform.social.common.xmlprocessor.filters;
 
+import org.exoplatform.social.common.xmlprocessor.DOMParser;
 import org.exoplatform.social.common.xmlprocessor.Filter;
+import org.exoplatform.social.common.xmlprocessor.Tokenizer;
 
 import junit.framework.TestCase;
 
@@ -46,4 +48,14 @@ public class XMLBalancerFilterPluginTest extends TestCase {
     assertEquals("3 &lt; 5 &gt;",
             balancer.doFilter("3 < 5 >"));
   }
+
+  public void testFilterDOMTreeParsedByAnotherFilter() {
+    XMLBalancerFilterPlugin balancer = new XMLBalancerFilterPlugin();
+    String[] inputs = new String[] { "hello 1", "<a href=\"http://\">hello2</a>", "<b><i> hello 3</b> hello 4</i>",
+        "<b> hello 5 <br   /></b>", "<b> hello 6 <br /><b>", "3 < 5 >", "<p><b>hello 7</p> <i>hello 8</i></b>" };
+    for (String input : inputs) {
+      assertEquals(balancer.doFilter(input),
+                   balancer.filterDOMTree(DOMParser.createDOMTree(Tokenizer.tokenize(input))).toString());
+    }
+  }
 }
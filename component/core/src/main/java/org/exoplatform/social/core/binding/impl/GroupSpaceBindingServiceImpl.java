@@ -20,7 +20,11 @@ package org.exoplatform.social.core.binding.impl;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Date;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 import org.apache.commons.lang.ArrayUtils;
 
@@ -28,6 +32,7 @@ import org.exoplatform.commons.utils.ListAccess;
 import org.exoplatform.container.PortalContainer;
 import org.exoplatform.container.component.ComponentRequestLifecycle;
 import org.exoplatform.container.xml.InitParams;
+import org.exoplatform.container.xml.ValueParam;
 import org.exoplatform.services.log.ExoLogger;
 import org.exoplatform.services.log.Log;
 import org.exoplatform.services.organization.OrganizationService;
@@ -49,13 +54,21 @@ public class GroupSpaceBindingServiceImpl implements GroupSpaceBindingService {
 
   private static final int         USERS_TO_BIND_PAGE_SIZE = 20;
 
+  private static final String      BATCH_MODE_PARAM        = "batch-mode";
+
+  private static final String      BATCH_SIZE_PARAM        = "batch-size";
+
+  private static final int         DEFAULT_BATCH_SIZE      = 500;
+
   private GroupSpaceBindingStorage groupSpaceBindingStorage;
 
   private OrganizationService      organizationService;
 
   private SpaceService             spaceService;
 
-  private static Boolean           requestStarted          = false;
+  private boolean                  batchMode;
+
+  private int                      batchSize               = DEFAULT_BATCH_SIZE;
 
   /**
    * GroupSpaceBindingServiceImpl constructor Initialize
@@ -71,6 +84,14 @@ public class GroupSpaceBindingServiceImpl implements GroupSpaceBindingService {
     this.groupSpaceBindingStorage = groupSpaceBindingStorage;
     this.organizationService = organizationService;
     this.spaceService = spaceService;
+    if (params != null) {
+      ValueParam batchModeParam = params.getValueParam(BATCH_MODE_PARAM);
+      this.batchMode = batchModeParam != null && Boolean.parseBoolean(batchModeParam.getValue());
+      ValueParam batchSizeParam = params.getValueParam(BATCH_SIZE_PARAM);
+      if (batchSizeParam != null && Integer.parseInt(batchSizeParam.getValue()) > 0) {
+        this.batchSize = Integer.parseInt(batchSizeParam.getValue());
+      }
+    }
   }
 
   /**
@@ -354,33 +375,37 @@ public class GroupSpaceBindingServiceImpl implements GroupSpaceBindingService {
         bindingReportAddAction=groupSpaceBindingStorage.saveGroupSpaceBindingReport(report);
       }
      
-      do {
-        long startBunchTime = System.currentTimeMillis();
-        toBind = totalGroupMembersSize - offset;
-        limit = toBind < USERS_TO_BIND_PAGE_SIZE ? (int) toBind : USERS_TO_BIND_PAGE_SIZE;
-        users = Arrays.asList(groupMembersAccess.load(offset, limit));
-        count = users.size();
-        int currentCount = offset;
-        for (User user : users) {
-          currentCount++;
-          startRequest();
-          long startTimeUser = System.currentTimeMillis();
-
-          String userId = user.getUserName();
-          saveUserBinding(userId, groupSpaceBinding, space, bindingReportAddAction);
-
-          long endTimeUser = System.currentTimeMillis();
-          long totalTimeUser = endTimeUser - startTimeUser;
-          LOG.debug("Time to treat user " + userId + " (" + currentCount + "/" + totalGroupMembersSize + ") : " + totalTimeUser
-              + " ms");
-          endRequest();
-        }
-        offset += count;
-        LOG.info("Binding process: Bound Users({})", offset);
-        long endBunchTime = System.currentTimeMillis();
-        long totalBunchTime = endBunchTime - startBunchTime;
-        LOG.info("Time to treat " + count + " (" + offset + "/" + totalGroupMembersSize + ") users : " + totalBunchTime + " ms");
-      } while (offset < totalGroupMembersSize);
+      if (batchMode) {
+        bindUsersByBatch(groupSpaceBinding, space, groupMembersAccess, totalGroupMembersSize, bindingReportAddAction);
+      } else {
+        do {
+          long startBunchTime = System.currentTimeMillis();
+          toBind = totalGroupMembersSize - offset;
+          limit = toBind < USERS_TO_BIND_PAGE_SIZE ? (int) toBind : USERS_TO_BIND_PAGE_SIZE;
+          users = Arrays.asList(groupMembersAccess.load(offset, limit));
+          count = users.size();
+          int currentCount = offset;
+          for (User user : users) {
+            currentCount++;
+            boolean started = startRequest();
+            long startTimeUser = System.currentTimeMillis();
+
+            String userId = user.getUserName();
+            saveUserBinding(userId, groupSpaceBinding, space, bindingReportAddAction);
+
+            long endTimeUser = System.currentTimeMillis();
+            long totalTimeUser = endTimeUser - startTimeUser;
+            LOG.debug("Time to treat user " + userId + " (" + currentCount + "/" + totalGroupMembersSize + ") : " + totalTimeUser
+                + " ms");
+            endRequest(started);
+          }
+          offset += count;
+          LOG.info("Binding process: Bound Users({})", offset);
+          long endBunchTime = System.currentTimeMillis();
+          long totalBunchTime = endBunchTime - startBunchTime;
+          LOG.info("Time to treat " + count + " (" + offset + "/" + totalGroupMembersSize + ") users : " + totalBunchTime + " ms");
+        } while (offset < totalGroupMembersSize);
+      }
       // Finally save the end date for the bindingReportAction.
       bindingReportAddAction.setEndDate(new Date());
       groupSpaceBindingStorage.updateGroupSpaceBindingReportAction(bindingReportAddAction);
@@ -412,6 +437,101 @@ public class GroupSpaceBindingServiceImpl implements GroupSpaceBindingService {
              totalTime);
   }
 
+  /**
+   * Binds the group members by chunks of {@link #batchSize} users: the existing
+   * bindings of the chunk users are retrieved using a single query, the users
+   * already bound by this binding are skipped and the new user bindings and
+   * reports are inserted together, before adding the users to the space. The number of processed group members is
+   * saved in the report action after each chunk, so that an interrupted binding
+   * resumes from the last processed chunk.
+   */
+  private void bindUsersByBatch(GroupSpaceBinding groupSpaceBinding,
+                                Space space,
+                                ListAccess<User> groupMembersAccess,
+                                int totalGroupMembersSize,
+                                GroupSpaceBindingReportAction bindingReportAddAction) throws Exception {
+    int offset = bindingReportAddAction.getEndDate() == null ? bindingReportAddAction.getProcessedUsers() : 0;
+    if (offset > 0 && offset < totalGroupMembersSize) {
+      LOG.info("Resuming binding of group {} to space {} from user {}/{}",
+               groupSpaceBinding.getGroup(),
+               space.getPrettyName(),
+               offset,
+               totalGroupMembersSize);
+    } else {
+      offset = 0;
+    }
+    Set<String> spaceMembers = new HashSet<>(Arrays.asList(space.getMembers() == null ? new String[0] : space.getMembers()));
+    while (offset < totalGroupMembersSize) {
+      long startBunchTime = System.currentTimeMillis();
+      int limit = Math.min(totalGroupMembersSize - offset, batchSize);
+      boolean started = startRequest();
+      try {
+        User[] users = groupMembersAccess.load(offset, limit);
+        if (users.length == 0) {
+          break;
+        }
+        List<String> userIds = Arrays.stream(users).map(User::getUserName).collect(Collectors.toList());
+        Map<String, List<UserSpaceBinding>> existingBindings =
+                                                             groupSpaceBindingStorage.findUserSpaceBindingsBySpaceAndUsers(space.getId(),
+                                                                                                                           userIds)
+                                                                                     .stream()
+                                                                                     .collect(Collectors.groupingBy(UserSpaceBinding::getUser));
+        List<UserSpaceBinding> userSpaceBindings = new ArrayList<>();
+        List<GroupSpaceBindingReportUser> reportUsers = new ArrayList<>();
+        List<String> usersToAdd = new ArrayList<>();
+        for (String userId : userIds) {
+          List<UserSpaceBinding> userBindings = existingBindings.get(userId);
+          boolean isMemberBefore;
+          if (userBindings == null) {
+            isMemberBefore = spaceMembers.contains(userId);
+          } else if (userBindings.stream().anyMatch(binding -> binding.getGroupBinding().getId() == groupSpaceBinding.getId())) {
+            // Already bound by this binding in a previous execution, which may
+            // have been interrupted before adding the user to the space
+            if (!spaceMembers.contains(userId)) {
+              usersToAdd.add(userId);
+            }
+            continue;
+          } else {
+            isMemberBefore = userBindings.stream().anyMatch(UserSpaceBinding::isMemberBefore);
+          }
+          UserSpaceBinding userSpaceBinding = new UserSpaceBinding(userId, groupSpaceBinding);
+          userSpaceBinding.setIsMemberBefore(isMemberBefore);
+          userSpaceBindings.add(userSpaceBinding);
+
+          GroupSpaceBindingReportUser reportUser = new GroupSpaceBindingReportUser(bindingReportAddAction,
+                                                                                   userId,
+                                                                                   GroupSpaceBindingReportUser.ACTION_ADD_USER);
+          reportUser.setWasPresentBefore(isMemberBefore);
+          reportUsers.add(reportUser);
+
+          if (!spaceMembers.contains(userId)) {
+            usersToAdd.add(userId);
+          }
+        }
+        // Save the bindings before adding the users to the space, so that the
+        // users added by an interrupted execution are never seen as members
+        // before the binding when resuming
+        groupSpaceBindingStorage.saveUserBindings(userSpaceBindings);
+        groupSpaceBindingStorage.saveGroupSpaceBindingReportUsers(reportUsers);
+        for (String userId : usersToAdd) {
+          spaceService.addMember(space, userId);
+          spaceMembers.add(userId);
+        }
+
+        offset += users.length;
+        bindingReportAddAction.setProcessedUsers(offset);
+        groupSpaceBindingStorage.updateGroupSpaceBindingReportAction(bindingReportAddAction);
+      } finally {
+        endRequest(started);
+      }
+      LOG.info("Time to treat {} ({}/{}) users : {} ms",
+               limit,
+               offset,
+               totalGroupMembersSize,
+               System.currentTimeMillis() - startBunchTime);
+    }
+  }
+
   public boolean isUserBoundAndMemberBefore(String spaceId, String userId) {
     return groupSpaceBindingStorage.isUserBoundAndMemberBefore(spaceId, userId);
   }
@@ -426,21 +546,21 @@ public class GroupSpaceBindingServiceImpl implements GroupSpaceBindingService {
     groupSpaceBindingStorage.deleteGroupBindingQueue(bindingQueue.getId());
   }
 
-  private void endRequest() {
-    if (requestStarted && organizationService instanceof ComponentRequestLifecycle) {
+  private boolean startRequest() {
+    if (organizationService instanceof ComponentRequestLifecycle) {
+      ((ComponentRequestLifecycle) organizationService).startRequest(PortalContainer.getInstance());
+      return true;
+    }
+    return false;
+  }
+
+  private void endRequest(boolean started) {
+    if (started) {
       try {
         ((ComponentRequestLifecycle) organizationService).endRequest(PortalContainer.getInstance());
       } catch (Exception e) {
         LOG.warn(e.getMessage(), e);
       }
-      requestStarted = false;
-    }
-  }
-
-  private void startRequest() {
-    if (organizationService instanceof ComponentRequestLifecycle) {
-      ((ComponentRequestLifecycle) organizationService).startRequest(PortalContainer.getInstance());
-      requestStarted = true;
     }
   }
 
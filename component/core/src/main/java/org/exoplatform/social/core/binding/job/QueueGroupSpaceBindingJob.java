@@ -16,7 +16,22 @@
  */
 package org.exoplatform.social.core.binding.job;
 
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.apache.commons.lang3.StringUtils;
+
 import org.exoplatform.commons.utils.CommonsUtils;
+import org.exoplatform.commons.utils.PropertyManager;
+import org.exoplatform.container.ExoContainer;
+import org.exoplatform.container.ExoContainerContext;
+import org.exoplatform.container.component.RequestLifeCycle;
 import org.exoplatform.social.core.binding.model.GroupSpaceBinding;
 import org.exoplatform.social.core.binding.model.GroupSpaceBindingQueue;
 import org.exoplatform.social.core.binding.spi.GroupSpaceBindingService;
@@ -32,38 +47,43 @@ import org.exoplatform.services.log.Log;
 public class QueueGroupSpaceBindingJob implements Job {
   private static final Log         LOG = ExoLogger.getLogger(QueueGroupSpaceBindingJob.class);
 
+  /**
+   * Number of threads used to process the queue entries of distinct spaces
+   * concurrently. The entries of a same space are always processed in order.
+   */
+  public static final String       WORKERS_PROPERTY_NAME = "exo.social.groupSpaceBinding.workers";
+
   private GroupSpaceBindingService groupSpaceBindingService;
 
+  public QueueGroupSpaceBindingJob() {
+  }
+
+  QueueGroupSpaceBindingJob(GroupSpaceBindingService groupSpaceBindingService) {
+    this.groupSpaceBindingService = groupSpaceBindingService;
+  }
+
   @Override
   public void execute(JobExecutionContext context) throws JobExecutionException {
-    groupSpaceBindingService = CommonsUtils.getService(GroupSpaceBindingService.class);
+    if (groupSpaceBindingService == null) {
+      groupSpaceBindingService = CommonsUtils.getService(GroupSpaceBindingService.class);
+    }
     LOG.info("Start treating GroupSpaceBinding queue");
+    int workers = getWorkers();
+    if (workers > 1) {
+      processQueueConcurrently(workers);
+    } else {
+      processQueue();
+    }
+    LOG.info("End treating GroupSpaceBinding queue");
+  }
+
+  private void processQueue() {
     GroupSpaceBindingQueue firstBindingQueue = null;
     do {
       try {
         firstBindingQueue = groupSpaceBindingService.findFirstGroupSpaceBindingQueue();
         if (firstBindingQueue != null) {
-          // Get first binding from groupSpaceBindingQueue.
-          GroupSpaceBinding firstBindingInBindingQueue = firstBindingQueue.getGroupSpaceBinding();
-          String queueAction = firstBindingQueue.getAction();
-          // Switch the bindingQueue action we proceed.
-          if (queueAction.equals(GroupSpaceBindingQueue.ACTION_CREATE)) {
-            LOG.info("Proceeding binding between space with ID: {} and group: {}",
-                     firstBindingInBindingQueue.getSpaceId(),
-                     firstBindingInBindingQueue.getGroup());
-            // Bind users to space.
-            groupSpaceBindingService.bindUsersFromGroupSpaceBinding(firstBindingInBindingQueue);
-
-            // If totally proceeded remove it from groupSpaceBindingQueue.
-            groupSpaceBindingService.deleteFromBindingQueue(firstBindingQueue);
-          } else {
-            LOG.info("Proceeding removing binding between space with ID: {} and group: {}",
-                     firstBindingInBindingQueue.getSpaceId(),
-                     firstBindingInBindingQueue.getGroup());
-            // Remove users from space except members before or which has over bindings.
-            // Once the binding deleted it will be removed from groupSpaceBindingQueue.
-            groupSpaceBindingService.deleteGroupSpaceBinding(firstBindingInBindingQueue);
-          }
+          processQueueEntry(firstBindingQueue);
         }
       } catch (Exception e) {
         LOG.error("Failed to treat GroupSpaceBinding queue", e);
@@ -72,7 +92,97 @@ public class QueueGroupSpaceBindingJob implements Job {
         break;
       }
     } while (firstBindingQueue != null);
-    LOG.info("End treating GroupSpaceBinding queue");
+  }
+
+  /**
+   * Processes the queue entries of distinct spaces concurrently, the entries of
+   * each space being processed sequentially in their queue order. The queue is
+   * read again once all entries are processed, to treat entries added
+   * meanwhile.
+   */
+  private void processQueueConcurrently(int workers) {
+    ExoContainer container = ExoContainerContext.getCurrentContainer();
+    List<GroupSpaceBindingQueue> bindingQueues = getBindingQueues();
+    while (!bindingQueues.isEmpty()) {
+      Map<String, List<GroupSpaceBindingQueue>> bindingQueuesBySpace = new LinkedHashMap<>();
+      for (GroupSpaceBindingQueue bindingQueue : bindingQueues) {
+        bindingQueuesBySpace.computeIfAbsent(bindingQueue.getGroupSpaceBinding().getSpaceId(), key -> new ArrayList<>())
+                            .add(bindingQueue);
+      }
+      ExecutorService executorService = Executors.newFixedThreadPool(Math.min(workers, bindingQueuesBySpace.size()));
+      boolean failed = false;
+      try {
+        List<Future<Boolean>> futures = new ArrayList<>();
+        for (List<GroupSpaceBindingQueue> spaceBindingQueues : bindingQueuesBySpace.values()) {
+          futures.add(executorService.submit(() -> processSpaceQueueEntries(container, spaceBindingQueues)));
+        }
+        for (Future<Boolean> future : futures) {
+          failed |= !future.get();
+        }
+      } catch (Exception e) {
+        LOG.error("Failed to treat GroupSpaceBinding queue", e);
+        failed = true;
+      } finally {
+        executorService.shutdown();
+      }
+      if (failed) {
+        // Stop to not loop continually on the same error
+        break;
+      }
+      bindingQueues = getBindingQueues();
+    }
+  }
+
+  private boolean processSpaceQueueEntries(ExoContainer container, List<GroupSpaceBindingQueue> bindingQueues) {
+    ExoContainerContext.setCurrentContainer(container);
+    for (GroupSpaceBindingQueue bindingQueue : bindingQueues) {
+      RequestLifeCycle.begin(container);
+      try {
+        processQueueEntry(bindingQueue);
+      } catch (Exception e) {
+        LOG.error("Failed to treat GroupSpaceBinding queue entry {}", bindingQueue.getId(), e);
+        // Stop treating the space entries to preserve their order
+        return false;
+      } finally {
+        RequestLifeCycle.end();
+      }
+    }
+    return true;
+  }
+
+  private void processQueueEntry(GroupSpaceBindingQueue bindingQueue) {
+    // Get first binding from groupSpaceBindingQueue.
+    GroupSpaceBinding firstBindingInBindingQueue = bindingQueue.getGroupSpaceBinding();
+    String queueAction = bindingQueue.getAction();
+    // Switch the bindingQueue action we proceed.
+    if (queueAction.equals(GroupSpaceBindingQueue.ACTION_CREATE)) {
+      LOG.info("Proceeding binding between space with ID: {} and group: {}",
+               firstBindingInBindingQueue.getSpaceId(),
+               firstBindingInBindingQueue.getGroup());
+      // Bind users to space.
+      groupSpaceBindingService.bindUsersFromGroupSpaceBinding(firstBindingInBindingQueue);
+
+      // If totally proceeded remove it from groupSpaceBindingQueue.
+      groupSpaceBindingService.deleteFromBindingQueue(bindingQueue);
+    } else {
+      LOG.info("Proceeding removing binding between space with ID: {} and group: {}",
+               firstBindingInBindingQueue.getSpaceId(),
+               firstBindingInBindingQueue.getGroup());
+      // Remove users from space except members before or which has over bindings.
+      // Once the binding deleted it will be removed from groupSpaceBindingQueue.
+      groupSpaceBindingService.deleteGroupSpaceBinding(firstBindingInBindingQueue);
+    }
+  }
+
+  private List<GroupSpaceBindingQueue> getBindingQueues() {
+    List<GroupSpaceBindingQueue> bindingQueues = new ArrayList<>(groupSpaceBindingService.getAllFromBindingQueue());
+    bindingQueues.sort(Comparator.comparingLong(GroupSpaceBindingQueue::getId));
+    return bindingQueues;
+  }
+
+  private int getWorkers() {
+    String workers = PropertyManager.getProperty(WORKERS_PROPERTY_NAME);
+    return StringUtils.isNumeric(workers) ? Integer.parseInt(workers) : 1;
   }
 
 }
@@ -23,11 +23,18 @@ import org.exoplatform.services.log.Log;
 import org.exoplatform.social.core.model.AvatarAttachment;
 
 import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
 import java.awt.*;
 import java.awt.image.BufferedImage;
-import java.io.File;
-import java.io.FileInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
 
 /**
  * @author tuan_nguyenxuan Oct 29, 2010
@@ -102,55 +109,148 @@ public class ImageUtils {
       LOG.warn("Fail to resize image to avatar attachment with dimension <= 0");
       return null;
     }
+    List<AvatarAttachment> avatarAttachments = createResizedAvatarAttachments(imageStream,
+                                                                              Collections.singletonList(new int[] { maxWidth,
+                                                                                  maxHeight }),
+                                                                              avatarId,
+                                                                              avatarFileName,
+                                                                              avatarMimeType,
+                                                                              avatarWorkspace);
+    return avatarAttachments.isEmpty() ? null : avatarAttachments.get(0);
+  }
+
+  /**
+   * Resizes an image to several maximum dimensions by decoding it once. Large
+   * images are decoded with a subsampling that keeps at least twice the
+   * largest target dimensions, so that the full resolution image isn't loaded
+   * in memory.
+   *
+   * @param imageStream
+   * @param maxDimensions list of maximum width and height couples
+   * @param avatarId
+   * @param avatarFileName
+   * @param avatarMimeType
+   * @param avatarWorkspace
+   * @return new AvatarAtachments, in the order of the given dimensions, or an
+   *         empty list if the image can't be resized
+   */
+  public static List<AvatarAttachment> createResizedAvatarAttachments(InputStream imageStream,
+                                                                      List<int[]> maxDimensions,
+                                                                      String avatarId,
+                                                                      String avatarFileName,
+                                                                      String avatarMimeType,
+                                                                      String avatarWorkspace) {
+    if (maxDimensions == null || maxDimensions.isEmpty()) {
+      return Collections.emptyList();
+    }
+    for (int[] maxDimension : maxDimensions) {
+      if (maxDimension[0] <= 0 || maxDimension[1] <= 0) {
+        LOG.warn("Fail to resize image to avatar attachment with dimension <= 0");
+        return Collections.emptyList();
+      }
+    }
 
-    try {
+    try (ImageInputStream imageInputStream = ImageIO.createImageInputStream(imageStream)) {
       MimeTypeResolver mimeTypeResolver = new MimeTypeResolver();
       String extension = mimeTypeResolver.getExtension(avatarMimeType);
-      // TODO: Resize gif image. Now we skip gif because we can't resize it now
-      if (extension.equalsIgnoreCase(GIF_EXTENDSION)) {
-        return null;
+
+      Iterator<ImageReader> readers = imageInputStream == null ? null : ImageIO.getImageReaders(imageInputStream);
+      if (readers == null || !readers.hasNext()) {
+        LOG.warn("Fail to resize image to avatar attachment: unsupported image format");
+        return Collections.emptyList();
+      }
+      ImageReader reader = readers.next();
+      BufferedImage image;
+      int imageWidth;
+      int imageHeight;
+      long startTime = System.currentTimeMillis();
+      try {
+        boolean gif = extension.equalsIgnoreCase(GIF_EXTENDSION);
+        // Counting the frames of a gif needs to seek backward in the stream
+        reader.setInput(imageInputStream, !gif, true);
+        // Resizing only the first frame would break animated gifs
+        if (gif && reader.getNumImages(true) > 1) {
+          return Collections.emptyList();
+        }
+        imageWidth = reader.getWidth(0);
+        imageHeight = reader.getHeight(0);
+        ImageReadParam readParam = reader.getDefaultReadParam();
+        int subsampling = getSubsampling(imageWidth, imageHeight, maxDimensions);
+        if (subsampling > 1) {
+          readParam.setSourceSubsampling(subsampling, subsampling, 0, 0);
+        }
+        image = reader.read(0, readParam);
+      } finally {
+        reader.dispose();
       }
+      long decodeTime = System.currentTimeMillis() - startTime;
 
-      BufferedImage image = ImageIO.read(imageStream);
+      startTime = System.currentTimeMillis();
+      boolean keepAlpha = image.getColorModel().hasAlpha() && !isJpeg(extension);
+      List<AvatarAttachment> avatarAttachments = new ArrayList<>(maxDimensions.size());
+      ReusableByteArrayOutputStream outputStream = ReusableByteArrayOutputStream.get();
+      for (int[] maxDimension : maxDimensions) {
+        int[] targetDimension = getTargetDimension(imageWidth, imageHeight, maxDimension[0], maxDimension[1]);
+        BufferedImage resizedImage = resizeImage(image, targetDimension[0], targetDimension[1], keepAlpha);
+        outputStream.reset();
+        ImageIO.write(resizedImage, extension, outputStream);
+        // The attachment copies the bytes, so the buffer can be reused
+        avatarAttachments.add(new AvatarAttachment(avatarId,
+                                                   avatarFileName,
+                                                   avatarMimeType,
+                                                   outputStream.toInputStream(),
+                                                   System.currentTimeMillis()));
+      }
+      outputStream.release();
+      LOG.debug("image {} of {}x{} resized to {} dimensions decode_ms={} encode_ms={}",
+                avatarFileName,
+                imageWidth,
+                imageHeight,
+                maxDimensions.size(),
+                decodeTime,
+                System.currentTimeMillis() - startTime);
+      return avatarAttachments;
+    } catch (Exception e) {
+      LOG.error("Fail to resize image to avatar attachment: " + e);
+      return Collections.emptyList();
+    }
+  }
 
-      int targetHeight = image.getHeight();
-      int targetWidth = image.getWidth();
+  private static int getSubsampling(int imageWidth, int imageHeight, List<int[]> maxDimensions) {
+    int maxWidth = 0;
+    int maxHeight = 0;
+    for (int[] maxDimension : maxDimensions) {
+      maxWidth = Math.max(maxWidth, maxDimension[0]);
+      maxHeight = Math.max(maxHeight, maxDimension[1]);
+    }
+    return Math.max(1, Math.min(imageWidth / (2 * maxWidth), imageHeight / (2 * maxHeight)));
+  }
 
-      double maxDimensionsRatio =  (double) maxHeight / (double) maxWidth;
-      double imageRatio =  (double) image.getHeight() / (double) image.getWidth();
+  private static int[] getTargetDimension(int imageWidth, int imageHeight, int maxWidth, int maxHeight) {
+    int targetHeight = imageHeight;
+    int targetWidth = imageWidth;
 
-      if(imageRatio > maxDimensionsRatio && image.getHeight() > maxHeight) {
-        targetHeight = maxHeight;
-        targetWidth = (maxHeight * image.getWidth()) / image.getHeight();
-      } else if(imageRatio < maxDimensionsRatio && image.getWidth() > maxWidth) {
-        targetHeight = (maxWidth * image.getHeight()) / image.getWidth();
-        targetWidth = maxWidth;
-      }
+    double maxDimensionsRatio =  (double) maxHeight / (double) maxWidth;
+    double imageRatio =  (double) imageHeight / (double) imageWidth;
 
-      // Create temp file to store resized image to put to avatar attachment
-      File tmp = File.createTempFile("RESIZED", null);
-      image = resizeImage(image, targetWidth, targetHeight);
-
-      ImageIO.write(image, extension, tmp);
-      
-      // Create new avatar attachment
-      AvatarAttachment newAvatarAttachment = new AvatarAttachment(avatarId,
-                                                                  avatarFileName,
-                                                                  avatarMimeType,
-                                                                  new FileInputStream(tmp),
-                                                                  System.currentTimeMillis());
-
-      // Delete temp file
-      tmp.delete();
-      return newAvatarAttachment;
-    } catch (Exception e) {
-      LOG.error("Fail to resize image to avatar attachment: " + e);
-      return null;
+    if(imageRatio > maxDimensionsRatio && imageHeight > maxHeight) {
+      targetHeight = maxHeight;
+      targetWidth = (maxHeight * imageWidth) / imageHeight;
+    } else if(imageRatio < maxDimensionsRatio && imageWidth > maxWidth) {
+      targetHeight = (maxWidth * imageHeight) / imageWidth;
+      targetWidth = maxWidth;
     }
+    return new int[] { Math.max(1, targetWidth), Math.max(1, targetHeight) };
   }
 
-  private static BufferedImage resizeImage(BufferedImage image, int width, int height) {
-    final BufferedImage bufferedImage = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+  private static boolean isJpeg(String extension) {
+    return "jpg".equalsIgnoreCase(extension) || "jpeg".equalsIgnoreCase(extension);
+  }
+
+  private static BufferedImage resizeImage(BufferedImage image, int width, int height, boolean keepAlpha) {
+    final BufferedImage bufferedImage = new BufferedImage(width,
+                                                          height,
+                                                          keepAlpha ? BufferedImage.TYPE_INT_ARGB : BufferedImage.TYPE_INT_RGB);
     final Graphics2D graphics2D = bufferedImage.createGraphics();
     graphics2D.setComposite(AlphaComposite.Src);
     //below three lines are for RenderingHints for better image quality
@@ -161,4 +261,43 @@ public class ImageUtils {
     graphics2D.dispose();
     return bufferedImage;
   }
-}
\ No newline at end of file
+
+  /**
+   * Encoding buffer reused by the resizes of a thread
+   */
+  private static final class ReusableByteArrayOutputStream extends ByteArrayOutputStream {
+
+    private static final int                                          MAX_POOLED_SIZE = 1024 * 1024;
+
+    private static final ThreadLocal<ReusableByteArrayOutputStream> POOL            = new ThreadLocal<>();
+
+    private ReusableByteArrayOutputStream() {
+      super(64 * 1024);
+    }
+
+    private static ReusableByteArrayOutputStream get() {
+      ReusableByteArrayOutputStream outputStream = POOL.get();
+      if (outputStream == null) {
+        outputStream = new ReusableByteArrayOutputStream();
+      } else {
+        POOL.remove();
+      }
+      return outputStream;
+    }
+
+    /**
+     * @return a stream reading the written bytes without copying them
+     */
+    private InputStream toInputStream() {
+      return new ByteArrayInputStream(buf, 0, count);
+    }
+
+    private void release() {
+      // Don't keep large buffers for the lifetime of the thread
+      if (buf.length <= MAX_POOLED_SIZE) {
+        reset();
+        POOL.set(this);
+      }
+    }
+  }
+}
@@ -22,8 +22,15 @@ import java.util.stream.Collectors;
 
 import org.apache.commons.collections.CollectionUtils;
 import org.apache.commons.lang.StringUtils;
+import org.json.simple.JSONArray;
+import org.json.simple.JSONObject;
+import org.json.simple.parser.JSONParser;
+import org.json.simple.parser.ParseException;
 
 import org.exoplatform.commons.search.domain.Document;
+import org.exoplatform.commons.search.es.ElasticSearchException;
+import org.exoplatform.commons.search.es.client.ElasticIndexingClient;
+import org.exoplatform.commons.search.es.client.ElasticSearchingClient;
 import org.exoplatform.commons.search.index.impl.ElasticIndexingServiceConnector;
 import org.exoplatform.container.xml.InitParams;
 import org.exoplatform.services.log.ExoLogger;
@@ -47,6 +54,21 @@ public class ProfileIndexingServiceConnector extends ElasticIndexingServiceConne
 
   private static final Log      LOG  = ExoLogger.getLogger(ProfileIndexingServiceConnector.class);
 
+  /** Painless script adding params.connection to the indexed connections */
+  private static final String   ADD_CONNECTION_SCRIPT    = "if (ctx._source.connections == null) {"
+      + " ctx._source.connections = [params.connection];"
+      + " } else if (ctx._source.connections.stream().anyMatch(id -> id == params.connection)) {"
+      + " ctx.op = 'noop';"
+      + " } else {"
+      + " ctx._source.connections.add(params.connection);"
+      + " }";
+
+  /** Painless script removing params.connection from the indexed connections */
+  private static final String   REMOVE_CONNECTION_SCRIPT = "if (ctx._source.connections == null"
+      + " || !ctx._source.connections.removeIf(id -> id == params.connection)) {"
+      + " ctx.op = 'noop';"
+      + " }";
+
   private final IdentityManager identityManager;
 
   private final ConnectionDAO   connectionDAO;
@@ -55,16 +77,24 @@ public class ProfileIndexingServiceConnector extends ElasticIndexingServiceConne
 
   private final ProfilePropertyService profilePropertyService;
 
+  private final ElasticIndexingClient  indexingClient;
+
+  private final ElasticSearchingClient searchingClient;
+
   public ProfileIndexingServiceConnector(InitParams initParams,
                                          IdentityManager identityManager,
                                          IdentityDAO identityDAO,
                                          ConnectionDAO connectionDAO,
-                                         ProfilePropertyService profilePropertyService) {
+                                         ProfilePropertyService profilePropertyService,
+                                         ElasticIndexingClient indexingClient,
+                                         ElasticSearchingClient searchingClient) {
     super(initParams);
     this.identityManager = identityManager;
     this.identityDAO = identityDAO;
     this.connectionDAO = connectionDAO;
     this.profilePropertyService = profilePropertyService;
+    this.indexingClient = indexingClient;
+    this.searchingClient = searchingClient;
   }
 
   @Override
@@ -82,6 +112,89 @@ public class ProfileIndexingServiceConnector extends ElasticIndexingServiceConne
     return TYPE;
   }
 
+  /**
+   * Adds a confirmed connection to the indexed connections of two profiles
+   * with scripted updates, instead of rebuilding both documents.
+   *
+   * @param identityId identity id of the first profile
+   * @param connectionId identity id of the second profile
+   * @return identity ids of the profiles not updated because their document
+   *         isn't indexed, to reindex
+   */
+  public List<String> addConnection(String identityId, String connectionId) {
+    return updateConnections(identityId, connectionId, ADD_CONNECTION_SCRIPT);
+  }
+
+  /**
+   * Removes a connection from the indexed connections of two profiles with
+   * scripted updates, instead of rebuilding both documents.
+   *
+   * @param identityId identity id of the first profile
+   * @param connectionId identity id of the second profile
+   * @return identity ids of the profiles not updated because their document
+   *         isn't indexed, to reindex
+   */
+  public List<String> removeConnection(String identityId, String connectionId) {
+    return updateConnections(identityId, connectionId, REMOVE_CONNECTION_SCRIPT);
+  }
+
+  private List<String> updateConnections(String identityId, String connectionId, String script) {
+    // The bulk request only logs the failed items, so a missing document has to
+    // be detected before sending it
+    List<String> indexedIds = getIndexedIds(identityId, connectionId);
+    List<String> notUpdatedIds = new ArrayList<>();
+    StringBuilder bulkRequest = new StringBuilder();
+    if (indexedIds.contains(identityId)) {
+      appendConnectionUpdate(bulkRequest, identityId, connectionId, script);
+    } else {
+      notUpdatedIds.add(identityId);
+    }
+    if (indexedIds.contains(connectionId)) {
+      appendConnectionUpdate(bulkRequest, connectionId, identityId, script);
+    } else {
+      notUpdatedIds.add(connectionId);
+    }
+    if (bulkRequest.length() > 0) {
+      indexingClient.sendCUDRequest(bulkRequest.toString());
+    }
+    return notUpdatedIds;
+  }
+
+  private List<String> getIndexedIds(String... ids) {
+    String esQuery = "{\"_source\":false,\"size\":" + ids.length + ",\"query\":{\"ids\":{\"values\":[\""
+        + StringUtils.join(ids, "\",\"") + "\"]}}}";
+    String jsonResponse = searchingClient.sendRequest(esQuery, getIndexAlias());
+    Map<?, ?> json;
+    try {
+      json = (Map<?, ?>) new JSONParser().parse(jsonResponse);
+    } catch (ParseException e) {
+      throw new ElasticSearchException("Unable to parse JSON response", e);
+    }
+    List<String> indexedIds = new ArrayList<>();
+    JSONObject jsonResult = (JSONObject) json.get("hits");
+    if (jsonResult != null && jsonResult.get("hits") != null) {
+      for (Object jsonHit : (JSONArray) jsonResult.get("hits")) {
+        indexedIds.add((String) ((JSONObject) jsonHit).get("_id"));
+      }
+    }
+    return indexedIds;
+  }
+
+  private void appendConnectionUpdate(StringBuilder bulkRequest, String identityId, String connectionId, String script) {
+    // Identity ids are numeric, as the indexed connections
+    long connection = Long.parseLong(connectionId);
+    bulkRequest.append("{\"update\":{\"_index\":\"")
+               .append(getIndexAlias())
+               .append("\",\"_id\":\"")
+               .append(identityId)
+               .append("\",\"retry_on_conflict\":3}}\n");
+    bulkRequest.append("{\"script\":{\"lang\":\"painless\",\"source\":\"")
+               .append(script)
+               .append("\",\"params\":{\"connection\":")
+               .append(connection)
+               .append("}}}\n");
+  }
+
   private String buildConnectionString(Identity identity, Relationship.Type type) {
     StringBuilder sb = new StringBuilder();
 
@@ -0,0 +1,298 @@
+/*
+ * This file is part of the Meeds project (https://meeds.io/).
+ * Copyright (C) 2022 Meeds Association contact@meeds.io
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package org.exoplatform.social.core.jpa.search;
+
+import java.util.*;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.picocontainer.Startable;
+
+import org.exoplatform.commons.search.index.IndexingService;
+import org.exoplatform.container.ExoContainer;
+import org.exoplatform.container.ExoContainerContext;
+import org.exoplatform.container.component.RequestLifeCycle;
+import org.exoplatform.container.xml.InitParams;
+import org.exoplatform.container.xml.ValueParam;
+import org.exoplatform.management.annotations.Managed;
+import org.exoplatform.management.annotations.ManagedDescription;
+import org.exoplatform.management.jmx.annotations.NameTemplate;
+import org.exoplatform.management.jmx.annotations.Property;
+import org.exoplatform.services.log.ExoLogger;
+import org.exoplatform.services.log.Log;
+
+/**
+ * Buffers the indexing operations triggered by social events during a
+ * configurable window before handing them to {@link IndexingService}. Pending
+ * operations on the same document are merged, so that a busy activity thread
+ * or a mass connections import indexes each document once per window:
+ * <ul>
+ * <li>an index or a reindex of a document pending for index stays an
+ * index,</li>
+ * <li>otherwise the last requested operation replaces the pending one, thus a
+ * reindex followed by an unindex becomes an unindex.</li>
+ * </ul>
+ * When the window is 0 or less, operations are handed immediately to
+ * {@link IndexingService}.<br>
+ * Pending operations are only kept in memory: they are handed to
+ * {@link IndexingService} when the buffer is stopped or when the JVM shuts
+ * down, but the operations of the last window, up to the maximum pending
+ * operations, are lost if the JVM crashes.
+ */
+@Managed
+@ManagedDescription("Social indexing operations buffer")
+@NameTemplate({ @Property(key = "service", value = "social"), @Property(key = "view", value = "SocialIndexingBuffer") })
+public class SocialIndexingBuffer implements Startable {
+
+  private static final Log                       LOG                 = ExoLogger.getLogger(SocialIndexingBuffer.class);
+
+  private static final String                    WINDOW_PARAM        = "window";
+
+  private static final String                    MAX_PENDING_PARAM   = "max-pending";
+
+  private static final long                      DEFAULT_WINDOW      = 2000;
+
+  private static final int                       DEFAULT_MAX_PENDING = 10000;
+
+  private final IndexingService                  indexingService;
+
+  /** Pending operation by document, in the order of the first request */
+  private final Map<DocumentKey, OperationType>  pendingOperations   = new LinkedHashMap<>();
+
+  private final AtomicLong                       receivedOperations  = new AtomicLong();
+
+  private final AtomicLong                       coalescedOperations = new AtomicLong();
+
+  private final AtomicLong                       emittedOperations   = new AtomicLong();
+
+  private long                                   window              = DEFAULT_WINDOW;
+
+  private int                                    maxPending          = DEFAULT_MAX_PENDING;
+
+  private ScheduledExecutorService               scheduler;
+
+  private ExoContainer                           container;
+
+  private Thread                                 shutdownHook;
+
+  public SocialIndexingBuffer(IndexingService indexingService, InitParams params) {
+    this.indexingService = indexingService;
+    this.window = getLongParam(params, WINDOW_PARAM, DEFAULT_WINDOW);
+    this.maxPending = (int) getLongParam(params, MAX_PENDING_PARAM, DEFAULT_MAX_PENDING);
+    if (this.maxPending <= 0) {
+      this.maxPending = DEFAULT_MAX_PENDING;
+    }
+  }
+
+  @Override
+  public void start() {
+    if (window > 0) {
+      container = ExoContainerContext.getCurrentContainer();
+      scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "social-indexing-buffer");
+        thread.setDaemon(true);
+        return thread;
+      });
+      scheduler.scheduleWithFixedDelay(this::flushInContainer, window, window, TimeUnit.MILLISECONDS);
+      // Flush when the JVM shuts down without stopping the container
+      shutdownHook = new Thread(this::flushInContainer, "social-indexing-buffer-shutdown");
+      Runtime.getRuntime().addShutdownHook(shutdownHook);
+    }
+  }
+
+  @Override
+  public void stop() {
+    if (shutdownHook != null) {
+      try {
+        Runtime.getRuntime().removeShutdownHook(shutdownHook);
+      } catch (IllegalStateException e) {
+        // The JVM is shutting down, the hook flushes concurrently
+      }
+      shutdownHook = null;
+    }
+    if (scheduler != null) {
+      scheduler.shutdown();
+      try {
+        scheduler.awaitTermination(window, TimeUnit.MILLISECONDS);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+      scheduler = null;
+      flushInContainer();
+    }
+  }
+
+  public void index(String connectorName, String id) {
+    add(connectorName, id, OperationType.INDEX);
+  }
+
+  public void reindex(String connectorName, String id) {
+    add(connectorName, id, OperationType.REINDEX);
+  }
+
+  public void unindex(String connectorName, String id) {
+    add(connectorName, id, OperationType.UNINDEX);
+  }
+
+  /**
+   * Hands all pending operations to {@link IndexingService}, in the current
+   * transaction if any.
+   */
+  public void flush() {
+    Map<DocumentKey, OperationType> operations;
+    synchronized (pendingOperations) {
+      if (pendingOperations.isEmpty()) {
+        return;
+      }
+      operations = new LinkedHashMap<>(pendingOperations);
+      pendingOperations.clear();
+    }
+    for (Map.Entry<DocumentKey, OperationType> operation : operations.entrySet()) {
+      emit(operation.getKey().connectorName, operation.getKey().id, operation.getValue());
+    }
+    LOG.debug("{} indexing operations handed to indexing service", operations.size());
+  }
+
+  @Managed
+  @ManagedDescription("Number of indexing operations requested")
+  public long getReceivedOperations() {
+    return receivedOperations.get();
+  }
+
+  @Managed
+  @ManagedDescription("Number of indexing operations merged with a pending operation of the same document")
+  public long getCoalescedOperations() {
+    return coalescedOperations.get();
+  }
+
+  @Managed
+  @ManagedDescription("Number of indexing operations handed to the indexing service")
+  public long getEmittedOperations() {
+    return emittedOperations.get();
+  }
+
+  @Managed
+  @ManagedDescription("Number of indexing operations waiting for the end of the window")
+  public int getPendingOperations() {
+    synchronized (pendingOperations) {
+      return pendingOperations.size();
+    }
+  }
+
+  private void add(String connectorName, String id, OperationType operationType) {
+    receivedOperations.incrementAndGet();
+    if (window <= 0) {
+      emit(connectorName, id, operationType);
+      return;
+    }
+    boolean full;
+    synchronized (pendingOperations) {
+      DocumentKey key = new DocumentKey(connectorName, id);
+      OperationType pendingOperationType = pendingOperations.get(key);
+      if (pendingOperationType != null) {
+        coalescedOperations.incrementAndGet();
+        if (pendingOperationType == OperationType.INDEX && operationType == OperationType.REINDEX) {
+          operationType = OperationType.INDEX;
+        }
+      }
+      pendingOperations.put(key, operationType);
+      full = pendingOperations.size() >= maxPending;
+    }
+    if (full) {
+      flush();
+    }
+  }
+
+  private void emit(String connectorName, String id, OperationType operationType) {
+    switch (operationType) {
+    case INDEX:
+      indexingService.index(connectorName, id);
+      break;
+    case REINDEX:
+      indexingService.reindex(connectorName, id);
+      break;
+    case UNINDEX:
+      indexingService.unindex(connectorName, id);
+      break;
+    default:
+      throw new IllegalStateException("Unknown indexing operation " + operationType);
+    }
+    emittedOperations.incrementAndGet();
+  }
+
+  private void flushInContainer() {
+    if (getPendingOperations() == 0) {
+      return;
+    }
+    ExoContainerContext.setCurrentContainer(container);
+    RequestLifeCycle.begin(container);
+    try {
+      flush();
+    } catch (Exception e) {
+      LOG.error("Error while handing indexing operations to indexing service", e);
+    } finally {
+      RequestLifeCycle.end();
+    }
+  }
+
+  private static long getLongParam(InitParams params, String name, long defaultValue) {
+    ValueParam valueParam = params == null ? null : params.getValueParam(name);
+    if (valueParam == null) {
+      return defaultValue;
+    }
+    try {
+      return Long.parseLong(valueParam.getValue());
+    } catch (NumberFormatException e) {
+      LOG.warn("Invalid value '{}' of parameter {}, use default value {}", valueParam.getValue(), name, defaultValue);
+      return defaultValue;
+    }
+  }
+
+  private enum OperationType {
+    INDEX, REINDEX, UNINDEX
+  }
+
+  private static final class DocumentKey {
+    private final String connectorName;
+
+    private final String id;
+
+    private DocumentKey(String connectorName, String id) {
+      this.connectorName = connectorName;
+      this.id = id;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (!(o instanceof DocumentKey)) {
+        return false;
+      }
+      DocumentKey that = (DocumentKey) o;
+      return Objects.equals(connectorName, that.connectorName) && Objects.equals(id, that.id);
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(connectorName, id);
+    }
+  }
+
+}
@@ -17,6 +17,7 @@
 package org.exoplatform.social.core.jpa.search;
 
 import java.util.*;
+import java.util.stream.Collectors;
 
 import org.apache.commons.lang.StringUtils;
 
@@ -25,35 +26,38 @@ import org.exoplatform.commons.search.index.impl.ElasticIndexingServiceConnector
 import org.exoplatform.container.xml.InitParams;
 import org.exoplatform.services.log.ExoLogger;
 import org.exoplatform.services.log.Log;
+import org.exoplatform.social.core.jpa.storage.dao.SpaceDAO;
+import org.exoplatform.social.core.jpa.storage.dao.SpaceMemberDAO;
+import org.exoplatform.social.core.jpa.storage.entity.SpaceEntity;
+import org.exoplatform.social.core.jpa.storage.entity.SpaceMemberEntity.Status;
 import org.exoplatform.social.core.search.DocumentWithMetadata;
-import org.exoplatform.social.core.space.model.Space;
-import org.exoplatform.social.core.space.spi.SpaceService;
-import org.exoplatform.social.core.storage.api.SpaceStorage;
 import org.exoplatform.social.metadata.MetadataService;
 import org.exoplatform.social.metadata.model.MetadataItem;
-import org.exoplatform.social.metadata.model.MetadataObject;
 
 public class SpaceIndexingServiceConnector extends ElasticIndexingServiceConnector {
 
-  public static final String    TYPE                       = "space";
+  public static final String        TYPE                       = "space";
 
-  public static final String    SPACE_METADATA_OBJECT_TYPE = "space";
+  public static final String        SPACE_METADATA_OBJECT_TYPE = "space";
 
-  private static final Log      LOG                        = ExoLogger.getLogger(SpaceIndexingServiceConnector.class);
+  private static final Log          LOG                        = ExoLogger.getLogger(SpaceIndexingServiceConnector.class);
 
-  private SpaceService          spaceService;
+  /** Space managers are members as well */
+  private static final List<Status> MEMBER_STATUSES            = Collections.singletonList(Status.MEMBER);
 
-  private SpaceStorage          spaceStorage;
+  private SpaceDAO                  spaceDAO;
 
-  private MetadataService    metadataService;
+  private SpaceMemberDAO            spaceMemberDAO;
+
+  private MetadataService           metadataService;
 
   public SpaceIndexingServiceConnector(InitParams initParams,
-                                       SpaceService spaceService,
-                                       SpaceStorage spaceStorage,
+                                       SpaceDAO spaceDAO,
+                                       SpaceMemberDAO spaceMemberDAO,
                                        MetadataService metadataService) {
     super(initParams);
-    this.spaceService = spaceService;
-    this.spaceStorage = spaceStorage;
+    this.spaceDAO = spaceDAO;
+    this.spaceMemberDAO = spaceMemberDAO;
     this.metadataService = metadataService;
   }
 
@@ -67,36 +71,75 @@ public class SpaceIndexingServiceConnector extends ElasticIndexingServiceConnect
     if (StringUtils.isBlank(id)) {
       throw new IllegalArgumentException("id is mandatory");
     }
+    List<Document> documents = create(Collections.singletonList(id));
+    return documents.isEmpty() ? null : documents.get(0);
+  }
+
+  /**
+   * Builds the documents of a list of spaces by loading the spaces, their
+   * members and their metadata items with one query each.
+   *
+   * @param ids spaces identifiers
+   * @return the documents of the found spaces, in the order of the given
+   *         identifiers
+   */
+  public List<Document> create(List<String> ids) {
+    if (ids == null || ids.isEmpty()) {
+      return Collections.emptyList();
+    }
 
     long ts = System.currentTimeMillis();
-    LOG.debug("get space document for space id={}", id);
+    LOG.debug("get space documents for space ids={}", ids);
+
+    List<Long> spaceIds = new ArrayList<>();
+    for (String id : ids) {
+      try {
+        spaceIds.add(Long.parseLong(id));
+      } catch (NumberFormatException e) {
+        LOG.debug("Ignore space with invalid id={}", id);
+      }
+    }
+    if (spaceIds.isEmpty()) {
+      return Collections.emptyList();
+    }
 
-    Space space = spaceService.getSpaceById(id);
-    if (space == null) {
-      return null;
+    Map<Long, SpaceEntity> spaceById = spaceDAO.getSpacesByIds(spaceIds)
+                                               .stream()
+                                               .collect(Collectors.toMap(SpaceEntity::getId, space -> space));
+    if (spaceById.isEmpty()) {
+      return Collections.emptyList();
+    }
+    List<Long> foundSpaceIds = spaceIds.stream().filter(spaceById::containsKey).collect(Collectors.toList());
+    Map<Long, Set<String>> membersBySpaceId = spaceMemberDAO.getSpacesMembers(foundSpaceIds, MEMBER_STATUSES);
+    List<String> foundIds = foundSpaceIds.stream().map(String::valueOf).collect(Collectors.toList());
+    Map<String, List<MetadataItem>> metadataItemsBySpaceId = metadataService.getMetadataItemsByObjects(SPACE_METADATA_OBJECT_TYPE,
+                                                                                                     foundIds);
+
+    List<Document> documents = new ArrayList<>(foundSpaceIds.size());
+    for (Long spaceId : foundSpaceIds) {
+      SpaceEntity space = spaceById.get(spaceId);
+      String id = String.valueOf(spaceId);
+
+      Map<String, String> fields = new HashMap<>();
+      fields.put("prettyName", space.getPrettyName());
+      fields.put("displayName", space.getDisplayName());
+      fields.put("description", space.getDescription());
+      fields.put("visibility", space.getVisibility() == null ? null : space.getVisibility().name().toLowerCase());
+      fields.put("registration", space.getRegistration() == null ? null : space.getRegistration().name().toLowerCase());
+
+      Date createdDate = new Date(space.getCreatedDate().getTime());
+
+      DocumentWithMetadata document = new DocumentWithMetadata();
+      document.setId(id);
+      document.setLastUpdatedDate(createdDate);
+      document.setPermissions(new HashSet<>(membersBySpaceId.getOrDefault(spaceId, Collections.emptySet())));
+      document.setFields(fields);
+      document.setMetadataItems(metadataItemsBySpaceId.getOrDefault(id, Collections.emptyList()));
+      documents.add(document);
     }
+    LOG.info("space documents generated for {} spaces duration_ms={}", documents.size(), System.currentTimeMillis() - ts);
 
-    Map<String, String> fields = new HashMap<>();
-    fields.put("prettyName", space.getPrettyName());
-    fields.put("displayName", space.getDisplayName());
-    fields.put("description", space.getDescription());
-    fields.put("visibility", space.getVisibility());
-    fields.put("registration", space.getRegistration());
-
-    Date createdDate = new Date(space.getCreatedTime());
-
-    DocumentWithMetadata document = new DocumentWithMetadata();
-    document.setId(id);
-    document.setLastUpdatedDate(createdDate);
-    document.setPermissions(new HashSet<>(Arrays.asList(space.getMembers())));
-    document.setFields(fields);
-    addDocumentMetadata(document, id);
-    LOG.info("space document generated for id={} name={} duration_ms={}",
-             id,
-             space.getPrettyName(),
-             System.currentTimeMillis() - ts);
-
-    return document;
+    return documents;
   }
 
   @Override
@@ -106,14 +149,10 @@ public class SpaceIndexingServiceConnector extends ElasticIndexingServiceConnect
 
   @Override
   public List<String> getAllIds(int offset, int limit) {
-
     List<String> ids = new LinkedList<>();
     try {
-      List<Space> spaces = spaceStorage.getAllSpaces();
-      int to = offset + limit;
-      to = to > spaces.size() ? spaces.size() : to;
-      for (Space space : spaces.subList(offset, to)) {
-        ids.add(space.getId());
+      for (Long id : spaceDAO.getAllIds(offset, limit)) {
+        ids.add(String.valueOf(id));
       }
     } catch (Exception ex) {
       LOG.error(ex);
@@ -147,10 +186,4 @@ public class SpaceIndexingServiceConnector extends ElasticIndexingServiceConnect
     return mapping.toString();
   }
 
-  private void addDocumentMetadata(DocumentWithMetadata document, String spaceId) {
-    MetadataObject metadataObject = new MetadataObject(SPACE_METADATA_OBJECT_TYPE, spaceId);
-    List<MetadataItem> metadataItems = metadataService.getMetadataItemsByObject(metadataObject);
-    document.setMetadataItems(metadataItems);
-  }
-
 }
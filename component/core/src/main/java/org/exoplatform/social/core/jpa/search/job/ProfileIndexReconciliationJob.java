@@ -0,0 +1,75 @@
+/*
+ * This file is part of the Meeds project (https://meeds.io/).
+ * Copyright (C) 2022 Meeds Association contact@meeds.io
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package org.exoplatform.social.core.jpa.search.job;
+
+import java.util.List;
+
+import org.quartz.DisallowConcurrentExecution;
+import org.quartz.Job;
+import org.quartz.JobExecutionContext;
+
+import org.exoplatform.commons.search.index.IndexingService;
+import org.exoplatform.commons.utils.CommonsUtils;
+import org.exoplatform.container.ExoContainer;
+import org.exoplatform.container.ExoContainerContext;
+import org.exoplatform.container.component.RequestLifeCycle;
+import org.exoplatform.services.log.ExoLogger;
+import org.exoplatform.services.log.Log;
+import org.exoplatform.social.core.identity.provider.OrganizationIdentityProvider;
+import org.exoplatform.social.core.jpa.search.ProfileIndexingServiceConnector;
+import org.exoplatform.social.core.jpa.storage.dao.IdentityDAO;
+
+/**
+ * Rebuilds periodically the indexed profiles documents, to reconcile the
+ * connections lists updated partially when connections are confirmed or
+ * removed. Documents are reindexed one by one, so that profiles remain
+ * searchable during the reconciliation.
+ */
+@DisallowConcurrentExecution
+public class ProfileIndexReconciliationJob implements Job {
+
+  private static final Log LOG       = ExoLogger.getLogger(ProfileIndexReconciliationJob.class);
+
+  private static final int PAGE_SIZE = 200;
+
+  @Override
+  public void execute(JobExecutionContext context) {
+    ExoContainer container = ExoContainerContext.getCurrentContainer();
+    IdentityDAO identityDAO = CommonsUtils.getService(IdentityDAO.class);
+    IndexingService indexingService = CommonsUtils.getService(IndexingService.class);
+    LOG.info("Start reconciling indexed profiles");
+    long ts = System.currentTimeMillis();
+    int offset = 0;
+    List<Long> ids;
+    do {
+      RequestLifeCycle.begin(container);
+      try {
+        ids = identityDAO.getAllIdsByProvider(OrganizationIdentityProvider.NAME, offset, PAGE_SIZE);
+        for (Long id : ids) {
+          indexingService.reindex(ProfileIndexingServiceConnector.TYPE, String.valueOf(id));
+        }
+      } catch (Exception e) {
+        LOG.error("Error while reconciling indexed profiles from offset {}", offset, e);
+        return;
+      } finally {
+        RequestLifeCycle.end();
+      }
+      offset += ids.size();
+    } while (ids.size() == PAGE_SIZE);
+    LOG.info("End reconciling {} indexed profiles duration_ms={}", offset, System.currentTimeMillis() - ts);
+  }
+
+}
@@ -1,6 +1,5 @@
 package org.exoplatform.social.core.jpa.search.listener;
 
-import org.exoplatform.commons.search.index.IndexingService;
 import org.exoplatform.commons.utils.CommonsUtils;
 import org.exoplatform.services.log.ExoLogger;
 import org.exoplatform.services.log.Log;
@@ -8,6 +7,7 @@ import org.exoplatform.social.core.activity.ActivityLifeCycleEvent;
 import org.exoplatform.social.core.activity.ActivityListener;
 import org.exoplatform.social.core.activity.model.ExoSocialActivity;
 import org.exoplatform.social.core.jpa.search.ActivityIndexingServiceConnector;
+import org.exoplatform.social.core.jpa.search.SocialIndexingBuffer;
 
 public class ActivityESListener implements ActivityListener {
   private static final Log LOG = ExoLogger.getExoLogger(ActivityESListener.class);
@@ -43,15 +43,15 @@ public class ActivityESListener implements ActivityListener {
   }
 
   private void reindexActivity(ExoSocialActivity activity, String cause) {
-    IndexingService indexingService = CommonsUtils.getService(IndexingService.class);
+    SocialIndexingBuffer indexingBuffer = CommonsUtils.getService(SocialIndexingBuffer.class);
     LOG.debug("Notifying indexing service for activity with id={}. Cause: {}", activity.getId(), cause);
-    indexingService.reindex(ActivityIndexingServiceConnector.TYPE, activity.getId());
+    indexingBuffer.reindex(ActivityIndexingServiceConnector.TYPE, activity.getId());
   }
 
   private void unindexActivity(ExoSocialActivity activity, String cause) {
-    IndexingService indexingService = CommonsUtils.getService(IndexingService.class);
+    SocialIndexingBuffer indexingBuffer = CommonsUtils.getService(SocialIndexingBuffer.class);
     LOG.debug("Notifying indexing service for activity with id={}. Cause: {}", activity.getId(), cause);
-    indexingService.unindex(ActivityIndexingServiceConnector.TYPE, activity.getId());
+    indexingBuffer.unindex(ActivityIndexingServiceConnector.TYPE, activity.getId());
   }
 
 }
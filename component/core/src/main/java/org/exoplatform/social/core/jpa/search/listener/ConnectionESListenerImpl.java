@@ -16,11 +16,18 @@
  */
 package org.exoplatform.social.core.jpa.search.listener;
 
-import org.exoplatform.commons.search.index.IndexingService;
+import java.util.List;
+
+import org.exoplatform.commons.search.index.IndexingOperationProcessor;
+import org.exoplatform.commons.search.index.IndexingServiceConnector;
 import org.exoplatform.commons.utils.CommonsUtils;
+import org.exoplatform.container.PortalContainer;
+import org.exoplatform.container.component.RequestLifeCycle;
 import org.exoplatform.services.log.ExoLogger;
 import org.exoplatform.services.log.Log;
+import org.exoplatform.social.common.lifecycle.LifeCycleCompletionService;
 import org.exoplatform.social.core.jpa.search.ProfileIndexingServiceConnector;
+import org.exoplatform.social.core.jpa.search.SocialIndexingBuffer;
 import org.exoplatform.social.core.relationship.RelationshipEvent;
 import org.exoplatform.social.core.relationship.RelationshipListenerPlugin;
 import org.exoplatform.social.core.relationship.model.Relationship;
@@ -34,6 +41,8 @@ import org.exoplatform.social.core.relationship.model.Relationship;
 public class ConnectionESListenerImpl extends RelationshipListenerPlugin {
   private static final Log LOG = ExoLogger.getExoLogger(ConnectionESListenerImpl.class);
 
+  private static final String CONNECTIONS_UPDATE_LIFECYCLE_NAME = "ProfileConnectionsIndexing";
+
   @Override
   public void requested(RelationshipEvent event) {
     reindexRelationship(event.getPayload(), "requested");
@@ -46,7 +55,7 @@ public class ConnectionESListenerImpl extends RelationshipListenerPlugin {
 
   @Override
   public void confirmed(RelationshipEvent event) {
-    reindexRelationship(event.getPayload(), "confirmed");
+    updateConnections(event.getPayload(), true, "confirmed");
   }
 
   @Override
@@ -56,18 +65,70 @@ public class ConnectionESListenerImpl extends RelationshipListenerPlugin {
 
   @Override
   public void removed(RelationshipEvent event) {
-    reindexRelationship(event.getPayload(), "removed");
+    updateConnections(event.getPayload(), false, "removed");
   }
   
   private void reindexRelationship(Relationship relationship, String cause) {
-    IndexingService indexingService  = CommonsUtils.getService(IndexingService.class);
+    SocialIndexingBuffer indexingBuffer = CommonsUtils.getService(SocialIndexingBuffer.class);
     String receiverId = relationship.getReceiver().getId();
     String senderId = relationship.getSender().getId();
 
     LOG.info("Notifying indexing service for connection {} sender_id={} receiver_id={}", cause, senderId, receiverId);
 
-    indexingService.reindex(ProfileIndexingServiceConnector.TYPE, receiverId);
-    indexingService.reindex(ProfileIndexingServiceConnector.TYPE, senderId);
+    indexingBuffer.reindex(ProfileIndexingServiceConnector.TYPE, receiverId);
+    indexingBuffer.reindex(ProfileIndexingServiceConnector.TYPE, senderId);
+  }
+
+  /**
+   * Queues the addition or removal of the connection in the indexed connections
+   * of both profiles, without rebuilding the whole documents. Falls back to a
+   * reindex of the profiles when the partial update can't be made.
+   */
+  private void updateConnections(Relationship relationship, boolean add, String cause) {
+    String receiverId = relationship.getReceiver().getId();
+    String senderId = relationship.getSender().getId();
+    try {
+      IndexingServiceConnector connector = CommonsUtils.getService(IndexingOperationProcessor.class)
+                                                       .getConnectors()
+                                                       .get(ProfileIndexingServiceConnector.TYPE);
+      if (!(connector instanceof ProfileIndexingServiceConnector)) {
+        reindexRelationship(relationship, cause);
+        return;
+      }
+      ProfileIndexingServiceConnector profileConnector = (ProfileIndexingServiceConnector) connector;
+      SocialIndexingBuffer indexingBuffer = CommonsUtils.getService(SocialIndexingBuffer.class);
+      PortalContainer container = PortalContainer.getInstance();
+
+      LOG.info("Queuing update of indexed connections for connection {} sender_id={} receiver_id={}", cause, senderId, receiverId);
+      CommonsUtils.getService(LifeCycleCompletionService.class).addTask(CONNECTIONS_UPDATE_LIFECYCLE_NAME, () -> {
+        RequestLifeCycle.begin(container);
+        try {
+          List<String> notUpdatedIds = add ? profileConnector.addConnection(senderId, receiverId)
+                                           : profileConnector.removeConnection(senderId, receiverId);
+          for (String notUpdatedId : notUpdatedIds) {
+            LOG.info("Profile {} isn't indexed, reindex it instead of updating its connections", notUpdatedId);
+            indexingBuffer.reindex(ProfileIndexingServiceConnector.TYPE, notUpdatedId);
+          }
+        } catch (Exception e) {
+          LOG.warn("Error while updating indexed connections of sender_id={} receiver_id={}, reindex both profiles",
+                   senderId,
+                   receiverId,
+                   e);
+          indexingBuffer.reindex(ProfileIndexingServiceConnector.TYPE, receiverId);
+          indexingBuffer.reindex(ProfileIndexingServiceConnector.TYPE, senderId);
+        } finally {
+          RequestLifeCycle.end();
+        }
+        return null;
+      });
+    } catch (Exception e) {
+      LOG.warn("Error while queuing update of indexed connections of sender_id={} receiver_id={}, reindex both profiles",
+               senderId,
+               receiverId,
+               e);
+      reindexRelationship(relationship, cause);
+    }
   }
+
   
 }
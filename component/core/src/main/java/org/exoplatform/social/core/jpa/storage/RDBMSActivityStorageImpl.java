@@ -22,6 +22,7 @@ import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 
 import javax.persistence.LockModeType;
+import javax.persistence.Tuple;
 
 import org.apache.commons.collections.CollectionUtils;
 import org.apache.commons.lang.ArrayUtils;
@@ -37,7 +38,9 @@ import org.exoplatform.services.log.Log;
 import org.exoplatform.services.security.ConversationState;
 import org.exoplatform.social.core.ActivityProcessor;
 import org.exoplatform.social.core.BaseActivityProcessorPlugin;
+import org.exoplatform.social.core.activity.ActivityCursor;
 import org.exoplatform.social.core.activity.ActivityFilter;
+import org.exoplatform.social.core.activity.ActivityStreamType;
 import org.exoplatform.social.core.activity.model.*;
 import org.exoplatform.social.core.identity.model.Identity;
 import org.exoplatform.social.core.identity.provider.OrganizationIdentityProvider;
@@ -64,6 +67,19 @@ public class RDBMSActivityStorageImpl implements ActivityStorage {
 
   public static final String                     COMMENT_PREFIX              = "comment";
 
+  /**
+   * Maximum number of activities hydrated using the same IN queries
+   */
+  private static final int                       ACTIVITIES_BATCH_SIZE       = 200;
+
+  /**
+   * Activity feed query strategy: 'list' (default) to pass the user spaces as a
+   * list of parameters or 'membership' to join with user space memberships
+   */
+  public static final String                     FEED_QUERY_STRATEGY_PROPERTY_NAME = "exo.social.activity.feed.query.strategy";
+
+  public static final String                     FEED_QUERY_STRATEGY_MEMBERSHIP    = "membership";
+
   private final ActivityShareActionDAO           activityShareActionDAO;
 
   private final ActivityDAO                      activityDAO;
@@ -88,6 +104,12 @@ public class RDBMSActivityStorageImpl implements ActivityStorage {
    */
   private Map<String, ActivityFileStoragePlugin> activityFileStorageByDSName = new HashMap<>();
 
+  /**
+   * Whether the user space memberships are resolved in activity feed queries
+   * rather than being passed as a list of space identity ids
+   */
+  private final boolean                          feedQueryByMembership;
+
   public RDBMSActivityStorageImpl(IdentityStorage identityStorage,
                                   SpaceStorage spaceStorage,
                                   ActivityShareActionDAO activityShareActionDAO,
@@ -99,6 +121,7 @@ public class RDBMSActivityStorageImpl implements ActivityStorage {
     this.activityShareActionDAO = activityShareActionDAO;
     this.connectionDAO = connectionDAO;
     this.spaceStorage = spaceStorage;
+    this.feedQueryByMembership = FEED_QUERY_STRATEGY_MEMBERSHIP.equalsIgnoreCase(PropertyManager.getProperty(FEED_QUERY_STRATEGY_PROPERTY_NAME));
   }
 
   private static Comparator<ActivityProcessor> processorComparator() {
@@ -114,6 +137,28 @@ public class RDBMSActivityStorageImpl implements ActivityStorage {
   }
 
   private ExoSocialActivity fillActivityFromEntity(ActivityEntity activityEntity, ExoSocialActivity activity) {
+    List<ActivityShareActionEntity> shareActions = activityShareActionDAO.getShareActionsByActivityId(activityEntity.getId());
+    Identity owner = identityStorage.findIdentityById(activityEntity.getOwnerId());
+    String spaceId = null;
+    if (owner != null && SpaceIdentityProvider.NAME.equals(owner.getProviderId())) {
+      Space space = spaceStorage.getSpaceByPrettyName(owner.getRemoteId());
+      if (space != null) {
+        spaceId = space.getId();
+      }
+    }
+    List<String> commentPosterIds = new ArrayList<>();
+    List<String> replyToIds = new ArrayList<>();
+    fillCommentsIdsAndPosters(activityEntity, commentPosterIds, replyToIds, false);
+    return fillActivityFromEntity(activityEntity, activity, shareActions, owner, spaceId, commentPosterIds, replyToIds);
+  }
+
+  private ExoSocialActivity fillActivityFromEntity(ActivityEntity activityEntity,
+                                                   ExoSocialActivity activity,
+                                                   List<ActivityShareActionEntity> shareActions,
+                                                   Identity owner,
+                                                   String spaceId,
+                                                   List<String> commentPosterIds,
+                                                   List<String> replyToIds) {
     if (activity == null) {
       activity = new ExoSocialActivityImpl(activityEntity.getPosterId(),
                                            activityEntity.getType(),
@@ -131,7 +176,6 @@ public class RDBMSActivityStorageImpl implements ActivityStorage {
     activity.setId(String.valueOf(activityEntity.getId()));
     activity.setLikeIdentityIds(activityEntity.getLikerIds().toArray(new String[] {}));
 
-    List<ActivityShareActionEntity> shareActions = activityShareActionDAO.getShareActionsByActivityId(activityEntity.getId());
     if (CollectionUtils.isNotEmpty(shareActions)) {
       activity.setShareActions(shareActions.stream()
                                            .map(this::fromEntity)
@@ -140,22 +184,17 @@ public class RDBMSActivityStorageImpl implements ActivityStorage {
     activity.setTemplateParams(activityEntity.getTemplateParams() != null ? new LinkedHashMap<String, String>(activityEntity.getTemplateParams())
                                                                           : new HashMap<String, String>());
 
-    String ownerIdentityId = activityEntity.getOwnerId();
     ActivityStream stream = new ActivityStreamImpl();
-    Identity owner = identityStorage.findIdentityById(ownerIdentityId);
     if (owner != null) {
       stream.setType(owner.getProviderId());
       stream.setPrettyId(owner.getRemoteId());
       stream.setId(owner.getId());
       activity.setStreamOwner(owner.getRemoteId());
-      if (stream.isSpace()) {
-        Space space = spaceStorage.getSpaceByPrettyName(owner.getRemoteId());
-        if (space != null) {
-          activity.setSpaceId(space.getId());
-        }
+      if (stream.isSpace() && spaceId != null) {
+        activity.setSpaceId(spaceId);
       }
     } else {
-      LOG.warn("Cannot find stream of activity " + activityEntity.getId() + " since identity " + ownerIdentityId
+      LOG.warn("Cannot find stream of activity " + activityEntity.getId() + " since identity " + activityEntity.getOwnerId()
           + " does not exist");
     }
     //
@@ -172,9 +211,6 @@ public class RDBMSActivityStorageImpl implements ActivityStorage {
     activity.setPinDate(StorageUtils.toRFC3339Date(activityEntity.getPinDate()));
     activity.setPinAuthorId(activityEntity.getPinAuthorId());
     //
-    List<String> commentPosterIds = new ArrayList<>();
-    List<String> replyToIds = new ArrayList<>();
-    fillCommentsIdsAndPosters(activityEntity, commentPosterIds, replyToIds, false);
     activity.setCommentedIds(commentPosterIds.toArray(new String[commentPosterIds.size()]));
     activity.setReplyToId(replyToIds.toArray(new String[replyToIds.size()]));
     activity.setMentionedIds(activityEntity.getMentionerIds().toArray(new String[activityEntity.getMentionerIds().size()]));
@@ -198,6 +234,93 @@ public class RDBMSActivityStorageImpl implements ActivityStorage {
     }
   }
 
+  /**
+   * Converts a page of activity entities to DTOs. Share actions and comment
+   * posters of the whole page are retrieved using IN queries and stream owners
+   * are resolved once per distinct owner, instead of issuing the same lookups
+   * for each activity of the page.
+   *
+   * @param activityEntities {@link List} of {@link ActivityEntity} to convert
+   * @return {@link List} of {@link ExoSocialActivity} in the same order
+   */
+  private List<ExoSocialActivity> convertActivityEntitiesToActivities(List<ActivityEntity> activityEntities) {
+    if (activityEntities == null || activityEntities.isEmpty()) {
+      return Collections.emptyList();
+    }
+    List<ExoSocialActivity> activities = new ArrayList<>(activityEntities.size());
+    for (int i = 0; i < activityEntities.size(); i += ACTIVITIES_BATCH_SIZE) {
+      List<ActivityEntity> batch = activityEntities.subList(i, Math.min(i + ACTIVITIES_BATCH_SIZE, activityEntities.size()));
+      activities.addAll(convertActivityEntitiesBatchToActivities(batch));
+    }
+    return activities;
+  }
+
+  private List<ExoSocialActivity> convertActivityEntitiesBatchToActivities(List<ActivityEntity> activityEntities) {
+    List<Long> activityIds = activityEntities.stream()
+                                             .filter(activityEntity -> !activityEntity.isComment())
+                                             .map(ActivityEntity::getId)
+                                             .collect(Collectors.toList());
+    Map<Long, List<ActivityShareActionEntity>> shareActionsByActivityId = Collections.emptyMap();
+    Map<Long, List<String>> commentPosterIdsByActivityId = new HashMap<>();
+    Map<Long, List<String>> replyToIdsByActivityId = new HashMap<>();
+    if (!activityIds.isEmpty()) {
+      shareActionsByActivityId = activityShareActionDAO.getShareActionsByActivityIds(activityIds)
+                                                       .stream()
+                                                       .collect(Collectors.groupingBy(ActivityShareActionEntity::getActivityId));
+      Set<Long> activityIdsSet = new HashSet<>(activityIds);
+      for (Tuple comment : activityDAO.findCommentsAndSubCommentsOfActivities(activityIds)) {
+        Long commentId = (Long) comment.get(0);
+        String commentPosterId = (String) comment.get(1);
+        for (int i = 2; i < 4; i++) {
+          Long activityId = (Long) comment.get(i);
+          if (activityId != null && activityIdsSet.contains(activityId)) {
+            List<String> commentPosterIds = commentPosterIdsByActivityId.computeIfAbsent(activityId, key -> new ArrayList<>());
+            if (!commentPosterIds.contains(commentPosterId)) {
+              commentPosterIds.add(commentPosterId);
+            }
+            replyToIdsByActivityId.computeIfAbsent(activityId, key -> new ArrayList<>()).add(getExoCommentID(commentId));
+          }
+        }
+      }
+    }
+
+    Map<String, Identity> ownersById = new HashMap<>();
+    Map<String, String> spaceIdsByPrettyName = new HashMap<>();
+    List<ExoSocialActivity> activities = new ArrayList<>(activityEntities.size());
+    for (ActivityEntity activityEntity : activityEntities) {
+      if (activityEntity.isComment()) {
+        activities.add(convertCommentEntityToComment(activityEntity));
+        continue;
+      }
+      String ownerId = activityEntity.getOwnerId();
+      Identity owner = ownersById.containsKey(ownerId) ? ownersById.get(ownerId) : identityStorage.findIdentityById(ownerId);
+      ownersById.put(ownerId, owner);
+      String spaceId = null;
+      if (owner != null && SpaceIdentityProvider.NAME.equals(owner.getProviderId())) {
+        String prettyName = owner.getRemoteId();
+        if (spaceIdsByPrettyName.containsKey(prettyName)) {
+          spaceId = spaceIdsByPrettyName.get(prettyName);
+        } else {
+          Space space = spaceStorage.getSpaceByPrettyName(prettyName);
+          spaceId = space == null ? null : space.getId();
+          spaceIdsByPrettyName.put(prettyName, spaceId);
+        }
+      }
+      Long activityId = activityEntity.getId();
+      ExoSocialActivity activity = fillActivityFromEntity(activityEntity,
+                                                          null,
+                                                          shareActionsByActivityId.get(activityId),
+                                                          owner,
+                                                          spaceId,
+                                                          commentPosterIdsByActivityId.getOrDefault(activityId,
+                                                                                                    Collections.emptyList()),
+                                                          replyToIdsByActivityId.getOrDefault(activityId, Collections.emptyList()));
+      activities.add(activity);
+    }
+    processActivities(activities);
+    return activities;
+  }
+
   private ExoSocialActivity convertActivityEntityToActivity(ActivityEntity activityEntity) {
     if (activityEntity == null)
       return null;
@@ -405,18 +528,13 @@ public class RDBMSActivityStorageImpl implements ActivityStorage {
   }
 
   private List<ExoSocialActivity> convertActivityIdsToActivities(List<Long> activityIds) {
-    if (activityIds == null)
+    if (activityIds == null || activityIds.isEmpty())
       return Collections.emptyList();
-    // Use getActivityStorage to benifit from Cached Storage
-    return activityIds.stream()
-                      .map(activityId -> getActivityStorage().getActivity(String.valueOf(activityId)))
-                      .collect(Collectors.toList());
-  }
-
-  private List<ExoSocialActivity> convertActivityEntitiesToActivities(List<ActivityEntity> activities) {
-    if (activities == null)
-      return Collections.emptyList();
-    return activities.stream().map(activity -> convertActivityEntityToActivity(activity)).collect(Collectors.toList());
+    // Use getActivityStorage to benifit from Cached Storage, cache misses
+    // are loaded all together using getActivities
+    return getActivityStorage().getActivities(activityIds.stream()
+                                                         .map(String::valueOf)
+                                                         .collect(Collectors.toList()));
   }
 
   @Override
@@ -581,6 +699,56 @@ public class RDBMSActivityStorageImpl implements ActivityStorage {
     return activityDAO.getActivityIdsByFilter(activityFilter, spaceIdentityIds, (int) offset, (int) limit);
   }
 
+  @Override
+  public List<ActivityCursor> getActivityCursorsByFilter(Identity viewerIdentity,
+                                                         ActivityFilter activityFilter,
+                                                         ActivityCursor cursor,
+                                                         boolean newer,
+                                                         int limit) {
+    if (activityFilter.getStreamType() == null || activityFilter.getStreamType() == ActivityStreamType.ALL_STREAM) {
+      return activityDAO.getActivityFeedCursors(viewerIdentity, feedSpaceIds(viewerIdentity), cursor, newer, limit);
+    }
+    List<String> spaceIdentityIds = null;
+    switch (activityFilter.getStreamType()) {
+    case USER_STREAM:
+      activityFilter.setUserId(viewerIdentity.getId());
+      break;
+    case USER_FAVORITE_STREAM:
+      return getFavoriteActivityCursors(viewerIdentity, activityFilter.getSpaceId(), cursor, newer, limit);
+    case FAVORITE_SPACES_STREAM:
+      spaceIdentityIds = spaceStorage.getFavoriteSpaceIdentityIds(viewerIdentity.getRemoteId(), new SpaceFilter(), 0, -1);
+      if (CollectionUtils.isEmpty(spaceIdentityIds)) {
+        return Collections.emptyList();
+      }
+      break;
+    case MANAGE_SPACES_STREAM:
+      spaceIdentityIds = spaceStorage.getSpaceIdentityIdsByUserRole(viewerIdentity.getRemoteId(),
+                                                                    String.valueOf(SpaceMemberEntity.Status.MANAGER),
+                                                                    0,
+                                                                    -1);
+      if (CollectionUtils.isEmpty(spaceIdentityIds)) {
+        return Collections.emptyList();
+      }
+      break;
+    case ANY_SPACE_ACTIVITY:
+      // Pinned activities are not displayed first when paginating by cursor
+      break;
+    case PIN_STREAM:
+      spaceIdentityIds = spaceStorage.getSpaceIdentityIdsByUserRole(viewerIdentity.getRemoteId(),
+                                                                    String.valueOf(SpaceMemberEntity.Status.MEMBER),
+                                                                    0,
+                                                                    -1);
+      if (CollectionUtils.isEmpty(spaceIdentityIds)) {
+        return Collections.emptyList();
+      }
+      activityFilter.setPinned(true);
+      break;
+    default:
+      throw new UnsupportedOperationException();
+    }
+    return activityDAO.getActivityCursorsByFilter(activityFilter, spaceIdentityIds, cursor, newer, limit);
+  }
+
   @Override
   public int getActivitiesCountByFilter(Identity viewerIdentity, ActivityFilter activityFilter) {
     List<String> spaceIdentityIds = null;
@@ -613,6 +781,28 @@ public class RDBMSActivityStorageImpl implements ActivityStorage {
     return activityDAO.getActivitiesCountByFilter(activityFilter, spaceIdentityIds);
   }
 
+  private List<ActivityCursor> getFavoriteActivityCursors(Identity viewerIdentity,
+                                                          String spaceId,
+                                                          ActivityCursor cursor,
+                                                          boolean newer,
+                                                          int limit) {
+    Comparator<ActivityCursor> comparator = Comparator.comparingLong(ActivityCursor::getUpdatedTime)
+                                                      .thenComparingLong(activityCursor -> Long.parseLong(activityCursor.getActivityId()));
+    List<ActivityCursor> cursors = getFavoriteActivities(viewerIdentity, spaceId).stream()
+                                                                                 .map(activity -> new ActivityCursor(activity.getId(),
+                                                                                                                     activity.getUpdated()
+                                                                                                                             .getTime()))
+                                                                                 .filter(activityCursor -> cursor == null
+                                                                                     || (newer ? comparator.compare(activityCursor, cursor) > 0
+                                                                                               : comparator.compare(activityCursor, cursor) < 0))
+                                                                                 .sorted(comparator.reversed())
+                                                                                 .collect(Collectors.toList());
+    if (limit > 0 && cursors.size() > limit) {
+      cursors = newer ? cursors.subList(cursors.size() - limit, cursors.size()) : cursors.subList(0, limit);
+    }
+    return new ArrayList<>(cursors);
+  }
+
   public List<ExoSocialActivity> getFavoriteActivities(Identity viewerIdentity, String spaceId) {
     long userIdentityId = Long.parseLong(viewerIdentity.getId());
     FavoriteService favoriteService = ExoContainerContext.getService(FavoriteService.class);
@@ -1091,7 +1281,7 @@ public class RDBMSActivityStorageImpl implements ActivityStorage {
 
   @Override
   public List<String> getActivityIdsFeed(Identity ownerIdentity, int offset, int limit) {
-    return activityDAO.getActivityIdsFeed(ownerIdentity, offset, limit, memberOfSpaceIds(ownerIdentity));
+    return activityDAO.getActivityIdsFeed(ownerIdentity, offset, limit, feedSpaceIds(ownerIdentity));
   }
 
   @Override
@@ -1100,7 +1290,7 @@ public class RDBMSActivityStorageImpl implements ActivityStorage {
     return convertActivityIdsToActivities(activityDAO.getActivityFeed(ownerIdentity,
                                                                       offset,
                                                                       limit,
-                                                                      memberOfSpaceIds(ownerIdentity)));
+                                                                      feedSpaceIds(ownerIdentity)));
   }
 
   @Override
@@ -1110,7 +1300,7 @@ public class RDBMSActivityStorageImpl implements ActivityStorage {
 
   @Override
   public int getNumberOfActivitesOnActivityFeedForUpgrade(Identity ownerIdentity) {
-    return activityDAO.getNumberOfActivitesOnActivityFeed(ownerIdentity, memberOfSpaceIds(ownerIdentity));
+    return activityDAO.getNumberOfActivitesOnActivityFeed(ownerIdentity, feedSpaceIds(ownerIdentity));
   }
 
   @Override
@@ -1437,7 +1627,7 @@ public class RDBMSActivityStorageImpl implements ActivityStorage {
 
   @Override
   public int getNumberOfNewerOnActivityFeed(Identity ownerIdentity, Long sinceTime) {
-    return activityDAO.getNumberOfNewerOnActivityFeed(ownerIdentity, sinceTime, memberOfSpaceIds(ownerIdentity));
+    return activityDAO.getNumberOfNewerOnActivityFeed(ownerIdentity, sinceTime, feedSpaceIds(ownerIdentity));
   }
 
   @Override
@@ -1525,7 +1715,7 @@ public class RDBMSActivityStorageImpl implements ActivityStorage {
   @Override
   @ExoTransactional
   public List<ExoSocialActivity> getNewerFeedActivities(Identity owner, Long sinceTime, int limit) {
-    return convertActivityIdsToActivities(activityDAO.getNewerOnActivityFeed(owner, sinceTime, limit, memberOfSpaceIds(owner)));
+    return convertActivityIdsToActivities(activityDAO.getNewerOnActivityFeed(owner, sinceTime, limit, feedSpaceIds(owner)));
   }
 
   @Override
@@ -1558,7 +1748,7 @@ public class RDBMSActivityStorageImpl implements ActivityStorage {
   @Override
   @ExoTransactional
   public List<ExoSocialActivity> getOlderFeedActivities(Identity owner, Long sinceTime, int limit) {
-    return convertActivityIdsToActivities(activityDAO.getOlderOnActivityFeed(owner, sinceTime, limit, memberOfSpaceIds(owner)));
+    return convertActivityIdsToActivities(activityDAO.getOlderOnActivityFeed(owner, sinceTime, limit, feedSpaceIds(owner)));
   }
 
   @Override
@@ -1590,7 +1780,7 @@ public class RDBMSActivityStorageImpl implements ActivityStorage {
 
   @Override
   public int getNumberOfOlderOnActivityFeed(Identity ownerIdentity, Long sinceTime) {
-    return activityDAO.getNumberOfOlderOnActivityFeed(ownerIdentity, sinceTime, memberOfSpaceIds(ownerIdentity));
+    return activityDAO.getNumberOfOlderOnActivityFeed(ownerIdentity, sinceTime, feedSpaceIds(ownerIdentity));
   }
 
   @Override
@@ -1661,6 +1851,26 @@ public class RDBMSActivityStorageImpl implements ActivityStorage {
     processActivity(existingActivity, false);
   }
 
+  private void processActivities(List<ExoSocialActivity> activities) {
+    for (ExoSocialActivity activity : activities) {
+      if (activity.getTemplateParams() == null) {
+        activity.setTemplateParams(new HashMap<>());
+      }
+    }
+    Iterator<ActivityProcessor> it = activityProcessors.iterator();
+    while (it.hasNext()) {
+      ActivityProcessor processor = it.next();
+      if (!processor.isReadActivityProcessor()) {
+        continue;
+      }
+      try {
+        processor.processActivities(activities);
+      } catch (Exception e) {
+        LOG.warn("Activities processing failed", e);
+      }
+    }
+  }
+
   private void processActivity(ExoSocialActivity existingActivity, boolean preSave) {
     Map<String, String> templateParams = existingActivity.getTemplateParams();
     if (templateParams == null) {
@@ -1716,6 +1926,19 @@ public class RDBMSActivityStorageImpl implements ActivityStorage {
 
   }
 
+  /**
+   * Gets the list of space identity ids to use in activity feed queries. When
+   * the 'membership' feed query strategy is configured, null is returned so
+   * that the user memberships are resolved inside the feed query itself
+   * instead of being passed as a literal list.
+   *
+   * @param ownerIdentity
+   * @return
+   */
+  private List<String> feedSpaceIds(Identity ownerIdentity) {
+    return feedQueryByMembership ? null : memberOfSpaceIds(ownerIdentity);
+  }
+
   public void setIdentityStorage(IdentityStorage identityStorage) {
     this.identityStorage = identityStorage;
   }
@@ -1762,6 +1985,7 @@ public class RDBMSActivityStorageImpl implements ActivityStorage {
   }
 
   @Override
+  @ExoTransactional
   public List<ExoSocialActivity> getActivities(List<String> activityIdList) {
     if (activityIdList == null || activityIdList.isEmpty()) {
       return Collections.emptyList();
@@ -1778,15 +2002,26 @@ public class RDBMSActivityStorageImpl implements ActivityStorage {
         activityIds.add(Long.valueOf(activityId));
       }
     }
-    List<ActivityEntity> activityEntities = activityDAO.findActivities(activityIds);
-    if (activityEntities == null || activityEntities.isEmpty()) {
+    if (activityIds.isEmpty()) {
       return Collections.emptyList();
     }
-    List<ExoSocialActivity> activityDTOs = new ArrayList<>();
-    for (ActivityEntity activityEntity : activityEntities) {
-      activityDTOs.add(convertActivityEntityToActivity(activityEntity));
+    List<ActivityEntity> activityEntities = new ArrayList<>();
+    for (int i = 0; i < activityIds.size(); i += ACTIVITIES_BATCH_SIZE) {
+      activityEntities.addAll(activityDAO.findActivities(activityIds.subList(i,
+                                                                             Math.min(i + ACTIVITIES_BATCH_SIZE,
+                                                                                      activityIds.size()))));
+    }
+    if (activityEntities.isEmpty()) {
+      return Collections.emptyList();
+    }
+    // Keep the order of requested identifiers
+    Map<Long, Integer> activityIndexes = new HashMap<>();
+    for (int i = activityIds.size() - 1; i >= 0; i--) {
+      activityIndexes.put(activityIds.get(i), i);
     }
-    return activityDTOs;
+    activityEntities.sort(Comparator.comparing(activityEntity -> activityIndexes.getOrDefault(activityEntity.getId(),
+                                                                                              Integer.MAX_VALUE)));
+    return convertActivityEntitiesToActivities(activityEntities);
   }
 
   private void processDates(ActivityEntity activityEntity) {
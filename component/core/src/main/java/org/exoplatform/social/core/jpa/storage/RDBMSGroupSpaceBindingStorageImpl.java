@@ -130,6 +130,32 @@ public class RDBMSGroupSpaceBindingStorageImpl implements GroupSpaceBindingStora
     return fillUserBindingFromEntity(entity);
   }
 
+  @ExoTransactional
+  public void saveUserBindings(List<UserSpaceBinding> userSpaceBindings) throws GroupSpaceBindingStorageException {
+    if (userSpaceBindings.isEmpty()) {
+      return;
+    }
+    GroupSpaceBindingEntity groupBindingEntity = groupSpaceBindingDAO.find(userSpaceBindings.get(0).getGroupBinding().getId());
+    List<UserSpaceBindingEntity> entities = new ArrayList<>(userSpaceBindings.size());
+    for (UserSpaceBinding userSpaceBinding : userSpaceBindings) {
+      UserSpaceBindingEntity userSpaceBindingEntity = new UserSpaceBindingEntity();
+      userSpaceBindingEntity.setUser(userSpaceBinding.getUser());
+      userSpaceBindingEntity.setIsMemberBefore(userSpaceBinding.isMemberBefore());
+      userSpaceBindingEntity.setGroupSpaceBinding(groupBindingEntity);
+      entities.add(userSpaceBindingEntity);
+    }
+    userSpaceBindingDAO.createAll(entities);
+  }
+
+  @ExoTransactional
+  public List<UserSpaceBinding> findUserSpaceBindingsBySpaceAndUsers(String spaceId, List<String> userNames) {
+    if (userNames.isEmpty()) {
+      return new ArrayList<>();
+    }
+    return buildUserBindingListFromEntities(userSpaceBindingDAO.findUserBindingsBySpaceAndUsers(Long.parseLong(spaceId),
+                                                                                                userNames));
+  }
+
   @ExoTransactional
   public GroupSpaceBindingReportAction saveGroupSpaceBindingReport(GroupSpaceBindingReportAction groupSpaceBindingReportAction) throws GroupSpaceBindingStorageException {
     GroupSpaceBindingReportActionEntity entity =
@@ -142,10 +168,35 @@ public class RDBMSGroupSpaceBindingStorageImpl implements GroupSpaceBindingStora
     groupSpaceBindingReportUserDAO.create(buildEntityGroupSpaceBindingReportUserFrom(groupSpaceBindingReportUser));
   }
 
+  @Override
+  @ExoTransactional
+  public void saveGroupSpaceBindingReportUsers(List<GroupSpaceBindingReportUser> groupSpaceBindingReportUsers) {
+    if (groupSpaceBindingReportUsers.isEmpty()) {
+      return;
+    }
+    GroupSpaceBindingReportActionEntity reportActionEntity =
+                                                           groupSpaceBindingReportActionDAO.find(groupSpaceBindingReportUsers.get(0)
+                                                                                                                             .getGroupSpaceBindingReportAction()
+                                                                                                                             .getId());
+    List<GroupSpaceBindingReportUserEntity> entities = new ArrayList<>(groupSpaceBindingReportUsers.size());
+    for (GroupSpaceBindingReportUser groupSpaceBindingReportUser : groupSpaceBindingReportUsers) {
+      GroupSpaceBindingReportUserEntity groupSpaceBindingReportUserEntity = new GroupSpaceBindingReportUserEntity();
+      groupSpaceBindingReportUserEntity.setGroupSpaceBindingReportAction(reportActionEntity);
+      groupSpaceBindingReportUserEntity.setUser(groupSpaceBindingReportUser.getUsername());
+      groupSpaceBindingReportUserEntity.setAction(groupSpaceBindingReportUser.getAction());
+      groupSpaceBindingReportUserEntity.setWasPresentBefore(groupSpaceBindingReportUser.isWasPresentBefore());
+      groupSpaceBindingReportUserEntity.setStillInSpace(groupSpaceBindingReportUser.isStillInSpace());
+      groupSpaceBindingReportUserEntity.setDate(groupSpaceBindingReportUser.getDate());
+      entities.add(groupSpaceBindingReportUserEntity);
+    }
+    groupSpaceBindingReportUserDAO.createAll(entities);
+  }
+
   @Override
   public void updateGroupSpaceBindingReportAction(GroupSpaceBindingReportAction bindingReportAction) {
     GroupSpaceBindingReportActionEntity reportActionEntity = groupSpaceBindingReportActionDAO.find(bindingReportAction.getId());
     reportActionEntity.setEndDate(bindingReportAction.getEndDate());
+    reportActionEntity.setProcessedUsers(bindingReportAction.getProcessedUsers());
     groupSpaceBindingReportActionDAO.update(reportActionEntity);
   }
 
@@ -330,6 +381,7 @@ public class RDBMSGroupSpaceBindingStorageImpl implements GroupSpaceBindingStora
     groupSpaceBindingReportActionEntity.setAction(groupSpaceBindingReportAction.getAction());
     groupSpaceBindingReportActionEntity.setStartDate(groupSpaceBindingReportAction.getStartDate());
     groupSpaceBindingReportActionEntity.setEndDate(groupSpaceBindingReportAction.getEndDate());
+    groupSpaceBindingReportActionEntity.setProcessedUsers(groupSpaceBindingReportAction.getProcessedUsers());
     return groupSpaceBindingReportActionEntity;
   }
 
@@ -358,6 +410,7 @@ public class RDBMSGroupSpaceBindingStorageImpl implements GroupSpaceBindingStora
     groupSpaceBindingReportAction.setId(entity.getId());
     groupSpaceBindingReportAction.setStartDate(entity.getStartDate());
     groupSpaceBindingReportAction.setEndDate(entity.getEndDate());
+    groupSpaceBindingReportAction.setProcessedUsers(entity.getProcessedUsers());
     return groupSpaceBindingReportAction;
   }
 
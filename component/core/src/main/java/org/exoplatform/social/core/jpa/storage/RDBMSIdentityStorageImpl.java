@@ -31,6 +31,7 @@ import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
 import java.util.StringTokenizer;
+import java.util.concurrent.TimeUnit;
 
 import javax.persistence.EntityManager;
 import javax.persistence.Query;
@@ -98,6 +99,8 @@ public class RDBMSIdentityStorageImpl implements IdentityStorage {
 
   private static final long    MEGABYTE   = 1024L * 1024L;
 
+  private static final int     ACTIVE_USERS_PAGE_SIZE = 500;
+
   private static final String socialNameSpace = "social";
 
   private final IdentityDAO identityDAO;
@@ -611,24 +614,38 @@ public class RDBMSIdentityStorageImpl implements IdentityStorage {
     //by userGroups
     if (filter.getUserGroups() != null) {
       StringTokenizer stringToken = new StringTokenizer(filter.getUserGroups(), ActiveIdentityFilter.COMMA_SEPARATOR);
-      try {
-        while(stringToken.hasMoreTokens()) {
-          try {
-            ListAccess<User> listAccess = orgService.getUserHandler().findUsersByGroupId(stringToken.nextToken().trim());
-            User[] users = listAccess.load(0, listAccess.getSize());
-            //
+      while(stringToken.hasMoreTokens()) {
+        try {
+          ListAccess<User> listAccess = orgService.getUserHandler().findUsersByGroupId(stringToken.nextToken().trim());
+          int size = listAccess.getSize();
+          // Load users page by page to not hold all group users at once
+          for (int offset = 0; offset < size; offset += ACTIVE_USERS_PAGE_SIZE) {
+            User[] users = listAccess.load(offset, Math.min(ACTIVE_USERS_PAGE_SIZE, size - offset));
             for(User u : users) {
               activeUsers.add(u.getUserName());
             }
-          } catch (Exception e) {
-            LOG.error(e.getMessage(), e);
           }
+        } catch (Exception e) {
+          LOG.error(e.getMessage(), e);
         }
-      } catch (Exception e) {
-        LOG.error(e.getMessage());
       }
     }
 
+    //by last login time
+    if (filter.getDays() > 0) {
+      long lastLoginTime = System.currentTimeMillis() - TimeUnit.DAYS.toMillis(filter.getDays());
+      int offset = 0;
+      List<String> remoteIds;
+      do {
+        remoteIds = getIdentityDAO().getRemoteIdsByLastLoginTime(OrganizationIdentityProvider.NAME,
+                                                                 lastLoginTime,
+                                                                 offset,
+                                                                 ACTIVE_USERS_PAGE_SIZE);
+        activeUsers.addAll(remoteIds);
+        offset += ACTIVE_USERS_PAGE_SIZE;
+      } while (remoteIds.size() == ACTIVE_USERS_PAGE_SIZE);
+    }
+
     //Gets online users and push to activate users
     if (CommonsUtils.getService(UserStateService.class) != null) {
       List<UserStateModel> onlines = CommonsUtils.getService(UserStateService.class).online();
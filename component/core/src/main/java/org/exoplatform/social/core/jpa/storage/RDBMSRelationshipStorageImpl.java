@@ -279,98 +279,51 @@ public class RDBMSRelationshipStorageImpl implements RelationshipStorage {
     return countConnectionByFilter(identity, type, null);
   }
 
+  /**
+   * Computes the suggestions using the first degree connections ids of the
+   * identity and an aggregate count of their own connections, instead of
+   * loading the connections of each first degree connection. As the
+   * connections in common are counted by the database, the maxConnections
+   * parameter is ignored: all the connections of the loaded first degree
+   * connections are considered.
+   */
   @Override
   public Map<Identity, Integer> getSuggestions(Identity identity, int maxConnections, int maxConnectionsToLoad, int maxSuggestions) throws RelationshipStorageException {
-    if (maxConnectionsToLoad > 0 && maxConnections > maxConnectionsToLoad)
-      maxConnectionsToLoad = maxConnections;
+    long identityId = Long.parseLong(identity.getId());
     // Get identities level 1
-   Set<Identity> relationIdLevel1 = new HashSet<Identity>();
-   int size = getConnectionsCount(identity);
-   // The ideal limit of connection to treat however we could need to go beyond this limit
-   // if we cannot reach the expected amount of suggestions
-   int endIndex;
-   Random random = new Random();
-   List<Identity> connections;
-   if (size > maxConnectionsToLoad && maxConnectionsToLoad > 0 && maxConnections > 0) {
-     // The total amount of connections is bigger than the maximum allowed
-     // We will then load only a random sample to reduce the best we can the
-     // required time for this task
-     int startIndex = random.nextInt(size - maxConnectionsToLoad);
-     endIndex = maxConnections;
-     connections= getConnections(identity, startIndex, maxConnectionsToLoad);
-   } else {
-     // The total amount of connections is less than the maximum allowed
-     // We call load everything
-     endIndex = size;
-     connections= getConnections(identity, 0, size);
-   }
-   // we need to load all the connections
-   for (int i = 0; i < connections.size(); i++) {
-     Identity id = connections.get(i);
-     relationIdLevel1.add(id);
-   }
-   relationIdLevel1.remove(identity);
-
-   // Get identities level 2 (suggested Identities)
-   Map<Identity, Integer> suggestedIdentities = new HashMap<Identity, Integer>();
-   Iterator<Identity> it = relationIdLevel1.iterator();
-   for (int j = 0; j < size && it.hasNext(); j++) {
-     Identity id = it.next();
-     // We check if we reach the limit of connections to treat and if we have enough suggestions
-     if (j >= endIndex && suggestedIdentities.size() > maxSuggestions && maxSuggestions > 0)
-       break;
-     int allConnSize = getConnectionsCount(id);
-     int allConnStartIndex = 0;
-     if (allConnSize > maxConnections && maxConnections > 0) {
-       // The current identity has more connections that the allowed amount so we will treat a sample
-       allConnStartIndex = random.nextInt(allConnSize - maxConnections);
-       connections = getConnections(id, allConnStartIndex, maxConnections);
-     } else {
-       // The current identity doesn't have more connections that the allowed amount so we will
-       // treat all of them
-       connections = getConnections(id, 0, allConnSize);
-     }
-     for (int i = 0; i < connections.size(); i++) {
-       Identity ids = connections.get(i);
-       // We check if the current connection is not already part of the connections of the identity
-       // for which we seek some suggestions
-       if (!relationIdLevel1.contains(ids) && !ids.equals(identity) && !ids.isDeleted()
-            && ids.isEnable() && getRelationship(ids, identity) == null) {
-         Integer commonIdentities = suggestedIdentities.get(ids);
-         if (commonIdentities == null) {
-           commonIdentities = new Integer(1);
-         } else {
-           commonIdentities = new Integer(commonIdentities.intValue() + 1);
-         }
-         suggestedIdentities.put(ids, commonIdentities);
-       }
-     }
-   }
-   NavigableMap<Integer, List<Identity>> groupByCommonConnections = new TreeMap<Integer, List<Identity>>();
-   // This for loop allows to group the suggestions by total amount of common connections
-   for (Identity id : suggestedIdentities.keySet()) {
-     Integer commonIdentities = suggestedIdentities.get(id);
-     List<Identity> ids = groupByCommonConnections.get(commonIdentities);
-     if (ids == null) {
-       ids = new ArrayList<Identity>();
-       groupByCommonConnections.put(commonIdentities, ids);
-     }
-     ids.add(id);
-   }
-   Map<Identity, Integer> suggestions = new LinkedHashMap<Identity, Integer>();
-   int suggestionLeft = maxSuggestions;
-   // We iterate over the suggestions starting from the suggestions with the highest amount of common
-   // connections
-   main: for (Integer key : groupByCommonConnections.descendingKeySet()) {
-     List<Identity> ids = groupByCommonConnections.get(key);
-     for (Identity id : ids) {
-       suggestions.put(id, key);
-       // We stop once we have enough suggestions
-       if (maxSuggestions > 0 && --suggestionLeft == 0)
-         break main;
-     }
-   }
-   return suggestions;
+    List<Long> relationIdLevel1 = new ArrayList<>(connectionDAO.getConnectionIds(identityId, Type.CONFIRMED));
+    relationIdLevel1.remove(identityId);
+    if (relationIdLevel1.isEmpty()) {
+      return new LinkedHashMap<>();
+    }
+    if (maxConnectionsToLoad > 0 && relationIdLevel1.size() > maxConnectionsToLoad) {
+      // The total amount of connections is bigger than the maximum allowed
+      // We will then treat only a random sample to reduce the required time
+      Collections.shuffle(relationIdLevel1);
+      relationIdLevel1 = relationIdLevel1.subList(0, maxConnectionsToLoad);
+    }
+
+    // Get identities level 2 (suggested Identities) with their connections in common count
+    Map<Long, Integer> suggestedIdentities = connectionDAO.countConnectionsWithIdentities(relationIdLevel1, Type.CONFIRMED);
+    suggestedIdentities.remove(identityId);
+    // Identities having already a relationship with the identity, whatever its status, can't be suggested
+    suggestedIdentities.keySet().removeAll(connectionDAO.getConnectionIds(identityId, null));
+
+    Map<Identity, Integer> suggestions = new LinkedHashMap<>();
+    // We iterate over the suggestions starting from the suggestions with the highest amount of common
+    // connections
+    Iterator<Map.Entry<Long, Integer>> it = suggestedIdentities.entrySet()
+                                                               .stream()
+                                                               .sorted(Map.Entry.<Long, Integer> comparingByValue().reversed())
+                                                               .iterator();
+    while (it.hasNext() && (maxSuggestions <= 0 || suggestions.size() < maxSuggestions)) {
+      Map.Entry<Long, Integer> suggestedIdentity = it.next();
+      Identity id = identityStorage.findIdentityById(String.valueOf(suggestedIdentity.getKey()));
+      if (id != null) {
+        suggestions.put(id, suggestedIdentity.getValue());
+      }
+    }
+    return suggestions;
   }
 
   @Override
@@ -76,13 +76,16 @@ public class RDBMSSpaceStorageImpl implements SpaceStorage {
 
   private FavoriteService            favoriteService;
 
+  private SpaceLastAccessTracker     spaceLastAccessTracker;
+
   public RDBMSSpaceStorageImpl(SpaceDAO spaceDAO,
                                SpaceMemberDAO spaceMemberDAO,
                                IdentityStorage identityStorage,
                                IdentityDAO identityDAO,
                                ActivityDAO activityDAO,
                                SpaceExternalInvitationDAO spaceExternalInvitationDAO,
-                               FavoriteService favoriteService) {
+                               FavoriteService favoriteService,
+                               SpaceLastAccessTracker spaceLastAccessTracker) {
     this.spaceDAO = spaceDAO;
     this.identityStorage = identityStorage;
     this.spaceMemberDAO = spaceMemberDAO;
@@ -90,6 +93,7 @@ public class RDBMSSpaceStorageImpl implements SpaceStorage {
     this.activityDAO = activityDAO;
     this.spaceExternalInvitationDAO = spaceExternalInvitationDAO;
     this.favoriteService = favoriteService;
+    this.spaceLastAccessTracker = spaceLastAccessTracker;
   }
 
   @Override
@@ -204,7 +208,7 @@ public class RDBMSSpaceStorageImpl implements SpaceStorage {
     XSpaceFilter xFilter = new XSpaceFilter();
     xFilter.setSpaceFilter(spaceFilter);
     xFilter.setLastAccess(true);
-    return getSpaces(spaceFilter.getRemoteId(), Arrays.asList(Status.MEMBER), xFilter, offset, limit);
+    return getAccessedSpaces(spaceFilter.getRemoteId(), xFilter, offset, limit);
   }
 
   @Override
@@ -524,7 +528,7 @@ public class RDBMSSpaceStorageImpl implements SpaceStorage {
     XSpaceFilter xFilter = new XSpaceFilter();
     xFilter.setSpaceFilter(spaceFilter);
     xFilter.setVisited(true);
-    return getSpaces(spaceFilter.getRemoteId(), Arrays.asList(Status.MEMBER), xFilter, offset, limit);
+    return getAccessedSpaces(spaceFilter.getRemoteId(), xFilter, offset, limit);
   }
 
   @Override
@@ -552,6 +556,14 @@ public class RDBMSSpaceStorageImpl implements SpaceStorage {
     SpaceMemberEntity entity = spaceMemberDAO.getSpaceMemberShip(userId, Long.parseLong(spaceId), Status.IGNORED);
     return entity != null;
   }
+
+  @Override
+  public boolean hasUserRole(String spaceId, String userId, String status) {
+    SpaceMemberEntity entity = spaceMemberDAO.getSpaceMemberShip(userId,
+                                                                 Long.parseLong(spaceId),
+                                                                 Status.valueOf(status.toUpperCase()));
+    return entity != null;
+  }
   
   @Override
   public void renameSpace(String remoteId, Space space, String newDisplayName) throws SpaceStorageException {
@@ -613,14 +625,8 @@ public class RDBMSSpaceStorageImpl implements SpaceStorage {
   }
 
   @Override
-  @ExoTransactional
   public void updateSpaceAccessed(String remoteId, Space space) {
-    SpaceMemberEntity member = spaceMemberDAO.getSpaceMemberShip(remoteId, Long.parseLong(space.getId()), Status.MEMBER);
-    if (member != null) {
-      member.setVisited(true);
-      member.setLastAccess(new Date());
-    }
-    spaceMemberDAO.update(member);
+    spaceLastAccessTracker.recordAccess(remoteId, Long.parseLong(space.getId()));
   }
 
   @Override
@@ -743,6 +749,28 @@ public class RDBMSSpaceStorageImpl implements SpaceStorage {
   }
 
   private List<Space> getSpaces(String userId, List<Status> status, SpaceFilter spaceFilter, long offset, long limit) {
+    List<Tuple> entities = getSpaceTuples(userId, status, spaceFilter, null, offset, limit);
+    if (entities.isEmpty()) {
+      return Collections.emptyList();
+    } else {
+      List<Long> ids = entities.stream()
+                               .map(tuple -> tuple.get(0, Long.class))
+                               .collect(Collectors.toList());
+      return buildList(ids);
+    }
+  }
+
+  /**
+   * Gets the spaces matching a filter, restricted to the given space ids when
+   * not null, as tuples of the space id followed by the fields used to order
+   * them.
+   */
+  private List<Tuple> getSpaceTuples(String userId,
+                                     List<Status> status,
+                                     SpaceFilter spaceFilter,
+                                     Set<Long> spaceIds,
+                                     long offset,
+                                     long limit) {
     XSpaceFilter filter = new XSpaceFilter();
     filter.setSpaceFilter(spaceFilter);
     if (userId != null) {
@@ -759,21 +787,101 @@ public class RDBMSSpaceStorageImpl implements SpaceStorage {
       }
     }
 
+    if (spaceIds != null) {
+      Set<Long> ids = new HashSet<>(spaceIds);
+      if (filter.getIds() != null) {
+        ids.retainAll(filter.getIds());
+      }
+      if (ids.isEmpty()) {
+        return Collections.emptyList();
+      }
+      filter.setIds(ids);
+    }
+
     if (filter.isUnifiedSearch()) {
       //return spaceSearchConnector.search(filter, offset, limit);
       throw new UnsupportedOperationException();
     } else {
       SpaceQueryBuilder query = SpaceQueryBuilder.builder().filter(filter).offset(offset).limit(limit);
       List<Tuple> entities = query.build().getResultList();
-      if (entities == null || entities.isEmpty()) {
-        return Collections.emptyList();
-      } else {
-        List<Long> ids = entities.stream()
-                                 .map(tuple -> tuple.get(0, Long.class))
-                                 .collect(Collectors.toList());
-        return buildList(ids);
+      return entities == null ? Collections.emptyList() : entities;
+    }
+  }
+
+  /**
+   * Gets the member spaces of a user ordered by last access or by visit. The
+   * accesses which {@link SpaceLastAccessTracker} didn't write yet are
+   * overlaid on the stored ones, so that reading doesn't write them: the
+   * spaces accessed since the last write come first when ordering by last
+   * access, and they count as visited when ordering by visit.
+   */
+  private List<Space> getAccessedSpaces(String userId, XSpaceFilter xFilter, int offset, int limit) {
+    List<Status> status = Arrays.asList(Status.MEMBER);
+    Map<Long, Long> pendingAccesses = spaceLastAccessTracker.getPendingAccesses(userId);
+    if (pendingAccesses.isEmpty()) {
+      return getSpaces(userId, status, xFilter, offset, limit);
+    }
+    // The pending spaces may be stored after the requested page
+    long storedLimit = limit > 0 ? (long) offset + limit + pendingAccesses.size() : limit;
+    List<Tuple> storedSpaces = getSpaceTuples(userId, status, xFilter, null, 0, storedLimit);
+    List<Tuple> pendingSpaces = getSpaceTuples(userId, status, xFilter, pendingAccesses.keySet(), 0, -1);
+
+    List<Long> ids = xFilter.isLastAccess() ? mergeLastAccessedSpaces(storedSpaces, pendingSpaces, pendingAccesses)
+                                            : mergeVisitedSpaces(storedSpaces, pendingSpaces);
+    int fromIndex = Math.min(offset, ids.size());
+    int toIndex = limit > 0 ? Math.min(offset + limit, ids.size()) : ids.size();
+    return buildList(ids.subList(fromIndex, toIndex));
+  }
+
+  private List<Long> mergeLastAccessedSpaces(List<Tuple> storedSpaces,
+                                             List<Tuple> pendingSpaces,
+                                             Map<Long, Long> pendingAccesses) {
+    List<Long> ids = pendingSpaces.stream()
+                                  .map(tuple -> tuple.get(0, Long.class))
+                                  .sorted(Comparator.comparing((Long id) -> pendingAccesses.get(id)).reversed())
+                                  .collect(Collectors.toList());
+    Set<Long> pendingIds = new HashSet<>(ids);
+    storedSpaces.stream()
+                .map(tuple -> tuple.get(0, Long.class))
+                .filter(id -> !pendingIds.contains(id))
+                .forEach(ids::add);
+    return ids;
+  }
+
+  private List<Long> mergeVisitedSpaces(List<Tuple> storedSpaces, List<Tuple> pendingSpaces) {
+    // Only the spaces which weren't visited yet move, among the visited ones
+    // ordered by name
+    List<Tuple> visitedSpaces = pendingSpaces.stream()
+                                             .filter(tuple -> !isVisited(tuple))
+                                             .sorted(Comparator.comparing(this::getDisplayName, String.CASE_INSENSITIVE_ORDER))
+                                             .collect(Collectors.toList());
+    Set<Long> visitedIds = visitedSpaces.stream().map(tuple -> tuple.get(0, Long.class)).collect(Collectors.toSet());
+    List<Long> ids = new ArrayList<>();
+    int index = 0;
+    for (Tuple storedSpace : storedSpaces) {
+      Long id = storedSpace.get(0, Long.class);
+      if (visitedIds.contains(id)) {
+        continue;
+      }
+      while (index < visitedSpaces.size()
+          && (!isVisited(storedSpace)
+              || String.CASE_INSENSITIVE_ORDER.compare(getDisplayName(visitedSpaces.get(index)), getDisplayName(storedSpace)) < 0)) {
+        ids.add(visitedSpaces.get(index++).get(0, Long.class));
       }
+      ids.add(id);
     }
+    while (index < visitedSpaces.size()) {
+      ids.add(visitedSpaces.get(index++).get(0, Long.class));
+    }
+    return ids;
+  }
+
+  private boolean isVisited(Tuple tuple) {
+    return Boolean.TRUE.equals(tuple.get(1, Boolean.class));
+  }
+
+  private String getDisplayName(Tuple tuple) {
+    return StringUtils.defaultString(tuple.get(2, String.class));
   }
 
   private int getSpacesCount(String userId, List<Status> status, SpaceFilter spaceFilter) {
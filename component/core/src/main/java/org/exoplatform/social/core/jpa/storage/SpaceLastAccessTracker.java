@@ -0,0 +1,215 @@
+/*
+ * This file is part of the Meeds project (https://meeds.io/).
+ * Copyright (C) 2022 Meeds Association contact@meeds.io
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package org.exoplatform.social.core.jpa.storage;
+
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.picocontainer.Startable;
+
+import org.exoplatform.container.ExoContainer;
+import org.exoplatform.container.ExoContainerContext;
+import org.exoplatform.container.component.RequestLifeCycle;
+import org.exoplatform.container.xml.InitParams;
+import org.exoplatform.container.xml.ValueParam;
+import org.exoplatform.services.log.ExoLogger;
+import org.exoplatform.services.log.Log;
+import org.exoplatform.social.core.jpa.storage.dao.SpaceMemberDAO;
+
+/**
+ * Buffers the last access dates of users to spaces and writes them
+ * periodically, merged by user and space, instead of updating the space
+ * membership on each space page navigation. Pending accesses of a user are
+ * overlaid on the stored ones when reading the spaces of the user ordered by
+ * last access, and all pending accesses are written when the server stops.<br>
+ * When the flush interval is 0 or less, accesses are written immediately.
+ */
+public class SpaceLastAccessTracker implements Startable {
+
+  private static final Log                                       LOG                    =
+                                                                     ExoLogger.getLogger(SpaceLastAccessTracker.class);
+
+  private static final String                                    FLUSH_INTERVAL_PARAM   = "flush-interval";
+
+  private static final long                                      DEFAULT_FLUSH_INTERVAL = 60;
+
+  private final SpaceMemberDAO                                   spaceMemberDAO;
+
+  /** Last access time by space id by user name */
+  private final Map<String, Map<Long, Long>>                     pendingAccesses        = new ConcurrentHashMap<>();
+
+  private long                                                   flushInterval          = DEFAULT_FLUSH_INTERVAL;
+
+  private ScheduledExecutorService                               scheduler;
+
+  private ExoContainer                                           container;
+
+  public SpaceLastAccessTracker(SpaceMemberDAO spaceMemberDAO, InitParams params) {
+    this.spaceMemberDAO = spaceMemberDAO;
+    ValueParam flushIntervalParam = params == null ? null : params.getValueParam(FLUSH_INTERVAL_PARAM);
+    if (flushIntervalParam != null) {
+      try {
+        this.flushInterval = Long.parseLong(flushIntervalParam.getValue());
+      } catch (NumberFormatException e) {
+        LOG.warn("Invalid value '{}' of parameter {}, use default value {} seconds",
+                 flushIntervalParam.getValue(),
+                 FLUSH_INTERVAL_PARAM,
+                 DEFAULT_FLUSH_INTERVAL);
+      }
+    }
+  }
+
+  @Override
+  public void start() {
+    if (flushInterval > 0) {
+      container = ExoContainerContext.getCurrentContainer();
+      scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "social-space-last-access-flush");
+        thread.setDaemon(true);
+        return thread;
+      });
+      scheduler.scheduleWithFixedDelay(this::flushInContainer, flushInterval, flushInterval, TimeUnit.SECONDS);
+    }
+  }
+
+  @Override
+  public void stop() {
+    if (scheduler != null) {
+      scheduler.shutdown();
+      try {
+        scheduler.awaitTermination(flushInterval, TimeUnit.SECONDS);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+      scheduler = null;
+      flushInContainer();
+    }
+  }
+
+  /**
+   * Records an access of a user to a space.
+   *
+   * @param username user name
+   * @param spaceId space technical id
+   */
+  public void recordAccess(String username, long spaceId) {
+    long accessTime = System.currentTimeMillis();
+    if (flushInterval <= 0) {
+      Map<Long, Long> accesses = new HashMap<>();
+      accesses.put(spaceId, accessTime);
+      write(username, accesses);
+    } else {
+      // compute is atomic against the removal of the user entry while flushing
+      pendingAccesses.compute(username, (key, accesses) -> {
+        if (accesses == null) {
+          accesses = new ConcurrentHashMap<>();
+        }
+        accesses.merge(spaceId, accessTime, Math::max);
+        return accesses;
+      });
+    }
+  }
+
+  /**
+   * @param username user name
+   * @return the accesses of the user which aren't written yet, as last access
+   *         time by space id
+   */
+  public Map<Long, Long> getPendingAccesses(String username) {
+    Map<Long, Long> accesses = username == null ? null : pendingAccesses.get(username);
+    return accesses == null ? Collections.emptyMap() : new HashMap<>(accesses);
+  }
+
+  /**
+   * @param username user name
+   * @param spaceId space technical id
+   * @return true if an access of the user to the space isn't written yet
+   */
+  public boolean hasPendingAccess(String username, long spaceId) {
+    Map<Long, Long> accesses = username == null ? null : pendingAccesses.get(username);
+    return accesses != null && accesses.containsKey(spaceId);
+  }
+
+  /**
+   * Writes the pending accesses of a user, in the current transaction if any.
+   *
+   * @param username user name
+   */
+  public void flush(String username) {
+    Map<Long, Long> accesses = pendingAccesses.remove(username);
+    if (accesses != null && !accesses.isEmpty()) {
+      write(username, accesses);
+    }
+  }
+
+  /**
+   * Writes all the pending accesses, in the current transaction if any.
+   */
+  public void flush() {
+    for (String username : pendingAccesses.keySet()) {
+      flush(username);
+    }
+  }
+
+  /**
+   * @return number of users having pending accesses to write
+   */
+  public int getPendingUsersCount() {
+    return pendingAccesses.size();
+  }
+
+  private void flushInContainer() {
+    if (pendingAccesses.isEmpty()) {
+      return;
+    }
+    ExoContainerContext.setCurrentContainer(container);
+    RequestLifeCycle.begin(container);
+    try {
+      flush();
+    } catch (Exception e) {
+      LOG.error("Error while writing spaces last access dates", e);
+    } finally {
+      RequestLifeCycle.end();
+    }
+  }
+
+  private void write(String username, Map<Long, Long> accesses) {
+    Map<Long, Date> lastAccessBySpaceId = new HashMap<>();
+    accesses.forEach((spaceId, accessTime) -> lastAccessBySpaceId.put(spaceId, new Date(accessTime)));
+    try {
+      spaceMemberDAO.updateLastAccess(username, lastAccessBySpaceId);
+    } catch (RuntimeException e) {
+      if (flushInterval > 0) {
+        // Keep the accesses to write them next time
+        accesses.forEach((spaceId, accessTime) -> pendingAccesses.compute(username, (key, pending) -> {
+          if (pending == null) {
+            pending = new ConcurrentHashMap<>();
+          }
+          pending.merge(spaceId, accessTime, Math::max);
+          return pending;
+        }));
+      }
+      throw e;
+    }
+  }
+
+}
@@ -19,7 +19,10 @@ package org.exoplatform.social.core.jpa.storage.dao;
 import java.util.Date;
 import java.util.List;
 
+import javax.persistence.Tuple;
+
 import org.exoplatform.commons.api.persistence.GenericDAO;
+import org.exoplatform.social.core.activity.ActivityCursor;
 import org.exoplatform.social.core.activity.ActivityFilter;
 import org.exoplatform.social.core.jpa.storage.entity.ActivityEntity;
 import org.exoplatform.social.core.identity.model.Identity;
@@ -83,6 +86,50 @@ public interface ActivityDAO extends GenericDAO<ActivityEntity, Long> {
     throw new UnsupportedOperationException();
   }
 
+  /**
+   * Retrieves a page of activity positions matching the filter using the
+   * update date and activity id of the given cursor as seek key, instead of an
+   * offset.
+   *
+   * @param activityFilter the activity filter
+   * @param spaceIdentityIds the space identity ids
+   * @param cursor the position from which to load activities, null to load the
+   *          first page
+   * @param newer true to load activities updated after the cursor, else older
+   *          ones
+   * @param limit maximum number item to load
+   * @return the list of activity cursors ordered by update date descending
+   */
+  default List<ActivityCursor> getActivityCursorsByFilter(ActivityFilter activityFilter,
+                                                          List<String> spaceIdentityIds,
+                                                          ActivityCursor cursor,
+                                                          boolean newer,
+                                                          int limit) {
+    throw new UnsupportedOperationException();
+  }
+
+  /**
+   * Retrieves a page of activity feed positions using the update date and
+   * activity id of the given cursor as seek key, instead of an offset.
+   *
+   * @param ownerIdentity the identity
+   * @param spaceIds the space identity ids, null to retrieve user space
+   *          memberships in query
+   * @param cursor the position from which to load activities, null to load the
+   *          first page
+   * @param newer true to load activities updated after the cursor, else older
+   *          ones
+   * @param limit maximum number item to load
+   * @return the list of activity cursors ordered by update date descending
+   */
+  default List<ActivityCursor> getActivityFeedCursors(Identity ownerIdentity,
+                                                      List<String> spaceIds,
+                                                      ActivityCursor cursor,
+                                                      boolean newer,
+                                                      int limit) {
+    throw new UnsupportedOperationException();
+  }
+
   /**
    * @param activityFilter the activity filter
    * @param spaceIdentityIds the space identity ids
@@ -210,7 +257,7 @@ public interface ActivityDAO extends GenericDAO<ActivityEntity, Long> {
    * @param ownerIdentity the Identity
    * @param offset the start index
    * @param limit max number of entities to load
-   * @param spaceIds list of space ids
+   * @param spaceIds list of space ids, null to retrieve user space memberships in query
    * @return list of activity entities
    */
   List<Long> getActivityFeed(Identity ownerIdentity, int offset, int limit, List<String> spaceIds);
@@ -220,7 +267,7 @@ public interface ActivityDAO extends GenericDAO<ActivityEntity, Long> {
    * @param ownerIdentity the Identity
    * @param offset the start index
    * @param limit max number of ids to load
-   * @param spaceIds list of space ids
+   * @param spaceIds list of space ids, null to retrieve user space memberships in query
    * @return list of activity ids
    */
   List<String> getActivityIdsFeed(Identity ownerIdentity, int offset, int limit, List<String> spaceIds);
@@ -228,7 +275,7 @@ public interface ActivityDAO extends GenericDAO<ActivityEntity, Long> {
   /**
    * 
    * @param ownerIdentity the Identity
-   * @param spaceIds list of space ids
+   * @param spaceIds list of space ids, null to retrieve user space memberships in query
    * @return number of activities
    */
   int getNumberOfActivitesOnActivityFeed(Identity ownerIdentity, List<String> spaceIds);
@@ -238,7 +285,7 @@ public interface ActivityDAO extends GenericDAO<ActivityEntity, Long> {
    * @param ownerIdentity the Identity
    * @param sinceTime the beginning time
    * @param limit max number of entities to load
-   * @param spaceIds list of space ids
+   * @param spaceIds list of space ids, null to retrieve user space memberships in query
    * @return list of activity entities
    */
   List<Long> getNewerOnActivityFeed(Identity ownerIdentity, long sinceTime, int limit, List<String> spaceIds);
@@ -247,7 +294,7 @@ public interface ActivityDAO extends GenericDAO<ActivityEntity, Long> {
    * 
    * @param ownerIdentity the Identity
    * @param sinceTime the beginning time
-   * @param spaceIds list of space ids
+   * @param spaceIds list of space ids, null to retrieve user space memberships in query
    * @return number of actvitites
    */
   int getNumberOfNewerOnActivityFeed(Identity ownerIdentity, long sinceTime, List<String> spaceIds);
@@ -257,7 +304,7 @@ public interface ActivityDAO extends GenericDAO<ActivityEntity, Long> {
    * @param ownerIdentity the Identity
    * @param sinceTime the end time
    * @param limit max number entities to load
-   * @param spaceIds list of space ids
+   * @param spaceIds list of space ids, null to retrieve user space memberships in query
    * @return list of activity entities
    */
   List<Long> getOlderOnActivityFeed(Identity ownerIdentity, long sinceTime, int limit, List<String> spaceIds);
@@ -266,7 +313,7 @@ public interface ActivityDAO extends GenericDAO<ActivityEntity, Long> {
    * 
    * @param ownerIdentity the Identity
    * @param sinceTime the end time
-   * @param spaceIds list of space ids
+   * @param spaceIds list of space ids, null to retrieve user space memberships in query
    * @return number of activities
    */
   int getNumberOfOlderOnActivityFeed(Identity ownerIdentity, long sinceTime, List<String> spaceIds);
@@ -483,6 +530,16 @@ public interface ActivityDAO extends GenericDAO<ActivityEntity, Long> {
    * @return
    */
   List<ActivityEntity> findCommentsAndSubCommentsOfActivity(Long activityId);
+
+  /**
+   * find comments and Sub Comments of a list of activities. Each returned
+   * {@link Tuple} contains the comment id, its poster id, its parent id and
+   * the parent of its parent id (null for first level comments).
+   *
+   * @param activityIds
+   * @return
+   */
+  List<Tuple> findCommentsAndSubCommentsOfActivities(List<Long> activityIds);
   
   
   /**
@@ -15,4 +15,10 @@ public class ActivityShareActionDAO extends GenericDAOJPAImpl<ActivityShareActio
     return query.getResultList();
   }
 
+  public List<ActivityShareActionEntity> getShareActionsByActivityIds(List<Long> activityIds) {
+    TypedQuery<ActivityShareActionEntity> query = getEntityManager().createNamedQuery("SocActivityShareAction.getShareActionsByActivityIds", ActivityShareActionEntity.class);
+    query.setParameter("activityIds", activityIds);
+    return query.getResultList();
+  }
+
 }
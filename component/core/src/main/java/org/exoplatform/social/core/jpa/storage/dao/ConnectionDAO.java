@@ -16,7 +16,9 @@
  */
 package org.exoplatform.social.core.jpa.storage.dao;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 import org.exoplatform.commons.api.persistence.GenericDAO;
@@ -131,11 +133,27 @@ public interface ConnectionDAO extends GenericDAO<ConnectionEntity, Long> {
 
   /**
    * Return list of identities with whom the passed identity in parameter has a
-   * confirmed relationship
+   * relationship with the given status
    * 
    * @param identityId
-   * @param status
+   * @param status the relationship status, or null to return identities
+   *          having any relationship with the identity
    * @return {@link Set} of {@link Identity} ids
    */
   Set<Long> getConnectionIds(long identityId, Type status);
+
+  /**
+   * Counts, for each enabled and not deleted identity, the number of
+   * relationships with the given status that it has with the identities passed
+   * in parameter. This allows to compute the connections in common of the
+   * second degree connections using aggregate queries.
+   *
+   * @param identityIds the ids of the identities to which the relationships are
+   *          counted
+   * @param status the relationship status
+   * @return a {@link Map} of {@link Identity} id with its relationships count
+   */
+  default Map<Long, Integer> countConnectionsWithIdentities(Collection<Long> identityIds, Type status) {
+    throw new UnsupportedOperationException();
+  }
 }
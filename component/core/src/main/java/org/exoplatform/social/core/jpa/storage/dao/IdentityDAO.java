@@ -41,6 +41,32 @@ public interface IdentityDAO extends GenericDAO<IdentityEntity, Long> {
 
   List<Long> getAllIdsByProvider(String providerId, int offset, int limit);
 
+  /**
+   * Get the remote ids of enabled identities which last login is after a
+   * given time
+   *
+   * @param providerId identity provider
+   * @param lastLoginTime minimum last login time in milliseconds
+   * @param offset
+   * @param limit
+   * @return remote ids ordered by identity id
+   */
+  default List<String> getRemoteIdsByLastLoginTime(String providerId, long lastLoginTime, int offset, int limit) {
+    throw new UnsupportedOperationException();
+  }
+
+  /**
+   * Get the ids of identities having a given profile property
+   *
+   * @param propertyName profile property name
+   * @param offset
+   * @param limit
+   * @return identity ids ordered by id
+   */
+  default List<Long> getIdsByPropertyName(String propertyName, int offset, int limit) {
+    throw new UnsupportedOperationException();
+  }
+
   ListAccess<Map.Entry<IdentityEntity, ConnectionEntity>> findAllIdentitiesWithConnections(long identityId,
                                                                                            String firstCharacterFieldName,
                                                                                            char firstCharacter,
@@ -25,6 +25,27 @@ public interface SpaceDAO extends GenericDAO<SpaceEntity, Long> {
 
   List<Long> getLastSpaces(int limit);
 
+  /**
+   * Get the identifiers of all spaces ordered by identifier
+   *
+   * @param offset
+   * @param limit
+   * @return list of spaces identifiers
+   */
+  default List<Long> getAllIds(int offset, int limit) {
+    throw new UnsupportedOperationException();
+  }
+
+  /**
+   * Get spaces by their identifiers
+   *
+   * @param ids spaces identifiers
+   * @return list of found spaces, not ordered
+   */
+  default List<SpaceEntity> getSpacesByIds(List<Long> ids) {
+    throw new UnsupportedOperationException();
+  }
+
   SpaceEntity getSpaceByGroupId(String groupId);
 
   SpaceEntity getSpaceByURL(String url);
@@ -16,7 +16,10 @@
  */
 package org.exoplatform.social.core.jpa.storage.dao;
 
+import java.util.Date;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 import javax.persistence.Tuple;
 
@@ -137,4 +140,27 @@ public interface SpaceMemberDAO extends GenericDAO<SpaceMemberEntity, Long> {
         throw new UnsupportedOperationException();
     }
 
+    /**
+     * Updates the last access date of the user to spaces where the user is member and
+     * marks these spaces as visited. An older date than the stored one is
+     * ignored.
+     *
+     * @param username user name
+     * @param lastAccessBySpaceId last access date by space id
+     */
+    default void updateLastAccess(String username, Map<Long, Date> lastAccessBySpaceId) {
+        throw new UnsupportedOperationException();
+    }
+
+    /**
+     * Get the members of a list of spaces having one of the given statuses
+     *
+     * @param spaceIds spaces identifiers
+     * @param statuses membership statuses
+     * @return user names indexed by space identifier
+     */
+    default Map<Long, Set<String>> getSpacesMembers(List<Long> spaceIds, List<Status> statuses) {
+        throw new UnsupportedOperationException();
+    }
+
 }
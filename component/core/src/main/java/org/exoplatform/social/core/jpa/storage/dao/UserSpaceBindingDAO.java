@@ -109,4 +109,13 @@ public interface UserSpaceBindingDAO extends GenericDAO<UserSpaceBindingEntity,
    * @return number of bound users
    */
   long countBoundUsers(Long spaceId);
+
+  /**
+   * Find the bindings of a list of users to a space
+   *
+   * @param spaceId
+   * @param userNames
+   * @return the user bindings of the space for the given users
+   */
+  List<UserSpaceBindingEntity> findUserBindingsBySpaceAndUsers(Long spaceId, List<String> userNames);
 }
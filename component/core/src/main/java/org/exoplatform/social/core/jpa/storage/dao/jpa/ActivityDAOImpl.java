@@ -26,6 +26,7 @@ import java.util.List;
 import java.util.Set;
 import java.util.Map;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.stream.Collectors;
 
 import javax.persistence.NoResultException;
@@ -37,12 +38,14 @@ import org.apache.commons.collections.CollectionUtils;
 import org.apache.commons.lang.StringUtils;
 import org.exoplatform.commons.api.persistence.ExoTransactional;
 import org.exoplatform.commons.persistence.impl.GenericDAOJPAImpl;
+import org.exoplatform.social.core.activity.ActivityCursor;
 import org.exoplatform.social.core.activity.ActivityFilter;
 import org.exoplatform.social.core.identity.model.Identity;
 import org.exoplatform.social.core.identity.provider.OrganizationIdentityProvider;
 import org.exoplatform.social.core.jpa.storage.dao.ActivityDAO;
 import org.exoplatform.social.core.jpa.storage.dao.ConnectionDAO;
 import org.exoplatform.social.core.jpa.storage.entity.ActivityEntity;
+import org.exoplatform.social.core.jpa.storage.entity.SpaceMemberEntity;
 import org.exoplatform.social.core.jpa.storage.entity.StreamType;
 import org.exoplatform.social.core.relationship.model.Relationship.Type;
 import org.exoplatform.social.core.storage.ActivityStorageException;
@@ -61,6 +64,10 @@ public class ActivityDAOImpl extends GenericDAOJPAImpl<ActivityEntity, Long> imp
 
   private static final String        QUERY_FILTER_COUNT_PREFIX = "SocActivity.countAllActivities";
 
+  private static final String        QUERY_CURSOR_FIND_PREFIX  = "SocActivity.findActivityCursors";
+
+  private static final String        QUERY_CURSOR_FEED_PREFIX  = "SocActivity.getActivityFeedCursors";
+
   private final Map<String, Boolean> filterNamedQueries        = new HashMap<>();
 
   private final ConnectionDAO        connectionDAO;
@@ -114,25 +121,14 @@ public class ActivityDAOImpl extends GenericDAOJPAImpl<ActivityEntity, Long> imp
 
     Set<Long> connections = connectionDAO.getConnectionIds(ownerId, Type.CONFIRMED);
 
-    String queryName = "SocActivity.getActivityFeed";
-    if (connections.isEmpty()) {
-      queryName += "NoConnections";
-    }
-
-    List<Long> owners = new ArrayList<>();
-    owners.add(ownerId);
-    if (spaceIds != null && !spaceIds.isEmpty()) {
-      for (String id : spaceIds) {
-        owners.add(Long.parseLong(id));
-      }
-    }
+    String queryName = getFeedQueryName("SocActivity.getActivityFeed", spaceIds, connections);
 
     TypedQuery<Tuple> query = getEntityManager().createNamedQuery(queryName, Tuple.class);
     if (!connections.isEmpty()) {
       query.setParameter("connections", connections);
       query.setParameter("connStreamType", StreamType.POSTER);
     }
-    query.setParameter("owners", owners);
+    setFeedOwnersParameters(query, ownerIdentity, spaceIds);
 
     if (limit > 0) {
       query.setFirstResult(offset > 0 ? offset : 0);
@@ -189,25 +185,14 @@ public class ActivityDAOImpl extends GenericDAOJPAImpl<ActivityEntity, Long> imp
     long ownerId = Long.parseLong(ownerIdentity.getId());
     Set<Long> connections = connectionDAO.getConnectionIds(ownerId, Type.CONFIRMED);
 
-    String queryName = "SocActivity.getActivityIdsFeed";
-    if (connections.isEmpty()) {
-      queryName += "NoConnections";
-    }
-
-    List<Long> owners = new ArrayList<>();
-    owners.add(ownerId);
-    if (spaceIds != null && !spaceIds.isEmpty()) {
-      for (String id : spaceIds) {
-        owners.add(Long.parseLong(id));
-      }
-    }
+    String queryName = getFeedQueryName("SocActivity.getActivityIdsFeed", spaceIds, connections);
 
     TypedQuery<Tuple> query = getEntityManager().createNamedQuery(queryName, Tuple.class);
     if (!connections.isEmpty()) {
       query.setParameter("connections", connections);
       query.setParameter(STREAM_TYPE, StreamType.POSTER);
     }
-    query.setParameter("owners", owners);
+    setFeedOwnersParameters(query, ownerIdentity, spaceIds);
     query.setParameter("streamTypes", Arrays.asList(StreamType.POSTER,StreamType.SPACE));
 
     if (limit > 0) {
@@ -223,23 +208,14 @@ public class ActivityDAOImpl extends GenericDAOJPAImpl<ActivityEntity, Long> imp
 
     Set<Long> connections = connectionDAO.getConnectionIds(ownerId, Type.CONFIRMED);
 
-    String queryName = "SocActivity.getNumberOfActivitesOnActivityFeed";
-    if(connections.isEmpty()) {
-      queryName += "NoConnections";
-    }
-    List<Long> owners = new ArrayList<>();
-    for (String id : spaceIds) {
-      owners.add(Long.parseLong(id));
-    }
+    String queryName = getFeedQueryName("SocActivity.getNumberOfActivitesOnActivityFeed", spaceIds, connections);
 
-    owners.add(ownerId);
-    
     TypedQuery<Long> query = getEntityManager().createNamedQuery(queryName, Long.class);
     if(!connections.isEmpty()) {
       query.setParameter("connections", connections);
       query.setParameter("connStreamType", StreamType.POSTER);
     }
-    query.setParameter("owners", owners);
+    setFeedOwnersParameters(query, ownerIdentity, spaceIds);
 
     return query.getSingleResult().intValue();
   }
@@ -247,20 +223,10 @@ public class ActivityDAOImpl extends GenericDAOJPAImpl<ActivityEntity, Long> imp
   @Override
   public List<Long> getNewerOnActivityFeed(Identity ownerIdentity, long sinceTime, int limit, List<String> spaceIds) {
     long ownerId = Long.parseLong(ownerIdentity.getId());
-    List<Long> owners = new ArrayList<>();
-    owners.add(ownerId);
-    if (spaceIds != null && !spaceIds.isEmpty()) {
-      for (String id : spaceIds) {
-        owners.add(Long.parseLong(id));
-      }
-    }
 
     Set<Long> connections = connectionDAO.getConnectionIds(ownerId, Type.CONFIRMED);
 
-    String queryName = "SocActivity.getNewerActivityFeed";
-    if (connections.isEmpty()) {
-      queryName += "NoConnections";
-    }
+    String queryName = getFeedQueryName("SocActivity.getNewerActivityFeed", spaceIds, connections);
 
     TypedQuery<Tuple> query = getEntityManager().createNamedQuery(queryName, Tuple.class);
     if (!connections.isEmpty()) {
@@ -268,7 +234,7 @@ public class ActivityDAOImpl extends GenericDAOJPAImpl<ActivityEntity, Long> imp
       query.setParameter("connStreamType", StreamType.POSTER);
     }
     query.setParameter("sinceTime", sinceTime);
-    query.setParameter("owners", owners);
+    setFeedOwnersParameters(query, ownerIdentity, spaceIds);
 
     if (limit > 0) {
       query.setFirstResult(0);
@@ -283,27 +249,17 @@ public class ActivityDAOImpl extends GenericDAOJPAImpl<ActivityEntity, Long> imp
   @Override
   public int getNumberOfNewerOnActivityFeed(Identity ownerIdentity, long sinceTime, List<String> spaceIds) {
     long ownerId = Long.parseLong(ownerIdentity.getId());
-    List<Long> owners = new ArrayList<>();
-    owners.add(ownerId);
-    if (spaceIds != null && !spaceIds.isEmpty()) {
-      for (String id : spaceIds) {
-        owners.add(Long.parseLong(id));
-      }
-    }
 
     Set<Long> connections = connectionDAO.getConnectionIds(ownerId, Type.CONFIRMED);
 
-    String queryName = "SocActivity.getNumberOfNewerOnActivityFeed";
-    if(connections.isEmpty()) {
-      queryName += "NoConnections";
-    }
+    String queryName = getFeedQueryName("SocActivity.getNumberOfNewerOnActivityFeed", spaceIds, connections);
     TypedQuery<Long> query = getEntityManager().createNamedQuery(queryName, Long.class);
     if(!connections.isEmpty()) {
       query.setParameter("connections", connections);
       query.setParameter("connStreamType", StreamType.POSTER);
     }
     query.setParameter("sinceTime", sinceTime);
-    query.setParameter("owners", owners);
+    setFeedOwnersParameters(query, ownerIdentity, spaceIds);
 
     return query.getSingleResult().intValue();
   }
@@ -311,20 +267,10 @@ public class ActivityDAOImpl extends GenericDAOJPAImpl<ActivityEntity, Long> imp
   @Override
   public List<Long> getOlderOnActivityFeed(Identity ownerIdentity, long sinceTime,int limit, List<String> spaceIds) {
     long ownerId = Long.parseLong(ownerIdentity.getId());
-    List<Long> owners = new ArrayList<>();
-    owners.add(ownerId);
-    if (spaceIds != null && !spaceIds.isEmpty()) {
-      for (String id : spaceIds) {
-        owners.add(Long.parseLong(id));
-      }
-    }
 
     Set<Long> connections = connectionDAO.getConnectionIds(ownerId, Type.CONFIRMED);
 
-    String queryName = "SocActivity.getOlderActivityFeed";
-    if (connections.isEmpty()) {
-      queryName += "NoConnections";
-    }
+    String queryName = getFeedQueryName("SocActivity.getOlderActivityFeed", spaceIds, connections);
 
     TypedQuery<Tuple> query = getEntityManager().createNamedQuery(queryName, Tuple.class);
     if (!connections.isEmpty()) {
@@ -332,7 +278,7 @@ public class ActivityDAOImpl extends GenericDAOJPAImpl<ActivityEntity, Long> imp
       query.setParameter("connStreamType", StreamType.POSTER);
     }
     query.setParameter("sinceTime", sinceTime);
-    query.setParameter("owners", owners);
+    setFeedOwnersParameters(query, ownerIdentity, spaceIds);
 
     if (limit > 0) {
       query.setFirstResult(0);
@@ -349,18 +295,7 @@ public class ActivityDAOImpl extends GenericDAOJPAImpl<ActivityEntity, Long> imp
 
     Set<Long> connections = connectionDAO.getConnectionIds(ownerId, Type.CONFIRMED);
 
-    String queryName = "SocActivity.getNumberOfOlderOnActivityFeed";
-    if(connections.isEmpty()) {
-      queryName += "NoConnections";
-    }
-
-    List<Long> owners = new ArrayList<>();
-    owners.add(ownerId);
-    if (spaceIds != null && !spaceIds.isEmpty()) {
-      for (String id : spaceIds) {
-        owners.add(Long.valueOf(id));
-      }
-    }
+    String queryName = getFeedQueryName("SocActivity.getNumberOfOlderOnActivityFeed", spaceIds, connections);
 
     TypedQuery<Long> query = getEntityManager().createNamedQuery(queryName, Long.class);
     if(!connections.isEmpty()) {
@@ -368,11 +303,145 @@ public class ActivityDAOImpl extends GenericDAOJPAImpl<ActivityEntity, Long> imp
       query.setParameter("connStreamType", StreamType.POSTER);
     }
     query.setParameter("sinceTime", sinceTime);
-    query.setParameter("owners", owners);
+    setFeedOwnersParameters(query, ownerIdentity, spaceIds);
 
     return query.getSingleResult().intValue();
   }
 
+  @Override
+  public List<ActivityCursor> getActivityCursorsByFilter(ActivityFilter activityFilter,
+                                                         List<String> spaceIdentityIds,
+                                                         ActivityCursor cursor,
+                                                         boolean newer,
+                                                         int limit) {
+    List<String> suffixes = new ArrayList<>();
+    List<String> predicates = new ArrayList<>();
+    buildPredicates(activityFilter, spaceIdentityIds, suffixes, predicates);
+
+    String queryName = suffixes.isEmpty() ? QUERY_CURSOR_FIND_PREFIX
+                                          : QUERY_CURSOR_FIND_PREFIX + "By" + StringUtils.join(suffixes, "By");
+    TypedQuery<Tuple> query = buildCursorQuery(queryName, predicates, cursor, newer);
+    addQueryFilterParameters(activityFilter, spaceIdentityIds, query);
+    return getActivityCursors(query, newer, limit);
+  }
+
+  @Override
+  public List<ActivityCursor> getActivityFeedCursors(Identity ownerIdentity,
+                                                     List<String> spaceIds,
+                                                     ActivityCursor cursor,
+                                                     boolean newer,
+                                                     int limit) {
+    long ownerId = Long.parseLong(ownerIdentity.getId());
+    Set<Long> connections = connectionDAO.getConnectionIds(ownerId, Type.CONFIRMED);
+
+    String ownersPredicate = spaceIds == null ? "( item.ownerId in (:owners) OR item.ownerId in ("
+        + ActivityEntity.MEMBER_SPACE_IDENTITY_IDS + ") )" : "item.ownerId in (:owners)";
+    if (!connections.isEmpty()) {
+      ownersPredicate = "( " + ownersPredicate + " OR ( item.ownerId in (:connections) AND item.streamType = :connStreamType ) )";
+    }
+    List<String> predicates = new ArrayList<>();
+    predicates.add(ownersPredicate);
+
+    String queryName = getFeedQueryName(QUERY_CURSOR_FEED_PREFIX, spaceIds, connections);
+    TypedQuery<Tuple> query = buildCursorQuery(queryName, predicates, cursor, newer);
+    if (!connections.isEmpty()) {
+      query.setParameter("connections", connections);
+      query.setParameter("connStreamType", StreamType.POSTER);
+    }
+    setFeedOwnersParameters(query, ownerIdentity, spaceIds);
+    return getActivityCursors(query, newer, limit);
+  }
+
+  /**
+   * Builds, or retrieves when already registered, a query that seeks stream
+   * items from the given cursor position, using the update date and the
+   * activity id as tie breaker so that the pagination stays stable when
+   * several activities share the same update date. The direction is part of
+   * the query name, since it determines the sort order even without cursor.
+   */
+  private TypedQuery<Tuple> buildCursorQuery(String queryName, List<String> predicates, ActivityCursor cursor, boolean newer) {
+    queryName += newer ? "Newer" : "Older";
+    if (cursor != null) {
+      queryName += "ThanCursor";
+    }
+    TypedQuery<Tuple> query;
+    if (filterNamedQueries.containsKey(queryName)) {
+      query = getEntityManager().createNamedQuery(queryName, Tuple.class);
+    } else {
+      StringBuilder queryContent = new StringBuilder("SELECT DISTINCT item.activity.id, item.updatedDate FROM SocStreamItem item WHERE item.activity.hidden = false");
+      for (String predicate : predicates) {
+        queryContent.append(" AND ").append(predicate);
+      }
+      if (cursor != null) {
+        String operator = newer ? ">" : "<";
+        queryContent.append(" AND ( item.updatedDate ")
+                    .append(operator)
+                    .append(" :cursorTime OR ( item.updatedDate = :cursorTime AND item.activity.id ")
+                    .append(operator)
+                    .append(" :cursorId ) )");
+      }
+      String direction = newer ? "ASC" : "DESC";
+      queryContent.append(" ORDER BY item.updatedDate ").append(direction).append(", item.activity.id ").append(direction);
+
+      query = getEntityManager().createQuery(queryContent.toString(), Tuple.class);
+      getEntityManager().getEntityManagerFactory().addNamedQuery(queryName, query);
+      filterNamedQueries.put(queryName, true);
+    }
+    if (cursor != null) {
+      query.setParameter("cursorTime", cursor.getUpdatedTime());
+      query.setParameter("cursorId", Long.parseLong(cursor.getActivityId()));
+    }
+    return query;
+  }
+
+  private List<ActivityCursor> getActivityCursors(TypedQuery<Tuple> query, boolean newer, int limit) {
+    if (limit > 0) {
+      query.setMaxResults(limit);
+    }
+    List<Tuple> resultList = query.getResultList();
+    Set<Long> activityIds = new HashSet<>();
+    List<ActivityCursor> cursors = new ArrayList<>(resultList.size());
+    for (Tuple tuple : resultList) {
+      Long activityId = tuple.get(0, Long.class);
+      if (activityIds.add(activityId)) {
+        cursors.add(new ActivityCursor(String.valueOf(activityId), tuple.get(1, Long.class)));
+      }
+    }
+    if (newer) {
+      Collections.reverse(cursors);
+    }
+    return cursors;
+  }
+
+  /**
+   * Computes the name of the activity feed query to use. When no space
+   * identifiers are given, the query variant that retrieves the user space
+   * memberships using a sub query is used.
+   */
+  private String getFeedQueryName(String queryName, List<String> spaceIds, Set<Long> connections) {
+    if (spaceIds == null) {
+      queryName += "ByMembership";
+    }
+    if (connections.isEmpty()) {
+      queryName += "NoConnections";
+    }
+    return queryName;
+  }
+
+  private void setFeedOwnersParameters(Query query, Identity ownerIdentity, List<String> spaceIds) {
+    List<Long> owners = new ArrayList<>();
+    owners.add(Long.parseLong(ownerIdentity.getId()));
+    if (spaceIds == null) {
+      query.setParameter("userId", ownerIdentity.getRemoteId());
+      query.setParameter("memberStatus", SpaceMemberEntity.Status.MEMBER);
+    } else {
+      for (String id : spaceIds) {
+        owners.add(Long.parseLong(id));
+      }
+    }
+    query.setParameter("owners", owners);
+  }
+
   @Override
   public List<Long> getUserActivities(Identity owner,
                                           long offset,
@@ -820,6 +889,14 @@ public class ActivityDAOImpl extends GenericDAOJPAImpl<ActivityEntity, Long> imp
     return query.getResultList();
   }
 
+  @Override
+  public List<Tuple> findCommentsAndSubCommentsOfActivities(List<Long> activityIds) {
+    TypedQuery<Tuple> query = getEntityManager().createNamedQuery("SocActivity.findCommentsAndSubCommentsOfActivities",
+                                                                  Tuple.class);
+    query.setParameter("ids", activityIds);
+    return query.getResultList();
+  }
+
   @Override
   public List<ActivityEntity> getComments(long activityId, int offset, int limit, boolean sortDescending) {
     String queryString = sortDescending ? "SocActivity.findLastCommentsOfActivity" : "SocActivity.findCommentsOfActivity";
@@ -43,6 +43,8 @@ import org.exoplatform.social.core.search.Sorting;
  */
 public class ConnectionDAOImpl extends GenericDAOJPAImpl<ConnectionEntity, Long> implements ConnectionDAO {
 
+  private static final int MAX_IDS_PER_QUERY = 1000;
+
   @Override
   @ExoTransactional
   public long count(Identity identity, Type status) {
@@ -91,9 +93,14 @@ public class ConnectionDAOImpl extends GenericDAOJPAImpl<ConnectionEntity, Long>
 
   @Override
   public Set<Long> getConnectionIds(long identityId, Type status) {
-    TypedQuery<Tuple> query = getEntityManager().createNamedQuery("SocConnection.getConnectionIdsWithStatus", Tuple.class);
+    TypedQuery<Tuple> query;
+    if (status == null || status == Type.ALL) {
+      query = getEntityManager().createNamedQuery("SocConnection.getConnectionIdsWithoutStatus", Tuple.class);
+    } else {
+      query = getEntityManager().createNamedQuery("SocConnection.getConnectionIdsWithStatus", Tuple.class);
+      query.setParameter("status", status);
+    }
     query.setParameter("identityId", identityId);
-    query.setParameter("status", status);
     List<Tuple> resultList = query.getResultList();
     return resultList == null ? Collections.emptySet() : resultList.stream().map(tuple -> {
       Long id = (Long) tuple.get(0);
@@ -104,6 +111,21 @@ public class ConnectionDAOImpl extends GenericDAOJPAImpl<ConnectionEntity, Long>
     }).collect(Collectors.toSet());
   }
 
+  @Override
+  public Map<Long, Integer> countConnectionsWithIdentities(Collection<Long> identityIds, Type status) {
+    Map<Long, Integer> counts = new HashMap<>();
+    if (identityIds == null || identityIds.isEmpty()) {
+      return counts;
+    }
+    List<Long> ids = new ArrayList<>(identityIds);
+    for (int i = 0; i < ids.size(); i += MAX_IDS_PER_QUERY) {
+      List<Long> idsChunk = ids.subList(i, Math.min(i + MAX_IDS_PER_QUERY, ids.size()));
+      countConnections("SocConnection.countConnectionsByReceiver", idsChunk, status, counts);
+      countConnections("SocConnection.countConnectionsBySender", idsChunk, status, counts);
+    }
+    return counts;
+  }
+
   @Override
   public List<ConnectionEntity> getConnections(Identity sender, Identity receiver, Type status) {
     if (receiver == null && sender == null) {
@@ -421,6 +443,18 @@ public class ConnectionDAOImpl extends GenericDAOJPAImpl<ConnectionEntity, Long>
     return receiversList;
   }
 
+  private void countConnections(String queryName, List<Long> identityIds, Type status, Map<Long, Integer> counts) {
+    TypedQuery<Tuple> query = getEntityManager().createNamedQuery(queryName, Tuple.class);
+    query.setParameter("ids", identityIds);
+    query.setParameter("status", status);
+    List<Tuple> resultList = query.getResultList();
+    if (resultList != null) {
+      for (Tuple tuple : resultList) {
+        counts.merge((Long) tuple.get(0), ((Number) tuple.get(1)).intValue(), Integer::sum);
+      }
+    }
+  }
+
   private List<ConnectionEntity> getSenders(long receiverId, Type status, int offset, int limit) {
     EntityManager em = getEntityManager();
     String queryName = null;
@@ -39,6 +39,7 @@ import org.exoplatform.commons.utils.ListAccess;
 import org.exoplatform.services.log.ExoLogger;
 import org.exoplatform.services.log.Log;
 import org.exoplatform.social.core.identity.model.Identity;
+import org.exoplatform.social.core.identity.model.Profile;
 import org.exoplatform.social.core.identity.provider.OrganizationIdentityProvider;
 import org.exoplatform.social.core.jpa.search.ExtendProfileFilter;
 import org.exoplatform.social.core.jpa.storage.dao.IdentityDAO;
@@ -116,6 +117,34 @@ public class IdentityDAOImpl extends GenericDAOJPAImpl<IdentityEntity, Long> imp
     return query.getResultList();
   }
 
+  @Override
+  public List<String> getRemoteIdsByLastLoginTime(String providerId, long lastLoginTime, int offset, int limit) {
+    TypedQuery<String> query = getEntityManager().createNamedQuery("SocIdentity.getRemoteIdsByLastLoginTime", String.class);
+    query.setParameter("providerId", providerId);
+    query.setParameter("propertyName", Profile.LAST_LOGIN_TIME);
+    // Times are stored as epoch milliseconds strings, compared as strings
+    // since they have the same number of digits. The upper bound excludes the
+    // values which aren't numeric.
+    query.setParameter("lastLoginTime", String.valueOf(lastLoginTime));
+    query.setParameter("maxLoginTime", String.valueOf(Long.MAX_VALUE));
+    if (limit > 0) {
+      query.setFirstResult(offset);
+      query.setMaxResults(limit);
+    }
+    return query.getResultList();
+  }
+
+  @Override
+  public List<Long> getIdsByPropertyName(String propertyName, int offset, int limit) {
+    TypedQuery<Long> query = getEntityManager().createNamedQuery("SocIdentity.getIdsByPropertyName", Long.class);
+    query.setParameter("propertyName", propertyName);
+    if (limit > 0) {
+      query.setFirstResult(offset);
+      query.setMaxResults(limit);
+    }
+    return query.getResultList();
+  }
+
   @Override
   public ListAccess<Map.Entry<IdentityEntity, ConnectionEntity>> findAllIdentitiesWithConnections(long identityId, String firstCharacterFieldName, char firstCharacter, String sortField, String sortDirection) {
     Query listQuery = getIdentitiesQuerySortedByField(OrganizationIdentityProvider.NAME, firstCharacterFieldName, firstCharacter, sortField, sortDirection, true, null, null, null);
@@ -56,6 +56,8 @@ public class MetadataItemDAO extends GenericDAOJPAImpl<MetadataItemEntity, Long>
 
   private static final String OBJECT_ID            = "objectId";
 
+  private static final String OBJECT_IDS           = "objectIds";
+
   private static final String SPACE_ID             = "spaceId";
   
   private static final String SPACE_IDS            = "spaceIds";
@@ -74,6 +76,14 @@ public class MetadataItemDAO extends GenericDAOJPAImpl<MetadataItemEntity, Long>
     return query.getResultList();
   }
 
+  public List<MetadataItemEntity> getMetadataItemsByObjects(String objectType, List<String> objectIds) {
+    TypedQuery<MetadataItemEntity> query = getEntityManager().createNamedQuery("SocMetadataItemEntity.getMetadataItemsByObjects",
+                                                                               MetadataItemEntity.class);
+    query.setParameter(OBJECT_TYPE, objectType);
+    query.setParameter(OBJECT_IDS, objectIds);
+    return query.getResultList();
+  }
+
   public Set<String> getMetadataNamesByObject(String objectType, String objectId) {
     TypedQuery<String> query = getEntityManager().createNamedQuery("SocMetadataItemEntity.getMetadataNamesByObject",
                                                                    String.class);
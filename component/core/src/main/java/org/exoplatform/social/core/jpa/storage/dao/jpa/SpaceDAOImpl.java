@@ -43,6 +43,26 @@ public class SpaceDAOImpl extends GenericDAOJPAImpl<SpaceEntity, Long> implement
     }
   }
 
+  @Override
+  public List<Long> getAllIds(int offset, int limit) {
+    TypedQuery<Long> query = getEntityManager().createNamedQuery("SpaceEntity.getAllIds", Long.class);
+    if (limit > 0) {
+      query.setFirstResult(offset);
+      query.setMaxResults(limit);
+    }
+    return query.getResultList();
+  }
+
+  @Override
+  public List<SpaceEntity> getSpacesByIds(List<Long> ids) {
+    if (ids == null || ids.isEmpty()) {
+      return Collections.emptyList();
+    }
+    TypedQuery<SpaceEntity> query = getEntityManager().createNamedQuery("SpaceEntity.getSpacesByIds", SpaceEntity.class);
+    query.setParameter("ids", ids);
+    return query.getResultList();
+  }
+
   @Override
   public SpaceEntity getSpaceByGroupId(String groupId) {
     TypedQuery<SpaceEntity> query = getEntityManager().createNamedQuery("SpaceEntity.getSpaceByGroupId", SpaceEntity.class);
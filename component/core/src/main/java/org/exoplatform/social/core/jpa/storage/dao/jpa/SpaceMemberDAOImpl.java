@@ -23,6 +23,7 @@ import javax.persistence.*;
 
 import org.apache.commons.lang3.StringUtils;
 
+import org.exoplatform.commons.api.persistence.ExoTransactional;
 import org.exoplatform.commons.persistence.impl.GenericDAOJPAImpl;
 import org.exoplatform.services.log.ExoLogger;
 import org.exoplatform.services.log.Log;
@@ -276,4 +277,35 @@ public class SpaceMemberDAOImpl extends GenericDAOJPAImpl<SpaceMemberEntity, Lon
     }
   }
 
+  @Override
+  @ExoTransactional
+  public void updateLastAccess(String username, Map<Long, Date> lastAccessBySpaceId) {
+    if (lastAccessBySpaceId == null || lastAccessBySpaceId.isEmpty()) {
+      return;
+    }
+    Query query = getEntityManager().createNamedQuery("SpaceMember.updateLastAccess");
+    query.setParameter("userId", username);
+    query.setParameter("status", Status.MEMBER);
+    for (Map.Entry<Long, Date> lastAccess : lastAccessBySpaceId.entrySet()) {
+      query.setParameter("spaceId", lastAccess.getKey());
+      query.setParameter("lastAccess", lastAccess.getValue());
+      query.executeUpdate();
+    }
+  }
+
+  @Override
+  public Map<Long, Set<String>> getSpacesMembers(List<Long> spaceIds, List<Status> statuses) {
+    if (spaceIds == null || spaceIds.isEmpty() || statuses == null || statuses.isEmpty()) {
+      return Collections.emptyMap();
+    }
+    TypedQuery<Tuple> query = getEntityManager().createNamedQuery("SpaceMember.getSpacesMembersByStatuses", Tuple.class);
+    query.setParameter("spaceIds", spaceIds);
+    query.setParameter("statuses", statuses);
+    Map<Long, Set<String>> membersBySpaceId = new HashMap<>();
+    for (Tuple tuple : query.getResultList()) {
+      membersBySpaceId.computeIfAbsent(tuple.get(0, Long.class), key -> new HashSet<>()).add(tuple.get(1, String.class));
+    }
+    return membersBySpaceId;
+  }
+
 }
@@ -116,6 +116,16 @@ public class UserSpaceBindingDAOImpl extends GenericDAOJPAImpl<UserSpaceBindingE
     return query.getResultList().size() > 0;
   }
   
+  @Override
+  public List<UserSpaceBindingEntity> findUserBindingsBySpaceAndUsers(Long spaceId, List<String> userNames) {
+    TypedQuery<UserSpaceBindingEntity> query =
+                                             getEntityManager().createNamedQuery("SocUserSpaceBinding.findUserBindingsBySpaceAndUsers",
+                                                                                 UserSpaceBindingEntity.class);
+    query.setParameter("spaceId", spaceId);
+    query.setParameter("userNames", userNames);
+    return query.getResultList();
+  }
+
   @Override
   public long countBoundUsers(Long spaceId) {
     return (Long) getEntityManager().createNamedQuery("SocUserSpaceBinding.countAllDistinctUserBindingsBySpace")
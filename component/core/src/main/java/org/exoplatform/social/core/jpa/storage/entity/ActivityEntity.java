@@ -26,6 +26,7 @@ import org.hibernate.annotations.DynamicUpdate;
 import org.json.JSONObject;
 
 import org.exoplatform.commons.api.persistence.ExoEntity;
+import org.exoplatform.social.core.identity.provider.SpaceIdentityProvider;
 
 /**
  * Created by bdechateauvieux on 3/24/15.
@@ -51,6 +52,9 @@ import org.exoplatform.commons.api.persistence.ExoEntity;
             + " ORDER BY a.posted ASC"),
         @NamedQuery(name = "SocActivity.findCommentsAndSubCommentsOfActivity", query = "SELECT a FROM SocActivity a "
         + " WHERE a.parent.id = :activityId OR a.parent.parent.id = :activityId ORDER BY a.posted ASC"),
+        @NamedQuery(name = "SocActivity.findCommentsAndSubCommentsOfActivities", query = "SELECT a.id, a.posterId, p.id, pp.id FROM SocActivity a "
+        + " JOIN a.parent p LEFT JOIN p.parent pp "
+        + " WHERE p.id IN (:ids) OR pp.id IN (:ids) ORDER BY a.posted ASC"),
         @NamedQuery(name = "SocActivity.numberCommentsOfActivity", query = "SELECT count(distinct a.id) FROM SocActivity a WHERE a.parent.id = :activityId"),
         @NamedQuery(name = "SocActivity.findNewerCommentsOfActivity",
                 query = "SELECT a FROM SocActivity a WHERE a.parent.id = :activityId AND a.posted > :sinceTime ORDER BY a.updatedDate ASC"),
@@ -244,6 +248,86 @@ import org.exoplatform.commons.api.persistence.ExoEntity;
                     + " item.ownerId in (:connections) AND "
                     + " item.streamType = :connStreamType "
                     + " ORDER BY item.updatedDate DESC"),
+        @NamedQuery(name = "SocActivity.getNumberOfActivitesOnActivityFeedByMembershipNoConnections",
+                query = "SELECT count(distinct item.activity.id) FROM SocStreamItem item WHERE "
+                    + " ( item.ownerId in (:owners) OR item.ownerId in (" + MEMBER_SPACE_IDENTITY_IDS + ") ) AND "
+                    + " item.activity.hidden = false "),
+        @NamedQuery(name = "SocActivity.getNumberOfActivitesOnActivityFeedByMembership",
+                query = "SELECT count(distinct item.activity.id) FROM SocStreamItem item WHERE "
+                    + " item.activity.hidden = false AND "
+                    + " ( ( item.ownerId in (:owners) OR item.ownerId in (" + MEMBER_SPACE_IDENTITY_IDS + ") ) OR "
+                    + "   ( item.ownerId in (:connections) AND item.streamType = :connStreamType ) "
+                    + " ) "),
+        @NamedQuery(name = "SocActivity.getActivityIdsFeedByMembershipNoConnections",
+                query = "SELECT distinct item.activity.id as activityId, item.updatedDate as updatedDate FROM SocStreamItem item WHERE "
+                    + " item.activity.hidden = false AND "
+                    + " ( item.ownerId in (:owners) OR item.ownerId in (" + MEMBER_SPACE_IDENTITY_IDS + ") ) "
+                    + " AND item.streamType in (:streamTypes) ORDER BY item.updatedDate DESC"),
+        @NamedQuery(name = "SocActivity.getActivityIdsFeedByMembership",
+                query = "SELECT distinct item.activity.id as activityId, item.updatedDate as updatedDate FROM SocStreamItem item WHERE "
+                    + " item.activity.hidden = false AND "
+                    + " ( (( item.ownerId in (:owners) OR item.ownerId in (" + MEMBER_SPACE_IDENTITY_IDS + ") ) AND item.streamType in (:streamTypes)) OR "
+                    + "   (item.ownerId in (:connections) AND item.streamType = :streamType)"
+                    + " ) ORDER BY item.updatedDate DESC"),
+        @NamedQuery(name = "SocActivity.getActivityFeedByMembershipNoConnections",
+                query = "SELECT distinct item.activity.id, item.updatedDate FROM SocStreamItem item WHERE "
+                    + " item.activity.hidden = false AND "
+                    + " ( item.ownerId in (:owners) OR item.ownerId in (" + MEMBER_SPACE_IDENTITY_IDS + ") ) "
+                    + " ORDER BY item.updatedDate DESC"),
+        @NamedQuery(name = "SocActivity.getActivityFeedByMembership",
+                query = "SELECT distinct item.activity.id, item.updatedDate FROM SocStreamItem item WHERE "
+                    + " item.activity.hidden = false AND "
+                    + " ( ( item.ownerId in (:owners) OR item.ownerId in (" + MEMBER_SPACE_IDENTITY_IDS + ") ) OR "
+                    + "   ( item.ownerId in (:connections) AND item.streamType = :connStreamType ) "
+                    + " ) ORDER BY item.updatedDate DESC"),
+        @NamedQuery(name = "SocActivity.getNumberOfNewerOnActivityFeedByMembershipNoConnections",
+                query = "SELECT count(distinct item.activity.id) FROM SocStreamItem item WHERE "
+                    + " item.activity.hidden = false AND "
+                    + " item.updatedDate > :sinceTime AND "
+                    + " ( item.ownerId in (:owners) OR item.ownerId in (" + MEMBER_SPACE_IDENTITY_IDS + ") )"),
+        @NamedQuery(name = "SocActivity.getNumberOfNewerOnActivityFeedByMembership",
+                query = "SELECT count(distinct item.activity.id) FROM SocStreamItem item WHERE "
+                    + " item.activity.hidden = false AND "
+                    + " item.updatedDate > :sinceTime AND "
+                    + " ( ( item.ownerId in (:owners) OR item.ownerId in (" + MEMBER_SPACE_IDENTITY_IDS + ") ) OR "
+                    + "   ( item.ownerId in (:connections) AND item.streamType = :connStreamType ) "
+                    + " ) "),
+        @NamedQuery(name = "SocActivity.getNewerActivityFeedByMembershipNoConnections",
+                query = "SELECT distinct item.activity.id, item.updatedDate FROM SocStreamItem item WHERE "
+                    + " item.activity.hidden = false AND "
+                    + " item.updatedDate > :sinceTime AND "
+                    + " ( item.ownerId in (:owners) OR item.ownerId in (" + MEMBER_SPACE_IDENTITY_IDS + ") ) ORDER BY item.updatedDate ASC"),
+        @NamedQuery(name = "SocActivity.getNewerActivityFeedByMembership",
+                query = "SELECT distinct item.activity.id, item.updatedDate FROM SocStreamItem item WHERE "
+                    + " item.activity.hidden = false AND "
+                    + " item.updatedDate > :sinceTime AND "
+                    + " ( ( item.ownerId in (:owners) OR item.ownerId in (" + MEMBER_SPACE_IDENTITY_IDS + ") ) OR "
+                    + "   ( item.ownerId in (:connections) AND item.streamType = :connStreamType ) "
+                    + " ) ORDER BY item.updatedDate ASC"),
+        @NamedQuery(name = "SocActivity.getNumberOfOlderOnActivityFeedByMembershipNoConnections",
+                query = "SELECT count(distinct item.activity.id) FROM SocStreamItem item WHERE "
+                    + " item.activity.hidden = false AND "
+                    + " item.updatedDate < :sinceTime AND "
+                    + " ( item.ownerId in (:owners) OR item.ownerId in (" + MEMBER_SPACE_IDENTITY_IDS + ") )"),
+        @NamedQuery(name = "SocActivity.getNumberOfOlderOnActivityFeedByMembership",
+                query = "SELECT count(distinct item.activity.id) FROM SocStreamItem item WHERE "
+                    + " item.activity.hidden = false AND "
+                    + " item.updatedDate < :sinceTime AND "
+                    + " ( ( item.ownerId in (:owners) OR item.ownerId in (" + MEMBER_SPACE_IDENTITY_IDS + ") ) OR "
+                    + "   ( item.ownerId in (:connections) AND item.streamType = :connStreamType ) "
+                    + " ) "),
+        @NamedQuery(name = "SocActivity.getOlderActivityFeedByMembershipNoConnections",
+                query = "SELECT distinct item.activity.id, item.updatedDate FROM SocStreamItem item WHERE "
+                    + " item.activity.hidden = false AND "
+                    + " item.updatedDate < :sinceTime AND "
+                    + " ( item.ownerId in (:owners) OR item.ownerId in (" + MEMBER_SPACE_IDENTITY_IDS + ") ) ORDER BY item.updatedDate DESC"),
+        @NamedQuery(name = "SocActivity.getOlderActivityFeedByMembership",
+                query = "SELECT distinct item.activity.id, item.updatedDate FROM SocStreamItem item WHERE "
+                    + " item.activity.hidden = false AND "
+                    + " item.updatedDate < :sinceTime AND "
+                    + " ( ( item.ownerId in (:owners) OR item.ownerId in (" + MEMBER_SPACE_IDENTITY_IDS + ") ) OR "
+                    + "   ( item.ownerId in (:connections) AND item.streamType = :connStreamType ) "
+                    + " ) ORDER BY item.updatedDate DESC"),
         @NamedQuery(name = "SocActivity.deleteActivityByOwner",
                 query = "DELETE FROM SocActivity a WHERE a.ownerId = :ownerId ")
 })
@@ -251,6 +335,16 @@ public class ActivityEntity implements Serializable {
 
   private static final long serialVersionUID = -1489894321243127979L;
 
+  /**
+   * Sub query used to retrieve space identity ids of a user memberships
+   * instead of passing them as a literal list of parameters
+   */
+  public static final String MEMBER_SPACE_IDENTITY_IDS = "SELECT spaceIdentity.id FROM SocIdentityEntity spaceIdentity, SocSpaceMember spaceMember WHERE "
+      + " spaceIdentity.providerId = '" + SpaceIdentityProvider.NAME + "' AND "
+      + " spaceIdentity.remoteId = spaceMember.space.prettyName AND "
+      + " spaceMember.userId = :userId AND "
+      + " spaceMember.status = :memberStatus";
+
   @Id
   @SequenceGenerator(name="SEQ_SOC_ACTIVITIES_ID", sequenceName="SEQ_SOC_ACTIVITIES_ID", allocationSize = 1)
   @GeneratedValue(strategy=GenerationType.AUTO, generator="SEQ_SOC_ACTIVITIES_ID")
@@ -15,6 +15,10 @@ import org.exoplatform.commons.api.persistence.ExoEntity;
     name = "SocActivityShareAction.getShareActionsByActivityId",
     query = "SELECT s from SocActivityShareAction s WHERE s.activityId = :activityId ORDER BY s.id DESC"
   ),
+  @NamedQuery(
+    name = "SocActivityShareAction.getShareActionsByActivityIds",
+    query = "SELECT s from SocActivityShareAction s WHERE s.activityId IN (:activityIds) ORDER BY s.id DESC"
+  ),
 })
 public class ActivityShareActionEntity implements Serializable {
 
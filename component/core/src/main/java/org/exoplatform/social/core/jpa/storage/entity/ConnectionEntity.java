@@ -40,6 +40,9 @@ import org.exoplatform.social.core.relationship.model.Relationship.Type;
         @NamedQuery(name = "SocConnection.deleteConnectionByIdentity",
                 query = "DELETE FROM SocConnection c WHERE c.sender.id = :identityId OR c.receiver.id = :identityId"),
         @NamedQuery(name = "SocConnection.getConnectionIdsWithStatus", query = "SELECT c.sender.id, c.receiver.id FROM SocConnection c WHERE (c.sender.id = :identityId OR c.receiver.id = :identityId) AND c.status = :status"),
+        @NamedQuery(name = "SocConnection.getConnectionIdsWithoutStatus", query = "SELECT c.sender.id, c.receiver.id FROM SocConnection c WHERE (c.sender.id = :identityId OR c.receiver.id = :identityId)"),
+        @NamedQuery(name = "SocConnection.countConnectionsByReceiver", query = "SELECT c.receiver.id, count(c.id) FROM SocConnection c WHERE c.sender.id IN (:ids) AND c.status = :status AND c.receiver.enabled = true AND c.receiver.deleted = false GROUP BY c.receiver.id"),
+        @NamedQuery(name = "SocConnection.countConnectionsBySender", query = "SELECT c.sender.id, count(c.id) FROM SocConnection c WHERE c.receiver.id IN (:ids) AND c.status = :status AND c.sender.enabled = true AND c.sender.deleted = false GROUP BY c.sender.id"),
         @NamedQuery(name = "SocConnection.getConnectionsWithStatus", query = "SELECT c FROM SocConnection c WHERE (c.sender.id = :identityId OR c.receiver.id = :identityId) AND c.status = :status AND c.sender.enabled = true AND c.receiver.enabled = true AND c.sender.deleted = false AND c.receiver.deleted = false order by c.updatedDate DESC"),
         @NamedQuery(name = "SocConnection.countConnectionsWithStatus", query = "SELECT count(distinct c.id) from SocConnection c WHERE (c.sender.id = :identityId or c.receiver.id = :identityId) AND c.status = :status"),
         @NamedQuery(name = "SocConnection.getConnectionsWithoutStatus", query = "SELECT c AS receiver FROM SocConnection c WHERE (c.sender.id = :identityId OR c.receiver.id = :identityId)"),
@@ -79,6 +79,9 @@ public class GroupSpaceBindingReportActionEntity implements Serializable {
   @Temporal(TemporalType.TIMESTAMP)
   @Column(name = "END_DATE")
   private Date                                    endDate;
+
+  @Column(name = "PROCESSED_USERS")
+  private int                                     processedUsers;
   
   public long getId() {
     return id;
@@ -135,4 +138,12 @@ public class GroupSpaceBindingReportActionEntity implements Serializable {
   public void setEndDate(Date endDate) {
     this.endDate = endDate;
   }
+
+  public int getProcessedUsers() {
+    return processedUsers;
+  }
+
+  public void setProcessedUsers(int processedUsers) {
+    this.processedUsers = processedUsers;
+  }
 }
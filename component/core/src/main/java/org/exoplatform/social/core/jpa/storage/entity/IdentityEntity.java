@@ -61,6 +61,23 @@ import org.exoplatform.commons.api.persistence.ExoEntity;
         @NamedQuery(
                 name = "SocIdentity.getAllIdsByProvider",
                 query = "SELECT i.id FROM SocIdentityEntity i WHERE i.deleted = FALSE AND i.enabled = TRUE AND i.providerId = :providerId"
+        ),
+        @NamedQuery(
+                name = "SocIdentity.getRemoteIdsByLastLoginTime",
+                query = "SELECT i.remoteId FROM SocIdentityEntity i JOIN i.properties p " +
+                " WHERE   i.deleted = FALSE " +
+                "     AND i.enabled = TRUE " +
+                "     AND i.providerId = :providerId " +
+                "     AND KEY(p) = :propertyName " +
+                "     AND VALUE(p) >= :lastLoginTime " +
+                "     AND VALUE(p) <= :maxLoginTime " +
+                " ORDER BY i.id ASC"
+        ),
+        @NamedQuery(
+                name = "SocIdentity.getIdsByPropertyName",
+                query = "SELECT i.id FROM SocIdentityEntity i JOIN i.properties p " +
+                " WHERE KEY(p) = :propertyName " +
+                " ORDER BY i.id ASC"
         )
 })
 public class IdentityEntity {
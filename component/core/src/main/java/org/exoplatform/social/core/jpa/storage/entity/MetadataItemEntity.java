@@ -47,6 +47,13 @@ import org.exoplatform.commons.api.persistence.ExoEntity;
         + " mi.objectId = :objectId"
         + " ORDER BY mi.createdDate DESC, mi.id DESC"
 )
+@NamedQuery(
+    name = "SocMetadataItemEntity.getMetadataItemsByObjects",
+    query = "SELECT mi FROM SocMetadataItemEntity mi WHERE "
+        + " mi.objectType = :objectType AND"
+        + " mi.objectId IN (:objectIds)"
+        + " ORDER BY mi.createdDate DESC, mi.id DESC"
+)
 @NamedQuery(
     name = "SocMetadataItemEntity.getMetadataNamesByObject",
     query = "SELECT mi.metadata.name FROM SocMetadataItemEntity mi WHERE "
@@ -31,6 +31,8 @@ import org.exoplatform.commons.api.persistence.ExoEntity;
 @Table(name = "SOC_SPACES")
 @NamedQueries({
         @NamedQuery(name = "SpaceEntity.getLastSpaces", query = "SELECT sp.id, sp.createdDate FROM SocSpaceEntity sp ORDER BY sp.createdDate DESC"),
+        @NamedQuery(name = "SpaceEntity.getAllIds", query = "SELECT sp.id FROM SocSpaceEntity sp ORDER BY sp.id ASC"),
+        @NamedQuery(name = "SpaceEntity.getSpacesByIds", query = "SELECT sp FROM SocSpaceEntity sp WHERE sp.id IN (:ids)"),
         @NamedQuery(name = "SpaceEntity.getSpaceByGroupId", query = "SELECT sp FROM SocSpaceEntity sp WHERE sp.groupId = :groupId"),
         @NamedQuery(name = "SpaceEntity.getSpaceByPrettyName", query = "SELECT sp FROM SocSpaceEntity sp WHERE sp.prettyName = :prettyName"),
         @NamedQuery(name = "SpaceEntity.getSpaceByDisplayName", query = "SELECT sp FROM SocSpaceEntity sp WHERE sp.displayName = :displayName"),
@@ -60,7 +60,12 @@ import org.exoplatform.social.core.identity.provider.SpaceIdentityProvider;
         @NamedQuery(name = "SpaceMember.getSpaceMembersByStatus",
                 query = "SELECT spaceMember.userId FROM SocSpaceMember AS spaceMember "
                         + " WHERE spaceMember.status = :status "
-                        + " AND   spaceMember.space.id = :spaceId "),
+                        + " AND   spaceMember.space.id = :spaceId "
+                        + " ORDER BY spaceMember.id ASC"),
+        @NamedQuery(name = "SpaceMember.getSpacesMembersByStatuses",
+                query = "SELECT spaceMember.space.id, spaceMember.userId FROM SocSpaceMember AS spaceMember "
+                        + " WHERE spaceMember.status IN (:statuses) "
+                        + " AND   spaceMember.space.id IN (:spaceIds) "),
         @NamedQuery(name = "SpaceMember.countSpaceMembersByStatus",
                 query = "SELECT count(*) FROM SocSpaceMember AS spaceMember "
                         + " WHERE spaceMember.status = :status "
@@ -70,6 +75,7 @@ import org.exoplatform.social.core.identity.provider.SpaceIdentityProvider;
         @NamedQuery(name = "SpaceMember.getSpaceMemberShip", query = "SELECT mem FROM SocSpaceMember mem WHERE mem.userId = :userId AND mem.space.id = :spaceId"),
         @NamedQuery(name = "SpaceMember.countPendingSpaceRequestsToManage", query = "SELECT count(*) FROM SocSpaceMember mem WHERE mem.status = :status AND mem.space.id in (SELECT mem_tmp.space.id FROM SocSpaceMember mem_tmp WHERE mem_tmp.userId = :userId AND mem_tmp.status = :user_status)"),
         @NamedQuery(name = "SpaceMember.getPendingSpaceRequestsToManage", query = "SELECT mem.userId, mem.space.id FROM SocSpaceMember mem WHERE mem.status = :status AND mem.space.id in (SELECT mem_tmp.space.id FROM SocSpaceMember mem_tmp WHERE mem_tmp.userId = :userId AND mem_tmp.status = :user_status)"),
+        @NamedQuery(name = "SpaceMember.updateLastAccess", query = "UPDATE SocSpaceMember mem SET mem.lastAccess = :lastAccess, mem.visited = true WHERE mem.userId = :userId AND mem.space.id = :spaceId AND mem.status = :status AND (mem.lastAccess IS NULL OR mem.lastAccess < :lastAccess)"),
 })
 public class SpaceMemberEntity implements Serializable {
 
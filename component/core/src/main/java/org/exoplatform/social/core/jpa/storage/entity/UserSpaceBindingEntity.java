@@ -52,7 +52,10 @@ import org.exoplatform.commons.api.persistence.ExoEntity;
         + "SocUserSpaceBinding "
         + "userSpaceBinding WHERE userSpaceBinding.groupSpaceBinding.space.id = :spaceId"),
     @NamedQuery(name="SocUserSpaceBinding.findUserBindingByGroupBindingIdAndUsername", query = "SELECT userSpaceBinding FROM SocUserSpaceBinding "
-        + "userSpaceBinding WHERE userSpaceBinding.groupSpaceBinding.id = :groupBindingId and userSpaceBinding.user = :username")
+        + "userSpaceBinding WHERE userSpaceBinding.groupSpaceBinding.id = :groupBindingId and userSpaceBinding.user = :username"),
+    @NamedQuery(name = "SocUserSpaceBinding.findUserBindingsBySpaceAndUsers", query = "SELECT userSpaceBinding FROM SocUserSpaceBinding "
+        + "userSpaceBinding JOIN FETCH userSpaceBinding.groupSpaceBinding groupSpaceBinding "
+        + "WHERE groupSpaceBinding.space.id = :spaceId and userSpaceBinding.user IN (:userNames)")
 
 })
 public class UserSpaceBindingEntity implements Serializable {
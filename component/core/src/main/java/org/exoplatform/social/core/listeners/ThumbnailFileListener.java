@@ -24,6 +24,8 @@ import org.exoplatform.social.metadata.thumbnail.model.ThumbnailObject;
 
 public class ThumbnailFileListener extends Listener<FileInfo, Object> {
 
+  private static final String   FILE_CREATED_EVENT      = "file.created";
+
   private static final String   FILE_UPDATED_EVENT      = "file.updated";
 
   private static final String   FILE_DELETED_EVENT      = "file.deleted";
@@ -41,5 +43,8 @@ public class ThumbnailFileListener extends Listener<FileInfo, Object> {
     if (eventName.equals(FILE_UPDATED_EVENT) || eventName.equals(FILE_DELETED_EVENT)) {
       imageThumbnailService.deleteThumbnails(fileInfo.getId());
     }
+    if (eventName.equals(FILE_CREATED_EVENT) || eventName.equals(FILE_UPDATED_EVENT)) {
+      imageThumbnailService.pregenerateThumbnails(fileInfo);
+    }
   }
 }
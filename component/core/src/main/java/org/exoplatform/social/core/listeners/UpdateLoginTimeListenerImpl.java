@@ -25,7 +25,10 @@ public class UpdateLoginTimeListenerImpl extends Listener<ConversationRegistry,
                                                                 event.getData().getIdentity().getUserId());
     Profile profile = userIdentity.getProfile();
     if (profile != null) {
-      profile.setProperty(Profile.LAST_LOGIN_TIME, user != null ? user.getLastLoginTime() : Calendar.getInstance().getTimeInMillis());
+      // Stored as epoch milliseconds, to be compared when searching active users
+      profile.setProperty(Profile.LAST_LOGIN_TIME,
+                          user != null && user.getLastLoginTime() != null ? user.getLastLoginTime().getTime()
+                                                                          : Calendar.getInstance().getTimeInMillis());
       identityManager.updateProfile(profile, false);
       IndexingService indexingService = CommonsUtils.getService(IndexingService.class);
       indexingService.reindex(ProfileIndexingServiceConnector.TYPE, userIdentity.getId());
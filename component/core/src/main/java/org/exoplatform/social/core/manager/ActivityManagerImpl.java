@@ -615,6 +615,18 @@ public class ActivityManagerImpl implements ActivityManager {
     return new ActivitiesRealtimeListAccess(activityStorage, viewerIdentity, activityFilter);
   }
 
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public List<ActivityCursor> getActivityCursorsByFilter(Identity viewerIdentity,
+                                                         ActivityFilter activityFilter,
+                                                         ActivityCursor cursor,
+                                                         boolean newer,
+                                                         int limit) {
+    return activityStorage.getActivityCursorsByFilter(viewerIdentity, activityFilter, cursor, newer, limit);
+  }
+
   /**
    * {@inheritDoc}
    */
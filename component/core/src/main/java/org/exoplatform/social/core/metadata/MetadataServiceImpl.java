@@ -280,6 +280,14 @@ public class MetadataServiceImpl implements MetadataService, Startable {
     return this.metadataStorage.getMetadataItemsByObject(object);
   }
 
+  @Override
+  public Map<String, List<MetadataItem>> getMetadataItemsByObjects(String objectType, List<String> objectIds) {
+    if (StringUtils.isBlank(objectType)) {
+      throw new IllegalArgumentException("Object type is mandatory");
+    }
+    return this.metadataStorage.getMetadataItemsByObjects(objectType, objectIds);
+  }
+
   @Override
   public List<MetadataItem> getMetadataItemsByMetadataTypeAndObject(String metadataType, MetadataObject object) {
     return this.metadataStorage.getMetadataItemsByMetadataTypeAndObject(metadataType, object);
@@ -37,7 +37,9 @@ import javax.persistence.Tuple;
 
 public class MetadataStorage {
 
-  private static final Log   LOG           = ExoLogger.getLogger(MetadataStorage.class);
+  private static final Log   LOG                   = ExoLogger.getLogger(MetadataStorage.class);
+
+  private static final int   OBJECT_IDS_BATCH_SIZE = 500;
 
   private MetadataDAO        metadataDAO;
 
@@ -247,6 +249,24 @@ public class MetadataStorage {
     return metadataItemEntities.stream().map(this::fromEntity).collect(Collectors.toList());
   }
 
+  public Map<String, List<MetadataItem>> getMetadataItemsByObjects(String objectType, List<String> objectIds) {
+    if (CollectionUtils.isEmpty(objectIds)) {
+      return Collections.emptyMap();
+    }
+    Map<String, List<MetadataItem>> metadataItemsByObjectId = new HashMap<>();
+    for (int i = 0; i < objectIds.size(); i += OBJECT_IDS_BATCH_SIZE) {
+      List<String> objectIdsBatch = objectIds.subList(i, Math.min(i + OBJECT_IDS_BATCH_SIZE, objectIds.size()));
+      List<MetadataItemEntity> metadataItemEntities = metadataItemDAO.getMetadataItemsByObjects(objectType, objectIdsBatch);
+      if (CollectionUtils.isNotEmpty(metadataItemEntities)) {
+        for (MetadataItemEntity metadataItemEntity : metadataItemEntities) {
+          metadataItemsByObjectId.computeIfAbsent(metadataItemEntity.getObjectId(), key -> new ArrayList<>())
+                                 .add(fromEntity(metadataItemEntity));
+        }
+      }
+    }
+    return metadataItemsByObjectId;
+  }
+
   public List<MetadataItem> getMetadataItemsByMetadataTypeAndObject(String metadataTypeName, MetadataObject object) {
     MetadataType metadataType = getMetadataType(metadataTypeName);
     if (metadataType == null) {
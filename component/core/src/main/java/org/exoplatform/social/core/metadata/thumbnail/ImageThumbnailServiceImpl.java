@@ -16,54 +16,114 @@
 package org.exoplatform.social.core.metadata.thumbnail;
 
 import org.apache.commons.io.IOUtils;
+import org.apache.commons.lang3.StringUtils;
 import org.exoplatform.commons.file.model.FileInfo;
 import org.exoplatform.commons.file.model.FileItem;
 import org.exoplatform.commons.file.services.FileService;
 import org.exoplatform.commons.file.services.FileStorageException;
+import org.exoplatform.commons.utils.CommonsUtils;
+import org.exoplatform.container.ExoContainer;
+import org.exoplatform.container.ExoContainerContext;
+import org.exoplatform.container.component.RequestLifeCycle;
+import org.exoplatform.container.xml.InitParams;
+import org.exoplatform.container.xml.ValueParam;
+import org.exoplatform.services.cache.CacheService;
+import org.exoplatform.services.cache.ExoCache;
 import org.exoplatform.services.log.ExoLogger;
 import org.exoplatform.services.log.Log;
 import org.exoplatform.services.thumbnail.ImageResizeService;
 import org.exoplatform.social.core.identity.model.Identity;
+import org.exoplatform.social.core.manager.IdentityManager;
 import org.exoplatform.social.metadata.MetadataService;
 import org.exoplatform.social.metadata.model.MetadataItem;
 import org.exoplatform.social.metadata.model.MetadataKey;
 import org.exoplatform.social.metadata.model.MetadataType;
 import org.exoplatform.social.metadata.thumbnail.ImageThumbnailService;
 import org.exoplatform.social.metadata.thumbnail.model.ThumbnailObject;
+import org.picocontainer.Startable;
 
 import java.io.ByteArrayInputStream;
+import java.io.Serializable;
+import java.util.ArrayList;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
+import java.util.Objects;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 
-public class ImageThumbnailServiceImpl implements ImageThumbnailService {
+public class ImageThumbnailServiceImpl implements ImageThumbnailService, Startable {
 
-  private static final Log          LOG                       = ExoLogger.getExoLogger(ImageThumbnailServiceImpl.class);
+  private static final Log                                    LOG                        =
+                                                                  ExoLogger.getExoLogger(ImageThumbnailServiceImpl.class);
 
-  private static final MetadataType THUMBNAIL_METADATA_TYPE   = new MetadataType(5, "thumbnail");
+  private static final MetadataType                           THUMBNAIL_METADATA_TYPE    = new MetadataType(5, "thumbnail");
 
-  private static final String       SOCIAL_NAME_SPACE         = "social";
+  private static final String                                 SOCIAL_NAME_SPACE          = "social";
 
-  private static final String       THUMBNAIL_OBJECT_TYPE     = "file";
+  private static final String                                 THUMBNAIL_OBJECT_TYPE      = "file";
 
-  private static final String       THUMBNAIL_WIDTH_PROPERTY  = "width";
+  private static final String                                 THUMBNAIL_WIDTH_PROPERTY   = "width";
 
-  private static final String       THUMBNAIL_HEIGHT_PROPERTY = "height";
+  private static final String                                 THUMBNAIL_HEIGHT_PROPERTY  = "height";
 
-  private final MetadataService     metadataService;
+  private static final String                                 PREGENERATED_SIZES_PARAM   = "pregenerated-sizes";
 
-  private final FileService         fileService;
+  private static final String                                 THUMBNAIL_IDS_CACHE_NAME   = "social.ThumbnailIdsCache";
 
-  private final ImageResizeService  imageResizeService;
+  private static final int                                    PREGENERATION_QUEUE_SIZE   = 1000;
+
+  /** Set while generating thumbnails, to not pre-generate thumbnails of thumbnails */
+  private static final ThreadLocal<Boolean>                   GENERATING                 = new ThreadLocal<>();
+
+  private final MetadataService                               metadataService;
+
+  private final FileService                                   fileService;
+
+  private final ImageResizeService                            imageResizeService;
+
+  /** Identifier of existing thumbnail files, by original file and size */
+  private final ExoCache<ThumbnailKey, Long>                  thumbnailIdsCache;
+
+  /** Thumbnails being generated, to generate each thumbnail only once */
+  private final Map<ThumbnailKey, CompletableFuture<Long>>    pendingThumbnails          = new ConcurrentHashMap<>();
+
+  private final List<int[]>                                   pregeneratedSizes          = new ArrayList<>();
+
+  private ThreadPoolExecutor                                  pregenerationExecutor;
+
+  ImageThumbnailServiceImpl(MetadataService metadataService,
+                            FileService fileService,
+                            ImageResizeService imageResizeService,
+                            CacheService cacheService) {
+    this(metadataService, fileService, imageResizeService, cacheService, null);
+  }
 
   public ImageThumbnailServiceImpl(MetadataService metadataService,
                                    FileService fileService,
-                                   ImageResizeService imageResizeService) {
+                                   ImageResizeService imageResizeService,
+                                   CacheService cacheService,
+                                   InitParams params) {
     this.metadataService = metadataService;
     this.fileService = fileService;
     this.imageResizeService = imageResizeService;
+    this.thumbnailIdsCache = cacheService.getCacheInstance(THUMBNAIL_IDS_CACHE_NAME);
+    ValueParam pregeneratedSizesParam = params == null ? null : params.getValueParam(PREGENERATED_SIZES_PARAM);
+    if (pregeneratedSizesParam != null && StringUtils.isNotBlank(pregeneratedSizesParam.getValue())) {
+      for (String size : StringUtils.split(pregeneratedSizesParam.getValue(), ',')) {
+        String[] dimension = StringUtils.split(size.trim().toLowerCase(), 'x');
+        try {
+          pregeneratedSizes.add(new int[] { Integer.parseInt(dimension[0]), Integer.parseInt(dimension[1]) });
+        } catch (RuntimeException e) {
+          LOG.warn("Invalid thumbnail size '{}' in parameter {}, it's ignored", size, PREGENERATED_SIZES_PARAM);
+        }
+      }
+    }
   }
 
   /**
@@ -78,27 +138,152 @@ public class ImageThumbnailServiceImpl implements ImageThumbnailService {
       return file;
     }
     FileInfo fileInfo = file.getFileInfo();
-    ThumbnailObject thumbnailObject = new ThumbnailObject(THUMBNAIL_OBJECT_TYPE, Long.toString(fileInfo.getId()));
+    ThumbnailKey key = new ThumbnailKey(fileInfo.getId(), width, height);
+    Long thumbnailId = getThumbnailId(key);
+    if (thumbnailId != null) {
+      return getThumbnail(key, thumbnailId, file, identity);
+    }
+
+    CompletableFuture<Long> thumbnailFuture = new CompletableFuture<>();
+    CompletableFuture<Long> pendingThumbnailFuture = pendingThumbnails.putIfAbsent(key, thumbnailFuture);
+    if (pendingThumbnailFuture != null) {
+      // The thumbnail is being generated by another request
+      try {
+        thumbnailId = pendingThumbnailFuture.get();
+      } catch (ExecutionException e) {
+        throw e.getCause() instanceof Exception ? (Exception) e.getCause() : e;
+      }
+      return getThumbnail(key, thumbnailId, file, identity);
+    }
+    try {
+      // Generated meanwhile by a request that ended before this one started waiting
+      thumbnailId = thumbnailIdsCache.get(key);
+      if (thumbnailId != null) {
+        thumbnailFuture.complete(thumbnailId);
+        return getThumbnail(key, thumbnailId, file, identity);
+      }
+      FileItem thumbnailFileItem = createThumbnail(file, identity, width, height);
+      thumbnailId = thumbnailFileItem.getFileInfo().getId();
+      thumbnailIdsCache.put(key, thumbnailId);
+      thumbnailFuture.complete(thumbnailId);
+      return thumbnailFileItem;
+    } catch (Exception e) {
+      thumbnailFuture.completeExceptionally(e);
+      throw e;
+    } finally {
+      pendingThumbnails.remove(key, thumbnailFuture);
+    }
+  }
+
+  @Override
+  public void deleteThumbnails(Long fileId) {
+    ThumbnailObject thumbnailObject = new ThumbnailObject(THUMBNAIL_OBJECT_TYPE, Long.toString(fileId));
     List<MetadataItem> metadataItemList = metadataService.getMetadataItemsByMetadataTypeAndObject(THUMBNAIL_METADATA_TYPE.getName(),
                                                                                                 thumbnailObject);
-    List<MetadataItem> items = metadataItemList.stream()
-                                               .filter(metadataItem -> metadataItem.getProperties() != null
-                                                   && metadataItem.getProperties()
-                                                                  .get(THUMBNAIL_WIDTH_PROPERTY)
-                                                                  .equals(String.valueOf(width))
-                                                   && metadataItem.getProperties()
-                                                                  .get(THUMBNAIL_HEIGHT_PROPERTY)
-                                                                  .equals(String.valueOf(height)))
-                                               .toList();
-    if (!items.isEmpty()) {
-      long fileId = Long.parseLong(items.get(0).getParentObjectId());
+    for (MetadataItem metadataItem : metadataItemList) {
+      ThumbnailKey key = getThumbnailKey(fileId, metadataItem);
+      if (key != null) {
+        thumbnailIdsCache.remove(key);
+      }
       try {
-        return fileService.getFile(fileId);
-      } catch (FileStorageException e) {
-        LOG.warn("Error while getting thumbnail for image of identity {}, original Image will be returned", identity.getId(), e.getMessage());
+        fileService.deleteFile(Long.parseLong(metadataItem.getParentObjectId()));
+      } catch (Exception e) {
+        LOG.warn("Error while deleting thumbnail file with id {} of file with id {}", metadataItem.getParentObjectId(), fileId, e);
+      }
+    }
+    metadataService.deleteMetadataItemsByMetadataTypeAndObject(THUMBNAIL_METADATA_TYPE.getName(), thumbnailObject);
+  }
+
+  @Override
+  public void pregenerateThumbnails(FileInfo fileInfo) {
+    if (pregeneratedSizes.isEmpty() || fileInfo == null || fileInfo.getId() == null || GENERATING.get() != null
+        || fileInfo.getMimetype() == null || !fileInfo.getMimetype().startsWith("image/")) {
+      return;
+    }
+    ExoContainer container = ExoContainerContext.getCurrentContainer();
+    getPregenerationExecutor().execute(() -> {
+      ExoContainerContext.setCurrentContainer(container);
+      RequestLifeCycle.begin(container);
+      try {
+        FileItem file = fileService.getFile(fileInfo.getId());
+        Identity identity = CommonsUtils.getService(IdentityManager.class).getOrCreateUserIdentity(fileInfo.getUpdater());
+        if (file == null || identity == null) {
+          return;
+        }
+        for (int[] size : pregeneratedSizes) {
+          getOrCreateThumbnail(file, identity, size[0], size[1]);
+        }
+      } catch (Exception e) {
+        LOG.warn("Error while pre-generating thumbnails of file with id {}", fileInfo.getId(), e);
+      } finally {
+        RequestLifeCycle.end();
+      }
+    });
+  }
+
+  @Override
+  public void start() {
+    // Nothing to start
+  }
+
+  @Override
+  public synchronized void stop() {
+    if (pregenerationExecutor != null) {
+      pregenerationExecutor.shutdownNow();
+      pregenerationExecutor = null;
+    }
+  }
+
+  private Long getThumbnailId(ThumbnailKey key) {
+    Long thumbnailId = thumbnailIdsCache.get(key);
+    if (thumbnailId != null) {
+      return thumbnailId;
+    }
+    ThumbnailObject thumbnailObject = new ThumbnailObject(THUMBNAIL_OBJECT_TYPE, Long.toString(key.fileId));
+    List<MetadataItem> metadataItemList = metadataService.getMetadataItemsByMetadataTypeAndObject(THUMBNAIL_METADATA_TYPE.getName(),
+                                                                                                thumbnailObject);
+    for (MetadataItem metadataItem : metadataItemList) {
+      ThumbnailKey itemKey = getThumbnailKey(key.fileId, metadataItem);
+      if (itemKey != null) {
+        // Cache all thumbnails of the file, other sizes are requested as well
+        thumbnailIdsCache.put(itemKey, Long.parseLong(metadataItem.getParentObjectId()));
+        if (itemKey.equals(key)) {
+          thumbnailId = Long.parseLong(metadataItem.getParentObjectId());
+        }
+      }
+    }
+    return thumbnailId;
+  }
+
+  private ThumbnailKey getThumbnailKey(long fileId, MetadataItem metadataItem) {
+    Map<String, String> properties = metadataItem.getProperties();
+    if (properties == null || properties.get(THUMBNAIL_WIDTH_PROPERTY) == null
+        || properties.get(THUMBNAIL_HEIGHT_PROPERTY) == null) {
+      return null;
+    }
+    return new ThumbnailKey(fileId,
+                            Integer.parseInt(properties.get(THUMBNAIL_WIDTH_PROPERTY)),
+                            Integer.parseInt(properties.get(THUMBNAIL_HEIGHT_PROPERTY)));
+  }
+
+  private FileItem getThumbnail(ThumbnailKey key, long thumbnailId, FileItem file, Identity identity) throws Exception {
+    try {
+      FileItem thumbnail = fileService.getFile(thumbnailId);
+      if (thumbnail == null) {
+        thumbnailIdsCache.remove(key);
         return file;
       }
-    } else {
+      return thumbnail;
+    } catch (FileStorageException e) {
+      LOG.warn("Error while getting thumbnail for image of identity {}, original Image will be returned", identity.getId(), e.getMessage());
+      return file;
+    }
+  }
+
+  private FileItem createThumbnail(FileItem file, Identity identity, int width, int height) throws Exception {
+    FileInfo fileInfo = file.getFileInfo();
+    GENERATING.set(Boolean.TRUE);
+    try {
       byte[] imageContent = imageResizeService.scaleImage(IOUtils.toByteArray(file.getAsStream()), width, height, false, false);
       FileItem thumbnail = new FileItem(null,
                                         fileInfo.getName(),
@@ -120,12 +305,58 @@ public class ImageThumbnailServiceImpl implements ImageThumbnailService {
       properties.put(THUMBNAIL_HEIGHT_PROPERTY, String.valueOf(height));
       metadataService.createMetadataItem(thumbnailMetadataObject, metadataKey, properties, Long.parseLong(identity.getId()));
       return thumbnailFileItem;
+    } finally {
+      GENERATING.remove();
     }
   }
 
-  @Override
-  public void deleteThumbnails(Long fileId) {
-    ThumbnailObject thumbnailObject = new ThumbnailObject(THUMBNAIL_OBJECT_TYPE, Long.toString(fileId));
-    metadataService.deleteMetadataItemsByMetadataTypeAndObject(THUMBNAIL_METADATA_TYPE.getName(), thumbnailObject);
+  private synchronized ThreadPoolExecutor getPregenerationExecutor() {
+    if (pregenerationExecutor == null) {
+      pregenerationExecutor = new ThreadPoolExecutor(1,
+                                                     1,
+                                                     0L,
+                                                     TimeUnit.MILLISECONDS,
+                                                     new ArrayBlockingQueue<>(PREGENERATION_QUEUE_SIZE),
+                                                     runnable -> {
+                                                       Thread thread = new Thread(runnable, "social-thumbnails-pregeneration");
+                                                       thread.setDaemon(true);
+                                                       return thread;
+                                                     },
+                                                     new ThreadPoolExecutor.DiscardPolicy());
+    }
+    return pregenerationExecutor;
+  }
+
+  private static final class ThumbnailKey implements Serializable {
+    private static final long serialVersionUID = -3284157305642934127L;
+
+    private final long fileId;
+
+    private final int  width;
+
+    private final int  height;
+
+    private ThumbnailKey(long fileId, int width, int height) {
+      this.fileId = fileId;
+      this.width = width;
+      this.height = height;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (!(o instanceof ThumbnailKey)) {
+        return false;
+      }
+      ThumbnailKey that = (ThumbnailKey) o;
+      return fileId == that.fileId && width == that.width && height == that.height;
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(fileId, width, height);
+    }
   }
 }
@@ -16,9 +16,12 @@
 package org.exoplatform.social.core.processor;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.stream.Collectors;
 
 import org.exoplatform.container.xml.InitParams;
 import org.exoplatform.social.core.BaseActivityProcessorPlugin;
@@ -45,16 +48,42 @@ public class MetadataActivityProcessor extends BaseActivityProcessorPlugin {
     if (activity != null) {
       MetadataObject metadataObject = activity.getMetadataObject();
       List<MetadataItem> metadataItems = metadataService.getMetadataItemsByObject(metadataObject);
-      Map<String, List<MetadataItem>> metadatas = new HashMap<>();
-      metadataItems.forEach(metadataItem -> {
-        String type = metadataItem.getMetadata().getType().getName();
-        if (metadatas.get(type) == null) {
-          metadatas.put(type, new ArrayList<>());
-        }
-        metadatas.get(type).add(metadataItem);
-      });
-      activity.setMetadatas(metadatas);
+      setMetadatas(activity, metadataItems);
     }
   }
 
+  @Override
+  public void processActivities(List<ExoSocialActivity> activities) {
+    // Retrieve the metadata items of all activities having the same object
+    // type at once
+    Map<String, List<ExoSocialActivity>> activitiesByObjectType = new HashMap<>();
+    activities.stream()
+              .filter(Objects::nonNull)
+              .forEach(activity -> activitiesByObjectType.computeIfAbsent(activity.getMetadataObject().getType(),
+                                                                          key -> new ArrayList<>())
+                                                         .add(activity));
+    activitiesByObjectType.forEach((objectType, activitiesOfType) -> {
+      List<String> objectIds = activitiesOfType.stream()
+                                               .map(activity -> activity.getMetadataObject().getId())
+                                               .collect(Collectors.toList());
+      Map<String, List<MetadataItem>> metadataItemsByObjectId = metadataService.getMetadataItemsByObjects(objectType, objectIds);
+      activitiesOfType.forEach(activity -> setMetadatas(activity,
+                                                        metadataItemsByObjectId.getOrDefault(activity.getMetadataObject()
+                                                                                                     .getId(),
+                                                                                             Collections.emptyList())));
+    });
+  }
+
+  private void setMetadatas(ExoSocialActivity activity, List<MetadataItem> metadataItems) {
+    Map<String, List<MetadataItem>> metadatas = new HashMap<>();
+    metadataItems.forEach(metadataItem -> {
+      String type = metadataItem.getMetadata().getType().getName();
+      if (metadatas.get(type) == null) {
+        metadatas.put(type, new ArrayList<>());
+      }
+      metadatas.get(type).add(metadataItem);
+    });
+    activity.setMetadatas(metadatas);
+  }
+
 }
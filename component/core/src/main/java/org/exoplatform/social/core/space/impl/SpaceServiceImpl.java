@@ -626,9 +626,10 @@ public class SpaceServiceImpl implements SpaceService {
    */
   public void addMember(Space space, String userId) {
     String[] members = space.getMembers();
+    boolean isMember = space.hasMember(userId);
     space = this.removeInvited(space, userId);
     space = this.removePending(space, userId);
-    if (!ArrayUtils.contains(members, userId)) {
+    if (!isMember) {
       members = (String[]) ArrayUtils.add(members, userId);
       space.setMembers(members);
       this.updateSpace(space);
@@ -653,7 +654,7 @@ public class SpaceServiceImpl implements SpaceService {
       return;
     }
     String[] members = space.getMembers();
-    if (ArrayUtils.contains(members, userId)) {
+    if (space.hasMember(userId)) {
       members = (String[]) ArrayUtils.removeElement(members, userId);
       space.setMembers(members);
       this.updateSpace(space);
@@ -789,14 +790,14 @@ public class SpaceServiceImpl implements SpaceService {
    * {@inheritDoc}
    */
   public boolean isMember(Space space, String userId) {
-    return ArrayUtils.contains(space.getMembers(), userId);
+    return hasUserRole(space, userId, MEMBER);
   }
 
   /**
    * {@inheritDoc}
    */
   public boolean isMember(String spaceId, String userId) {
-    return isMember(getSpaceById(spaceId), userId);
+    return spaceStorage.hasUserRole(spaceId, userId, MEMBER);
   }
 
   /**
@@ -804,8 +805,8 @@ public class SpaceServiceImpl implements SpaceService {
    */
   public boolean hasAccessPermission(Space space, String userId) {
     if (isSuperManager(userId)
-        || (ArrayUtils.contains(space.getMembers(), userId))
-        || (ArrayUtils.contains(space.getManagers(), userId))) {
+        || isMember(space, userId)
+        || isManager(space, userId)) {
       return true;
     }
     return false;
@@ -1281,7 +1282,7 @@ public class SpaceServiceImpl implements SpaceService {
    */
   public void addInvitedUser(Space space, String userId) {
 
-    if (ArrayUtils.contains(space.getMembers(),userId)) {
+    if (space.hasMember(userId)) {
       //user is already member. Do nothing
       return;
     }
@@ -1300,7 +1301,7 @@ public class SpaceServiceImpl implements SpaceService {
    * {@inheritDoc}
    */
   public void addPendingUser(Space space, String userId) {
-    if (ArrayUtils.contains(space.getMembers(),userId)) {
+    if (space.hasMember(userId)) {
       //user is already member. Do nothing
       return;
     }
@@ -1470,7 +1471,7 @@ public class SpaceServiceImpl implements SpaceService {
    * {@inheritDoc}
    */
   public boolean hasSettingPermission(Space space, String userId) {
-    return isSuperManager(userId) || (space != null && ArrayUtils.contains(space.getManagers(), userId));
+    return isSuperManager(userId) || (space != null && isManager(space, userId));
   }
 
   /**
@@ -1484,7 +1485,7 @@ public class SpaceServiceImpl implements SpaceService {
    * {@inheritDoc}
    */
   public boolean isManager(Space space, String userId) {
-    return ArrayUtils.contains(space.getManagers(), userId);
+    return hasUserRole(space, userId, MANAGER);
   }
   
   /**
@@ -1515,7 +1516,7 @@ public class SpaceServiceImpl implements SpaceService {
    * {@inheritDoc}
    */
   public boolean isOnlyManager(Space space, String userId) {
-    if (space.getManagers() != null && space.getManagers().length == 1 && ArrayUtils.contains(space.getManagers(), userId)) {
+    if (space.getManagers() != null && space.getManagers().length == 1 && space.hasManager(userId)) {
       return true;
     }
     return false;
@@ -1629,7 +1630,7 @@ public class SpaceServiceImpl implements SpaceService {
   public void setManager(Space space, String userId, boolean isManager) {
     String[] managers = space.getManagers();
     if (isManager) {
-      if (!ArrayUtils.contains(managers, userId)) {
+      if (!space.hasManager(userId)) {
         managers = (String[]) ArrayUtils.add(managers, userId);
         space.setManagers(managers);
         this.updateSpace(space);
@@ -1637,7 +1638,7 @@ public class SpaceServiceImpl implements SpaceService {
         spaceLifeCycle.grantedLead(space, userId);
       }
     } else {
-      if (ArrayUtils.contains(managers, userId)) {
+      if (space.hasManager(userId)) {
         managers = (String[]) ArrayUtils.removeElement(managers, userId);
         space.setManagers(managers);
         this.updateSpace(space);
@@ -1871,6 +1872,18 @@ public class SpaceServiceImpl implements SpaceService {
     return editor;
   }
 
+  /**
+   * Checks the role of a user from the stored space memberships, which are
+   * cached per space and user, instead of scanning the members of the space.
+   * A space which isn't saved yet is checked from its members.
+   */
+  private boolean hasUserRole(Space space, String userId, String status) {
+    if (space.getId() == null) {
+      return MANAGER.equals(status) ? space.hasManager(userId) : space.hasMember(userId);
+    }
+    return spaceStorage.hasUserRole(space.getId(), userId, status);
+  }
+
   private boolean isManagerOrSpaceManager(org.exoplatform.services.security.Identity viewer, Space space) {
     String username = viewer.getUserId();
     if (viewer.isMemberOf(userACL.getAdminGroups()) || StringUtils.equals(userACL.getSuperUser(), username)) {
@@ -0,0 +1,212 @@
+/*
+ * This file is part of the Meeds project (https://meeds.io/).
+ * Copyright (C) 2022 Meeds Association contact@meeds.io
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package org.exoplatform.social.core.storage.cache;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Generations of the activity streams cached by
+ * {@link CachedActivityStorage}. The generation of a stream changes each time
+ * one of its activities is saved, updated or deleted. The generations of the
+ * streams read by an activities list are embedded in the list cache key, thus
+ * modifying a stream makes only the lists reading this stream unreachable
+ * instead of clearing all cached lists. Unreachable lists are then evicted by
+ * the cache.
+ * <p>
+ * A stream is identified either by its owner identity id, or by an activity
+ * id for the comments lists of this activity. The generations are counters
+ * kept locally, which don't depend on the clock of the nodes: the keys of the
+ * modified streams are sent to the other cluster nodes, which raise their
+ * generations of these streams. They start at a random value on each node, so
+ * that the lists cached by a node in the replicated lists caches aren't
+ * reachable with the generations of another node.
+ */
+class ActivityStreamGenerations {
+
+  private static final String                  IDENTITY_PREFIX  = "i:";
+
+  private static final String                  ACTIVITY_PREFIX  = "a:";
+
+  private final Map<String, Long>              generations      = new ConcurrentHashMap<>();
+
+  private final Map<String, FeedOwners>        feedOwners       = new ConcurrentHashMap<>();
+
+  private final Function<String, Set<Long>>    feedOwnersLoader;
+
+  private final int                            maxEntries;
+
+  private final long                           feedOwnersTTL;
+
+  /** Changes whenever the generation of any stream changes */
+  private final AtomicLong                     globalGeneration;
+
+  /**
+   * Generation of the streams which aren't in {@link #generations}, raised
+   * above all the generations when they are reset to free memory
+   */
+  private volatile long                        floorGeneration;
+
+  /**
+   * @param feedOwnersLoader loads the owners of the streams read by the feed
+   *          of a user identity id
+   * @param maxEntries maximum number of stream generations kept before reset
+   * @param feedOwnersTTL time in milliseconds during which the loaded feed
+   *          owners are reused
+   */
+  ActivityStreamGenerations(Function<String, Set<Long>> feedOwnersLoader, int maxEntries, long feedOwnersTTL) {
+    this.feedOwnersLoader = feedOwnersLoader;
+    this.maxEntries = maxEntries;
+    this.feedOwnersTTL = feedOwnersTTL;
+    this.floorGeneration = ThreadLocalRandom.current().nextLong(Long.MAX_VALUE / 2);
+    this.globalGeneration = new AtomicLong(ThreadLocalRandom.current().nextLong(Long.MAX_VALUE / 2));
+  }
+
+  /**
+   * @return a generation changing whenever any stream changes, used for the
+   *         lists which read streams that can't be determined
+   */
+  long getGlobalGeneration() {
+    return globalGeneration.get();
+  }
+
+  long getIdentityGeneration(String identityId) {
+    return getGeneration(IDENTITY_PREFIX + identityId);
+  }
+
+  long getActivityGeneration(String activityId) {
+    return getGeneration(ACTIVITY_PREFIX + activityId);
+  }
+
+  /**
+   * The owners of the streams read by the feed are loaded from the storage
+   * with one query, then reused during the feed owners TTL. Thus reading a
+   * cached feed list still costs this query once per TTL and per user, and a
+   * new space or connection is taken into account after this delay.
+   *
+   * @param identityId user identity id
+   * @return a generation changing whenever a stream read by the user feed
+   *         changes or when the owners of these streams change
+   */
+  long getFeedGeneration(String identityId) {
+    long now = System.currentTimeMillis();
+    FeedOwners owners = feedOwners.get(identityId);
+    if (owners == null || owners.loadingTime + feedOwnersTTL < now) {
+      checkSize(feedOwners);
+      owners = new FeedOwners(feedOwnersLoader.apply(identityId), now);
+      feedOwners.put(identityId, owners);
+    }
+    long generationsSum = getIdentityGeneration(identityId);
+    for (Long ownerId : owners.ids) {
+      generationsSum += getIdentityGeneration(String.valueOf(ownerId));
+    }
+    return generationsSum * 31 + owners.ids.hashCode();
+  }
+
+  /**
+   * Changes the generations of modified streams
+   *
+   * @param identityIds owners of the modified streams
+   * @param activityIds activities which comments were modified
+   */
+  void invalidate(Collection<String> identityIds, Collection<String> activityIds) {
+    invalidate(getStreamKeys(identityIds, activityIds));
+  }
+
+  /**
+   * Changes the generations of modified streams
+   *
+   * @param streamKeys keys of the modified streams, as returned by
+   *          {@link #getStreamKeys(Collection, Collection)}
+   */
+  void invalidate(String[] streamKeys) {
+    for (String streamKey : streamKeys) {
+      invalidate(streamKey);
+    }
+  }
+
+  /**
+   * @param identityIds owners of the modified streams
+   * @param activityIds activities which comments were modified
+   * @return the keys identifying the modified streams on all cluster nodes
+   */
+  static String[] getStreamKeys(Collection<String> identityIds, Collection<String> activityIds) {
+    String[] streamKeys = new String[identityIds.size() + activityIds.size()];
+    int i = 0;
+    for (String identityId : identityIds) {
+      streamKeys[i++] = IDENTITY_PREFIX + identityId;
+    }
+    for (String activityId : activityIds) {
+      streamKeys[i++] = ACTIVITY_PREFIX + activityId;
+    }
+    return streamKeys;
+  }
+
+  /**
+   * Changes the generation of all streams, including the ones of the feed
+   * owners that are reloaded
+   */
+  void reset() {
+    synchronized (generations) {
+      long maxGeneration = floorGeneration;
+      for (Long generation : generations.values()) {
+        maxGeneration = Math.max(maxGeneration, generation);
+      }
+      floorGeneration = maxGeneration + 1;
+      generations.clear();
+      feedOwners.clear();
+      globalGeneration.incrementAndGet();
+    }
+  }
+
+  int getSize() {
+    return generations.size();
+  }
+
+  private long getGeneration(String streamKey) {
+    Long generation = generations.get(streamKey);
+    return generation == null ? floorGeneration : generation;
+  }
+
+  private void invalidate(String streamKey) {
+    checkSize(generations);
+    generations.merge(streamKey, floorGeneration + 1, (generation, newGeneration) -> generation + 1);
+    globalGeneration.incrementAndGet();
+  }
+
+  private void checkSize(Map<String, ?> map) {
+    if (map.size() >= maxEntries) {
+      reset();
+    }
+  }
+
+  private static final class FeedOwners {
+    private final Set<Long> ids;
+
+    private final long      loadingTime;
+
+    private FeedOwners(Set<Long> ids, long loadingTime) {
+      this.ids = ids;
+      this.loadingTime = loadingTime;
+    }
+  }
+
+}
@@ -0,0 +1,233 @@
+/*
+ * This file is part of the Meeds project (https://meeds.io/).
+ * Copyright (C) 2022 Meeds Association contact@meeds.io
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package org.exoplatform.social.core.storage.cache;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiFunction;
+
+import org.exoplatform.services.cache.*;
+import org.exoplatform.services.log.ExoLogger;
+import org.exoplatform.services.log.Log;
+import org.exoplatform.social.core.storage.cache.model.key.CacheKey;
+
+/**
+ * Reverse index of the keys of an {@link ExoCache}, maintained by listening to
+ * the cache events. Each key is indexed by the values returned by an indexer,
+ * typically the ids of the identities which the cached entry depends on, so
+ * that invalidating the entries of an identity removes only the indexed keys
+ * instead of scanning the whole cache with {@link ExoCache#select}.
+ * <p>
+ * The keys indexed by {@link #ANY} are removed whatever the requested values.
+ * When the index is unavailable, because the cache had entries before the
+ * index was created or because the index exceeded its maximum size, the
+ * removal falls back to a scan of the cache with the given selector, which
+ * indexes again the scanned entries.
+ *
+ * @param <K> cache key type
+ * @param <V> cache value type
+ */
+public class CacheKeysIndex<K extends CacheKey, V> implements CacheListener<K, V> {
+
+  private static final Log                     LOG       = ExoLogger.getLogger(CacheKeysIndex.class);
+
+  /** Index value of the keys to remove for any requested value */
+  public static final String                   ANY       = "*";
+
+  private final ExoCache<K, V>                 cache;
+
+  private final BiFunction<K, V, Set<String>>  indexer;
+
+  private final int                            maxKeys;
+
+  private final Map<String, Set<K>>            keysByIndexValue = new ConcurrentHashMap<>();
+
+  private final Map<K, Set<String>>            indexValuesByKey = new ConcurrentHashMap<>();
+
+  private volatile boolean                     available;
+
+  private volatile boolean                     rebuilding;
+
+  /**
+   * @param cache indexed cache
+   * @param indexer computes the index values of a cache entry
+   * @param maxKeys maximum number of indexed keys, 0 or less for no limit
+   */
+  public CacheKeysIndex(ExoCache<K, V> cache, BiFunction<K, V, Set<String>> indexer, int maxKeys) {
+    this.cache = cache;
+    this.indexer = indexer;
+    this.maxKeys = maxKeys > 0 ? maxKeys : Integer.MAX_VALUE;
+    this.available = cache.getCacheSize() == 0;
+    cache.addCacheListener(this);
+  }
+
+  /**
+   * Removes from cache the entries indexed by one of the given values or by
+   * {@link #ANY}.
+   *
+   * @param indexValues index values of the entries to remove
+   * @param selector selector of the same entries, used when the index is
+   *          unavailable
+   * @throws Exception when the cache fails to remove the entries
+   */
+  public void remove(Collection<String> indexValues, CachedObjectSelector<? super K, ? super V> selector) throws Exception {
+    if (!available) {
+      LOG.debug("Index of cache {} is unavailable, scan the whole cache", cache.getName());
+      rebuilding = true;
+      try {
+        cache.select(new IndexingSelector(selector));
+        available = rebuilding;
+      } finally {
+        rebuilding = false;
+      }
+      return;
+    }
+    Set<K> keys = new HashSet<>();
+    addKeys(keys, ANY);
+    for (String indexValue : indexValues) {
+      if (indexValue != null) {
+        addKeys(keys, indexValue);
+      }
+    }
+    for (K key : keys) {
+      cache.remove(key);
+    }
+  }
+
+  public boolean isAvailable() {
+    return available;
+  }
+
+  public int getSize() {
+    return indexValuesByKey.size();
+  }
+
+  @Override
+  public void onPut(CacheListenerContext context, K key, V obj) throws Exception {
+    index(key, obj);
+  }
+
+  @Override
+  public void onPutLocal(CacheListenerContext context, K key, V obj) throws Exception {
+    index(key, obj);
+  }
+
+  @Override
+  public void onRemove(CacheListenerContext context, K key, V obj) throws Exception {
+    unindex(key);
+  }
+
+  @Override
+  public void onExpire(CacheListenerContext context, K key, V obj) throws Exception {
+    unindex(key);
+  }
+
+  @Override
+  public void onGet(CacheListenerContext context, K key, V obj) throws Exception {
+    // nothing
+  }
+
+  @Override
+  public void onClearCache(CacheListenerContext context) throws Exception {
+    indexValuesByKey.clear();
+    keysByIndexValue.clear();
+    available = true;
+  }
+
+  private void addKeys(Set<K> keys, String indexValue) {
+    Set<K> indexedKeys = keysByIndexValue.get(indexValue);
+    if (indexedKeys != null) {
+      keys.addAll(indexedKeys);
+    }
+  }
+
+  private void index(K key, V value) {
+    if (key == null || !(available || rebuilding)) {
+      return;
+    }
+    if (indexValuesByKey.size() >= maxKeys) {
+      LOG.debug("Index of cache {} exceeds {} keys, disable it", cache.getName(), maxKeys);
+      available = false;
+      rebuilding = false;
+      indexValuesByKey.clear();
+      keysByIndexValue.clear();
+      return;
+    }
+    Set<String> indexValues = indexer.apply(key, value);
+    indexValuesByKey.compute(key, (k, oldIndexValues) -> {
+      if (oldIndexValues != null) {
+        removeIndexValues(k, oldIndexValues);
+      }
+      for (String indexValue : indexValues) {
+        if (indexValue == null) {
+          continue;
+        }
+        keysByIndexValue.compute(indexValue, (v, keys) -> {
+          Set<K> indexedKeys = keys == null ? ConcurrentHashMap.newKeySet() : keys;
+          indexedKeys.add(k);
+          return indexedKeys;
+        });
+      }
+      return indexValues;
+    });
+  }
+
+  private void unindex(K key) {
+    if (key == null) {
+      return;
+    }
+    indexValuesByKey.computeIfPresent(key, (k, indexValues) -> {
+      removeIndexValues(k, indexValues);
+      return null;
+    });
+  }
+
+  private void removeIndexValues(K key, Set<String> indexValues) {
+    for (String indexValue : indexValues) {
+      if (indexValue == null) {
+        continue;
+      }
+      keysByIndexValue.computeIfPresent(indexValue, (v, keys) -> {
+        keys.remove(key);
+        return keys.isEmpty() ? null : keys;
+      });
+    }
+  }
+
+  /**
+   * Scans the cache with a selector and indexes the scanned entries
+   */
+  private class IndexingSelector implements CachedObjectSelector<K, V> {
+
+    private final CachedObjectSelector<? super K, ? super V> selector;
+
+    private IndexingSelector(CachedObjectSelector<? super K, ? super V> selector) {
+      this.selector = selector;
+    }
+
+    @Override
+    public boolean select(K key, ObjectCacheInfo<? extends V> ocinfo) {
+      index(key, ocinfo == null ? null : ocinfo.get());
+      return selector.select(key, ocinfo);
+    }
+
+    @Override
+    public void onSelect(ExoCache<? extends K, ? extends V> exoCache, K key, ObjectCacheInfo<? extends V> ocinfo) throws Exception {
+      selector.onSelect(exoCache, key, ocinfo);
+    }
+  }
+
+}
@@ -64,7 +64,12 @@ public enum CacheType {
   SPACES("social.SpacesCache"),
   
   //
-  SPACE_SIMPLE("social.SpaceSimpleCache")
+  SPACE_SIMPLE("social.SpaceSimpleCache"),
+  SPACE_MEMBERSHIP("social.SpaceMembershipCache"),
+
+  //
+  METADATA("social.MetadataCache"),
+  METADATA_ITEMS("social.MetadataItemsCache")
 
   ;
 
@@ -20,12 +20,20 @@ package org.exoplatform.social.core.storage.cache;
 import static org.exoplatform.social.core.storage.ActivityStorageException.Type.FAILED_TO_GET_ACTIVITY;
 
 import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.commons.lang3.StringUtils;
 
 import org.exoplatform.commons.cache.future.FutureExoCache;
+import org.exoplatform.management.annotations.Managed;
+import org.exoplatform.management.annotations.ManagedDescription;
+import org.exoplatform.management.jmx.annotations.NameTemplate;
+import org.exoplatform.management.jmx.annotations.Property;
 import org.exoplatform.services.cache.*;
 import org.exoplatform.services.log.ExoLogger;
 import org.exoplatform.services.log.Log;
 import org.exoplatform.social.core.ActivityProcessor;
+import org.exoplatform.social.core.activity.ActivityCursor;
 import org.exoplatform.social.core.activity.ActivityFilter;
 import org.exoplatform.social.core.activity.model.ActivityShareAction;
 import org.exoplatform.social.core.activity.model.ExoSocialActivity;
@@ -42,26 +50,53 @@ import org.exoplatform.social.core.storage.cache.selector.*;
  * @author <a href="mailto:alain.defrance@exoplatform.com">Alain Defrance</a>
  * @version $Revision$
  */
+@Managed
+@ManagedDescription("Social activities cache")
+@NameTemplate({ @Property(key = "service", value = "social"), @Property(key = "view", value = "ActivityCache") })
 public class CachedActivityStorage implements ActivityStorage {
 
   /** Logger */
   private static final Log                                                                                LOG =
                                                                                                               ExoLogger.getLogger(CachedActivityStorage.class);
 
+  /** Types of lists reading the streams of the connections or the spaces of an identity */
+  private static final Set<ActivityType>                                                                  FEED_TYPES             =
+      EnumSet.of(ActivityType.FEED, ActivityType.NEWER_FEED, ActivityType.OLDER_FEED, ActivityType.FEED_FOR_UPGRADE,
+                 ActivityType.CONNECTION, ActivityType.NEWER_CONNECTION, ActivityType.OLDER_CONNECTION,
+                 ActivityType.CONNECTION_FOR_UPGRADE, ActivityType.SPACES, ActivityType.NEWER_SPACES,
+                 ActivityType.OLDER_SPACES, ActivityType.SPACES_FOR_UPGRADE, ActivityType.VIEWER);
+
+  private static final int                                                                                MAX_STREAM_GENERATIONS = 100000;
+
+  private static final long                                                                               FEED_OWNERS_TTL        = 60000L;
+
   private final ExoCache<ActivityKey, ActivityData>                                                       exoActivityCache;
 
   private final ExoCache<ActivityCountKey, IntegerData>                                                   exoActivitiesCountCache;
 
   private final ExoCache<ListActivitiesKey, ListActivitiesData>                                           exoActivitiesCache;
 
+  private final ExoCache<String, String[]>                                                                exoStreamsInvalidationCache;
+
   private final FutureExoCache<ActivityKey, ActivityData, ServiceContext<ActivityData>>                   activityCache;
 
   private final FutureExoCache<ActivityCountKey, IntegerData, ServiceContext<IntegerData>>                activitiesCountCache;
 
   private final FutureExoCache<ListActivitiesKey, ListActivitiesData, ServiceContext<ListActivitiesData>> activitiesCache;
 
+  private final CacheKeysIndex<ActivityKey, ActivityData>                                                 activityOwnerIndex;
+
   private ActivityStorage                                                                                 storage;
 
+  private final ActivityStreamGenerations                                                                 streamGenerations;
+
+  private final AtomicLong                                                                                clearedCaches     = new AtomicLong();
+
+  /** Prefix of the keys of the streams invalidation messages sent by this node */
+  private final String                                                                                    nodeId            = UUID.randomUUID().toString() + "-";
+
+  private final AtomicLong                                                                                sentInvalidations = new AtomicLong();
+
   public void clearCache() {
 
     try {
@@ -70,13 +105,46 @@ public class CachedActivityStorage implements ActivityStorage {
     } catch (Exception e) {
       LOG.error(e);
     }
+    streamGenerations.reset();
+    clearedCaches.incrementAndGet();
+
+  }
 
+  @Managed
+  @ManagedDescription("Ratio of activities lists found in cache")
+  public double getActivitiesCacheHitRatio() {
+    return getHitRatio(exoActivitiesCache);
+  }
+
+  @Managed
+  @ManagedDescription("Ratio of activities counts found in cache")
+  public double getActivitiesCountCacheHitRatio() {
+    return getHitRatio(exoActivitiesCountCache);
+  }
+
+  @Managed
+  @ManagedDescription("Number of activity stream modifications which invalidated the cached lists reading these streams")
+  public long getModifiedStreamsCount() {
+    return streamGenerations.getGlobalGeneration();
+  }
+
+  @Managed
+  @ManagedDescription("Number of times all cached activities lists and counts were cleared")
+  public long getClearedCachesCount() {
+    return clearedCaches.get();
+  }
+
+  @Managed
+  @ManagedDescription("Number of activity streams which generation is kept")
+  public int getStreamGenerationsSize() {
+    return streamGenerations.getSize();
   }
 
   public void clearOwnerCache(String ownerId) {
 
     try {
-      exoActivityCache.select(new ActivityOwnerCacheSelector(ownerId));
+      ActivityOwnerCacheSelector selector = new ActivityOwnerCacheSelector(ownerId);
+      activityOwnerIndex.remove(Collections.singleton(selector.getIndexValue()), selector);
     } catch (Exception e) {
       LOG.error(e);
     }
@@ -92,7 +160,8 @@ public class CachedActivityStorage implements ActivityStorage {
    */
   public void clearOwnerStreamCache(String streamOwner) {
     try {
-      exoActivityCache.select(new ActivityStreamOwnerCacheSelector(streamOwner));
+      ActivityStreamOwnerCacheSelector selector = new ActivityStreamOwnerCacheSelector(streamOwner);
+      activityOwnerIndex.remove(Collections.singleton(selector.getIndexValue()), selector);
     } catch (Exception e) {
       LOG.error(e);
     }
@@ -112,6 +181,88 @@ public class CachedActivityStorage implements ActivityStorage {
     clearCache();
   }
 
+  /**
+   * Embeds the generation of the streams read by the counted or listed
+   * activities in the key, so that modifying one of these streams makes the
+   * cached value unreachable.
+   *
+   * @param key activities count key
+   * @return the key with the streams generation
+   */
+  private ActivityCountKey withGeneration(ActivityCountKey key) {
+    long generation;
+    if (key.getType() == null) {
+      // Lists filtered by an ActivityFilter may read any stream
+      generation = streamGenerations.getGlobalGeneration();
+    } else if (key.getKey() != null) {
+      String identityId = key.getKey().getId();
+      generation = FEED_TYPES.contains(key.getType()) ? streamGenerations.getFeedGeneration(identityId)
+                                                      : streamGenerations.getIdentityGeneration(identityId);
+    } else if (key.getActivityKey() != null) {
+      generation = streamGenerations.getActivityGeneration(key.getActivityKey().getId());
+    } else if (key.getBaseId() != null) {
+      generation = streamGenerations.getActivityGeneration(key.getBaseId());
+    } else {
+      generation = streamGenerations.getGlobalGeneration();
+    }
+    return key.withGeneration(generation);
+  }
+
+  /**
+   * Changes the generations of the streams of a modified activity locally,
+   * then sends the keys of these streams to the other cluster nodes
+   *
+   * @param activity the modified activity
+   */
+  private void invalidateStreams(ExoSocialActivity activity) {
+    if (activity == null) {
+      return;
+    }
+    Set<String> identityIds = new HashSet<>();
+    Set<String> activityIds = new HashSet<>();
+    addStreams(activity, identityIds, activityIds);
+    String[] streamKeys = ActivityStreamGenerations.getStreamKeys(identityIds, activityIds);
+    streamGenerations.invalidate(streamKeys);
+    try {
+      exoStreamsInvalidationCache.put(nodeId + sentInvalidations.incrementAndGet(), streamKeys);
+    } catch (Exception e) {
+      LOG.warn("Error sending the modified streams of activity {} to the other cluster nodes", activity.getId(), e);
+    }
+  }
+
+  /**
+   * Adds the owners of the streams where an activity is displayed, and the
+   * activities which comments include it.
+   */
+  private static void addStreams(ExoSocialActivity activity, Set<String> identityIds, Set<String> activityIds) {
+    addIdentityIds(identityIds, activity.getStreamId(), activity.getPosterId(), activity.getUserId());
+    addIdentityIds(identityIds, activity.getLikeIdentityIds());
+    addIdentityIds(identityIds, activity.getMentionedIds());
+    addIdentityIds(identityIds, activity.getCommentedIds());
+    for (String activityId : new String[] { activity.getId(), activity.getParentId(), activity.getParentCommentId() }) {
+      if (StringUtils.isNotBlank(activityId)) {
+        activityIds.add(activityId);
+      }
+    }
+  }
+
+  private static void addIdentityIds(Set<String> identityIds, String... ids) {
+    if (ids == null) {
+      return;
+    }
+    for (String id : ids) {
+      if (StringUtils.isNotBlank(id)) {
+        // Mentioners and commenters are stored with their number of occurrences
+        identityIds.add(StringUtils.substringBefore(id, "@"));
+      }
+    }
+  }
+
+  private static double getHitRatio(ExoCache<?, ?> cache) {
+    long total = (long) cache.getCacheHit() + cache.getCacheMiss();
+    return total == 0 ? 0 : (double) cache.getCacheHit() / total;
+  }
+
   /**
    * Build the activity list from the caches Ids.
    *
@@ -120,15 +271,69 @@ public class CachedActivityStorage implements ActivityStorage {
    */
   private List<ExoSocialActivity> buildActivities(ListActivitiesData data) {
 
+    List<String> activityIds = new ArrayList<String>();
+    for (ActivityKey k : data.getIds()) {
+      activityIds.add(k.getId());
+    }
+    Map<String, ExoSocialActivity> activitiesById = getActivitiesById(activityIds);
+
     List<ExoSocialActivity> activities = new ArrayList<ExoSocialActivity>();
     for (ActivityKey k : data.getIds()) {
-      ExoSocialActivity a = getActivity(k.getId());
+      ExoSocialActivity a = activitiesById.get(k.getId());
       activities.add(a);
     }
     return activities;
 
   }
 
+  /**
+   * Retrieves activities from cache and loads all the missing ones from the
+   * store in a single call, then puts them in cache.
+   *
+   * @param activityIds activity ids
+   * @return found activities by id
+   */
+  private Map<String, ExoSocialActivity> getActivitiesById(List<String> activityIds) {
+    Map<String, ExoSocialActivity> resultMap = new HashMap<>();
+    Set<String> activityIdsToGetFromStore = new LinkedHashSet<>();
+    for (String activityId : activityIds) {
+      if (activityId == null || activityId.isEmpty() || resultMap.containsKey(activityId)) {
+        continue;
+      }
+      ActivityData activityData = exoActivityCache.get(new ActivityKey(activityId));
+      if (activityData == null) {
+        // Retrieve activity from store
+        activityIdsToGetFromStore.add(activityId);
+      } else if (activityData != ActivityData.NULL && activityData.getId() != null) {
+        // Add found activity in cache into results
+        resultMap.put(activityId, activityData.build());
+      } else {
+        // activity is equals to ActivityData.NULL,
+        // thus no need to add it in results, not get it from store
+      }
+    }
+    if (activityIdsToGetFromStore.isEmpty()) {
+      return resultMap;
+    }
+    List<ExoSocialActivity> activitiesGotFromStore;
+    try {
+      activitiesGotFromStore = storage.getActivities(new ArrayList<>(activityIdsToGetFromStore));
+    } catch (Exception e) {
+      throw new ActivityStorageException(FAILED_TO_GET_ACTIVITY,
+                                         "failed to get activities with ids: " + activityIdsToGetFromStore,
+                                         e);
+    }
+    if (activitiesGotFromStore != null && !activitiesGotFromStore.isEmpty()) {
+      for (ExoSocialActivity exoSocialActivity : activitiesGotFromStore) {
+        // Update local cache by found value
+        activityCache.putOnly(new ActivityKey(exoSocialActivity.getId()), new ActivityData(exoSocialActivity));
+        // Add found activity to list of results
+        resultMap.put(exoSocialActivity.getId(), exoSocialActivity);
+      }
+    }
+    return resultMap;
+  }
+
   /**
    * Build the ids from the activity list.
    *
@@ -177,8 +382,13 @@ public class CachedActivityStorage implements ActivityStorage {
     this.exoActivityCache = cacheService.getActivityCache();
     this.exoActivitiesCountCache = cacheService.getActivitiesCountCache();
     this.exoActivitiesCache = cacheService.getActivitiesCache();
+    this.exoStreamsInvalidationCache = cacheService.getActivityStreamsInvalidationCache();
+    this.activityOwnerIndex = cacheService.getActivityOwnerIndex();
 
-    this.exoActivityCache.addCacheListener(new CacheActivityListener());
+    this.streamGenerations = new ActivityStreamGenerations(identityId -> storage.getStreamFeedOwnerIds(new Identity(identityId)),
+                                                           MAX_STREAM_GENERATIONS,
+                                                           FEED_OWNERS_TTL);
+    this.exoStreamsInvalidationCache.addCacheListener(new StreamsInvalidationListener());
 
     //
     this.activityCache = CacheType.ACTIVITY.createFutureCache(exoActivityCache);
@@ -250,7 +460,7 @@ public class CachedActivityStorage implements ActivityStorage {
                                                                                                               throws ActivityStorageException {
 
     //
-    ActivityCountKey key = new ActivityCountKey(new IdentityKey(owner), ActivityType.USER);
+    ActivityCountKey key = withGeneration(new ActivityCountKey(new IdentityKey(owner), ActivityType.USER));
     ListActivitiesKey listKey = new ListActivitiesKey(key, offset, limit);
 
     //
@@ -274,7 +484,7 @@ public class CachedActivityStorage implements ActivityStorage {
                                            final long limit) throws ActivityStorageException {
 
     //
-    ActivityCountKey key = new ActivityCountKey(new IdentityKey(owner), ActivityType.USER);
+    ActivityCountKey key = withGeneration(new ActivityCountKey(new IdentityKey(owner), ActivityType.USER));
     ListActivitiesKey listKey = new ListActivitiesKey(key, offset, limit);
     //
     ListActivitiesData keys = activitiesCache.get(
@@ -303,7 +513,8 @@ public class CachedActivityStorage implements ActivityStorage {
     exoActivityCache.put(new ActivityKey(comment.getId()), new ActivityData(getActivity(comment.getId())));
     ActivityKey activityKey = new ActivityKey(activity.getId());
     exoActivityCache.remove(activityKey);
-    clearCache();
+    invalidateStreams(activity);
+    invalidateStreams(comment);
   }
 
   /**
@@ -317,7 +528,7 @@ public class CachedActivityStorage implements ActivityStorage {
     //
     ActivityKey key = new ActivityKey(a.getId());
     exoActivityCache.remove(key);
-    clearCache();
+    invalidateStreams(a);
 
     //
     return getActivity(a.getId());
@@ -329,6 +540,7 @@ public class CachedActivityStorage implements ActivityStorage {
     ExoSocialActivity a = storage.hideActivity(activityId);
     ActivityKey key = new ActivityKey(a.getId());
     exoActivityCache.remove(key);
+    invalidateStreams(a);
     return a;
   }
 
@@ -337,6 +549,7 @@ public class CachedActivityStorage implements ActivityStorage {
     ExoSocialActivity a = storage.pinActivity(activityId, userIdentityId);
     ActivityKey key = new ActivityKey(a.getId());
     exoActivityCache.remove(key);
+    invalidateStreams(a);
     return a;
   }
 
@@ -345,6 +558,7 @@ public class CachedActivityStorage implements ActivityStorage {
     ExoSocialActivity a = storage.unpinActivity(activityId);
     ActivityKey key = new ActivityKey(a.getId());
     exoActivityCache.remove(key);
+    invalidateStreams(a);
     return a;
   }
 
@@ -367,6 +581,7 @@ public class CachedActivityStorage implements ActivityStorage {
     //
     ActivityKey key = new ActivityKey(activityId);
     exoActivityCache.remove(key);
+    invalidateStreams(a);
   }
 
   /**
@@ -375,11 +590,13 @@ public class CachedActivityStorage implements ActivityStorage {
   public void deleteComment(final String activityId, final String commentId) throws ActivityStorageException {
 
     //
+    ExoSocialActivity comment = getActivity(commentId);
     storage.deleteComment(activityId, commentId);
 
     //
     exoActivityCache.remove(new ActivityKey(activityId));
     exoActivityCache.remove(new ActivityKey(commentId));
+    invalidateStreams(comment);
   }
 
   /**
@@ -388,7 +605,7 @@ public class CachedActivityStorage implements ActivityStorage {
   public int getNumberOfUserActivities(final Identity owner) throws ActivityStorageException {
 
     //
-    ActivityCountKey key = new ActivityCountKey(new IdentityKey(owner), ActivityType.USER);
+    ActivityCountKey key = withGeneration(new ActivityCountKey(new IdentityKey(owner), ActivityType.USER));
 
     //
     return activitiesCountCache.get(
@@ -408,7 +625,7 @@ public class CachedActivityStorage implements ActivityStorage {
   @Override
   public int getActivitiesCountByFilter(Identity viewerIdentity, ActivityFilter activityFilter) {
 
-    ActivityCountKey key = new ActivityCountKey(new IdentityKey(viewerIdentity), activityFilter);
+    ActivityCountKey key = withGeneration(new ActivityCountKey(new IdentityKey(viewerIdentity), activityFilter));
 
     return activitiesCountCache.get(() -> new IntegerData(storage.getActivitiesCountByFilter(viewerIdentity, activityFilter)),
                                     key)
@@ -422,7 +639,7 @@ public class CachedActivityStorage implements ActivityStorage {
 
     //
     ActivityCountKey key =
-                         new ActivityCountKey(new IdentityKey(ownerIdentity), baseActivity.getId(), ActivityType.NEWER_USER);
+                         withGeneration(new ActivityCountKey(new IdentityKey(ownerIdentity), baseActivity.getId(), ActivityType.NEWER_USER));
 
     //
     return activitiesCountCache.get(
@@ -445,7 +662,7 @@ public class CachedActivityStorage implements ActivityStorage {
                                                           final int limit) {
 
     //
-    ActivityCountKey key = new ActivityCountKey(new IdentityKey(ownerIdentity), ActivityType.NEWER_USER);
+    ActivityCountKey key = withGeneration(new ActivityCountKey(new IdentityKey(ownerIdentity), ActivityType.NEWER_USER));
     ListActivitiesKey listKey = new ListActivitiesKey(key, 0, limit);
 
     //
@@ -473,7 +690,7 @@ public class CachedActivityStorage implements ActivityStorage {
 
     //
     ActivityCountKey key =
-                         new ActivityCountKey(new IdentityKey(ownerIdentity), baseActivity.getId(), ActivityType.OLDER_USER);
+                         withGeneration(new ActivityCountKey(new IdentityKey(ownerIdentity), baseActivity.getId(), ActivityType.OLDER_USER));
 
     //
     return activitiesCountCache.get(
@@ -496,7 +713,7 @@ public class CachedActivityStorage implements ActivityStorage {
                                                           final int limit) {
 
     //
-    ActivityCountKey key = new ActivityCountKey(new IdentityKey(ownerIdentity), baseActivity.getId(), ActivityType.OLDER_USER);
+    ActivityCountKey key = withGeneration(new ActivityCountKey(new IdentityKey(ownerIdentity), baseActivity.getId(), ActivityType.OLDER_USER));
     ListActivitiesKey listKey = new ListActivitiesKey(key, 0, limit);
 
     //
@@ -523,7 +740,7 @@ public class CachedActivityStorage implements ActivityStorage {
   public List<ExoSocialActivity> getActivityFeed(final Identity ownerIdentity, final int offset, final int limit) {
 
     //
-    ActivityCountKey key = new ActivityCountKey(new IdentityKey(ownerIdentity), ActivityType.FEED);
+    ActivityCountKey key = withGeneration(new ActivityCountKey(new IdentityKey(ownerIdentity), ActivityType.FEED));
     ListActivitiesKey listKey = new ListActivitiesKey(key, offset, limit);
 
     //
@@ -545,7 +762,7 @@ public class CachedActivityStorage implements ActivityStorage {
   @Override
   public List<String> getActivityIdsFeed(final Identity ownerIdentity, final int offset, final int limit) {
     //
-    ActivityCountKey key = new ActivityCountKey(new IdentityKey(ownerIdentity), ActivityType.FEED);
+    ActivityCountKey key = withGeneration(new ActivityCountKey(new IdentityKey(ownerIdentity), ActivityType.FEED));
     ListActivitiesKey listKey = new ListActivitiesKey(key, offset, limit);
     //
     ListActivitiesData keys = activitiesCache.get(
@@ -577,7 +794,7 @@ public class CachedActivityStorage implements ActivityStorage {
 
     //
     ActivityCountKey key =
-                         new ActivityCountKey(new IdentityKey(ownerIdentity), ActivityType.FEED);
+                         withGeneration(new ActivityCountKey(new IdentityKey(ownerIdentity), ActivityType.FEED));
 
     //
     return activitiesCountCache.get(
@@ -598,7 +815,7 @@ public class CachedActivityStorage implements ActivityStorage {
 
     //
     ActivityCountKey key =
-                         new ActivityCountKey(new IdentityKey(ownerIdentity), baseActivity.getId(), ActivityType.NEWER_FEED);
+                         withGeneration(new ActivityCountKey(new IdentityKey(ownerIdentity), baseActivity.getId(), ActivityType.NEWER_FEED));
 
     //
     return activitiesCountCache.get(
@@ -621,7 +838,7 @@ public class CachedActivityStorage implements ActivityStorage {
                                                         final int limit) {
 
     //
-    ActivityCountKey key = new ActivityCountKey(new IdentityKey(ownerIdentity), baseActivity.getId(), ActivityType.NEWER_FEED);
+    ActivityCountKey key = withGeneration(new ActivityCountKey(new IdentityKey(ownerIdentity), baseActivity.getId(), ActivityType.NEWER_FEED));
     ListActivitiesKey listKey = new ListActivitiesKey(key, 0, limit);
 
     //
@@ -648,7 +865,7 @@ public class CachedActivityStorage implements ActivityStorage {
 
     //
     ActivityCountKey key =
-                         new ActivityCountKey(new IdentityKey(ownerIdentity), baseActivity.getId(), ActivityType.OLDER_FEED);
+                         withGeneration(new ActivityCountKey(new IdentityKey(ownerIdentity), baseActivity.getId(), ActivityType.OLDER_FEED));
 
     //
     return activitiesCountCache.get(
@@ -671,7 +888,7 @@ public class CachedActivityStorage implements ActivityStorage {
                                                         final int limit) {
 
     //
-    ActivityCountKey key = new ActivityCountKey(new IdentityKey(ownerIdentity), baseActivity.getId(), ActivityType.OLDER_FEED);
+    ActivityCountKey key = withGeneration(new ActivityCountKey(new IdentityKey(ownerIdentity), baseActivity.getId(), ActivityType.OLDER_FEED));
     ListActivitiesKey listKey = new ListActivitiesKey(key, 0, limit);
 
     //
@@ -697,7 +914,7 @@ public class CachedActivityStorage implements ActivityStorage {
   public List<ExoSocialActivity> getActivitiesOfConnections(final Identity ownerIdentity, final int offset, final int limit) {
 
     //
-    ActivityCountKey key = new ActivityCountKey(new IdentityKey(ownerIdentity), ActivityType.CONNECTION);
+    ActivityCountKey key = withGeneration(new ActivityCountKey(new IdentityKey(ownerIdentity), ActivityType.CONNECTION));
     ListActivitiesKey listKey = new ListActivitiesKey(key, offset, limit);
 
     //
@@ -721,7 +938,7 @@ public class CachedActivityStorage implements ActivityStorage {
   @Override
   public List<String> getActivityIdsOfConnections(final Identity ownerIdentity, final int offset, final int limit) {
     //
-    ActivityCountKey key = new ActivityCountKey(new IdentityKey(ownerIdentity), ActivityType.CONNECTION);
+    ActivityCountKey key = withGeneration(new ActivityCountKey(new IdentityKey(ownerIdentity), ActivityType.CONNECTION));
     ListActivitiesKey listKey = new ListActivitiesKey(key, offset, limit);
     //
     ListActivitiesData keys = activitiesCache.get(
@@ -746,7 +963,7 @@ public class CachedActivityStorage implements ActivityStorage {
 
     //
     ActivityCountKey key =
-                         new ActivityCountKey(new IdentityKey(ownerIdentity), ActivityType.CONNECTION);
+                         withGeneration(new ActivityCountKey(new IdentityKey(ownerIdentity), ActivityType.CONNECTION));
 
     //
     return activitiesCountCache.get(
@@ -775,9 +992,9 @@ public class CachedActivityStorage implements ActivityStorage {
 
     //
     ActivityCountKey key =
-                         new ActivityCountKey(new IdentityKey(ownerIdentity),
-                                              baseActivity.getId(),
-                                              ActivityType.NEWER_CONNECTION);
+                         withGeneration(new ActivityCountKey(new IdentityKey(ownerIdentity),
+                                                             baseActivity.getId(),
+                                                             ActivityType.NEWER_CONNECTION));
 
     //
     return activitiesCountCache.get(
@@ -800,9 +1017,9 @@ public class CachedActivityStorage implements ActivityStorage {
                                                                    final long limit) {
 
     //
-    ActivityCountKey key = new ActivityCountKey(new IdentityKey(ownerIdentity),
-                                                baseActivity.getId(),
-                                                ActivityType.NEWER_CONNECTION);
+    ActivityCountKey key = withGeneration(new ActivityCountKey(new IdentityKey(ownerIdentity),
+                                                               baseActivity.getId(),
+                                                               ActivityType.NEWER_CONNECTION));
     ListActivitiesKey listKey = new ListActivitiesKey(key, 0, limit);
 
     //
@@ -830,9 +1047,9 @@ public class CachedActivityStorage implements ActivityStorage {
 
     //
     ActivityCountKey key =
-                         new ActivityCountKey(new IdentityKey(ownerIdentity),
-                                              baseActivity.getId(),
-                                              ActivityType.OLDER_CONNECTION);
+                         withGeneration(new ActivityCountKey(new IdentityKey(ownerIdentity),
+                                                             baseActivity.getId(),
+                                                             ActivityType.OLDER_CONNECTION));
 
     //
     return activitiesCountCache.get(
@@ -855,9 +1072,9 @@ public class CachedActivityStorage implements ActivityStorage {
                                                                    final int limit) {
 
     //
-    ActivityCountKey key = new ActivityCountKey(new IdentityKey(ownerIdentity),
-                                                baseActivity.getId(),
-                                                ActivityType.OLDER_CONNECTION);
+    ActivityCountKey key = withGeneration(new ActivityCountKey(new IdentityKey(ownerIdentity),
+                                                               baseActivity.getId(),
+                                                               ActivityType.OLDER_CONNECTION));
     ListActivitiesKey listKey = new ListActivitiesKey(key, 0, limit);
 
     //
@@ -884,7 +1101,7 @@ public class CachedActivityStorage implements ActivityStorage {
   public List<ExoSocialActivity> getUserSpacesActivities(final Identity ownerIdentity, final int offset, final int limit) {
 
     //
-    ActivityCountKey key = new ActivityCountKey(new IdentityKey(ownerIdentity), ActivityType.SPACES);
+    ActivityCountKey key = withGeneration(new ActivityCountKey(new IdentityKey(ownerIdentity), ActivityType.SPACES));
     ListActivitiesKey listKey = new ListActivitiesKey(key, offset, limit);
 
     //
@@ -907,7 +1124,7 @@ public class CachedActivityStorage implements ActivityStorage {
   @Override
   public List<String> getUserSpacesActivityIds(final Identity ownerIdentity, final int offset, final int limit) {
     //
-    ActivityCountKey key = new ActivityCountKey(new IdentityKey(ownerIdentity), ActivityType.SPACES);
+    ActivityCountKey key = withGeneration(new ActivityCountKey(new IdentityKey(ownerIdentity), ActivityType.SPACES));
     ListActivitiesKey listKey = new ListActivitiesKey(key, offset, limit);
     //
     ListActivitiesData keys = activitiesCache.get(
@@ -932,7 +1149,7 @@ public class CachedActivityStorage implements ActivityStorage {
 
     //
     ActivityCountKey key =
-                         new ActivityCountKey(new IdentityKey(ownerIdentity), ActivityType.SPACES);
+                         withGeneration(new ActivityCountKey(new IdentityKey(ownerIdentity), ActivityType.SPACES));
 
     //
     return activitiesCountCache.get(
@@ -953,7 +1170,7 @@ public class CachedActivityStorage implements ActivityStorage {
 
     //
     ActivityCountKey key =
-                         new ActivityCountKey(new IdentityKey(ownerIdentity), baseActivity.getId(), ActivityType.NEWER_SPACES);
+                         withGeneration(new ActivityCountKey(new IdentityKey(ownerIdentity), baseActivity.getId(), ActivityType.NEWER_SPACES));
 
     //
     return activitiesCountCache.get(
@@ -976,7 +1193,7 @@ public class CachedActivityStorage implements ActivityStorage {
                                                                 final int limit) {
 
     //
-    ActivityCountKey key = new ActivityCountKey(new IdentityKey(ownerIdentity), baseActivity.getId(), ActivityType.NEWER_SPACES);
+    ActivityCountKey key = withGeneration(new ActivityCountKey(new IdentityKey(ownerIdentity), baseActivity.getId(), ActivityType.NEWER_SPACES));
     ListActivitiesKey listKey = new ListActivitiesKey(key, 0, limit);
 
     //
@@ -1004,7 +1221,7 @@ public class CachedActivityStorage implements ActivityStorage {
 
     //
     ActivityCountKey key =
-                         new ActivityCountKey(new IdentityKey(ownerIdentity), baseActivity.getId(), ActivityType.OLDER_SPACES);
+                         withGeneration(new ActivityCountKey(new IdentityKey(ownerIdentity), baseActivity.getId(), ActivityType.OLDER_SPACES));
 
     //
     return activitiesCountCache.get(
@@ -1027,7 +1244,7 @@ public class CachedActivityStorage implements ActivityStorage {
                                                                 final int limit) {
 
     //
-    ActivityCountKey key = new ActivityCountKey(new IdentityKey(ownerIdentity), baseActivity.getId(), ActivityType.OLDER_SPACES);
+    ActivityCountKey key = withGeneration(new ActivityCountKey(new IdentityKey(ownerIdentity), baseActivity.getId(), ActivityType.OLDER_SPACES));
     ListActivitiesKey listKey = new ListActivitiesKey(key, 0, limit);
 
     //
@@ -1068,8 +1285,8 @@ public class CachedActivityStorage implements ActivityStorage {
                                              final int offset,
                                              final int limit,
                                              boolean sortDescending) {
-    ActivityCountKey key = new ActivityCountKey(existingActivity.getId(),
-                                                loadSubComments ? ActivityType.COMMENTS_AND_SUB_COMMENTS : ActivityType.COMMENTS);
+    ActivityCountKey key = withGeneration(new ActivityCountKey(existingActivity.getId(),
+                                                               loadSubComments ? ActivityType.COMMENTS_AND_SUB_COMMENTS : ActivityType.COMMENTS));
     ListActivitiesKey listKey = new ListActivitiesKey(key, offset, limit, sortDescending);
 
     //
@@ -1097,7 +1314,7 @@ public class CachedActivityStorage implements ActivityStorage {
 
     //
     ActivityCountKey key =
-                         new ActivityCountKey(existingActivity.getId(), ActivityType.COMMENTS);
+                         withGeneration(new ActivityCountKey(existingActivity.getId(), ActivityType.COMMENTS));
 
     //
     return activitiesCountCache.get(
@@ -1162,6 +1379,7 @@ public class CachedActivityStorage implements ActivityStorage {
     if (existingActivity.getParentId() != null) {
       exoActivityCache.remove(new ActivityKey(existingActivity.getParentId()));
     }
+    invalidateStreams(existingActivity);
   }
 
   /**
@@ -1169,9 +1387,9 @@ public class CachedActivityStorage implements ActivityStorage {
    */
   public int getNumberOfNewerOnActivityFeed(final Identity ownerIdentity, final Long sinceTime) {
 
-    ActivityCountKey key = new ActivityCountKey(new IdentityKey(ownerIdentity),
-                                                sinceTime,
-                                                ActivityType.NEWER_FEED);
+    ActivityCountKey key = withGeneration(new ActivityCountKey(new IdentityKey(ownerIdentity),
+                                                               sinceTime,
+                                                               ActivityType.NEWER_FEED));
 
     return activitiesCountCache.get(new ServiceContext<IntegerData>() {
       public IntegerData execute() {
@@ -1185,9 +1403,9 @@ public class CachedActivityStorage implements ActivityStorage {
    */
   public int getNumberOfNewerOnUserActivities(final Identity ownerIdentity, final Long sinceTime) {
 
-    ActivityCountKey key = new ActivityCountKey(new IdentityKey(ownerIdentity),
-                                                sinceTime,
-                                                ActivityType.NEWER_USER);
+    ActivityCountKey key = withGeneration(new ActivityCountKey(new IdentityKey(ownerIdentity),
+                                                               sinceTime,
+                                                               ActivityType.NEWER_USER));
 
     return activitiesCountCache.get(new ServiceContext<IntegerData>() {
       public IntegerData execute() {
@@ -1201,7 +1419,7 @@ public class CachedActivityStorage implements ActivityStorage {
    */
   public int getNumberOfNewerOnActivitiesOfConnections(final Identity ownerIdentity, final Long sinceTime) {
 
-    ActivityCountKey key = new ActivityCountKey(new IdentityKey(ownerIdentity), sinceTime, ActivityType.NEWER_CONNECTION);
+    ActivityCountKey key = withGeneration(new ActivityCountKey(new IdentityKey(ownerIdentity), sinceTime, ActivityType.NEWER_CONNECTION));
 
     return activitiesCountCache.get(new ServiceContext<IntegerData>() {
       public IntegerData execute() {
@@ -1214,9 +1432,9 @@ public class CachedActivityStorage implements ActivityStorage {
    * {@inheritDoc}
    */
   public int getNumberOfNewerOnUserSpacesActivities(final Identity ownerIdentity, final Long sinceTime) {
-    ActivityCountKey key = new ActivityCountKey(new IdentityKey(ownerIdentity),
-                                                sinceTime,
-                                                ActivityType.NEWER_SPACE);
+    ActivityCountKey key = withGeneration(new ActivityCountKey(new IdentityKey(ownerIdentity),
+                                                               sinceTime,
+                                                               ActivityType.NEWER_SPACE));
 
     return activitiesCountCache.get(new ServiceContext<IntegerData>() {
       public IntegerData execute() {
@@ -1230,7 +1448,7 @@ public class CachedActivityStorage implements ActivityStorage {
   public int getNumberOfSpaceActivities(final Identity spaceIdentity) {
     //
     ActivityCountKey key =
-                         new ActivityCountKey(new IdentityKey(spaceIdentity), ActivityType.SPACE);
+                         withGeneration(new ActivityCountKey(new IdentityKey(spaceIdentity), ActivityType.SPACE));
 
     //
     return activitiesCountCache.get(
@@ -1247,7 +1465,7 @@ public class CachedActivityStorage implements ActivityStorage {
   public int getNumberOfSpaceActivitiesForUpgrade(final Identity spaceIdentity) {
     //
     ActivityCountKey key =
-                         new ActivityCountKey(new IdentityKey(spaceIdentity), ActivityType.SPACE_FOR_UPGRADE);
+                         withGeneration(new ActivityCountKey(new IdentityKey(spaceIdentity), ActivityType.SPACE_FOR_UPGRADE));
 
     //
     IntegerData countData = activitiesCountCache.get(
@@ -1259,7 +1477,7 @@ public class CachedActivityStorage implements ActivityStorage {
                                                      key);
 
     ActivityCountKey keySpace =
-                              new ActivityCountKey(new IdentityKey(spaceIdentity), ActivityType.SPACE);
+                              withGeneration(new ActivityCountKey(new IdentityKey(spaceIdentity), ActivityType.SPACE));
     exoActivitiesCountCache.putLocal(keySpace, countData);
 
     return countData.build();
@@ -1268,7 +1486,7 @@ public class CachedActivityStorage implements ActivityStorage {
   @Override
   public List<ExoSocialActivity> getSpaceActivities(final Identity ownerIdentity, final int offset, final int limit) {
     //
-    ActivityCountKey key = new ActivityCountKey(new IdentityKey(ownerIdentity), ActivityType.SPACE);
+    ActivityCountKey key = withGeneration(new ActivityCountKey(new IdentityKey(ownerIdentity), ActivityType.SPACE));
     ListActivitiesKey listKey = new ListActivitiesKey(key, offset, limit);
 
     //
@@ -1290,7 +1508,7 @@ public class CachedActivityStorage implements ActivityStorage {
   @Override
   public List<String> getSpaceActivityIds(final Identity spaceIdentity, final int offset, final int limit) {
     //
-    ActivityCountKey key = new ActivityCountKey(new IdentityKey(spaceIdentity), ActivityType.SPACE);
+    ActivityCountKey key = withGeneration(new ActivityCountKey(new IdentityKey(spaceIdentity), ActivityType.SPACE));
     ListActivitiesKey listKey = new ListActivitiesKey(key, offset, limit);
     //
     ListActivitiesData keys = activitiesCache.get(
@@ -1310,7 +1528,7 @@ public class CachedActivityStorage implements ActivityStorage {
   @Override
   public List<ExoSocialActivity> getSpaceActivitiesForUpgrade(final Identity ownerIdentity, final int offset, final int limit) {
     //
-    ActivityCountKey key = new ActivityCountKey(new IdentityKey(ownerIdentity), ActivityType.SPACE);
+    ActivityCountKey key = withGeneration(new ActivityCountKey(new IdentityKey(ownerIdentity), ActivityType.SPACE));
     ListActivitiesKey listKey = new ListActivitiesKey(key, offset, limit);
 
     //
@@ -1335,7 +1553,7 @@ public class CachedActivityStorage implements ActivityStorage {
                                                        final int offset,
                                                        final int limit) {
     //
-    ActivityCountKey key = new ActivityCountKey(new IdentityKey(posterIdentity), ActivityType.POSTER);
+    ActivityCountKey key = withGeneration(new ActivityCountKey(new IdentityKey(posterIdentity), ActivityType.POSTER));
     ListActivitiesKey listKey = new ListActivitiesKey(key, offset, limit);
 
     //
@@ -1360,7 +1578,7 @@ public class CachedActivityStorage implements ActivityStorage {
                                                        final int limit,
                                                        final String... activityTypes) {
     //
-    ActivityCountKey key = new ActivityCountKey(new IdentityKey(posterIdentity), ActivityType.POSTER, activityTypes);
+    ActivityCountKey key = withGeneration(new ActivityCountKey(new IdentityKey(posterIdentity), ActivityType.POSTER, activityTypes));
     ListActivitiesKey listKey = new ListActivitiesKey(key, offset, limit);
 
     //
@@ -1384,7 +1602,7 @@ public class CachedActivityStorage implements ActivityStorage {
   public int getNumberOfActivitiesByPoster(final Identity posterIdentity) {
     //
     ActivityCountKey key =
-                         new ActivityCountKey(new IdentityKey(posterIdentity), ActivityType.POSTER);
+                         withGeneration(new ActivityCountKey(new IdentityKey(posterIdentity), ActivityType.POSTER));
 
     //
     return activitiesCountCache.get(
@@ -1401,9 +1619,9 @@ public class CachedActivityStorage implements ActivityStorage {
   public int getNumberOfActivitiesByPoster(final Identity ownerIdentity, final Identity viewerIdentity) {
     //
     ActivityCountKey key =
-                         new ActivityCountKey(new IdentityKey(ownerIdentity),
-                                              new IdentityKey(viewerIdentity),
-                                              ActivityType.POSTER);
+                         withGeneration(new ActivityCountKey(new IdentityKey(ownerIdentity),
+                                                             new IdentityKey(viewerIdentity),
+                                                             ActivityType.POSTER));
 
     //
     return activitiesCountCache.get(
@@ -1422,7 +1640,7 @@ public class CachedActivityStorage implements ActivityStorage {
                                                            final ExoSocialActivity baseActivity,
                                                            final int limit) {
     //
-    ActivityCountKey key = new ActivityCountKey(new IdentityKey(ownerIdentity), baseActivity.getId(), ActivityType.NEWER_SPACE);
+    ActivityCountKey key = withGeneration(new ActivityCountKey(new IdentityKey(ownerIdentity), baseActivity.getId(), ActivityType.NEWER_SPACE));
     ListActivitiesKey listKey = new ListActivitiesKey(key, 0, limit);
 
     //
@@ -1447,7 +1665,7 @@ public class CachedActivityStorage implements ActivityStorage {
                                                final ExoSocialActivity baseActivity) {
     //
     ActivityCountKey key =
-                         new ActivityCountKey(new IdentityKey(ownerIdentity), baseActivity.getId(), ActivityType.NEWER_SPACE);
+                         withGeneration(new ActivityCountKey(new IdentityKey(ownerIdentity), baseActivity.getId(), ActivityType.NEWER_SPACE));
 
     //
     return activitiesCountCache.get(
@@ -1466,7 +1684,7 @@ public class CachedActivityStorage implements ActivityStorage {
                                                            final ExoSocialActivity baseActivity,
                                                            final int limit) {
     //
-    ActivityCountKey key = new ActivityCountKey(new IdentityKey(ownerIdentity), baseActivity.getId(), ActivityType.OLDER_SPACE);
+    ActivityCountKey key = withGeneration(new ActivityCountKey(new IdentityKey(ownerIdentity), baseActivity.getId(), ActivityType.OLDER_SPACE));
     ListActivitiesKey listKey = new ListActivitiesKey(key, 0, limit);
 
     //
@@ -1491,7 +1709,7 @@ public class CachedActivityStorage implements ActivityStorage {
                                                final ExoSocialActivity baseActivity) {
     //
     ActivityCountKey key =
-                         new ActivityCountKey(new IdentityKey(ownerIdentity), baseActivity.getId(), ActivityType.OLDER_SPACE);
+                         withGeneration(new ActivityCountKey(new IdentityKey(ownerIdentity), baseActivity.getId(), ActivityType.OLDER_SPACE));
 
     //
     return activitiesCountCache.get(
@@ -1507,9 +1725,9 @@ public class CachedActivityStorage implements ActivityStorage {
 
   @Override
   public int getNumberOfNewerOnSpaceActivities(final Identity ownerIdentity, final Long sinceTime) {
-    ActivityCountKey key = new ActivityCountKey(new IdentityKey(ownerIdentity),
-                                                sinceTime,
-                                                ActivityType.NEWER_SPACE);
+    ActivityCountKey key = withGeneration(new ActivityCountKey(new IdentityKey(ownerIdentity),
+                                                               sinceTime,
+                                                               ActivityType.NEWER_SPACE));
 
     return activitiesCountCache.get(new ServiceContext<IntegerData>() {
       public IntegerData execute() {
@@ -1520,7 +1738,7 @@ public class CachedActivityStorage implements ActivityStorage {
   }
 
   public List<ExoSocialActivity> getNewerFeedActivities(final Identity owner, final Long sinceTime, final int limit) {
-    ActivityCountKey key = new ActivityCountKey(new IdentityKey(owner), sinceTime, ActivityType.NEWER_FEED);
+    ActivityCountKey key = withGeneration(new ActivityCountKey(new IdentityKey(owner), sinceTime, ActivityType.NEWER_FEED));
     ListActivitiesKey listKey = new ListActivitiesKey(key, 0, limit);
 
     ListActivitiesData keys = activitiesCache.get(new ServiceContext<ListActivitiesData>() {
@@ -1534,7 +1752,7 @@ public class CachedActivityStorage implements ActivityStorage {
   }
 
   public List<ExoSocialActivity> getNewerSpaceActivities(final Identity owner, final Long sinceTime, final int limit) {
-    ActivityCountKey key = new ActivityCountKey(new IdentityKey(owner), sinceTime, ActivityType.NEWER_SPACE);
+    ActivityCountKey key = withGeneration(new ActivityCountKey(new IdentityKey(owner), sinceTime, ActivityType.NEWER_SPACE));
     ListActivitiesKey listKey = new ListActivitiesKey(key, 0, limit);
 
     ListActivitiesData keys = activitiesCache.get(new ServiceContext<ListActivitiesData>() {
@@ -1549,7 +1767,7 @@ public class CachedActivityStorage implements ActivityStorage {
 
   @Override
   public List<ExoSocialActivity> getNewerUserActivities(final Identity owner, final Long sinceTime, final int limit) {
-    ActivityCountKey key = new ActivityCountKey(new IdentityKey(owner), sinceTime, ActivityType.NEWER_USER);
+    ActivityCountKey key = withGeneration(new ActivityCountKey(new IdentityKey(owner), sinceTime, ActivityType.NEWER_USER));
     ListActivitiesKey listKey = new ListActivitiesKey(key, 0, limit);
 
     ListActivitiesData keys = activitiesCache.get(new ServiceContext<ListActivitiesData>() {
@@ -1564,7 +1782,7 @@ public class CachedActivityStorage implements ActivityStorage {
 
   @Override
   public List<ExoSocialActivity> getNewerUserSpacesActivities(final Identity owner, final Long sinceTime, final int limit) {
-    ActivityCountKey key = new ActivityCountKey(new IdentityKey(owner), sinceTime, ActivityType.NEWER_SPACES);
+    ActivityCountKey key = withGeneration(new ActivityCountKey(new IdentityKey(owner), sinceTime, ActivityType.NEWER_SPACES));
     ListActivitiesKey listKey = new ListActivitiesKey(key, 0, limit);
 
     ListActivitiesData keys = activitiesCache.get(new ServiceContext<ListActivitiesData>() {
@@ -1579,7 +1797,7 @@ public class CachedActivityStorage implements ActivityStorage {
 
   @Override
   public List<ExoSocialActivity> getNewerActivitiesOfConnections(final Identity owner, final Long sinceTime, final int limit) {
-    ActivityCountKey key = new ActivityCountKey(new IdentityKey(owner), sinceTime, ActivityType.NEWER_CONNECTION);
+    ActivityCountKey key = withGeneration(new ActivityCountKey(new IdentityKey(owner), sinceTime, ActivityType.NEWER_CONNECTION));
     ListActivitiesKey listKey = new ListActivitiesKey(key, 0, limit);
 
     ListActivitiesData keys = activitiesCache.get(new ServiceContext<ListActivitiesData>() {
@@ -1598,7 +1816,7 @@ public class CachedActivityStorage implements ActivityStorage {
                                                final long offset,
                                                final long limit) throws ActivityStorageException {
     //
-    ActivityCountKey key = new ActivityCountKey(new IdentityKey(owner), new IdentityKey(viewer), ActivityType.VIEWER);
+    ActivityCountKey key = withGeneration(new ActivityCountKey(new IdentityKey(owner), new IdentityKey(viewer), ActivityType.VIEWER));
     ListActivitiesKey listKey = new ListActivitiesKey(key, offset, limit);
 
     //
@@ -1621,7 +1839,7 @@ public class CachedActivityStorage implements ActivityStorage {
 
   @Override
   public List<ExoSocialActivity> getOlderFeedActivities(final Identity owner, final Long sinceTime, final int limit) {
-    ActivityCountKey key = new ActivityCountKey(new IdentityKey(owner), sinceTime, ActivityType.OLDER_FEED);
+    ActivityCountKey key = withGeneration(new ActivityCountKey(new IdentityKey(owner), sinceTime, ActivityType.OLDER_FEED));
     ListActivitiesKey listKey = new ListActivitiesKey(key, 0, limit);
 
     ListActivitiesData keys = activitiesCache.get(new ServiceContext<ListActivitiesData>() {
@@ -1636,7 +1854,7 @@ public class CachedActivityStorage implements ActivityStorage {
 
   @Override
   public List<ExoSocialActivity> getOlderUserActivities(final Identity ownerIdentity, final Long sinceTime, final int limit) {
-    ActivityCountKey key = new ActivityCountKey(new IdentityKey(ownerIdentity), sinceTime, ActivityType.OLDER_USER);
+    ActivityCountKey key = withGeneration(new ActivityCountKey(new IdentityKey(ownerIdentity), sinceTime, ActivityType.OLDER_USER));
     ListActivitiesKey listKey = new ListActivitiesKey(key, 0, limit);
 
     ListActivitiesData keys = activitiesCache.get(new ServiceContext<ListActivitiesData>() {
@@ -1653,7 +1871,7 @@ public class CachedActivityStorage implements ActivityStorage {
   public List<ExoSocialActivity> getOlderUserSpacesActivities(final Identity ownerIdentity,
                                                               final Long sinceTime,
                                                               final int limit) {
-    ActivityCountKey key = new ActivityCountKey(new IdentityKey(ownerIdentity), sinceTime, ActivityType.OLDER_SPACES);
+    ActivityCountKey key = withGeneration(new ActivityCountKey(new IdentityKey(ownerIdentity), sinceTime, ActivityType.OLDER_SPACES));
     ListActivitiesKey listKey = new ListActivitiesKey(key, 0, limit);
 
     ListActivitiesData keys = activitiesCache.get(new ServiceContext<ListActivitiesData>() {
@@ -1668,7 +1886,7 @@ public class CachedActivityStorage implements ActivityStorage {
 
   @Override
   public List<ExoSocialActivity> getOlderActivitiesOfConnections(final Identity owner, final Long sinceTime, final int limit) {
-    ActivityCountKey key = new ActivityCountKey(new IdentityKey(owner), sinceTime, ActivityType.OLDER_CONNECTION);
+    ActivityCountKey key = withGeneration(new ActivityCountKey(new IdentityKey(owner), sinceTime, ActivityType.OLDER_CONNECTION));
     ListActivitiesKey listKey = new ListActivitiesKey(key, 0, limit);
 
     ListActivitiesData keys = activitiesCache.get(new ServiceContext<ListActivitiesData>() {
@@ -1683,7 +1901,7 @@ public class CachedActivityStorage implements ActivityStorage {
 
   @Override
   public List<ExoSocialActivity> getOlderSpaceActivities(final Identity owner, final Long sinceTime, final int limit) {
-    ActivityCountKey key = new ActivityCountKey(new IdentityKey(owner), sinceTime, ActivityType.OLDER_SPACE);
+    ActivityCountKey key = withGeneration(new ActivityCountKey(new IdentityKey(owner), sinceTime, ActivityType.OLDER_SPACE));
     ListActivitiesKey listKey = new ListActivitiesKey(key, 0, limit);
 
     ListActivitiesData keys = activitiesCache.get(new ServiceContext<ListActivitiesData>() {
@@ -1698,9 +1916,9 @@ public class CachedActivityStorage implements ActivityStorage {
 
   @Override
   public int getNumberOfOlderOnActivityFeed(final Identity ownerIdentity, final Long sinceTime) {
-    ActivityCountKey key = new ActivityCountKey(new IdentityKey(ownerIdentity),
-                                                sinceTime,
-                                                ActivityType.OLDER_FEED);
+    ActivityCountKey key = withGeneration(new ActivityCountKey(new IdentityKey(ownerIdentity),
+                                                               sinceTime,
+                                                               ActivityType.OLDER_FEED));
 
     return activitiesCountCache.get(new ServiceContext<IntegerData>() {
       public IntegerData execute() {
@@ -1711,9 +1929,9 @@ public class CachedActivityStorage implements ActivityStorage {
 
   @Override
   public int getNumberOfOlderOnUserActivities(final Identity ownerIdentity, final Long sinceTime) {
-    ActivityCountKey key = new ActivityCountKey(new IdentityKey(ownerIdentity),
-                                                sinceTime,
-                                                ActivityType.OLDER_USER);
+    ActivityCountKey key = withGeneration(new ActivityCountKey(new IdentityKey(ownerIdentity),
+                                                               sinceTime,
+                                                               ActivityType.OLDER_USER));
 
     return activitiesCountCache.get(new ServiceContext<IntegerData>() {
       public IntegerData execute() {
@@ -1724,9 +1942,9 @@ public class CachedActivityStorage implements ActivityStorage {
 
   @Override
   public int getNumberOfOlderOnActivitiesOfConnections(final Identity ownerIdentity, final Long sinceTime) {
-    ActivityCountKey key = new ActivityCountKey(new IdentityKey(ownerIdentity),
-                                                sinceTime,
-                                                ActivityType.OLDER_CONNECTION);
+    ActivityCountKey key = withGeneration(new ActivityCountKey(new IdentityKey(ownerIdentity),
+                                                               sinceTime,
+                                                               ActivityType.OLDER_CONNECTION));
 
     return activitiesCountCache.get(new ServiceContext<IntegerData>() {
       public IntegerData execute() {
@@ -1737,9 +1955,9 @@ public class CachedActivityStorage implements ActivityStorage {
 
   @Override
   public int getNumberOfOlderOnUserSpacesActivities(final Identity ownerIdentity, final Long sinceTime) {
-    ActivityCountKey key = new ActivityCountKey(new IdentityKey(ownerIdentity),
-                                                sinceTime,
-                                                ActivityType.OLDER_SPACES);
+    ActivityCountKey key = withGeneration(new ActivityCountKey(new IdentityKey(ownerIdentity),
+                                                               sinceTime,
+                                                               ActivityType.OLDER_SPACES));
 
     return activitiesCountCache.get(new ServiceContext<IntegerData>() {
       public IntegerData execute() {
@@ -1750,9 +1968,9 @@ public class CachedActivityStorage implements ActivityStorage {
 
   @Override
   public int getNumberOfOlderOnSpaceActivities(final Identity ownerIdentity, final Long sinceTime) {
-    ActivityCountKey key = new ActivityCountKey(new IdentityKey(ownerIdentity),
-                                                sinceTime,
-                                                ActivityType.OLDER_SPACE);
+    ActivityCountKey key = withGeneration(new ActivityCountKey(new IdentityKey(ownerIdentity),
+                                                               sinceTime,
+                                                               ActivityType.OLDER_SPACE));
 
     return activitiesCountCache.get(new ServiceContext<IntegerData>() {
       public IntegerData execute() {
@@ -1766,7 +1984,7 @@ public class CachedActivityStorage implements ActivityStorage {
                                                   final Long sinceTime,
                                                   final int limit) {
     ActivityCountKey key =
-                         new ActivityCountKey(new ActivityKey(existingActivity.getId()), sinceTime, ActivityType.NEWER_COMMENTS);
+                         withGeneration(new ActivityCountKey(new ActivityKey(existingActivity.getId()), sinceTime, ActivityType.NEWER_COMMENTS));
     ListActivitiesKey listKey = new ListActivitiesKey(key, 0, limit);
 
     ListActivitiesData keys = activitiesCache.get(new ServiceContext<ListActivitiesData>() {
@@ -1784,7 +2002,7 @@ public class CachedActivityStorage implements ActivityStorage {
                                                   final Long sinceTime,
                                                   final int limit) {
     ActivityCountKey key =
-                         new ActivityCountKey(new ActivityKey(existingActivity.getId()), sinceTime, ActivityType.OLDER_COMMENTS);
+                         withGeneration(new ActivityCountKey(new ActivityKey(existingActivity.getId()), sinceTime, ActivityType.OLDER_COMMENTS));
     ListActivitiesKey listKey = new ListActivitiesKey(key, 0, limit);
 
     ListActivitiesData keys = activitiesCache.get(new ServiceContext<ListActivitiesData>() {
@@ -1800,7 +2018,7 @@ public class CachedActivityStorage implements ActivityStorage {
   @Override
   public int getNumberOfNewerComments(final ExoSocialActivity existingActivity, final Long sinceTime) {
     ActivityCountKey key =
-                         new ActivityCountKey(new ActivityKey(existingActivity.getId()), sinceTime, ActivityType.NEWER_COMMENTS);
+                         withGeneration(new ActivityCountKey(new ActivityKey(existingActivity.getId()), sinceTime, ActivityType.NEWER_COMMENTS));
 
     return activitiesCountCache.get(new ServiceContext<IntegerData>() {
       public IntegerData execute() {
@@ -1812,7 +2030,7 @@ public class CachedActivityStorage implements ActivityStorage {
   @Override
   public int getNumberOfOlderComments(final ExoSocialActivity existingActivity, final Long sinceTime) {
     ActivityCountKey key =
-                         new ActivityCountKey(new ActivityKey(existingActivity.getId()), sinceTime, ActivityType.OLDER_COMMENTS);
+                         withGeneration(new ActivityCountKey(new ActivityKey(existingActivity.getId()), sinceTime, ActivityType.OLDER_COMMENTS));
 
     return activitiesCountCache.get(new ServiceContext<IntegerData>() {
       public IntegerData execute() {
@@ -1826,7 +2044,7 @@ public class CachedActivityStorage implements ActivityStorage {
                                                              final long offset,
                                                              final long limit) throws ActivityStorageException {
     //
-    ActivityCountKey key = new ActivityCountKey(new IdentityKey(owner), ActivityType.USER);
+    ActivityCountKey key = withGeneration(new ActivityCountKey(new IdentityKey(owner), ActivityType.USER));
     ListActivitiesKey listKey = new ListActivitiesKey(key, offset, limit);
 
     //
@@ -1850,7 +2068,7 @@ public class CachedActivityStorage implements ActivityStorage {
                                                        ActivityFilter activityFilter,
                                                        long offset,
                                                        long limit) {
-    ActivityCountKey key = new ActivityCountKey(new IdentityKey(viewerIdentity), activityFilter);
+    ActivityCountKey key = withGeneration(new ActivityCountKey(new IdentityKey(viewerIdentity), activityFilter));
     ListActivitiesKey listKey = new ListActivitiesKey(key, offset, limit);
 
     ListActivitiesData keys = activitiesCache.get(() -> {
@@ -1866,10 +2084,19 @@ public class CachedActivityStorage implements ActivityStorage {
     return storage.getActivityIdsByFilter(viewerIdentity, activityFilter, offset, limit);
   }
 
+  @Override
+  public List<ActivityCursor> getActivityCursorsByFilter(Identity viewerIdentity,
+                                                         ActivityFilter activityFilter,
+                                                         ActivityCursor cursor,
+                                                         boolean newer,
+                                                         int limit) {
+    return storage.getActivityCursorsByFilter(viewerIdentity, activityFilter, cursor, newer, limit);
+  }
+
   @Override
   public int getNumberOfUserActivitiesForUpgrade(final Identity owner) throws ActivityStorageException {
     //
-    ActivityCountKey key = new ActivityCountKey(new IdentityKey(owner), ActivityType.USER_FOR_UPGRADE);
+    ActivityCountKey key = withGeneration(new ActivityCountKey(new IdentityKey(owner), ActivityType.USER_FOR_UPGRADE));
 
     //
     IntegerData countData = activitiesCountCache.get(
@@ -1882,7 +2109,7 @@ public class CachedActivityStorage implements ActivityStorage {
 
     //
     ActivityCountKey keyUser =
-                             new ActivityCountKey(new IdentityKey(owner), ActivityType.USER);
+                             withGeneration(new ActivityCountKey(new IdentityKey(owner), ActivityType.USER));
     exoActivitiesCountCache.putLocal(keyUser, countData);
 
     //
@@ -1895,7 +2122,7 @@ public class CachedActivityStorage implements ActivityStorage {
                                                            final int offset,
                                                            final int limit) {
     //
-    ActivityCountKey key = new ActivityCountKey(new IdentityKey(ownerIdentity), ActivityType.FEED);
+    ActivityCountKey key = withGeneration(new ActivityCountKey(new IdentityKey(ownerIdentity), ActivityType.FEED));
     ListActivitiesKey listKey = new ListActivitiesKey(key, offset, limit);
 
     //
@@ -1918,7 +2145,7 @@ public class CachedActivityStorage implements ActivityStorage {
   @Override
   public int getNumberOfActivitesOnActivityFeedForUpgrade(final Identity ownerIdentity) {
     //
-    ActivityCountKey key = new ActivityCountKey(new IdentityKey(ownerIdentity), ActivityType.FEED_FOR_UPGRADE);
+    ActivityCountKey key = withGeneration(new ActivityCountKey(new IdentityKey(ownerIdentity), ActivityType.FEED_FOR_UPGRADE));
 
     //
     IntegerData countData = activitiesCountCache.get(
@@ -1931,7 +2158,7 @@ public class CachedActivityStorage implements ActivityStorage {
 
     //
     ActivityCountKey keyFeed =
-                             new ActivityCountKey(new IdentityKey(ownerIdentity), ActivityType.FEED);
+                             withGeneration(new ActivityCountKey(new IdentityKey(ownerIdentity), ActivityType.FEED));
     exoActivitiesCountCache.putLocal(keyFeed, countData);
 
     //
@@ -1943,7 +2170,7 @@ public class CachedActivityStorage implements ActivityStorage {
                                                                       final int offset,
                                                                       final int limit) {
     //
-    ActivityCountKey key = new ActivityCountKey(new IdentityKey(ownerIdentity), ActivityType.CONNECTION);
+    ActivityCountKey key = withGeneration(new ActivityCountKey(new IdentityKey(ownerIdentity), ActivityType.CONNECTION));
     ListActivitiesKey listKey = new ListActivitiesKey(key, offset, limit);
 
     //
@@ -1967,7 +2194,7 @@ public class CachedActivityStorage implements ActivityStorage {
   public int getNumberOfActivitiesOfConnectionsForUpgrade(final Identity ownerIdentity) {
     //
     ActivityCountKey key =
-                         new ActivityCountKey(new IdentityKey(ownerIdentity), ActivityType.CONNECTION_FOR_UPGRADE);
+                         withGeneration(new ActivityCountKey(new IdentityKey(ownerIdentity), ActivityType.CONNECTION_FOR_UPGRADE));
 
     //
     IntegerData countData = activitiesCountCache.get(
@@ -1980,7 +2207,7 @@ public class CachedActivityStorage implements ActivityStorage {
 
     //
     ActivityCountKey keyConnection =
-                                   new ActivityCountKey(new IdentityKey(ownerIdentity), ActivityType.CONNECTION);
+                                   withGeneration(new ActivityCountKey(new IdentityKey(ownerIdentity), ActivityType.CONNECTION));
     exoActivitiesCountCache.putLocal(keyConnection, countData);
 
     //
@@ -1992,7 +2219,7 @@ public class CachedActivityStorage implements ActivityStorage {
                                                                    final int offset,
                                                                    final int limit) {
     //
-    ActivityCountKey key = new ActivityCountKey(new IdentityKey(ownerIdentity), ActivityType.SPACES);
+    ActivityCountKey key = withGeneration(new ActivityCountKey(new IdentityKey(ownerIdentity), ActivityType.SPACES));
     ListActivitiesKey listKey = new ListActivitiesKey(key, offset, limit);
 
     //
@@ -2016,7 +2243,7 @@ public class CachedActivityStorage implements ActivityStorage {
   public int getNumberOfUserSpacesActivitiesForUpgrade(final Identity ownerIdentity) {
     //
     ActivityCountKey key =
-                         new ActivityCountKey(new IdentityKey(ownerIdentity), ActivityType.SPACES_FOR_UPGRADE);
+                         withGeneration(new ActivityCountKey(new IdentityKey(ownerIdentity), ActivityType.SPACES_FOR_UPGRADE));
 
     //
     IntegerData countData = activitiesCountCache.get(
@@ -2028,7 +2255,7 @@ public class CachedActivityStorage implements ActivityStorage {
                                                      key);
 
     ActivityCountKey keySpaces =
-                               new ActivityCountKey(new IdentityKey(ownerIdentity), ActivityType.SPACES);
+                               withGeneration(new ActivityCountKey(new IdentityKey(ownerIdentity), ActivityType.SPACES));
     exoActivitiesCountCache.putLocal(keySpaces, countData);
 
     return countData.build();
@@ -2040,33 +2267,35 @@ public class CachedActivityStorage implements ActivityStorage {
   }
 
   /**
-   * Cache activity listener to clean related local cache onPut an remove
-   * operation
+   * Raises the generations of the streams modified on the other cluster nodes
    */
-  private class CacheActivityListener implements CacheListener<ActivityKey, ActivityData> {
+  private class StreamsInvalidationListener implements CacheListener<String, String[]> {
 
     @Override
-    public void onExpire(CacheListenerContext context, ActivityKey key, ActivityData obj) throws Exception {
+    public void onExpire(CacheListenerContext context, String key, String[] obj) throws Exception {
 
     }
 
     @Override
-    public void onRemove(CacheListenerContext context, ActivityKey key, ActivityData obj) throws Exception {
-      clearCache();
+    public void onRemove(CacheListenerContext context, String key, String[] obj) throws Exception {
+
     }
 
     @Override
-    public void onPut(CacheListenerContext context, ActivityKey key, ActivityData obj) throws Exception {
-      clearCache();
+    public void onPut(CacheListenerContext context, String key, String[] obj) throws Exception {
+      // The streams modified on this node were already invalidated
+      if (obj != null && !key.startsWith(nodeId)) {
+        streamGenerations.invalidate(obj);
+      }
     }
 
     @Override
-    public void onPutLocal(CacheListenerContext context, ActivityKey key, ActivityData obj) throws Exception {
+    public void onPutLocal(CacheListenerContext context, String key, String[] obj) throws Exception {
       // nothing
     }
 
     @Override
-    public void onGet(CacheListenerContext context, ActivityKey key, ActivityData obj) throws Exception {
+    public void onGet(CacheListenerContext context, String key, String[] obj) throws Exception {
 
     }
 
@@ -2080,7 +2309,7 @@ public class CachedActivityStorage implements ActivityStorage {
    * {@inheritDoc}
    */
   public List<ExoSocialActivity> getSubComments(ExoSocialActivity comment) {
-    ActivityCountKey key = new ActivityCountKey(comment.getId(), ActivityType.SUB_COMMENTS);
+    ActivityCountKey key = withGeneration(new ActivityCountKey(comment.getId(), ActivityType.SUB_COMMENTS));
     ListActivitiesKey listKey = new ListActivitiesKey(key, 0, Integer.MAX_VALUE);
 
     //
@@ -2102,30 +2331,7 @@ public class CachedActivityStorage implements ActivityStorage {
     if (activityIdList == null || activityIdList.isEmpty()) {
       return Collections.emptyList();
     }
-    List<String> activityIdsToGetFromStore = new ArrayList<>();
-    Map<String, ExoSocialActivity> resultMap = new HashMap<>();
-    for (String activityId : activityIdList) {
-      ActivityData activityData = exoActivityCache.get(new ActivityKey(activityId));
-      if (activityData == null) {
-        // Retrieve activity from store
-        activityIdsToGetFromStore.add(activityId);
-      } else if (activityData != ActivityData.NULL && activityData.getId() != null) {
-        // Add found activity in cache into results
-        resultMap.put(activityId, activityData.build());
-      } else {
-        // activity is equals to ActivityData.NULL,
-        // thus no need to add it in results, not get it from store
-      }
-    }
-    List<ExoSocialActivity> activitiesGotFromStore = storage.getActivities(activityIdsToGetFromStore);
-    if (activitiesGotFromStore != null && !activitiesGotFromStore.isEmpty()) {
-      for (ExoSocialActivity exoSocialActivity : activitiesGotFromStore) {
-        // Update local cache by found value
-        activityCache.putOnly(new ActivityKey(exoSocialActivity.getId()), new ActivityData(exoSocialActivity));
-        // Add found activity to list of results
-        resultMap.put(exoSocialActivity.getId(), exoSocialActivity);
-      }
-    }
+    Map<String, ExoSocialActivity> resultMap = getActivitiesById(activityIdList);
     List<ExoSocialActivity> result = new ArrayList<>();
     // Compute result list switch requested order from original IDs List
     for (String activityId : activityIdList) {
@@ -2149,6 +2355,7 @@ public class CachedActivityStorage implements ActivityStorage {
 
     ActivityKey key = new ActivityKey(String.valueOf(activityShareAction.getActivityId()));
     exoActivityCache.remove(key);
+    invalidateStreams(getActivity(key.getId()));
 
     return activityShareAction;
   }
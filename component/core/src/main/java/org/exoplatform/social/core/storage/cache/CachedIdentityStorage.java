@@ -20,6 +20,8 @@ package org.exoplatform.social.core.storage.cache;
 import java.io.IOException;
 import java.io.InputStream;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
 
@@ -77,6 +79,8 @@ public class CachedIdentityStorage implements IdentityStorage {
   private static final Log LOG = ExoLogger.getLogger(CachedIdentityStorage.class);
 
   private final ExoCache<IdentityKey, IdentityData> exoIdentityCache;
+  private final CacheKeysIndex<IdentityFilterKey, IntegerData> identitiesCountIndex;
+  private final CacheKeysIndex<ListIdentitiesKey, ListIdentitiesData> identitiesIndex;
   private final ExoCache<IdentityCompositeKey, IdentityKey> exoIdentityIndexCache;
   private final ExoCache<IdentityKey, ProfileData> exoProfileCache;
   private final ExoCache<IdentityFilterKey, IntegerData> exoIdentitiesCountCache;
@@ -96,8 +100,9 @@ public class CachedIdentityStorage implements IdentityStorage {
   void clearCache() {
 
     try {
-      exoIdentitiesCache.select(new IdentityCacheSelector(OrganizationIdentityProvider.NAME));
-      exoIdentitiesCountCache.select(new IdentityCacheSelector(OrganizationIdentityProvider.NAME));
+      IdentityCacheSelector selector = new IdentityCacheSelector(OrganizationIdentityProvider.NAME);
+      identitiesIndex.remove(Collections.singleton(selector.getIndexValue()), selector);
+      identitiesCountIndex.remove(Collections.singleton(selector.getIndexValue()), selector);
     }
     catch (Exception e) {
       LOG.error("Error when clearing cache", e);
@@ -165,6 +170,8 @@ public class CachedIdentityStorage implements IdentityStorage {
     this.exoIdentitiesCountCache = cacheService.getCountIdentitiesCache();
     this.exoIdentitiesCache = cacheService.getIdentitiesCache();
     this.exoActiveIdentitiesCache = cacheService.getActiveIdentitiesCache();
+    this.identitiesCountIndex = cacheService.getCountIdentitiesIndex();
+    this.identitiesIndex = cacheService.getIdentitiesIndex();
 
     //
     this.identityCache = CacheType.IDENTITY.createFutureCache(exoIdentityCache);
@@ -635,8 +642,16 @@ public class CachedIdentityStorage implements IdentityStorage {
     //Gets online users and push to activate users
       if (CommonsUtils.getService(UserStateService.class) != null) {
         List<UserStateModel> onlines = CommonsUtils.getService(UserStateService.class).online();
+        List<String> onlineUsers = new ArrayList<>();
         for (UserStateModel user : onlines) {
-          users.add(user.getUserId());
+          if (!users.contains(user.getUserId())) {
+            onlineUsers.add(user.getUserId());
+          }
+        }
+        // the cached users are an unmodifiable view, only copied when needed
+        if (!onlineUsers.isEmpty()) {
+          users = new HashSet<>(users);
+          users.addAll(onlineUsers);
         }
       }
     }
@@ -0,0 +1,236 @@
+/*
+ * This file is part of the Meeds project (https://meeds.io/).
+ * Copyright (C) 2020 - 2021 Meeds Association contact@meeds.io
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package org.exoplatform.social.core.storage.cache;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import org.apache.commons.lang3.StringUtils;
+
+import org.exoplatform.commons.cache.future.FutureExoCache;
+import org.exoplatform.services.cache.ExoCache;
+import org.exoplatform.services.log.ExoLogger;
+import org.exoplatform.services.log.Log;
+import org.exoplatform.social.core.jpa.storage.dao.jpa.MetadataDAO;
+import org.exoplatform.social.core.jpa.storage.dao.jpa.MetadataItemDAO;
+import org.exoplatform.social.core.metadata.storage.MetadataStorage;
+import org.exoplatform.social.core.storage.cache.loader.ServiceContext;
+import org.exoplatform.social.core.storage.cache.model.data.MetadataData;
+import org.exoplatform.social.core.storage.cache.model.data.MetadataItemsData;
+import org.exoplatform.social.core.storage.cache.model.key.MetadataCompositeKey;
+import org.exoplatform.social.core.storage.cache.model.key.MetadataObjectKey;
+import org.exoplatform.social.core.storage.cache.selector.MetadataItemsCacheSelector;
+import org.exoplatform.social.metadata.model.Metadata;
+import org.exoplatform.social.metadata.model.MetadataItem;
+import org.exoplatform.social.metadata.model.MetadataKey;
+import org.exoplatform.social.metadata.model.MetadataObject;
+import org.exoplatform.social.metadata.model.MetadataType;
+
+/**
+ * Cache support for {@link MetadataStorage}. Metadatas are cached by key and
+ * metadata items are cached by object, the other lookups by object are
+ * computed from the cached list of items of the object.
+ */
+public class CachedMetadataStorage extends MetadataStorage {
+
+  private static final Log                                                                    LOG =
+                                                                                                  ExoLogger.getLogger(CachedMetadataStorage.class);
+
+  private final ExoCache<MetadataCompositeKey, MetadataData>                                  exoMetadataCache;
+
+  private final ExoCache<MetadataObjectKey, MetadataItemsData>                                exoMetadataItemsCache;
+
+  private final FutureExoCache<MetadataCompositeKey, MetadataData, ServiceContext<MetadataData>> metadataCache;
+
+  private final FutureExoCache<MetadataObjectKey, MetadataItemsData, ServiceContext<MetadataItemsData>> metadataItemsCache;
+
+  public CachedMetadataStorage(MetadataDAO metadataDAO,
+                               MetadataItemDAO metadataItemDAO,
+                               SocialStorageCacheService cacheService) {
+    super(metadataDAO, metadataItemDAO);
+    this.exoMetadataCache = cacheService.getMetadataCache();
+    this.exoMetadataItemsCache = cacheService.getMetadataItemsCache();
+    this.metadataCache = CacheType.METADATA.createFutureCache(exoMetadataCache);
+    this.metadataItemsCache = CacheType.METADATA_ITEMS.createFutureCache(exoMetadataItemsCache);
+  }
+
+  @Override
+  public Metadata getMetadataByKey(MetadataKey metadataKey) {
+    if (getMetadataType(metadataKey.getType()) == null) {
+      // Let the storage throw the adequate error
+      return super.getMetadataByKey(metadataKey);
+    }
+    MetadataData metadataData = metadataCache.get(() -> new MetadataData(CachedMetadataStorage.super.getMetadataByKey(metadataKey)),
+                                                  new MetadataCompositeKey(metadataKey));
+    return metadataData == null ? null : metadataData.build();
+  }
+
+  @Override
+  public Metadata createMetadata(Metadata metadata) {
+    Metadata createdMetadata = super.createMetadata(metadata);
+    exoMetadataCache.remove(new MetadataCompositeKey(createdMetadata.key()));
+    return createdMetadata;
+  }
+
+  @Override
+  public Metadata updateMetadata(Metadata metadata) {
+    Metadata updatedMetadata = super.updateMetadata(metadata);
+    // The key of the metadata may have changed and the metadata is embedded in
+    // its items
+    clearCaches();
+    return updatedMetadata;
+  }
+
+  @Override
+  public Metadata deleteMetadataById(long id) {
+    Metadata deletedMetadata = super.deleteMetadataById(id);
+    clearCaches();
+    return deletedMetadata;
+  }
+
+  @Override
+  public int deleteMetadataItemsBySpaceId(long spaceId) {
+    int deletedItemsCount = super.deleteMetadataItemsBySpaceId(spaceId);
+    clearMetadataItemsCache(new MetadataItemsCacheSelector(metadataItem -> metadataItem.getSpaceId() == spaceId));
+    return deletedItemsCount;
+  }
+
+  @Override
+  public int deleteMetadataItemsBySpaceIdAndAudienceId(long spaceId, long audienceId) {
+    int deletedItemsCount = super.deleteMetadataItemsBySpaceIdAndAudienceId(spaceId, audienceId);
+    clearMetadataItemsCache(new MetadataItemsCacheSelector(metadataItem -> metadataItem.getSpaceId() == spaceId
+        && metadataItem.getMetadata() != null && metadataItem.getMetadata().getAudienceId() == audienceId));
+    return deletedItemsCount;
+  }
+
+  @Override
+  public MetadataItem createMetadataItem(MetadataItem metadataItem) {
+    MetadataItem createdMetadataItem = super.createMetadataItem(metadataItem);
+    exoMetadataItemsCache.remove(new MetadataObjectKey(createdMetadataItem.getObjectType(), createdMetadataItem.getObjectId()));
+    return createdMetadataItem;
+  }
+
+  @Override
+  public MetadataItem deleteMetadataItemById(long id) {
+    MetadataItem deletedMetadataItem = super.deleteMetadataItemById(id);
+    if (deletedMetadataItem != null) {
+      exoMetadataItemsCache.remove(new MetadataObjectKey(deletedMetadataItem.getObjectType(), deletedMetadataItem.getObjectId()));
+    }
+    return deletedMetadataItem;
+  }
+
+  @Override
+  public int deleteMetadataItemsByObject(MetadataObject object) {
+    int deletedItemsCount = super.deleteMetadataItemsByObject(object);
+    exoMetadataItemsCache.remove(new MetadataObjectKey(object));
+    return deletedItemsCount;
+  }
+
+  @Override
+  public int deleteMetadataItemsByParentObject(MetadataObject object) {
+    int deletedItemsCount = super.deleteMetadataItemsByParentObject(object);
+    if (deletedItemsCount > 0) {
+      clearMetadataItemsCache(new MetadataItemsCacheSelector(metadataItem -> StringUtils.equals(metadataItem.getObjectType(),
+                                                                                                object.getType())
+          && StringUtils.equals(metadataItem.getParentObjectId(), object.getParentId())));
+    }
+    return deletedItemsCount;
+  }
+
+  @Override
+  public List<MetadataItem> getMetadataItemsByObject(MetadataObject object) {
+    return getMetadataItemsData(object).build();
+  }
+
+  @Override
+  public Map<String, List<MetadataItem>> getMetadataItemsByObjects(String objectType, List<String> objectIds) {
+    if (objectIds == null || objectIds.isEmpty()) {
+      return Collections.emptyMap();
+    }
+    Map<String, List<MetadataItem>> metadataItemsByObjectId = new HashMap<>();
+    List<String> objectIdsToGetFromStore = new ArrayList<>();
+    for (String objectId : objectIds) {
+      if (metadataItemsByObjectId.containsKey(objectId) || objectIdsToGetFromStore.contains(objectId)) {
+        continue;
+      }
+      MetadataItemsData metadataItemsData = exoMetadataItemsCache.get(new MetadataObjectKey(objectType, objectId));
+      if (metadataItemsData == null) {
+        objectIdsToGetFromStore.add(objectId);
+      } else {
+        metadataItemsByObjectId.put(objectId, metadataItemsData.build());
+      }
+    }
+    if (!objectIdsToGetFromStore.isEmpty()) {
+      Map<String, List<MetadataItem>> metadataItemsFromStore = super.getMetadataItemsByObjects(objectType, objectIdsToGetFromStore);
+      for (String objectId : objectIdsToGetFromStore) {
+        MetadataItemsData metadataItemsData = new MetadataItemsData(metadataItemsFromStore.get(objectId));
+        exoMetadataItemsCache.putLocal(new MetadataObjectKey(objectType, objectId), metadataItemsData);
+        metadataItemsByObjectId.put(objectId, metadataItemsData.build());
+      }
+    }
+    return metadataItemsByObjectId;
+  }
+
+  @Override
+  public List<MetadataItem> getMetadataItemsByMetadataTypeAndObject(String metadataTypeName, MetadataObject object) {
+    MetadataType metadataType = getMetadataType(metadataTypeName);
+    if (metadataType == null) {
+      throw new IllegalStateException("Metadata type with name " + metadataTypeName + " isn't defined");
+    }
+    return getMetadataItemsData(object).build()
+                                       .stream()
+                                       .filter(metadataItem -> metadataItem.getMetadata() != null
+                                           && metadataItem.getMetadata().getType() != null
+                                           && metadataItem.getMetadata().getType().getId() == metadataType.getId())
+                                       .collect(Collectors.toList());
+  }
+
+  @Override
+  public List<MetadataItem> getMetadataItemsByMetadataAndObject(long metadataId, MetadataObject object) {
+    return getMetadataItemsData(object).build()
+                                       .stream()
+                                       .filter(metadataItem -> metadataItem.getMetadata() != null
+                                           && metadataItem.getMetadata().getId() == metadataId)
+                                       .collect(Collectors.toList());
+  }
+
+  /**
+   * Clears all cached metadatas and metadata items
+   */
+  public void clearCaches() {
+    exoMetadataCache.clearCache();
+    exoMetadataItemsCache.clearCache();
+  }
+
+  private MetadataItemsData getMetadataItemsData(MetadataObject object) {
+    return metadataItemsCache.get(() -> new MetadataItemsData(CachedMetadataStorage.super.getMetadataItemsByObject(object)),
+                                  new MetadataObjectKey(object));
+  }
+
+  private void clearMetadataItemsCache(MetadataItemsCacheSelector selector) {
+    try {
+      exoMetadataItemsCache.select(selector);
+    } catch (Exception e) {
+      LOG.warn("Error while clearing metadata items cache, clear the whole cache", e);
+      exoMetadataItemsCache.clearCache();
+    }
+  }
+
+}
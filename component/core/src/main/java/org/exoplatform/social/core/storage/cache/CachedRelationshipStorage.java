@@ -66,6 +66,12 @@ public class CachedRelationshipStorage implements RelationshipStorage {
 
   private final ExoCache<ListActivitiesKey, ListActivitiesData>                                              exoActivitiesCache;
 
+  private final CacheKeysIndex<RelationshipCountKey, IntegerData>                                            relationshipsCountIndex;
+
+  private final CacheKeysIndex<ListRelationshipsKey, ListIdentitiesData>                                     relationshipsIndex;
+
+  private final CacheKeysIndex<SuggestionKey, SuggestionsData>                                               suggestionIndex;
+
   //
   private final FutureExoCache<RelationshipKey, RelationshipData, ServiceContext<RelationshipData>>          relationshipCache;
 
@@ -101,9 +107,11 @@ public class CachedRelationshipStorage implements RelationshipStorage {
     }
 
     try {
-      exoRelationshipsCache.select(new RelationshipCacheSelector(identities.toArray(new String[] {})));
-      exoRelationshipCountCache.select(new RelationshipCacheSelector(identities.toArray(new String[] {})));
-      exoSuggestionCache.select(new SuggestionCacheSelector(identities.toArray(new String[] {})));
+      RelationshipCacheSelector relationshipSelector = new RelationshipCacheSelector(identities.toArray(new String[] {}));
+      relationshipsIndex.remove(relationshipSelector.getIndexValues(), relationshipSelector);
+      relationshipsCountIndex.remove(relationshipSelector.getIndexValues(), relationshipSelector);
+      SuggestionCacheSelector suggestionSelector = new SuggestionCacheSelector(identities.toArray(new String[] {}));
+      suggestionIndex.remove(suggestionSelector.getIndexValues(), suggestionSelector);
       exoActivitiesCache.select(new CacheSelector<ListActivitiesKey, ListActivitiesData>());
       exoActivitiesCountCache.select(new CacheSelector<ActivityCountKey, IntegerData>());
     } catch (Exception e) {
@@ -222,6 +230,9 @@ public class CachedRelationshipStorage implements RelationshipStorage {
     this.exoSuggestionCache = cacheService.getSuggestionCache();
     this.exoActivitiesCountCache = cacheService.getActivitiesCountCache();
     this.exoActivitiesCache = cacheService.getActivitiesCache();
+    this.relationshipsCountIndex = cacheService.getRelationshipsCountIndex();
+    this.relationshipsIndex = cacheService.getRelationshipsIndex();
+    this.suggestionIndex = cacheService.getSuggestionIndex();
 
     //
     this.relationshipCache = CacheType.RELATIONSHIP.createFutureCache(exoRelationshipCache);
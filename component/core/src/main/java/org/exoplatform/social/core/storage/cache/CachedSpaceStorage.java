@@ -27,6 +27,7 @@ import org.exoplatform.services.log.Log;
 import org.exoplatform.social.core.identity.model.Identity;
 import org.exoplatform.social.core.identity.provider.SpaceIdentityProvider;
 import org.exoplatform.social.core.jpa.storage.RDBMSSpaceStorageImpl;
+import org.exoplatform.social.core.jpa.storage.SpaceLastAccessTracker;
 import org.exoplatform.social.core.jpa.storage.dao.*;
 import org.exoplatform.social.core.search.Sorting;
 import org.exoplatform.social.core.space.SpaceFilter;
@@ -55,14 +56,17 @@ public class CachedSpaceStorage extends RDBMSSpaceStorageImpl {
   private final ExoCache<SpaceFilterKey, IntegerData> exoSpacesCountCache;
   private final ExoCache<ListSpacesKey, ListSpacesData> exoSpacesCache;
   private final ExoCache<ListIdentitiesKey, ListIdentitiesData> exoIdentitiesCache;
+  private final ExoCache<SpaceMembershipKey, Boolean> exoSpaceMembershipCache;
 
   private final FutureExoCache<SpaceKey, SpaceData, ServiceContext<SpaceData>> spaceCache;
   private final FutureExoCache<SpaceKey, SpaceSimpleData, ServiceContext<SpaceSimpleData>> spaceSimpleCache;
   private final FutureExoCache<SpaceRefKey, SpaceKey, ServiceContext<SpaceKey>> spaceRefCache;
   private final FutureExoCache<SpaceFilterKey, IntegerData, ServiceContext<IntegerData>> spacesCountCache;
   private final FutureExoCache<ListSpacesKey, ListSpacesData, ServiceContext<ListSpacesData>> spacesCache;
+  private final FutureExoCache<SpaceMembershipKey, Boolean, ServiceContext<Boolean>> spaceMembershipCache;
 
   private SocialStorageCacheService cacheService;
+  private SpaceLastAccessTracker spaceLastAccessTracker;
   private CachedActivityStorage cachedActivityStorage;
   private CachedIdentityStorage cachedIdentityStorage;
 
@@ -192,9 +196,18 @@ public class CachedSpaceStorage extends RDBMSSpaceStorageImpl {
                             ActivityDAO activityDAO,
                             SpaceExternalInvitationDAO spaceExternalInvitationDAO,
                             SocialStorageCacheService cacheService,
-                            FavoriteService favoriteService) {
-    super(spaceDAO, spaceMemberDAO, identityStorage, identityDAO, activityDAO, spaceExternalInvitationDAO,favoriteService);
+                            FavoriteService favoriteService,
+                            SpaceLastAccessTracker spaceLastAccessTracker) {
+    super(spaceDAO,
+          spaceMemberDAO,
+          identityStorage,
+          identityDAO,
+          activityDAO,
+          spaceExternalInvitationDAO,
+          favoriteService,
+          spaceLastAccessTracker);
     this.cacheService = cacheService;
+    this.spaceLastAccessTracker = spaceLastAccessTracker;
 
     this.exoSpaceCache = cacheService.getSpaceCache();
     this.exoSpaceSimpleCache = cacheService.getSpaceSimpleCache();
@@ -202,12 +215,14 @@ public class CachedSpaceStorage extends RDBMSSpaceStorageImpl {
     this.exoSpacesCountCache = cacheService.getSpacesCountCache();
     this.exoSpacesCache = cacheService.getSpacesCache();
     this.exoIdentitiesCache = cacheService.getIdentitiesCache();
+    this.exoSpaceMembershipCache = cacheService.getSpaceMembershipCache();
 
     this.spaceCache = CacheType.SPACE.createFutureCache(exoSpaceCache);
     this.spaceSimpleCache = CacheType.SPACE_SIMPLE.createFutureCache(exoSpaceSimpleCache);
     this.spaceRefCache = CacheType.SPACE_REF.createFutureCache(exoRefSpaceCache);
     this.spacesCountCache = CacheType.SPACES_COUNT.createFutureCache(exoSpacesCountCache);
     this.spacesCache = CacheType.SPACES.createFutureCache(exoSpacesCache);
+    this.spaceMembershipCache = CacheType.SPACE_MEMBERSHIP.createFutureCache(exoSpaceMembershipCache);
 
   }
 
@@ -229,7 +244,8 @@ public class CachedSpaceStorage extends RDBMSSpaceStorageImpl {
   void clearIdentityCache() {
 
     try {
-      exoIdentitiesCache.select(new IdentityCacheSelector(SpaceIdentityProvider.NAME));
+      IdentityCacheSelector selector = new IdentityCacheSelector(SpaceIdentityProvider.NAME);
+      cacheService.getIdentitiesIndex().remove(Collections.singleton(selector.getIndexValue()), selector);
     }
     catch (Exception e) {
       LOG.error("Error deleting cache entries of provider type 'Space Identities'", e);
@@ -249,6 +265,21 @@ public class CachedSpaceStorage extends RDBMSSpaceStorageImpl {
 
   }
 
+  void clearSpaceMembershipCache(String spaceId) {
+
+    if (spaceId == null) {
+      return;
+    }
+    try {
+      SpaceMembershipCacheSelector selector = new SpaceMembershipCacheSelector(spaceId);
+      cacheService.getSpaceMembershipIndex().remove(Collections.singleton(selector.getIndexValue()), selector);
+    }
+    catch (Exception e) {
+      LOG.error("Error deleting cache entries of the roles of space {}", spaceId, e);
+    }
+
+  }
+
   /**
    * {@inheritDoc}
    */
@@ -294,6 +325,7 @@ public class CachedSpaceStorage extends RDBMSSpaceStorageImpl {
     //
     exoSpaceSimpleCache.remove(new SpaceKey(space.getId()));
     exoSpaceCache.remove(new SpaceKey(space.getId()));
+    clearSpaceMembershipCache(space.getId());
     
     clearSpaceCache();
     clearIdentityCache();
@@ -356,6 +388,7 @@ public class CachedSpaceStorage extends RDBMSSpaceStorageImpl {
 
     //
     exoSpaceCache.remove(new SpaceKey(id));
+    clearSpaceMembershipCache(id);
     clearSpaceCache();
     cleanRef(space);
 
@@ -367,6 +400,7 @@ public class CachedSpaceStorage extends RDBMSSpaceStorageImpl {
   @Override
   public void ignoreSpace(String spaceId, String userId) {
     super.ignoreSpace(spaceId, userId);
+    exoSpaceMembershipCache.remove(new SpaceMembershipKey(spaceId, userId, "IGNORED"));
     exoSpaceSimpleCache.remove(new SpaceKey(spaceId));
     SpaceData spaceData = exoSpaceCache.remove(new SpaceKey(spaceId));
     if (spaceData != null) {
@@ -384,6 +418,17 @@ public class CachedSpaceStorage extends RDBMSSpaceStorageImpl {
     return super.isSpaceIgnored(spaceId, userId);
   }
 
+  @Override
+  public boolean hasUserRole(final String spaceId, final String userId, final String status) {
+    SpaceMembershipKey key = new SpaceMembershipKey(spaceId, userId, status.toUpperCase());
+    Boolean hasRole = spaceMembershipCache.get(new ServiceContext<Boolean>() {
+      public Boolean execute() {
+        return CachedSpaceStorage.super.hasUserRole(spaceId, userId, status);
+      }
+    }, key);
+    return hasRole != null && hasRole;
+  }
+
   /**
    * {@inheritDoc}
    */
@@ -940,8 +985,12 @@ public class CachedSpaceStorage extends RDBMSSpaceStorageImpl {
 
   @Override
   public void updateSpaceAccessed(String remoteId, Space space) throws SpaceStorageException {
-    // we remove all cache entries for the given userId and for space type LATEST_ACCESSED
-    LastAccessedSpacesCacheSelector selector = new LastAccessedSpacesCacheSelector(remoteId, space, cacheService);
+    // A space already accessed since the last write is already visited in the
+    // stored spaces ordered by visit, so their cached lists stay valid
+    boolean visited = space.getId() != null
+        && spaceLastAccessTracker.hasPendingAccess(remoteId, Long.parseLong(space.getId()));
+    // we update or remove all cache entries for the given userId and for space type LATEST_ACCESSED
+    LastAccessedSpacesCacheSelector selector = new LastAccessedSpacesCacheSelector(remoteId, space, visited, cacheService);
     try {
       exoSpacesCache.select(selector);
     } catch (Exception e) {
@@ -949,10 +998,8 @@ public class CachedSpaceStorage extends RDBMSSpaceStorageImpl {
               " and type=" + SpaceType.LATEST_ACCESSED.name() + " or type=" + SpaceType.VISITED, e);
     }
 
-    // Update the storage only if the user has accessed a different space
-    if (selector.isUpdateStore()) {
-      super.updateSpaceAccessed(remoteId, space);
-    }
+    // The access is only recorded in memory, so its time is always updated
+    super.updateSpaceAccessed(remoteId, space);
   }
 
   @Override
@@ -1122,6 +1169,7 @@ public class CachedSpaceStorage extends RDBMSSpaceStorageImpl {
       exoSpaceCache.remove(cacheKey);
       cleanRef(space);
     }
+    clearSpaceMembershipCache(spaceId);
     clearSpaceCache();
     clearIdentityCache();
   }
@@ -1133,6 +1181,7 @@ public class CachedSpaceStorage extends RDBMSSpaceStorageImpl {
     exoSpacesCache.clearCache();
     exoRefSpaceCache.clearCache();
     exoIdentitiesCache.clearCache();
+    exoSpaceMembershipCache.clearCache();
   }
 
 }
@@ -17,6 +17,10 @@
 
 package org.exoplatform.social.core.storage.cache;
 
+import java.util.HashSet;
+import java.util.Set;
+import java.util.function.BiFunction;
+
 import org.exoplatform.services.cache.CacheService;
 import org.exoplatform.services.cache.ExoCache;
 import org.exoplatform.social.core.storage.cache.model.data.ActivityData;
@@ -26,6 +30,8 @@ import org.exoplatform.social.core.storage.cache.model.data.ActiveIdentitiesData
 import org.exoplatform.social.core.storage.cache.model.data.ListActivitiesData;
 import org.exoplatform.social.core.storage.cache.model.data.ListIdentitiesData;
 import org.exoplatform.social.core.storage.cache.model.data.ListSpacesData;
+import org.exoplatform.social.core.storage.cache.model.data.MetadataData;
+import org.exoplatform.social.core.storage.cache.model.data.MetadataItemsData;
 import org.exoplatform.social.core.storage.cache.model.data.ProfileData;
 import org.exoplatform.social.core.storage.cache.model.data.RelationshipData;
 import org.exoplatform.social.core.storage.cache.model.data.SpaceData;
@@ -34,6 +40,7 @@ import org.exoplatform.social.core.storage.cache.model.data.SuggestionsData;
 import org.exoplatform.social.core.storage.cache.model.key.ActiveIdentityKey;
 import org.exoplatform.social.core.storage.cache.model.key.ActivityCountKey;
 import org.exoplatform.social.core.storage.cache.model.key.ActivityKey;
+import org.exoplatform.social.core.storage.cache.model.key.CacheKey;
 import org.exoplatform.social.core.storage.cache.model.key.IdentityCompositeKey;
 import org.exoplatform.social.core.storage.cache.model.key.IdentityFilterKey;
 import org.exoplatform.social.core.storage.cache.model.key.IdentityKey;
@@ -41,13 +48,22 @@ import org.exoplatform.social.core.storage.cache.model.key.ListActivitiesKey;
 import org.exoplatform.social.core.storage.cache.model.key.ListIdentitiesKey;
 import org.exoplatform.social.core.storage.cache.model.key.ListRelationshipsKey;
 import org.exoplatform.social.core.storage.cache.model.key.ListSpacesKey;
+import org.exoplatform.social.core.storage.cache.model.key.MetadataCompositeKey;
+import org.exoplatform.social.core.storage.cache.model.key.MetadataObjectKey;
 import org.exoplatform.social.core.storage.cache.model.key.RelationshipCountKey;
 import org.exoplatform.social.core.storage.cache.model.key.RelationshipIdentityKey;
 import org.exoplatform.social.core.storage.cache.model.key.RelationshipKey;
 import org.exoplatform.social.core.storage.cache.model.key.SpaceFilterKey;
 import org.exoplatform.social.core.storage.cache.model.key.SpaceKey;
+import org.exoplatform.social.core.storage.cache.model.key.SpaceMembershipKey;
 import org.exoplatform.social.core.storage.cache.model.key.SpaceRefKey;
 import org.exoplatform.social.core.storage.cache.model.key.SuggestionKey;
+import org.exoplatform.social.core.storage.cache.selector.ActivityOwnerCacheSelector;
+import org.exoplatform.social.core.storage.cache.selector.ActivityStreamOwnerCacheSelector;
+import org.exoplatform.social.core.storage.cache.selector.IdentityCacheSelector;
+import org.exoplatform.social.core.storage.cache.selector.RelationshipCacheSelector;
+import org.exoplatform.social.core.storage.cache.selector.SpaceMembershipCacheSelector;
+import org.exoplatform.social.core.storage.cache.selector.SuggestionCacheSelector;
 
 /**
  * @author <a href="mailto:alain.defrance@exoplatform.com">Alain Defrance</a>
@@ -76,6 +92,7 @@ public class SocialStorageCacheService {
   private final ExoCache<ActivityKey, ActivityData> activityCache;
   private final ExoCache<ActivityCountKey, IntegerData> activitiesCountCache;
   private final ExoCache<ListActivitiesKey, ListActivitiesData> activitiesCache;
+  private final ExoCache<String, String[]> activityStreamsInvalidationCache;
 
   // SpaceStorage
   private final ExoCache<SpaceKey, SpaceData> spaceCache;
@@ -84,6 +101,20 @@ public class SocialStorageCacheService {
   private final ExoCache<ListSpacesKey, ListSpacesData> spacesCache;
   
   private final ExoCache<SpaceKey, SpaceSimpleData> spaceSimpleCache;
+  private final ExoCache<SpaceMembershipKey, Boolean> spaceMembershipCache;
+
+  // Metadata
+  private final ExoCache<MetadataCompositeKey, MetadataData> metadataCache;
+  private final ExoCache<MetadataObjectKey, MetadataItemsData> metadataItemsCache;
+
+  // Reverse indexes of the keys invalidated by owner or identity
+  private final CacheKeysIndex<IdentityFilterKey, IntegerData> countIdentitiesIndex;
+  private final CacheKeysIndex<ListIdentitiesKey, ListIdentitiesData> identitiesIndex;
+  private final CacheKeysIndex<RelationshipCountKey, IntegerData> relationshipsCountIndex;
+  private final CacheKeysIndex<ListRelationshipsKey, ListIdentitiesData> relationshipsIndex;
+  private final CacheKeysIndex<SuggestionKey, SuggestionsData> suggestionIndex;
+  private final CacheKeysIndex<ActivityKey, ActivityData> activityOwnerIndex;
+  private final CacheKeysIndex<SpaceMembershipKey, Boolean> spaceMembershipIndex;
 
   public SocialStorageCacheService(CacheService cacheService) {
     
@@ -104,6 +135,7 @@ public class SocialStorageCacheService {
     this.activityCache = CacheType.ACTIVITY.getFromService(cacheService);
     this.activitiesCountCache = CacheType.ACTIVITIES_COUNT.getFromService(cacheService);
     this.activitiesCache = CacheType.ACTIVITIES.getFromService(cacheService);
+    this.activityStreamsInvalidationCache = cacheService.getCacheInstance("social.ActivityStreamsInvalidationCache");
 
     this.spaceCache = CacheType.SPACE.getFromService(cacheService);
     this.spaceRefCache = CacheType.SPACE_REF.getFromService(cacheService);
@@ -111,6 +143,22 @@ public class SocialStorageCacheService {
     this.spacesCache = CacheType.SPACES.getFromService(cacheService);
     
     this.spaceSimpleCache = CacheType.SPACE_SIMPLE.getFromService(cacheService);
+    this.spaceMembershipCache = CacheType.SPACE_MEMBERSHIP.getFromService(cacheService);
+
+    this.metadataCache = CacheType.METADATA.getFromService(cacheService);
+    this.metadataItemsCache = CacheType.METADATA_ITEMS.getFromService(cacheService);
+
+    this.countIdentitiesIndex = createIndex(countIdentitiesCache, (key, data) -> IdentityCacheSelector.getIndexValues(key));
+    this.identitiesIndex = createIndex(identitiesCache, (key, data) -> IdentityCacheSelector.getIndexValues(key));
+    this.relationshipsCountIndex = createIndex(relationshipsCount, (key, data) -> RelationshipCacheSelector.getIndexValues(key));
+    this.relationshipsIndex = createIndex(relationshipsCache, (key, data) -> RelationshipCacheSelector.getIndexValues(key));
+    this.suggestionIndex = createIndex(suggestionCache, SuggestionCacheSelector::getIndexValues);
+    this.activityOwnerIndex = createIndex(activityCache, (key, data) -> {
+      Set<String> indexValues = new HashSet<>(ActivityOwnerCacheSelector.getIndexValues(data));
+      indexValues.addAll(ActivityStreamOwnerCacheSelector.getIndexValues(data));
+      return indexValues;
+    });
+    this.spaceMembershipIndex = createIndex(spaceMembershipCache, (key, data) -> SpaceMembershipCacheSelector.getIndexValues(key));
 
   }
 
@@ -171,6 +219,14 @@ public class SocialStorageCacheService {
     return activitiesCache;
   }
 
+  /**
+   * @return the replicated cache through which the keys of the modified
+   *         activity streams are sent to the other cluster nodes
+   */
+  public ExoCache<String, String[]> getActivityStreamsInvalidationCache() {
+    return activityStreamsInvalidationCache;
+  }
+
   public ExoCache<SpaceKey, SpaceData> getSpaceCache() {
     return spaceCache;
   }
@@ -179,6 +235,10 @@ public class SocialStorageCacheService {
     return spaceSimpleCache;
   }
 
+  public ExoCache<SpaceMembershipKey, Boolean> getSpaceMembershipCache() {
+    return spaceMembershipCache;
+  }
+
   public ExoCache<SpaceRefKey, SpaceKey> getSpaceRefCache() {
     return spaceRefCache;
   }
@@ -190,4 +250,49 @@ public class SocialStorageCacheService {
   public ExoCache<ListSpacesKey, ListSpacesData> getSpacesCache() {
     return spacesCache;
   }
+
+  public ExoCache<MetadataCompositeKey, MetadataData> getMetadataCache() {
+    return metadataCache;
+  }
+
+  public ExoCache<MetadataObjectKey, MetadataItemsData> getMetadataItemsCache() {
+    return metadataItemsCache;
+  }
+
+  public CacheKeysIndex<IdentityFilterKey, IntegerData> getCountIdentitiesIndex() {
+    return countIdentitiesIndex;
+  }
+
+  public CacheKeysIndex<ListIdentitiesKey, ListIdentitiesData> getIdentitiesIndex() {
+    return identitiesIndex;
+  }
+
+  public CacheKeysIndex<RelationshipCountKey, IntegerData> getRelationshipsCountIndex() {
+    return relationshipsCountIndex;
+  }
+
+  public CacheKeysIndex<ListRelationshipsKey, ListIdentitiesData> getRelationshipsIndex() {
+    return relationshipsIndex;
+  }
+
+  public CacheKeysIndex<SuggestionKey, SuggestionsData> getSuggestionIndex() {
+    return suggestionIndex;
+  }
+
+  public CacheKeysIndex<ActivityKey, ActivityData> getActivityOwnerIndex() {
+    return activityOwnerIndex;
+  }
+
+  public CacheKeysIndex<SpaceMembershipKey, Boolean> getSpaceMembershipIndex() {
+    return spaceMembershipIndex;
+  }
+
+  /**
+   * Creates the index of a cache, limited to twice the maximum size of the
+   * cache to bound the memory used by keys which eviction wasn't notified.
+   */
+  private static <K extends CacheKey, V> CacheKeysIndex<K, V> createIndex(ExoCache<K, V> cache,
+                                                                          BiFunction<K, V, Set<String>> indexer) {
+    return new CacheKeysIndex<>(cache, indexer, cache.getMaxSize() > 0 ? cache.getMaxSize() * 2 : 0);
+  }
 }
@@ -17,24 +17,44 @@
 
 package org.exoplatform.social.core.storage.cache.model.data;
 
-import java.io.Serializable;
+import java.io.*;
+import java.util.ArrayList;
 import java.util.List;
 
 /**
- * Cached data list.
+ * Cached data list. The list is written as the ids of its keys, so that the
+ * numeric ids are written as variable length integers.
  *
  * @author <a href="mailto:alain.defrance@exoplatform.com">Alain Defrance</a>
  * @version $Revision$
  */
-public class AbstractListData<T> implements Serializable {
+public abstract class AbstractListData<T> implements Externalizable {
   private static final long serialVersionUID = -8053695403884988516L;
 
+  private static final int FORMAT_VERSION = 1;
+
   private List<T> ids;
 
+  protected AbstractListData() {
+    // Used by deserialization
+  }
+
   public AbstractListData(final List<T> ids) {
     this.ids = ids;
   }
 
+  /**
+   * @param key list element
+   * @return the id of the element
+   */
+  protected abstract String getId(T key);
+
+  /**
+   * @param id id of a list element
+   * @return the list element
+   */
+  protected abstract T newKey(String id);
+
   public List<T> getIds() {
     return ids;
   }
@@ -43,6 +63,37 @@ public class AbstractListData<T> implements Serializable {
     this.ids = ids;
   }
 
+  @Override
+  public void writeExternal(ObjectOutput out) throws IOException {
+    CacheDataWriter writer = new CacheDataWriter(out, FORMAT_VERSION);
+    if (ids == null) {
+      writer.writeVarInt(0);
+      return;
+    }
+    writer.writeVarInt(ids.size() + 1);
+    for (T key : ids) {
+      writer.writeBoolean(key != null);
+      if (key != null) {
+        writer.writeString(getId(key));
+      }
+    }
+  }
+
+  @Override
+  public void readExternal(ObjectInput in) throws IOException {
+    CacheDataReader reader = new CacheDataReader(in, getClass(), FORMAT_VERSION);
+    int size = reader.readVarInt();
+    if (size == 0) {
+      ids = null;
+      return;
+    }
+    List<T> keys = new ArrayList<>(size - 1);
+    for (int i = 0; i < size - 1; i++) {
+      keys.add(reader.readBoolean() ? newKey(reader.readString()) : null);
+    }
+    ids = keys;
+  }
+
   @Override
   public boolean equals(Object o) {
     if (this == o) return true;
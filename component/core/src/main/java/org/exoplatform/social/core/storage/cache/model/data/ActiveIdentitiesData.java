@@ -16,6 +16,9 @@
  */
 package org.exoplatform.social.core.storage.cache.model.data;
 
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Iterator;
 import java.util.Set;
 
 
@@ -26,17 +29,27 @@ import java.util.Set;
  * Oct 8, 2014  
  */
 public class ActiveIdentitiesData implements CacheData<Set<String>> {
-  private static final long serialVersionUID = 3762098456323779153L;
+  private static final long serialVersionUID = -5218425381917232437L;
 
-  private final Set<String> activeUsers;
+  /** Sorted usernames, more compact than a hash set to keep in cache */
+  private final String[] activeUsers;
   
 
   public ActiveIdentitiesData(final Set<String> activeUsers) {
-    this.activeUsers = activeUsers;
+    if (activeUsers == null) {
+      this.activeUsers = null;
+    } else {
+      this.activeUsers = activeUsers.toArray(new String[activeUsers.size()]);
+      Arrays.sort(this.activeUsers);
+    }
   }
+
+  /**
+   * @return an unmodifiable view of the cached usernames
+   */
   @Override
   public Set<String> build() {
-    return this.activeUsers;
+    return this.activeUsers == null ? null : new SortedUsersSet(this.activeUsers);
   }
 
   @Override
@@ -46,12 +59,39 @@ public class ActiveIdentitiesData implements CacheData<Set<String>> {
 
     ActiveIdentitiesData that = (ActiveIdentitiesData) o;
 
-    return activeUsers != null ? activeUsers.equals(that.activeUsers) : that.activeUsers == null;
+    return Arrays.equals(activeUsers, that.activeUsers);
 
   }
 
   @Override
   public int hashCode() {
-    return activeUsers != null ? activeUsers.hashCode() : 0;
+    return Arrays.hashCode(activeUsers);
+  }
+
+  /**
+   * Unmodifiable {@link Set} backed by the sorted usernames array, looked up
+   * by binary search
+   */
+  private static class SortedUsersSet extends AbstractSet<String> {
+    private final String[] users;
+
+    private SortedUsersSet(String[] users) {
+      this.users = users;
+    }
+
+    @Override
+    public boolean contains(Object o) {
+      return o instanceof String && Arrays.binarySearch(users, o) >= 0;
+    }
+
+    @Override
+    public Iterator<String> iterator() {
+      return Arrays.asList(users).iterator();
+    }
+
+    @Override
+    public int size() {
+      return users.length;
+    }
   }
 }
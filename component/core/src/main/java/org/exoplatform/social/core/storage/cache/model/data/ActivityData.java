@@ -17,65 +17,73 @@
 
 package org.exoplatform.social.core.storage.cache.model.data;
 
+import java.io.*;
 import java.util.*;
 
 import org.exoplatform.social.core.activity.model.*;
 import org.exoplatform.social.metadata.model.MetadataItem;
 
 /**
- * Immutable activity data.
+ * Immutable activity data, written in a compact format when replicated across
+ * the cluster.
  *
  * @author <a href="mailto:alain.defrance@exoplatform.com">Alain Defrance</a>
  * @version $Revision$
  */
-public class ActivityData implements CacheData<ExoSocialActivity> {
+public class ActivityData implements CacheData<ExoSocialActivity>, Externalizable {
   private static final long serialVersionUID = -7626120214861121711L;
 
+  private static final int FORMAT_VERSION = 1;
+
   public final static ActivityData NULL = new ActivityData(new ExoSocialActivityImpl());
   
-  private final String id;
-  private final String title;
-  private final String body;
-  private final String[] likes;
-  private final boolean isComment;
-  private final boolean isHidden;
-  private final boolean isLocked;
-  private final Long postedTime;
-  private final Long lastUpdated;
-  private final Long cacheTime;
-  private final String[] replyIds;
-  private final String userId;
-  private final String spaceId;
-  private final String appId;
-  private final String titleId;
-  private final String bodyId;
-  private final String type;
-  private final Map templateParams;
-  private final Map<String, Object> linkedProcessedEntities;
-  private final String externalId;
-  private final String url;
-  private final String streamId;
-  private final String streamOwner;
-  private final String streamFaviconUrl;
-  private final String streamSourceUrl;
-  private final String streamTitle;
-  private final String streamUrl;
-  private final String[] mentioners;
-  private final String[] commenters;
-  private final ActivityStream.Type streamType;
-  private final String posterId;
-  private final String parentId;
-  private final String parentCommentId;
-  private final Set<ActivityShareAction> shareActions;
-  private final List<ActivityFile> files;
-  private final Map<String, List<MetadataItem>> metadatas;
-
-  private final boolean                         pinned;
-
-  private final String                          pinDate;
-
-  private final Long                            pinAuthorId;
-
+  private String id;
+  private String title;
+  private String body;
+  private String[] likes;
+  private boolean isComment;
+  private boolean isHidden;
+  private boolean isLocked;
+  private Long postedTime;
+  private Long lastUpdated;
+  private Long cacheTime;
+  private String[] replyIds;
+  private String userId;
+  private String spaceId;
+  private String appId;
+  private String titleId;
+  private String bodyId;
+  private String type;
+  private Map templateParams;
+  private Map<String, Object> linkedProcessedEntities;
+  private String externalId;
+  private String url;
+  private String streamId;
+  private String streamOwner;
+  private String streamFaviconUrl;
+  private String streamSourceUrl;
+  private String streamTitle;
+  private String streamUrl;
+  private String[] mentioners;
+  private String[] commenters;
+  private ActivityStream.Type streamType;
+  private String posterId;
+  private String parentId;
+  private String parentCommentId;
+  private Set<ActivityShareAction> shareActions;
+  private List<ActivityFile> files;
+  private Map<String, List<MetadataItem>> metadatas;
+
+  private boolean                         pinned;
+
+  private String                          pinDate;
+
+  private Long                            pinAuthorId;
+
+
+  public ActivityData() {
+    // Used by deserialization
+  }
 
   public ActivityData(final ExoSocialActivity activity) {
     this.id = activity.getId();
@@ -225,6 +233,98 @@ public class ActivityData implements CacheData<ExoSocialActivity> {
   }
 
 
+  @Override
+  public void writeExternal(ObjectOutput out) throws IOException {
+    CacheDataWriter writer = new CacheDataWriter(out, FORMAT_VERSION);
+    writer.writeString(id);
+    writer.writeString(title);
+    writer.writeString(body);
+    writer.writeStrings(likes);
+    writer.writeBoolean(isComment);
+    writer.writeBoolean(isHidden);
+    writer.writeBoolean(isLocked);
+    writer.writeLong(postedTime);
+    writer.writeLong(lastUpdated);
+    writer.writeLong(cacheTime);
+    writer.writeStrings(replyIds);
+    writer.writeString(userId);
+    writer.writeString(spaceId);
+    writer.writeString(appId);
+    writer.writeString(titleId);
+    writer.writeString(bodyId);
+    writer.writeString(type);
+    writer.writeMap(templateParams);
+    writer.writeMap(linkedProcessedEntities);
+    writer.writeString(externalId);
+    writer.writeString(url);
+    writer.writeString(streamId);
+    writer.writeString(streamOwner);
+    writer.writeString(streamFaviconUrl);
+    writer.writeString(streamSourceUrl);
+    writer.writeString(streamTitle);
+    writer.writeString(streamUrl);
+    writer.writeStrings(mentioners);
+    writer.writeStrings(commenters);
+    writer.writeString(streamType == null ? null : streamType.name());
+    writer.writeString(posterId);
+    writer.writeString(parentId);
+    writer.writeString(parentCommentId);
+    writer.writeObject(shareActions);
+    writer.writeObject(files);
+    writer.writeMap(metadatas);
+    writer.writeBoolean(pinned);
+    writer.writeString(pinDate);
+    writer.writeLong(pinAuthorId);
+  }
+
+  @Override
+  public void readExternal(ObjectInput in) throws IOException, ClassNotFoundException {
+    CacheDataReader reader = new CacheDataReader(in, ActivityData.class, FORMAT_VERSION);
+    id = reader.readString();
+    title = reader.readString();
+    body = reader.readString();
+    likes = reader.readStrings();
+    isComment = reader.readBoolean();
+    isHidden = reader.readBoolean();
+    isLocked = reader.readBoolean();
+    postedTime = reader.readLong();
+    lastUpdated = reader.readLong();
+    cacheTime = reader.readLong();
+    replyIds = reader.readStrings();
+    userId = reader.readString();
+    spaceId = reader.readString();
+    appId = reader.readString();
+    titleId = reader.readString();
+    bodyId = reader.readString();
+    type = reader.readString();
+    Map<String, String> params = reader.readMap();
+    templateParams = params == null ? Collections.emptyMap() : Collections.unmodifiableMap(params);
+    Map<String, Object> entities = reader.readMap();
+    linkedProcessedEntities = entities == null ? null : Collections.unmodifiableMap(entities);
+    externalId = reader.readString();
+    url = reader.readString();
+    streamId = reader.readString();
+    streamOwner = reader.readString();
+    streamFaviconUrl = reader.readString();
+    streamSourceUrl = reader.readString();
+    streamTitle = reader.readString();
+    streamUrl = reader.readString();
+    mentioners = reader.readStrings();
+    commenters = reader.readStrings();
+    String streamTypeName = reader.readString();
+    streamType = streamTypeName == null ? null : ActivityStream.Type.valueOf(streamTypeName);
+    posterId = reader.readString();
+    parentId = reader.readString();
+    parentCommentId = reader.readString();
+    shareActions = reader.readObject();
+    files = reader.readObject();
+    Map<String, List<MetadataItem>> metadataItems = reader.readMap();
+    metadatas = metadataItems == null ? null : Collections.unmodifiableMap(metadataItems);
+    pinned = reader.readBoolean();
+    pinDate = reader.readString();
+    pinAuthorId = reader.readLong();
+  }
+
   @Override
   public boolean equals(Object o) {
     if (this == o) return true;
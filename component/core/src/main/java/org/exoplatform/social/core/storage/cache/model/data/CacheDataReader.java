@@ -0,0 +1,145 @@
+/*
+ * This file is part of the Meeds project (https://meeds.io/).
+ * Copyright (C) 2022 Meeds Association contact@meeds.io
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package org.exoplatform.social.core.storage.cache.model.data;
+
+import static org.exoplatform.social.core.storage.cache.model.data.CacheDataWriter.*;
+
+import java.io.IOException;
+import java.io.InvalidClassException;
+import java.io.ObjectInput;
+import java.io.StreamCorruptedException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reads the cached data written by {@link CacheDataWriter}.
+ */
+final class CacheDataReader {
+
+  private final ObjectInput  in;
+
+  private final List<String> strings = new ArrayList<>();
+
+  /**
+   * @param in input of the serialized entry
+   * @param type type of the read entry
+   * @param maxVersion last format version of the read entry
+   * @throws InvalidClassException when the entry was written with a newer
+   *           format, by a node running a newer version
+   */
+  CacheDataReader(ObjectInput in, Class<?> type, int maxVersion) throws IOException {
+    this.in = in;
+    int version = readVarInt();
+    if (version < 1 || version > maxVersion) {
+      throw new InvalidClassException(type.getName(), "Unsupported format version " + version);
+    }
+  }
+
+  String readString() throws IOException {
+    int tag = readVarInt();
+    String value;
+    switch (tag) {
+    case NULL_STRING:
+      return null;
+    case NUMERIC_STRING:
+      value = String.valueOf(readVarLong());
+      break;
+    case TEXT_STRING:
+      byte[] bytes = new byte[readVarInt()];
+      in.readFully(bytes);
+      value = new String(bytes, StandardCharsets.UTF_8);
+      break;
+    default:
+      int index = tag - STRING_REF;
+      if (index >= strings.size()) {
+        throw new StreamCorruptedException("Unknown string reference " + index);
+      }
+      return strings.get(index);
+    }
+    strings.add(value);
+    return value;
+  }
+
+  String[] readStrings() throws IOException {
+    int length = readVarInt();
+    if (length == 0) {
+      return null; // NOSONAR null arrays are cached as is
+    }
+    String[] values = new String[length - 1];
+    for (int i = 0; i < values.length; i++) {
+      values[i] = readString();
+    }
+    return values;
+  }
+
+  Long readLong() throws IOException {
+    if (!in.readBoolean()) {
+      return null;
+    }
+    long value = readVarLong();
+    return (value >>> 1) ^ -(value & 1);
+  }
+
+  boolean readBoolean() throws IOException {
+    return in.readBoolean();
+  }
+
+  @SuppressWarnings("unchecked")
+  <K, V> Map<K, V> readMap() throws IOException, ClassNotFoundException {
+    int tag = readVarInt();
+    switch (tag) {
+    case NULL_MAP:
+      return null;
+    case STRING_KEYS_MAP:
+      int size = readVarInt();
+      Map<String, Object> map = new LinkedHashMap<>();
+      for (int i = 0; i < size; i++) {
+        String key = readString();
+        map.put(key, in.readBoolean() ? readString() : in.readObject());
+      }
+      return (Map<K, V>) map;
+    case OBJECT_MAP:
+      return (Map<K, V>) in.readObject();
+    default:
+      throw new StreamCorruptedException("Unknown map type " + tag);
+    }
+  }
+
+  @SuppressWarnings("unchecked")
+  <T> T readObject() throws IOException, ClassNotFoundException {
+    return (T) in.readObject();
+  }
+
+  int readVarInt() throws IOException {
+    return (int) readVarLong();
+  }
+
+  long readVarLong() throws IOException {
+    long value = 0;
+    for (int shift = 0; shift < 64; shift += 7) {
+      byte b = in.readByte();
+      value |= (long) (b & 0x7F) << shift;
+      if ((b & 0x80) == 0) {
+        return value;
+      }
+    }
+    throw new StreamCorruptedException("Malformed variable length number");
+  }
+
+}
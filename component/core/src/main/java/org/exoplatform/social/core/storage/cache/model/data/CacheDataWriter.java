@@ -0,0 +1,180 @@
+/*
+ * This file is part of the Meeds project (https://meeds.io/).
+ * Copyright (C) 2022 Meeds Association contact@meeds.io
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package org.exoplatform.social.core.storage.cache.model.data;
+
+import java.io.IOException;
+import java.io.ObjectOutput;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Compact encoding of the cached data replicated across the cluster, read by
+ * {@link CacheDataReader}:
+ * <ul>
+ * <li>each written entry starts with the version of its format,</li>
+ * <li>a string already written in the same entry is replaced by its index,
+ * which shrinks the ids repeated in likers, mentioners, commenters or space
+ * roles,</li>
+ * <li>numeric ids and numbers are written as variable length integers.</li>
+ * </ul>
+ */
+final class CacheDataWriter {
+
+  static final int                   NULL_STRING     = 0;
+
+  static final int                   NUMERIC_STRING  = 1;
+
+  static final int                   TEXT_STRING     = 2;
+
+  /** First tag of the references to already written strings */
+  static final int                   STRING_REF      = 3;
+
+  static final int                   NULL_MAP        = 0;
+
+  static final int                   STRING_KEYS_MAP = 1;
+
+  static final int                   OBJECT_MAP      = 2;
+
+  /** Maximum number of digits of a numeric id which fits in a long */
+  static final int                   MAX_DIGITS      = 18;
+
+  private final ObjectOutput         out;
+
+  private final Map<String, Integer> strings         = new HashMap<>();
+
+  CacheDataWriter(ObjectOutput out, int version) throws IOException {
+    this.out = out;
+    writeVarInt(version);
+  }
+
+  void writeString(String value) throws IOException {
+    if (value == null) {
+      writeVarInt(NULL_STRING);
+      return;
+    }
+    Integer index = strings.get(value);
+    if (index != null) {
+      writeVarInt(STRING_REF + index);
+      return;
+    }
+    strings.put(value, strings.size());
+    if (isNumeric(value)) {
+      writeVarInt(NUMERIC_STRING);
+      writeVarLong(Long.parseLong(value));
+    } else {
+      byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+      writeVarInt(TEXT_STRING);
+      writeVarInt(bytes.length);
+      out.write(bytes);
+    }
+  }
+
+  void writeStrings(String[] values) throws IOException {
+    if (values == null) {
+      writeVarInt(0);
+      return;
+    }
+    writeVarInt(values.length + 1);
+    for (String value : values) {
+      writeString(value);
+    }
+  }
+
+  void writeLong(Long value) throws IOException {
+    out.writeBoolean(value != null);
+    if (value != null) {
+      // Zigzag encoding keeps small negative values short
+      writeVarLong((value << 1) ^ (value >> 63));
+    }
+  }
+
+  void writeBoolean(boolean value) throws IOException {
+    out.writeBoolean(value);
+  }
+
+  /**
+   * Writes the entries of a map with string keys one by one, the string values
+   * being encoded as the other strings and the other values being serialized.
+   * Any other map is serialized as a whole.
+   */
+  void writeMap(Map<?, ?> map) throws IOException {
+    if (map == null) {
+      writeVarInt(NULL_MAP);
+    } else if (hasStringKeys(map)) {
+      writeVarInt(STRING_KEYS_MAP);
+      writeVarInt(map.size());
+      for (Map.Entry<?, ?> entry : map.entrySet()) {
+        writeString((String) entry.getKey());
+        Object value = entry.getValue();
+        boolean isString = value == null || value instanceof String;
+        out.writeBoolean(isString);
+        if (isString) {
+          writeString((String) value);
+        } else {
+          out.writeObject(value);
+        }
+      }
+    } else {
+      writeVarInt(OBJECT_MAP);
+      out.writeObject(map);
+    }
+  }
+
+  void writeObject(Object value) throws IOException {
+    out.writeObject(value);
+  }
+
+  void writeVarInt(int value) throws IOException {
+    writeVarLong(value & 0xFFFFFFFFL);
+  }
+
+  void writeVarLong(long value) throws IOException {
+    while ((value & ~0x7FL) != 0) {
+      out.writeByte((int) ((value & 0x7F) | 0x80));
+      value >>>= 7;
+    }
+    out.writeByte((int) value);
+  }
+
+  /**
+   * @return true when the value is the canonical decimal representation of a
+   *         positive long, thus it's read back identically
+   */
+  static boolean isNumeric(String value) {
+    int length = value.length();
+    if (length == 0 || length > MAX_DIGITS || (length > 1 && value.charAt(0) == '0')) {
+      return false;
+    }
+    for (int i = 0; i < length; i++) {
+      char c = value.charAt(i);
+      if (c < '0' || c > '9') {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private static boolean hasStringKeys(Map<?, ?> map) {
+    for (Object key : map.keySet()) {
+      if (!(key instanceof String)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+}
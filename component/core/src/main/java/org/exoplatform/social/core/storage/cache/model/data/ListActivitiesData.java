@@ -33,5 +33,19 @@ public class ListActivitiesData extends AbstractListData<ActivityKey> {
   public ListActivitiesData(final List<ActivityKey> ids) {
     super(ids);
   }
+
+  public ListActivitiesData() {
+    // Used by deserialization
+  }
+
+  @Override
+  protected String getId(ActivityKey key) {
+    return key.getId();
+  }
+
+  @Override
+  protected ActivityKey newKey(String id) {
+    return new ActivityKey(id);
+  }
   
 }
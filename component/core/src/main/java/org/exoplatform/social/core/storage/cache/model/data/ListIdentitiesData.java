@@ -17,6 +17,7 @@
 
 package org.exoplatform.social.core.storage.cache.model.data;
 
+import org.exoplatform.social.core.identity.model.Identity;
 import org.exoplatform.social.core.storage.cache.model.key.IdentityKey;
 
 import java.util.List;
@@ -34,4 +35,18 @@ public class ListIdentitiesData extends AbstractListData<IdentityKey> {
     super(ids);
   }
 
+  public ListIdentitiesData() {
+    // Used by deserialization
+  }
+
+  @Override
+  protected String getId(IdentityKey key) {
+    return key.getId();
+  }
+
+  @Override
+  protected IdentityKey newKey(String id) {
+    return new IdentityKey(new Identity(id));
+  }
+
 }
@@ -34,4 +34,18 @@ public class ListRelationshipsData extends AbstractListData<RelationshipKey> {
     super(ids);
   }
 
+  public ListRelationshipsData() {
+    // Used by deserialization
+  }
+
+  @Override
+  protected String getId(RelationshipKey key) {
+    return key.getId();
+  }
+
+  @Override
+  protected RelationshipKey newKey(String id) {
+    return new RelationshipKey(id);
+  }
+
 }
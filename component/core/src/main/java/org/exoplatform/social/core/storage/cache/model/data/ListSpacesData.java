@@ -33,5 +33,19 @@ public class ListSpacesData extends AbstractListData<SpaceKey> {
   public ListSpacesData(final List<SpaceKey> ids) {
     super(ids);
   }
+
+  public ListSpacesData() {
+    // Used by deserialization
+  }
+
+  @Override
+  protected String getId(SpaceKey key) {
+    return key.getId();
+  }
+
+  @Override
+  protected SpaceKey newKey(String id) {
+    return new SpaceKey(id);
+  }
   
 }
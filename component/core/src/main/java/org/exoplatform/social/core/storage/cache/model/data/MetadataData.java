@@ -0,0 +1,49 @@
+/*
+ * This file is part of the Meeds project (https://meeds.io/).
+ * Copyright (C) 2020 - 2021 Meeds Association contact@meeds.io
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package org.exoplatform.social.core.storage.cache.model.data;
+
+import java.util.HashMap;
+
+import org.exoplatform.social.metadata.model.Metadata;
+
+/**
+ * Immutable metadata data. A null metadata is cached to avoid retrieving again
+ * a metadata that doesn't exist.
+ */
+public class MetadataData implements CacheData<Metadata> {
+  private static final long serialVersionUID = -1528046012948377352L;
+
+  private final Metadata metadata;
+
+  public MetadataData(Metadata metadata) {
+    this.metadata = metadata == null ? null : copy(metadata);
+  }
+
+  public Metadata build() {
+    return metadata == null ? null : copy(metadata);
+  }
+
+  static Metadata copy(Metadata metadata) {
+    return new Metadata(metadata.getId(),
+                        metadata.getType(),
+                        metadata.getName(),
+                        metadata.getAudienceId(),
+                        metadata.getCreatorId(),
+                        metadata.getCreatedDate(),
+                        metadata.getProperties() == null ? null : new HashMap<>(metadata.getProperties()));
+  }
+
+}
@@ -0,0 +1,62 @@
+/*
+ * This file is part of the Meeds project (https://meeds.io/).
+ * Copyright (C) 2020 - 2021 Meeds Association contact@meeds.io
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package org.exoplatform.social.core.storage.cache.model.data;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+
+import org.exoplatform.social.metadata.model.MetadataItem;
+
+/**
+ * Immutable list of metadata items attached to an object.
+ */
+public class MetadataItemsData implements CacheData<List<MetadataItem>> {
+  private static final long             serialVersionUID = 7723017716302596404L;
+
+  private final ArrayList<MetadataItem> metadataItems;
+
+  public MetadataItemsData(List<MetadataItem> metadataItems) {
+    this.metadataItems = new ArrayList<>();
+    if (metadataItems != null) {
+      metadataItems.forEach(metadataItem -> this.metadataItems.add(copy(metadataItem)));
+    }
+  }
+
+  public List<MetadataItem> build() {
+    if (metadataItems.isEmpty()) {
+      return Collections.emptyList();
+    }
+    List<MetadataItem> result = new ArrayList<>(metadataItems.size());
+    metadataItems.forEach(metadataItem -> result.add(copy(metadataItem)));
+    return result;
+  }
+
+  public List<MetadataItem> getMetadataItems() {
+    return Collections.unmodifiableList(metadataItems);
+  }
+
+  private static MetadataItem copy(MetadataItem metadataItem) {
+    return new MetadataItem(metadataItem.getId(),
+                            metadataItem.getMetadata() == null ? null : MetadataData.copy(metadataItem.getMetadata()),
+                            metadataItem.getObject() == null ? null : metadataItem.getObject().clone(),
+                            metadataItem.getCreatorId(),
+                            metadataItem.getCreatedDate(),
+                            metadataItem.getProperties() == null ? null : new HashMap<>(metadataItem.getProperties()));
+  }
+
+}
@@ -20,22 +20,29 @@ package org.exoplatform.social.core.storage.cache.model.data;
 import org.exoplatform.social.core.identity.model.Identity;
 import org.exoplatform.social.core.identity.model.Profile;
 
+import java.io.Externalizable;
+import java.io.IOException;
+import java.io.ObjectInput;
+import java.io.ObjectOutput;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Objects;
 
 /**
- * Immutable profile data.
+ * Immutable profile data, written in a compact format when replicated across
+ * the cluster.
  *
  * @author <a href="mailto:alain.defrance@exoplatform.com">Alain Defrance</a>
  * @version $Revision$
  */
-public class ProfileData implements CacheData<Profile> {
+public class ProfileData implements CacheData<Profile>, Externalizable {
   public static final ProfileData NULL_OBJECT = new ProfileData(null);
 
   private static final long serialVersionUID = 1308337180458451775L;
 
+  private static final int FORMAT_VERSION = 1;
+
   private String profileId;
 
   private String identityId;
@@ -60,6 +67,10 @@ public class ProfileData implements CacheData<Profile> {
   
   private Long createdTime;
 
+  public ProfileData() {
+    // Used by deserialization
+  }
+
   public ProfileData(final Profile profile) {
     if(profile == null) {
       this.data = Collections.unmodifiableMap(new HashMap<>());
@@ -123,6 +134,41 @@ public class ProfileData implements CacheData<Profile> {
     return profile;
   }
 
+  @Override
+  public void writeExternal(ObjectOutput out) throws IOException {
+    CacheDataWriter writer = new CacheDataWriter(out, FORMAT_VERSION);
+    writer.writeString(profileId);
+    writer.writeString(identityId);
+    writer.writeString(providerId);
+    writer.writeString(remoteId);
+    writer.writeBoolean(hasChanged);
+    writer.writeMap(data);
+    writer.writeString(url);
+    writer.writeString(avatarUrl);
+    writer.writeString(bannerUrl);
+    writer.writeLong(avatarLastUpdated);
+    writer.writeLong(bannerLastUpdated);
+    writer.writeLong(createdTime);
+  }
+
+  @Override
+  public void readExternal(ObjectInput in) throws IOException, ClassNotFoundException {
+    CacheDataReader reader = new CacheDataReader(in, ProfileData.class, FORMAT_VERSION);
+    profileId = reader.readString();
+    identityId = reader.readString();
+    providerId = reader.readString();
+    remoteId = reader.readString();
+    hasChanged = reader.readBoolean();
+    Map<String, Object> properties = reader.readMap();
+    data = Collections.unmodifiableMap(properties == null ? new HashMap<>() : properties);
+    url = reader.readString();
+    avatarUrl = reader.readString();
+    bannerUrl = reader.readString();
+    avatarLastUpdated = reader.readLong();
+    bannerLastUpdated = reader.readLong();
+    createdTime = reader.readLong();
+  }
+
   @Override
   public boolean equals(Object o) {
     if (this == o) return true;
@@ -19,43 +19,54 @@ package org.exoplatform.social.core.storage.cache.model.data;
 
 import org.exoplatform.social.core.space.model.Space;
 
+import java.io.Externalizable;
+import java.io.IOException;
+import java.io.ObjectInput;
+import java.io.ObjectOutput;
 import java.util.Arrays;
 import java.util.Objects;
 
 /**
- * Immutable space data.
+ * Immutable space data, written in a compact format when replicated across
+ * the cluster.
  *
  * @author <a href="mailto:alain.defrance@exoplatform.com">Alain Defrance</a>
  * @version $Revision$
  */
-public class SpaceData implements CacheData<Space> {
+public class SpaceData implements CacheData<Space>, Externalizable {
   private static final long serialVersionUID = 6109309246791818373L;
 
-  private final String id;
-  private final String app;
-  private final String prettyName;
-  private final String displayName;
-  private final String registration;
-  private final String description;
-  private final String type;
-  private final String visibility;
-  private final String priority;
-  private final String avatarUrl;
-  private final String bannerUrl;
-  private final String groupId;
-  private final String url;
-  private final Long avatarLastUpdated;
-  private final Long bannerLastUpdated;
-  private final Long createdTime;
-  private final Long lastUpdatedTime;
-  private final long cacheTime;
-
-  private final String[] members;
-  private final String[] redactors;
-  private final String[] publishers;
-  private final String[] managers;
-  private final String[] pendingUser;
-  private final String[] invitedUser;
+  private static final int FORMAT_VERSION = 1;
+
+  private String id;
+  private String app;
+  private String prettyName;
+  private String displayName;
+  private String registration;
+  private String description;
+  private String type;
+  private String visibility;
+  private String priority;
+  private String avatarUrl;
+  private String bannerUrl;
+  private String groupId;
+  private String url;
+  private Long avatarLastUpdated;
+  private Long bannerLastUpdated;
+  private Long createdTime;
+  private Long lastUpdatedTime;
+  private long cacheTime;
+
+  private String[] members;
+  private String[] redactors;
+  private String[] publishers;
+  private String[] managers;
+  private String[] pendingUser;
+  private String[] invitedUser;
+
+  public SpaceData() {
+    // Used by deserialization
+  }
 
   public SpaceData(final Space space) {
 
@@ -196,6 +207,64 @@ public class SpaceData implements CacheData<Space> {
     return bannerUrl;
   }
 
+  @Override
+  public void writeExternal(ObjectOutput out) throws IOException {
+    CacheDataWriter writer = new CacheDataWriter(out, FORMAT_VERSION);
+    writer.writeString(id);
+    writer.writeString(app);
+    writer.writeString(prettyName);
+    writer.writeString(displayName);
+    writer.writeString(registration);
+    writer.writeString(description);
+    writer.writeString(type);
+    writer.writeString(visibility);
+    writer.writeString(priority);
+    writer.writeString(avatarUrl);
+    writer.writeString(bannerUrl);
+    writer.writeString(groupId);
+    writer.writeString(url);
+    writer.writeLong(avatarLastUpdated);
+    writer.writeLong(bannerLastUpdated);
+    writer.writeLong(createdTime);
+    writer.writeLong(lastUpdatedTime);
+    writer.writeLong(cacheTime);
+    writer.writeStrings(members);
+    writer.writeStrings(redactors);
+    writer.writeStrings(publishers);
+    writer.writeStrings(managers);
+    writer.writeStrings(pendingUser);
+    writer.writeStrings(invitedUser);
+  }
+
+  @Override
+  public void readExternal(ObjectInput in) throws IOException {
+    CacheDataReader reader = new CacheDataReader(in, SpaceData.class, FORMAT_VERSION);
+    id = reader.readString();
+    app = reader.readString();
+    prettyName = reader.readString();
+    displayName = reader.readString();
+    registration = reader.readString();
+    description = reader.readString();
+    type = reader.readString();
+    visibility = reader.readString();
+    priority = reader.readString();
+    avatarUrl = reader.readString();
+    bannerUrl = reader.readString();
+    groupId = reader.readString();
+    url = reader.readString();
+    avatarLastUpdated = reader.readLong();
+    bannerLastUpdated = reader.readLong();
+    createdTime = reader.readLong();
+    lastUpdatedTime = reader.readLong();
+    cacheTime = reader.readLong();
+    members = reader.readStrings();
+    redactors = reader.readStrings();
+    publishers = reader.readStrings();
+    managers = reader.readStrings();
+    pendingUser = reader.readStrings();
+    invitedUser = reader.readStrings();
+  }
+
   @Override
   public boolean equals(Object o) {
     if (this == o) return true;
@@ -45,6 +45,9 @@ public class ActivityCountKey implements CacheKey {
   
   private String[] activityTypes;
 
+  /** Generation of the streams read by the counted or listed activities */
+  private long generation;
+
   public ActivityCountKey(final IdentityKey key, final ActivityType type) {
     this.key = key;
     this.type = type;
@@ -98,6 +101,39 @@ public class ActivityCountKey implements CacheKey {
     return activityKey;
   }
 
+  public String getBaseId() {
+    return baseId;
+  }
+
+  public ActivityType getType() {
+    return type;
+  }
+
+  public ActivityFilter getActivityFilter() {
+    return activityFilter;
+  }
+
+  public long getGeneration() {
+    return generation;
+  }
+
+  /**
+   * @param generation generation of the streams read by the counted or listed
+   *          activities
+   * @return a copy of this key with the given generation
+   */
+  public ActivityCountKey withGeneration(long generation) {
+    ActivityCountKey generationKey = new ActivityCountKey(key, type);
+    generationKey.viewerKey = viewerKey;
+    generationKey.activityKey = activityKey;
+    generationKey.baseId = baseId;
+    generationKey.activityFilter = activityFilter;
+    generationKey.time = time;
+    generationKey.activityTypes = activityTypes;
+    generationKey.generation = generation;
+    return generationKey;
+  }
+
   @Override
   public boolean equals(final Object o) {
     if (this == o) {
@@ -133,6 +169,9 @@ public class ActivityCountKey implements CacheKey {
     if (time != that.time) {
       return false;
     }
+    if (generation != that.generation) {
+      return false;
+    }
 
     return true;
   }
@@ -147,6 +186,7 @@ public class ActivityCountKey implements CacheKey {
     result = 31 * result + (baseId != null ? baseId.hashCode() : 0);
     result = 31 * result + (type != null ? type.hashCode() : 0);
     result = 31 * result + (time != null ? time.hashCode() : 0);
+    result = 31 * result + Long.hashCode(generation);
     return result;
   }
 
@@ -0,0 +1,74 @@
+/*
+ * This file is part of the Meeds project (https://meeds.io/).
+ * Copyright (C) 2020 - 2021 Meeds Association contact@meeds.io
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package org.exoplatform.social.core.storage.cache.model.key;
+
+import java.util.Objects;
+
+import org.exoplatform.social.metadata.model.MetadataKey;
+
+/**
+ * Immutable metadata key, identifying a metadata by its type name, name and
+ * audience.
+ */
+public class MetadataCompositeKey implements CacheKey {
+  private static final long serialVersionUID = -3260471539587384362L;
+
+  private final String type;
+
+  private final String name;
+
+  private final long   audienceId;
+
+  public MetadataCompositeKey(MetadataKey metadataKey) {
+    this(metadataKey.getType(), metadataKey.getName(), metadataKey.getAudienceId());
+  }
+
+  public MetadataCompositeKey(String type, String name, long audienceId) {
+    this.type = type;
+    this.name = name;
+    this.audienceId = audienceId;
+  }
+
+  public String getType() {
+    return type;
+  }
+
+  public String getName() {
+    return name;
+  }
+
+  public long getAudienceId() {
+    return audienceId;
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (!(o instanceof MetadataCompositeKey)) {
+      return false;
+    }
+    MetadataCompositeKey that = (MetadataCompositeKey) o;
+    return audienceId == that.audienceId && Objects.equals(type, that.type) && Objects.equals(name, that.name);
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hash(type, name, audienceId);
+  }
+
+}
@@ -0,0 +1,67 @@
+/*
+ * This file is part of the Meeds project (https://meeds.io/).
+ * Copyright (C) 2020 - 2021 Meeds Association contact@meeds.io
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package org.exoplatform.social.core.storage.cache.model.key;
+
+import java.util.Objects;
+
+import org.exoplatform.social.metadata.model.MetadataObject;
+
+/**
+ * Immutable metadata object key, identifying an object to which metadata items
+ * are attached by its type and identifier.
+ */
+public class MetadataObjectKey implements CacheKey {
+  private static final long serialVersionUID = 2218571806460128737L;
+
+  private final String objectType;
+
+  private final String objectId;
+
+  public MetadataObjectKey(MetadataObject metadataObject) {
+    this(metadataObject.getType(), metadataObject.getId());
+  }
+
+  public MetadataObjectKey(String objectType, String objectId) {
+    this.objectType = objectType;
+    this.objectId = objectId;
+  }
+
+  public String getObjectType() {
+    return objectType;
+  }
+
+  public String getObjectId() {
+    return objectId;
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (!(o instanceof MetadataObjectKey)) {
+      return false;
+    }
+    MetadataObjectKey that = (MetadataObjectKey) o;
+    return Objects.equals(objectType, that.objectType) && Objects.equals(objectId, that.objectId);
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hash(objectType, objectId);
+  }
+
+}
@@ -0,0 +1,68 @@
+/*
+ * This file is part of the Meeds project (https://meeds.io/).
+ * Copyright (C) 2022 Meeds Association contact@meeds.io
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package org.exoplatform.social.core.storage.cache.model.key;
+
+import java.util.Objects;
+
+/**
+ * Immutable key of the role of a user in a space.
+ */
+public class SpaceMembershipKey implements CacheKey {
+  private static final long serialVersionUID = 3203185296390214283L;
+
+  private final String      spaceId;
+
+  private final String      userId;
+
+  private final String      status;
+
+  public SpaceMembershipKey(final String spaceId, final String userId, final String status) {
+    this.spaceId = spaceId;
+    this.userId = userId;
+    this.status = status;
+  }
+
+  public String getSpaceId() {
+    return spaceId;
+  }
+
+  public String getUserId() {
+    return userId;
+  }
+
+  public String getStatus() {
+    return status;
+  }
+
+  @Override
+  public boolean equals(final Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (!(o instanceof SpaceMembershipKey)) {
+      return false;
+    }
+    SpaceMembershipKey that = (SpaceMembershipKey) o;
+    return Objects.equals(spaceId, that.spaceId) && Objects.equals(userId, that.userId)
+        && Objects.equals(status, that.status);
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hash(spaceId, userId, status);
+  }
+
+}
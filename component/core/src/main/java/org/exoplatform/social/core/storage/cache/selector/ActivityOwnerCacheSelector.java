@@ -17,6 +17,9 @@
 
 package org.exoplatform.social.core.storage.cache.selector;
 
+import java.util.Collections;
+import java.util.Set;
+
 import org.exoplatform.services.cache.ObjectCacheInfo;
 import org.exoplatform.social.core.storage.cache.model.data.ActivityData;
 import org.exoplatform.social.core.storage.cache.model.key.ActivityKey;
@@ -27,6 +30,8 @@ import org.exoplatform.social.core.storage.cache.model.key.ActivityKey;
  */
 public class ActivityOwnerCacheSelector extends CacheSelector<ActivityKey, ActivityData> {
 
+  private static final String INDEX_PREFIX = "owner:";
+
   private String ownerId;
 
   public ActivityOwnerCacheSelector(final String ownerId) {
@@ -54,4 +59,20 @@ public class ActivityOwnerCacheSelector extends CacheSelector<ActivityKey, Activ
 
   }
 
+  public String getIndexValue() {
+    return INDEX_PREFIX + ownerId;
+  }
+
+  /**
+   * @param data cached activity
+   * @return the values under which the activity is indexed, so that it's
+   *         found by {@link #getIndexValue()}
+   */
+  public static Set<String> getIndexValues(ActivityData data) {
+    if (data == null || data.getUserId() == null) {
+      return Collections.emptySet();
+    }
+    return Collections.singleton(INDEX_PREFIX + data.getUserId());
+  }
+
 }
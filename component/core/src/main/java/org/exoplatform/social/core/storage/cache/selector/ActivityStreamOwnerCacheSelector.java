@@ -17,6 +17,9 @@
 
 package org.exoplatform.social.core.storage.cache.selector;
 
+import java.util.Collections;
+import java.util.Set;
+
 import org.exoplatform.services.cache.ObjectCacheInfo;
 import org.exoplatform.social.core.storage.cache.model.data.ActivityData;
 import org.exoplatform.social.core.storage.cache.model.key.ActivityKey;
@@ -26,6 +29,8 @@ import org.exoplatform.social.core.storage.cache.model.key.ActivityKey;
  */
 public class ActivityStreamOwnerCacheSelector extends CacheSelector<ActivityKey, ActivityData> {
 
+  private static final String INDEX_PREFIX = "streamOwner:";
+
   private String streamOwner;
 
   public ActivityStreamOwnerCacheSelector(final String streamOwner) {
@@ -50,4 +55,20 @@ public class ActivityStreamOwnerCacheSelector extends CacheSelector<ActivityKey,
     return false;
   }
 
+  public String getIndexValue() {
+    return INDEX_PREFIX + streamOwner;
+  }
+
+  /**
+   * @param data cached activity
+   * @return the values under which the activity is indexed, so that it's
+   *         found by {@link #getIndexValue()}
+   */
+  public static Set<String> getIndexValues(ActivityData data) {
+    if (data == null || data.getStreamOwner() == null) {
+      return Collections.emptySet();
+    }
+    return Collections.singleton(INDEX_PREFIX + data.getStreamOwner());
+  }
+
 }
@@ -17,6 +17,9 @@
 
 package org.exoplatform.social.core.storage.cache.selector;
 
+import java.util.Collections;
+import java.util.Set;
+
 import org.apache.commons.lang.StringUtils;
 
 import org.exoplatform.services.cache.ObjectCacheInfo;
@@ -62,4 +65,26 @@ public class IdentityCacheSelector extends CacheSelector<CacheKey, Object> {
 
   }
 
+  public String getIndexValue() {
+    return provider;
+  }
+
+  /**
+   * @param key cached identities list or count key
+   * @return the values under which the key is indexed, so that it's found by
+   *         {@link #getIndexValue()}
+   */
+  public static Set<String> getIndexValues(final CacheKey key) {
+
+    String providerId = null;
+    if (key instanceof IdentityFilterKey) {
+      providerId = ((IdentityFilterKey) key).getProviderId();
+    } else if (key instanceof ListIdentitiesKey && ((ListIdentitiesKey) key).getKey() != null) {
+      providerId = ((ListIdentitiesKey) key).getKey().getProviderId();
+    }
+
+    return providerId == null ? Collections.emptySet() : Collections.singleton(providerId);
+
+  }
+
 }
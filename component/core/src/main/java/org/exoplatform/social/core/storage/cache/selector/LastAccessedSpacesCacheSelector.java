@@ -15,6 +15,9 @@ import org.exoplatform.social.core.storage.cache.model.key.*;
 /**
  * Cache selector for last accessed spaces.
  * It select all cache entries for the given userId and for space type LATEST_ACCESSED or VISITED.
+ * The first page of the LATEST_ACCESSED lists is reordered in place and the
+ * VISITED lists are kept when the space is already visited, the other entries
+ * are removed.
  */
 public class LastAccessedSpacesCacheSelector extends CacheSelector<ListSpacesKey, ListSpacesData> {
 
@@ -22,13 +25,17 @@ public class LastAccessedSpacesCacheSelector extends CacheSelector<ListSpacesKey
 
   private Space                     space;
 
-  private SocialStorageCacheService cacheService;
+  private boolean                   visited;
 
-  private boolean                   updateStore = true;
+  private SocialStorageCacheService cacheService;
 
-  public LastAccessedSpacesCacheSelector(String remoteId, Space space, SocialStorageCacheService cacheService) {
+  public LastAccessedSpacesCacheSelector(String remoteId,
+                                         Space space,
+                                         boolean visited,
+                                         SocialStorageCacheService cacheService) {
     this.remoteId = remoteId;
     this.space = space;
+    this.visited = visited;
     this.cacheService = cacheService;
   }
 
@@ -56,8 +63,8 @@ public class LastAccessedSpacesCacheSelector extends CacheSelector<ListSpacesKey
       ListSpacesData listSpacesData = objectCacheInfo.get();
       List<SpaceKey> ids = listSpacesData.getIds();
       if (ids != null && !ids.isEmpty()) {
-        if (ids.get(0).getId().equals(space.getId())) {
-          updateStore = false;
+        if (ids.get(0).getId().equals(space.getId())
+            || (visited && SpaceType.VISITED.equals(listSpacesKey.getKey().getType()))) {
           return;
         } else if (StringUtils.isBlank(listSpacesKey.getKey().getAppId()) && listSpacesKey.getOffset() == 0
             && SpaceType.LATEST_ACCESSED.equals(listSpacesKey.getKey().getType())) {
@@ -94,8 +101,4 @@ public class LastAccessedSpacesCacheSelector extends CacheSelector<ListSpacesKey
       cacheService.getSpacesCountCache().remove(listSpacesKey);
     }
   }
-
-  public boolean isUpdateStore() {
-    return updateStore;
-  }
 }
@@ -0,0 +1,46 @@
+/*
+ * This file is part of the Meeds project (https://meeds.io/).
+ * Copyright (C) 2020 - 2021 Meeds Association contact@meeds.io
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package org.exoplatform.social.core.storage.cache.selector;
+
+import java.util.function.Predicate;
+
+import org.exoplatform.services.cache.ObjectCacheInfo;
+import org.exoplatform.social.core.storage.cache.model.data.MetadataItemsData;
+import org.exoplatform.social.core.storage.cache.model.key.MetadataObjectKey;
+import org.exoplatform.social.metadata.model.MetadataItem;
+
+/**
+ * Selects the cached lists of metadata items containing at least one item
+ * matching a given predicate, in order to invalidate them.
+ */
+public class MetadataItemsCacheSelector extends CacheSelector<MetadataObjectKey, MetadataItemsData> {
+
+  private final Predicate<MetadataItem> predicate;
+
+  public MetadataItemsCacheSelector(Predicate<MetadataItem> predicate) {
+    this.predicate = predicate;
+  }
+
+  @Override
+  public boolean select(MetadataObjectKey key, ObjectCacheInfo<? extends MetadataItemsData> ocinfo) {
+    if (ocinfo == null) {
+      return true;
+    }
+    MetadataItemsData data = ocinfo.get();
+    return data != null && data.getMetadataItems().stream().anyMatch(predicate);
+  }
+
+}
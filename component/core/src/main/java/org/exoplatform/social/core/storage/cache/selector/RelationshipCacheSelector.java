@@ -17,9 +17,12 @@
 
 package org.exoplatform.social.core.storage.cache.selector;
 
+import java.util.*;
+
 import org.apache.commons.lang3.StringUtils;
 
 import org.exoplatform.services.cache.ObjectCacheInfo;
+import org.exoplatform.social.core.storage.cache.CacheKeysIndex;
 import org.exoplatform.social.core.storage.cache.model.key.*;
 
 /**
@@ -79,4 +82,42 @@ public class RelationshipCacheSelector extends CacheSelector<CacheKey, Object> {
 
   }
 
+  public Set<String> getIndexValues() {
+    return new HashSet<>(Arrays.asList(target));
+  }
+
+  /**
+   * @param key cached relationships list or count key
+   * @return the identity ids under which the key is indexed, so that it's
+   *         found by {@link #getIndexValues()}
+   */
+  public static Set<String> getIndexValues(final CacheKey key) {
+
+    Object relationshipKey;
+    if (key instanceof ListRelationshipsKey) {
+      relationshipKey = ((ListRelationshipsKey<?>) key).getKey();
+    } else if (key instanceof RelationshipCountKey) {
+      relationshipKey = ((RelationshipCountKey<?>) key).getKey();
+    } else {
+      return Collections.emptySet();
+    }
+
+    if (relationshipKey instanceof IdentityKey) {
+      return Collections.singleton(((IdentityKey) relationshipKey).getId());
+    } else if (key instanceof RelationshipCountKey && relationshipKey instanceof RelationshipIdentityKey) {
+      RelationshipIdentityKey idKey = (RelationshipIdentityKey) relationshipKey;
+      Set<String> indexValues = new HashSet<>();
+      if (idKey.getIdentityId1() != null) {
+        indexValues.add(idKey.getIdentityId1());
+      }
+      if (idKey.getIdentityId2() != null) {
+        indexValues.add(idKey.getIdentityId2());
+      }
+      return indexValues;
+    }
+
+    return Collections.singleton(CacheKeysIndex.ANY);
+
+  }
+
 }
@@ -0,0 +1,58 @@
+/*
+ * This file is part of the Meeds project (https://meeds.io/).
+ * Copyright (C) 2022 Meeds Association contact@meeds.io
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package org.exoplatform.social.core.storage.cache.selector;
+
+import java.util.Collections;
+import java.util.Set;
+
+import org.exoplatform.services.cache.ObjectCacheInfo;
+import org.exoplatform.social.core.storage.cache.model.key.SpaceMembershipKey;
+
+/**
+ * Selects the cached roles of the users of a space.
+ */
+public class SpaceMembershipCacheSelector extends CacheSelector<SpaceMembershipKey, Boolean> {
+
+  private String spaceId;
+
+  public SpaceMembershipCacheSelector(final String spaceId) {
+
+    if (spaceId == null) {
+      throw new NullPointerException();
+    }
+
+    this.spaceId = spaceId;
+  }
+
+  @Override
+  public boolean select(final SpaceMembershipKey key, final ObjectCacheInfo<? extends Boolean> ocinfo) {
+    return super.select(key, ocinfo) && spaceId.equals(key.getSpaceId());
+  }
+
+  public String getIndexValue() {
+    return spaceId;
+  }
+
+  /**
+   * @param key cached role key
+   * @return the values under which the key is indexed, so that it's found by
+   *         {@link #getIndexValue()}
+   */
+  public static Set<String> getIndexValues(final SpaceMembershipKey key) {
+    return key.getSpaceId() == null ? Collections.emptySet() : Collections.singleton(key.getSpaceId());
+  }
+
+}
@@ -16,7 +16,10 @@
  */
 package org.exoplatform.social.core.storage.cache.selector;
 
+import java.util.*;
+
 import org.exoplatform.services.cache.ObjectCacheInfo;
+import org.exoplatform.social.core.storage.cache.CacheKeysIndex;
 import org.exoplatform.social.core.storage.cache.model.data.SuggestionsData;
 import org.exoplatform.social.core.storage.cache.model.key.*;
 
@@ -64,5 +67,32 @@ public class SuggestionCacheSelector extends CacheSelector<CacheKey, Object> {
     }
     return false;
   }
+
+  public Set<String> getIndexValues() {
+    return new HashSet<>(Arrays.asList(target));
+  }
+
+  /**
+   * @param key cached suggestions key
+   * @param value cached suggestions
+   * @return the identity ids under which the suggestions are indexed, so that
+   *         they're found by {@link #getIndexValues()}
+   */
+  public static Set<String> getIndexValues(CacheKey key, Object value) {
+
+    if (!(key instanceof SuggestionKey) || !(((SuggestionKey<?>) key).getKey() instanceof IdentityKey)) {
+      return Collections.emptySet();
+    }
+
+    Set<String> indexValues = new HashSet<>();
+    indexValues.add(((IdentityKey) ((SuggestionKey<?>) key).getKey()).getId());
+    if (value == null) {
+      indexValues.add(CacheKeysIndex.ANY);
+    } else if (value instanceof SuggestionsData && ((SuggestionsData) value).getMap() != null) {
+      indexValues.addAll(((SuggestionsData) value).getMap().keySet());
+    }
+    return indexValues;
+
+  }
   
 }
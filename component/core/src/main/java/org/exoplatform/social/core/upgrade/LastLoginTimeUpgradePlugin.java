@@ -0,0 +1,94 @@
+/*
+ * This file is part of the Meeds project (https://meeds.io/).
+ * Copyright (C) 2022 Meeds Association contact@meeds.io
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package org.exoplatform.social.core.upgrade;
+
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
+import java.util.List;
+import java.util.Locale;
+
+import org.apache.commons.lang3.StringUtils;
+
+import org.exoplatform.commons.upgrade.UpgradeProductPlugin;
+import org.exoplatform.container.xml.InitParams;
+import org.exoplatform.services.log.ExoLogger;
+import org.exoplatform.services.log.Log;
+import org.exoplatform.social.core.identity.model.Profile;
+import org.exoplatform.social.core.jpa.storage.dao.IdentityDAO;
+import org.exoplatform.social.core.jpa.storage.entity.IdentityEntity;
+
+/**
+ * Converts the last login times of the profiles, which were stored as
+ * {@link java.util.Date#toString()}, to epoch milliseconds, so that they can be
+ * compared when searching the active users.
+ */
+public class LastLoginTimeUpgradePlugin extends UpgradeProductPlugin {
+
+  private static final Log    LOG                   = ExoLogger.getLogger(LastLoginTimeUpgradePlugin.class);
+
+  private static final int    PAGE_SIZE             = 100;
+
+  /** Format of {@link java.util.Date#toString()} */
+  private static final String DATE_TO_STRING_FORMAT = "EEE MMM dd HH:mm:ss zzz yyyy";
+
+  private final IdentityDAO   identityDAO;
+
+  public LastLoginTimeUpgradePlugin(IdentityDAO identityDAO, InitParams initParams) {
+    super(initParams);
+    this.identityDAO = identityDAO;
+  }
+
+  @Override
+  public void processUpgrade(String oldVersion, String newVersion) {
+    long startTime = System.currentTimeMillis();
+    int convertedCount = 0;
+    int offset = 0;
+    List<Long> ids;
+    do {
+      ids = identityDAO.getIdsByPropertyName(Profile.LAST_LOGIN_TIME, offset, PAGE_SIZE);
+      for (Long id : ids) {
+        if (convert(id)) {
+          convertedCount++;
+        }
+      }
+      offset += PAGE_SIZE;
+    } while (ids.size() == PAGE_SIZE);
+    LOG.info("{} profiles last login times converted to milliseconds in {} ms",
+             convertedCount,
+             System.currentTimeMillis() - startTime);
+  }
+
+  private boolean convert(Long id) {
+    IdentityEntity entity = identityDAO.find(id);
+    if (entity == null) {
+      return false;
+    }
+    String lastLoginTime = entity.getProperties().get(Profile.LAST_LOGIN_TIME);
+    if (StringUtils.isBlank(lastLoginTime) || StringUtils.isNumeric(lastLoginTime)) {
+      return false;
+    }
+    try {
+      long time = new SimpleDateFormat(DATE_TO_STRING_FORMAT, Locale.ENGLISH).parse(lastLoginTime).getTime();
+      entity.getProperties().put(Profile.LAST_LOGIN_TIME, String.valueOf(time));
+    } catch (ParseException e) {
+      LOG.warn("Can't convert last login time '{}' of identity {}, remove it", lastLoginTime, id);
+      entity.getProperties().remove(Profile.LAST_LOGIN_TIME);
+    }
+    identityDAO.update(entity);
+    return true;
+  }
+
+}
@@ -0,0 +1,99 @@
+/*
+ * Copyright (C) 2003-2011 eXo Platform SAS.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.exoplatform.social.common.lifecycle;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import junit.framework.TestCase;
+
+import org.exoplatform.container.xml.InitParams;
+import org.exoplatform.container.xml.ValueParam;
+
+public class LifeCycleCompletionServiceTest extends TestCase {
+
+  public void testSynchronousExecution() {
+    LifeCycleCompletionService completionService = newCompletionService("false", "1", "caller-runs");
+    completionService.addTask(() -> "done");
+    completionService.addTask(() -> {
+      throw new IllegalStateException("expected");
+    });
+
+    assertEquals(2, completionService.getSubmittedTasks());
+    assertEquals(1, completionService.getCompletedTasks());
+    assertEquals(1, completionService.getFailedTasks());
+    assertEquals(0, completionService.getPendingTasks());
+  }
+
+  public void testCallerRunsWhenQueueIsFull() throws Exception {
+    LifeCycleCompletionService completionService = newCompletionService("true", "1", "caller-runs");
+    CountDownLatch latch = new CountDownLatch(1);
+    try {
+      // Blocks the single thread of the pool, then fills the queue
+      completionService.addTask("test", () -> latch.await(5, TimeUnit.SECONDS));
+      completionService.addTask("test", () -> "queued");
+      Thread caller = Thread.currentThread();
+      boolean[] ranInCaller = new boolean[1];
+      completionService.addTask("test", () -> ranInCaller[0] = Thread.currentThread() == caller);
+
+      assertTrue(ranInCaller[0]);
+      assertEquals(1, completionService.getRejectedTasks());
+      assertEquals(0, completionService.getDiscardedTasks());
+    } finally {
+      latch.countDown();
+    }
+    completionService.waitCompletionFinished();
+    assertEquals(0, completionService.getPendingTasks());
+    assertEquals(3, completionService.getCompletedTasks());
+    completionService.stop();
+  }
+
+  public void testDiscardWhenQueueIsFull() throws Exception {
+    LifeCycleCompletionService completionService = newCompletionService("true", "1", "discard");
+    CountDownLatch latch = new CountDownLatch(1);
+    try {
+      completionService.addTask("test", () -> latch.await(5, TimeUnit.SECONDS));
+      completionService.addTask("test", () -> "queued");
+      completionService.addTask("test", () -> "discarded");
+
+      assertEquals(1, completionService.getDiscardedTasks());
+      assertEquals(1, completionService.getQueueSize());
+    } finally {
+      latch.countDown();
+    }
+    completionService.waitCompletionFinished();
+    assertEquals(0, completionService.getPendingTasks());
+    assertEquals(2, completionService.getCompletedTasks());
+    completionService.stop();
+  }
+
+  private LifeCycleCompletionService newCompletionService(String async, String queueSize, String rejectionPolicy) {
+    InitParams params = new InitParams();
+    addValueParam(params, "async-execution", async);
+    addValueParam(params, "thread-number", "1");
+    addValueParam(params, "queue-size", queueSize);
+    addValueParam(params, "rejection-policy", rejectionPolicy);
+    return new LifeCycleCompletionService(params);
+  }
+
+  private void addValueParam(InitParams params, String name, String value) {
+    ValueParam valueParam = new ValueParam();
+    valueParam.setName(name);
+    valueParam.setValue(value);
+    params.addParameter(valueParam);
+  }
+}
@@ -0,0 +1,149 @@
+/*
+ * This file is part of the Meeds project (https://meeds.io/).
+ * Copyright (C) 2022 Meeds Association contact@meeds.io
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package org.exoplatform.social.core.binding.job;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.runners.MockitoJUnitRunner;
+
+import org.exoplatform.commons.utils.PropertyManager;
+import org.exoplatform.social.core.binding.model.GroupSpaceBinding;
+import org.exoplatform.social.core.binding.model.GroupSpaceBindingQueue;
+import org.exoplatform.social.core.binding.spi.GroupSpaceBindingService;
+import org.exoplatform.social.core.test.AbstractCoreTest;
+
+@RunWith(MockitoJUnitRunner.class)
+public class QueueGroupSpaceBindingJobTest extends AbstractCoreTest {
+
+  @Mock
+  private GroupSpaceBindingService groupSpaceBindingService;
+
+  /**
+   * Test that the queue entries of a same space are processed in order by a
+   * single worker when the queue is processed concurrently
+   *
+   * @throws Exception
+   */
+  @Test
+  public void testProcessQueueConcurrently() throws Exception {
+    // given
+    GroupSpaceBinding space1Binding1 = newBinding(1, "1", "/platform/users");
+    GroupSpaceBinding space2Binding = newBinding(2, "2", "/platform/users");
+    GroupSpaceBinding space1Binding2 = newBinding(3, "1", "/platform/administrators");
+    GroupSpaceBindingQueue queue3 = newBindingQueue(3, space1Binding1, GroupSpaceBindingQueue.ACTION_REMOVE);
+    GroupSpaceBindingQueue queue1 = newBindingQueue(1, space1Binding1, GroupSpaceBindingQueue.ACTION_CREATE);
+    GroupSpaceBindingQueue queue2 = newBindingQueue(2, space2Binding, GroupSpaceBindingQueue.ACTION_CREATE);
+    GroupSpaceBindingQueue queue4 = newBindingQueue(4, space1Binding2, GroupSpaceBindingQueue.ACTION_CREATE);
+    Mockito.when(groupSpaceBindingService.getAllFromBindingQueue())
+           .thenReturn(Arrays.asList(queue3, queue1, queue4, queue2))
+           .thenReturn(Collections.emptyList());
+
+    Map<String, Set<Thread>> threadsBySpace = new ConcurrentHashMap<>();
+    Mockito.doAnswer(invocation -> {
+      GroupSpaceBinding binding = (GroupSpaceBinding) invocation.getArguments()[0];
+      threadsBySpace.computeIfAbsent(binding.getSpaceId(), key -> ConcurrentHashMap.newKeySet())
+                    .add(Thread.currentThread());
+      return null;
+    }).when(groupSpaceBindingService).bindUsersFromGroupSpaceBinding(Mockito.any());
+
+    // when
+    executeJob("2");
+
+    // then
+    InOrder space1Order = Mockito.inOrder(groupSpaceBindingService);
+    space1Order.verify(groupSpaceBindingService).bindUsersFromGroupSpaceBinding(space1Binding1);
+    space1Order.verify(groupSpaceBindingService).deleteFromBindingQueue(queue1);
+    space1Order.verify(groupSpaceBindingService).deleteGroupSpaceBinding(space1Binding1);
+    space1Order.verify(groupSpaceBindingService).bindUsersFromGroupSpaceBinding(space1Binding2);
+    space1Order.verify(groupSpaceBindingService).deleteFromBindingQueue(queue4);
+    Mockito.verify(groupSpaceBindingService).bindUsersFromGroupSpaceBinding(space2Binding);
+    Mockito.verify(groupSpaceBindingService).deleteFromBindingQueue(queue2);
+    // The entries of each space are processed by a single worker
+    assertEquals(2, threadsBySpace.size());
+    assertEquals(1, threadsBySpace.get("1").size());
+    assertEquals(1, threadsBySpace.get("2").size());
+    // The queue is read again to process the entries added meanwhile
+    Mockito.verify(groupSpaceBindingService, Mockito.times(2)).getAllFromBindingQueue();
+  }
+
+  /**
+   * Test that a failing queue entry stops the processing of the following
+   * entries of its space and the next reads of the queue
+   *
+   * @throws Exception
+   */
+  @Test
+  public void testProcessQueueConcurrentlyStopsOnFailure() throws Exception {
+    // given
+    GroupSpaceBinding space1Binding1 = newBinding(1, "1", "/platform/users");
+    GroupSpaceBinding space2Binding = newBinding(2, "2", "/platform/users");
+    GroupSpaceBinding space1Binding2 = newBinding(3, "1", "/platform/administrators");
+    GroupSpaceBindingQueue queue1 = newBindingQueue(1, space1Binding1, GroupSpaceBindingQueue.ACTION_CREATE);
+    GroupSpaceBindingQueue queue2 = newBindingQueue(2, space2Binding, GroupSpaceBindingQueue.ACTION_CREATE);
+    GroupSpaceBindingQueue queue3 = newBindingQueue(3, space1Binding2, GroupSpaceBindingQueue.ACTION_CREATE);
+    Mockito.when(groupSpaceBindingService.getAllFromBindingQueue()).thenReturn(Arrays.asList(queue1, queue2, queue3));
+    Mockito.doThrow(new IllegalStateException("binding error"))
+           .when(groupSpaceBindingService)
+           .bindUsersFromGroupSpaceBinding(space1Binding1);
+
+    // when
+    executeJob("2");
+
+    // then
+    Mockito.verify(groupSpaceBindingService, Mockito.never()).deleteFromBindingQueue(queue1);
+    Mockito.verify(groupSpaceBindingService, Mockito.never()).bindUsersFromGroupSpaceBinding(space1Binding2);
+    Mockito.verify(groupSpaceBindingService, Mockito.never()).deleteFromBindingQueue(queue3);
+    // The entries of the other spaces are still processed
+    Mockito.verify(groupSpaceBindingService).bindUsersFromGroupSpaceBinding(space2Binding);
+    Mockito.verify(groupSpaceBindingService).deleteFromBindingQueue(queue2);
+    // The queue isn't read again, to not loop on the same error
+    Mockito.verify(groupSpaceBindingService, Mockito.times(1)).getAllFromBindingQueue();
+  }
+
+  private void executeJob(String workers) throws Exception {
+    PropertyManager.setProperty(QueueGroupSpaceBindingJob.WORKERS_PROPERTY_NAME, workers);
+    try {
+      new QueueGroupSpaceBindingJob(groupSpaceBindingService).execute(null);
+    } finally {
+      System.clearProperty(QueueGroupSpaceBindingJob.WORKERS_PROPERTY_NAME);
+      PropertyManager.refresh();
+    }
+  }
+
+  private GroupSpaceBinding newBinding(long id, String spaceId, String group) {
+    GroupSpaceBinding binding = new GroupSpaceBinding();
+    binding.setId(id);
+    binding.setSpaceId(spaceId);
+    binding.setGroup(group);
+    return binding;
+  }
+
+  private GroupSpaceBindingQueue newBindingQueue(long id, GroupSpaceBinding binding, String action) {
+    GroupSpaceBindingQueue bindingQueue = new GroupSpaceBindingQueue(binding, action);
+    bindingQueue.setId(id);
+    return bindingQueue;
+  }
+
+}
@@ -25,12 +25,14 @@ import org.exoplatform.social.core.binding.model.GroupSpaceBindingReportUser;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
 import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.runners.MockitoJUnitRunner;
 
 import org.exoplatform.commons.utils.ListAccess;
 import org.exoplatform.container.xml.InitParams;
+import org.exoplatform.container.xml.ValueParam;
 import org.exoplatform.services.organization.MembershipHandler;
 import org.exoplatform.services.organization.OrganizationService;
 import org.exoplatform.services.organization.User;
@@ -166,8 +168,8 @@ public class GroupSpaceBindingServiceTest extends AbstractCoreTest {
 
   /**
    * Test
-   * {@link GroupSpaceBindingService#deleteUserBinding(UserSpaceBinding, GroupSpaceBindingReportAction)}
-   * (UserSpaceBinding)}
+   * {@link GroupSpaceBindingService#deleteUserBinding(UserSpaceBinding,
+   * GroupSpaceBindingReportAction)}
    *
    * @throws Exception
    */
@@ -1010,6 +1012,86 @@ public class GroupSpaceBindingServiceTest extends AbstractCoreTest {
     assertEquals(GroupSpaceBindingReportUser.ACTION_ADD_USER, capturedUserReport.getAction());
   
   }
-  
+
+  @Test
+  public void testBindUsersFromGroupSpaceBindingByBatch() throws Exception {
+    // given
+    GroupSpaceBinding binding1 = new GroupSpaceBinding();
+    binding1.setId(1);
+    binding1.setGroup("/platform/administrators");
+    binding1.setSpaceId("1");
+
+    Space space1 = new Space();
+    space1.setPrettyName("space1");
+    space1.setId("1");
+    space1.setGroupId("/spaces/space1");
+    space1.setMembers(new String[] { "user1", "user3" });
+    Mockito.when(spaceService.getSpaceById("1")).thenReturn(space1);
+
+    User[] users = new User[] { new UserImpl("user1"), new UserImpl("user2"), new UserImpl("user3"), new UserImpl("user4") };
+    ListAccess<User> userListAccess = new ListAccess<User>() {
+      public User[] load(int index, int length) throws Exception {
+        return Arrays.copyOfRange(users, index, index + length);
+      }
+
+      public int getSize() throws Exception {
+        return users.length;
+      }
+    };
+    UserDAOImpl userDAO = Mockito.mock(UserDAOImpl.class);
+    Mockito.when(userDAO.findUsersByGroupId("/platform/administrators")).thenReturn(userListAccess);
+    Mockito.when(orgService.getUserHandler()).thenReturn(userDAO);
+
+    // user3 and user4 have already been bound by a previous interrupted
+    // execution, which was interrupted before adding user4 to the space
+    UserSpaceBinding user3Binding = new UserSpaceBinding("user3", binding1);
+    user3Binding.setIsMemberBefore(false);
+    UserSpaceBinding user4Binding = new UserSpaceBinding("user4", binding1);
+    user4Binding.setIsMemberBefore(false);
+    Mockito.when(groupSpaceBindingStorage.findUserSpaceBindingsBySpaceAndUsers(Mockito.eq("1"), Mockito.anyList()))
+           .thenReturn(Arrays.asList(user3Binding, user4Binding));
+
+    GroupSpaceBindingReportAction report = new GroupSpaceBindingReportAction(binding1.getId(),
+                                                                             Long.parseLong(binding1.getSpaceId()),
+                                                                             binding1.getGroup(),
+                                                                             GroupSpaceBindingReportAction.ADD_ACTION);
+    Mockito.when(groupSpaceBindingStorage.saveGroupSpaceBindingReport(Mockito.any())).thenReturn(report);
+
+    ValueParam batchModeParam = new ValueParam();
+    batchModeParam.setName("batch-mode");
+    batchModeParam.setValue("true");
+    Mockito.when(initParams.getValueParam("batch-mode")).thenReturn(batchModeParam);
+
+    GroupSpaceBindingService groupSpaceBindingService = new GroupSpaceBindingServiceImpl(initParams,
+                                                                                         groupSpaceBindingStorage,
+                                                                                         orgService,
+                                                                                         spaceService);
+    // when
+    groupSpaceBindingService.bindUsersFromGroupSpaceBinding(binding1);
+
+    // then
+    ArgumentCaptor<List> bindingsCaptor = ArgumentCaptor.forClass(List.class);
+    Mockito.verify(groupSpaceBindingStorage).saveUserBindings(bindingsCaptor.capture());
+    List<UserSpaceBinding> savedBindings = bindingsCaptor.getValue();
+    assertEquals(2, savedBindings.size());
+    assertEquals("user1", savedBindings.get(0).getUser());
+    assertTrue(savedBindings.get(0).isMemberBefore());
+    assertEquals("user2", savedBindings.get(1).getUser());
+    assertFalse(savedBindings.get(1).isMemberBefore());
+    Mockito.verify(groupSpaceBindingStorage, Mockito.never()).saveUserBinding(Mockito.any());
+
+    ArgumentCaptor<List> reportUsersCaptor = ArgumentCaptor.forClass(List.class);
+    Mockito.verify(groupSpaceBindingStorage).saveGroupSpaceBindingReportUsers(reportUsersCaptor.capture());
+    assertEquals(2, reportUsersCaptor.getValue().size());
+
+    Mockito.verify(spaceService, Mockito.never()).addMember(space1, "user1");
+    Mockito.verify(spaceService, Mockito.never()).addMember(space1, "user3");
+    InOrder inOrder = Mockito.inOrder(groupSpaceBindingStorage, spaceService);
+    inOrder.verify(groupSpaceBindingStorage).saveUserBindings(Mockito.anyList());
+    inOrder.verify(spaceService).addMember(space1, "user2");
+    inOrder.verify(spaceService).addMember(space1, "user4");
+    assertEquals(4, report.getProcessedUsers());
+    assertNotNull(report.getEndDate());
+  }
 
 }
@@ -20,11 +20,17 @@ package org.exoplatform.social.core.image;
 import junit.framework.TestCase;
 import org.exoplatform.social.core.model.AvatarAttachment;
 
+import javax.imageio.IIOImage;
 import javax.imageio.ImageIO;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageOutputStream;
 import java.awt.image.BufferedImage;
 import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.Arrays;
+import java.util.List;
 
 public class ImageUtilsTest extends TestCase {
 
@@ -60,4 +66,57 @@ public class ImageUtilsTest extends TestCase {
     assertEquals(27, image.getHeight());
   }
 
+  public void testCreateResizedAvatarAttachments() throws IOException {
+    // image 144x40
+    InputStream inputStream = getClass().getResourceAsStream("/eXo-Social.png");
+    List<AvatarAttachment> avatars = ImageUtils.createResizedAvatarAttachments(inputStream,
+                                                                               Arrays.asList(new int[] { 100, 100 },
+                                                                                             new int[] { 20, 20 },
+                                                                                             new int[] { 200, 200 }),
+                                                                               "null",
+                                                                               "eXo-Social.png",
+                                                                               "image/png",
+                                                                               "null");
+    assertEquals(3, avatars.size());
+    BufferedImage image = ImageIO.read(new ByteArrayInputStream(avatars.get(0).getImageBytes()));
+    assertEquals(100, image.getWidth());
+    assertEquals(27, image.getHeight());
+    image = ImageIO.read(new ByteArrayInputStream(avatars.get(1).getImageBytes()));
+    assertEquals(20, image.getWidth());
+    assertEquals(5, image.getHeight());
+    image = ImageIO.read(new ByteArrayInputStream(avatars.get(2).getImageBytes()));
+    assertEquals(144, image.getWidth());
+    assertEquals(40, image.getHeight());
+  }
+
+  public void testCreateResizedAvatarAttachmentFromGif() throws IOException {
+    InputStream inputStream = new ByteArrayInputStream(createGif(1));
+    AvatarAttachment avatar = ImageUtils.createResizedAvatarAttachment(inputStream, 50, 50, "null", "avatar.gif", "image/gif", "null");
+    assertNotNull(avatar);
+    BufferedImage image = ImageIO.read(new ByteArrayInputStream(avatar.getImageBytes()));
+    assertEquals(50, image.getWidth());
+    assertEquals(25, image.getHeight());
+  }
+
+  public void testNotResizeAnimatedGif() throws IOException {
+    InputStream inputStream = new ByteArrayInputStream(createGif(2));
+    assertNull(ImageUtils.createResizedAvatarAttachment(inputStream, 50, 50, "null", "avatar.gif", "image/gif", "null"));
+  }
+
+  private byte[] createGif(int frames) throws IOException {
+    ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+    ImageWriter writer = ImageIO.getImageWritersByFormatName("gif").next();
+    try (ImageOutputStream imageOutputStream = ImageIO.createImageOutputStream(outputStream)) {
+      writer.setOutput(imageOutputStream);
+      writer.prepareWriteSequence(null);
+      for (int i = 0; i < frames; i++) {
+        writer.writeToSequence(new IIOImage(new BufferedImage(200, 100, BufferedImage.TYPE_INT_RGB), null, null), null);
+      }
+      writer.endWriteSequence();
+    } finally {
+      writer.dispose();
+    }
+    return outputStream.toByteArray();
+  }
+
 }
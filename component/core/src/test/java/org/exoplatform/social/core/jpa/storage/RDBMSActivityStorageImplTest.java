@@ -25,11 +25,15 @@ import org.apache.commons.lang.StringUtils;
 import org.apache.commons.lang3.StringEscapeUtils;
 import org.exoplatform.commons.utils.CommonsUtils;
 import org.exoplatform.commons.utils.ListAccess;
+import org.exoplatform.social.core.activity.ActivityCursor;
+import org.exoplatform.social.core.activity.ActivityFilter;
+import org.exoplatform.social.core.activity.ActivityStreamType;
 import org.exoplatform.social.core.activity.model.ExoSocialActivity;
 import org.exoplatform.social.core.activity.model.ExoSocialActivityImpl;
 import org.exoplatform.social.core.identity.model.Identity;
 import org.exoplatform.social.core.identity.model.Profile;
 import org.exoplatform.social.core.identity.provider.SpaceIdentityProvider;
+import org.exoplatform.social.core.jpa.storage.dao.ActivityDAO;
 import org.exoplatform.social.core.jpa.storage.dao.StreamItemDAO;
 import org.exoplatform.social.core.jpa.storage.entity.StreamItemEntity;
 import org.exoplatform.social.core.jpa.test.AbstractCoreTest;
@@ -42,6 +46,7 @@ import org.exoplatform.social.core.space.impl.DefaultSpaceApplicationHandler;
 import org.exoplatform.social.core.space.model.Space;
 import org.exoplatform.social.core.space.spi.SpaceService;
 import org.exoplatform.social.core.storage.api.IdentityStorage;
+import org.exoplatform.social.core.storage.api.SpaceStorage;
 
 @QueryNumberTest
 public class RDBMSActivityStorageImplTest extends AbstractCoreTest {
@@ -271,6 +276,28 @@ public class RDBMSActivityStorageImplTest extends AbstractCoreTest {
     assertEquals(activity3.getId(), got.get(2).getId());
   }
   
+  @MaxQueryNumber(900)
+  public void testGetActivitiesByIDsWithComments() {
+    ExoSocialActivity activity1 = createActivity(1);
+    activityStorage.saveActivity(demoIdentity, activity1);
+    tearDownActivityList.add(activity1);
+    ExoSocialActivity activity2 = createActivity(2);
+    activityStorage.saveActivity(demoIdentity, activity2);
+    tearDownActivityList.add(activity2);
+    createComment(activity1, maryIdentity, johnIdentity, 2, 1);
+    createComment(activity2, johnIdentity, null, 1, 0);
+    //
+    List<ExoSocialActivity> got = activityStorage.getActivities(Arrays.asList(activity2.getId(), activity1.getId()));
+    assertEquals(2, got.size());
+    assertEquals(activity2.getId(), got.get(0).getId());
+    assertEquals(activity1.getId(), got.get(1).getId());
+    assertEquals(Arrays.asList(johnIdentity.getId()), Arrays.asList(got.get(0).getCommentedIds()));
+    assertEquals(1, got.get(0).getReplyToId().length);
+    assertEquals(Arrays.asList(maryIdentity.getId(), johnIdentity.getId()), Arrays.asList(got.get(1).getCommentedIds()));
+    assertEquals(4, got.get(1).getReplyToId().length);
+    assertEquals(demoIdentity.getRemoteId(), got.get(1).getStreamOwner());
+  }
+
   @MaxQueryNumber(530)
   public void testGetActivityIdsFeed() {
     createActivities(3, demoIdentity);
@@ -299,6 +326,62 @@ public class RDBMSActivityStorageImplTest extends AbstractCoreTest {
   }
   
   
+  @MaxQueryNumber(700)
+  public void testGetActivityFeedByMembership() throws Exception {
+    Space space = this.getSpaceInstance(spaceService, 0);
+    Identity spaceIdentity = this.identityManager.getOrCreateIdentity(SpaceIdentityProvider.NAME, space.getPrettyName(), false);
+    for (int i = 0; i < 3; i ++) {
+      ExoSocialActivity activity = new ExoSocialActivityImpl();
+      activity.setTitle("activity title " + i);
+      activity.setUserId(demoIdentity.getId());
+      activityManager.saveActivityNoReturn(spaceIdentity, activity);
+      tearDownActivityList.add(activity);
+    }
+    createActivities(2, demoIdentity);
+    createActivities(1, maryIdentity);
+
+    ActivityDAO activityDAO = getService(ActivityDAO.class);
+    List<String> spaceIds = getService(SpaceStorage.class).getMemberRoleSpaceIdentityIds(demoIdentity.getId(), 0, -1);
+    assertEquals(activityDAO.getActivityFeed(demoIdentity, 0, 10, spaceIds), activityDAO.getActivityFeed(demoIdentity, 0, 10, null));
+    assertEquals(activityDAO.getActivityIdsFeed(demoIdentity, 0, 10, spaceIds), activityDAO.getActivityIdsFeed(demoIdentity, 0, 10, null));
+    assertEquals(5, activityDAO.getNumberOfActivitesOnActivityFeed(demoIdentity, null));
+    assertEquals(5, activityDAO.getNumberOfNewerOnActivityFeed(demoIdentity, 0, null));
+    assertEquals(1, activityDAO.getNumberOfActivitesOnActivityFeed(maryIdentity, null));
+  }
+
+  @MaxQueryNumber(600)
+  public void testGetActivityCursorsByFilter() throws Exception {
+    createActivities(5, demoIdentity);
+    List<String> activityIds = activityStorage.getActivityIdsFeed(demoIdentity, 0, 10);
+    assertEquals(5, activityIds.size());
+
+    ActivityFilter activityFilter = new ActivityFilter();
+    List<ActivityCursor> firstPage = activityStorage.getActivityCursorsByFilter(demoIdentity, activityFilter, null, false, 2);
+    assertEquals(2, firstPage.size());
+    assertEquals(activityIds.get(0), firstPage.get(0).getActivityId());
+    assertEquals(activityIds.get(1), firstPage.get(1).getActivityId());
+
+    List<ActivityCursor> secondPage = activityStorage.getActivityCursorsByFilter(demoIdentity, activityFilter, firstPage.get(1), false, 2);
+    assertEquals(2, secondPage.size());
+    assertEquals(activityIds.get(2), secondPage.get(0).getActivityId());
+    assertEquals(activityIds.get(3), secondPage.get(1).getActivityId());
+
+    List<ActivityCursor> newerPage = activityStorage.getActivityCursorsByFilter(demoIdentity, activityFilter, secondPage.get(0), true, 10);
+    assertEquals(2, newerPage.size());
+    assertEquals(firstPage, newerPage);
+
+    // Newer activities without cursor are the oldest ones, whatever query ran before
+    List<ActivityCursor> oldestPage = activityStorage.getActivityCursorsByFilter(demoIdentity, activityFilter, null, true, 2);
+    assertEquals(2, oldestPage.size());
+    assertEquals(activityIds.get(3), oldestPage.get(0).getActivityId());
+    assertEquals(activityIds.get(4), oldestPage.get(1).getActivityId());
+
+    activityFilter.setStreamType(ActivityStreamType.USER_STREAM);
+    List<ActivityCursor> userStreamPage = activityStorage.getActivityCursorsByFilter(demoIdentity, activityFilter, firstPage.get(1), false, 10);
+    assertEquals(3, userStreamPage.size());
+    assertEquals(activityIds.get(4), userStreamPage.get(2).getActivityId());
+  }
+
   @MaxQueryNumber(516)
   public void testGetActivity() {
     ExoSocialActivity activity = createActivity(1);
@@ -95,6 +95,77 @@ public class RDBMSSpaceStorageTest extends SpaceStorageTest {
     assertEquals(space3.getId(), result.get(0).getId());
   }
 
+  public void testLastAccessFlushedOnStop() throws Exception {
+    SpaceLastAccessTracker spaceLastAccessTracker = getService(SpaceLastAccessTracker.class);
+    Space space4 = getSpaceInstance(9);
+    spaceStorage.saveSpace(space4, true);
+    tearDownSpaceList.add(space4);
+    Space space5 = getSpaceInstance(10);
+    spaceStorage.saveSpace(space5, true);
+    tearDownSpaceList.add(space5);
+
+    restartTransaction();
+    spaceLastAccessTracker.recordAccess("ghost", Long.parseLong(space4.getId()));
+    spaceLastAccessTracker.recordAccess("ghost", Long.parseLong(space5.getId()));
+    assertTrue(spaceLastAccessTracker.getPendingUsersCount() > 0);
+
+    spaceLastAccessTracker.stop();
+    try {
+      assertEquals(0, spaceLastAccessTracker.getPendingUsersCount());
+    } finally {
+      spaceLastAccessTracker.start();
+    }
+    cacheService.getSpacesCache().clearCache();
+
+    SpaceFilter filter = new SpaceFilter();
+    filter.setRemoteId("ghost");
+    filter.setAppId("app1, app2, app3");
+    List<Space> result = spaceStorage.getLastAccessedSpace(filter, 0, -1);
+    assertEquals(2, result.size());
+    assertTrue(result.stream().anyMatch(space -> space.getId().equals(space5.getId())));
+  }
+
+  public void testPendingAccessesNotWrittenOnRead() throws Exception {
+    SpaceLastAccessTracker spaceLastAccessTracker = getService(SpaceLastAccessTracker.class);
+    Space space6 = getSpaceInstance(11);
+    spaceStorage.saveSpace(space6, true);
+    tearDownSpaceList.add(space6);
+    Space space7 = getSpaceInstance(12);
+    spaceStorage.saveSpace(space7, true);
+    tearDownSpaceList.add(space7);
+    Space space8 = getSpaceInstance(13);
+    spaceStorage.saveSpace(space8, true);
+    tearDownSpaceList.add(space8);
+
+    restartTransaction();
+    spaceLastAccessTracker.recordAccess("ghost", Long.parseLong(space8.getId()));
+    Thread.sleep(5);
+    spaceLastAccessTracker.recordAccess("ghost", Long.parseLong(space7.getId()));
+    cacheService.getSpacesCache().clearCache();
+
+    SpaceFilter filter = new SpaceFilter();
+    filter.setRemoteId("ghost");
+    filter.setAppId("app1, app2, app3");
+    List<Space> result = spaceStorage.getLastAccessedSpace(filter, 0, -1);
+    assertEquals(3, result.size());
+    assertEquals(space7.getId(), result.get(0).getId());
+    assertEquals(space8.getId(), result.get(1).getId());
+    assertEquals(space6.getId(), result.get(2).getId());
+
+    result = spaceStorage.getLastAccessedSpace(filter, 1, 1);
+    assertEquals(1, result.size());
+    assertEquals(space8.getId(), result.get(0).getId());
+
+    result = spaceStorage.getVisitedSpaces(filter, 0, 2);
+    assertEquals(2, result.size());
+    assertEquals(space7.getId(), result.get(0).getId());
+    assertEquals(space8.getId(), result.get(1).getId());
+
+    assertTrue(spaceLastAccessTracker.hasPendingAccess("ghost", Long.parseLong(space7.getId())));
+    assertTrue(spaceLastAccessTracker.hasPendingAccess("ghost", Long.parseLong(space8.getId())));
+    spaceLastAccessTracker.flush("ghost");
+  }
+
   public void testGetLastAccessedSpace() {
     //create a new space
     Space space = getSpaceInstance(1);
@@ -889,6 +889,51 @@ public class RelationshipStorageTest extends AbstractCoreTest {
     assertEquals("Number of identities must be 1", 1, countIdentities);
   }
 
+  /**
+   * Test {@link org.exoplatform.social.core.storage.api.RelationshipStorage#getSuggestions(Identity, int, int, int)}
+   *
+   * @throws Exception
+   */
+  @MaxQueryNumber(450)
+  public void testGetSuggestions() throws Exception {
+    populateData();
+    Identity identity0 = tearDownIdentityList.get(0);
+    Identity identity1 = tearDownIdentityList.get(1);
+    Identity identity2 = tearDownIdentityList.get(2);
+    Identity identity3 = tearDownIdentityList.get(3);
+    Identity identity4 = tearDownIdentityList.get(4);
+    Identity identity5 = tearDownIdentityList.get(5);
+    Identity identity6 = tearDownIdentityList.get(6);
+
+    Map<Identity, Integer> suggestions = relationshipStorage.getSuggestions(identity0, -1, -1, 10);
+    assertTrue(suggestions.isEmpty());
+
+    relationshipStorage.saveRelationship(new Relationship(identity0, identity1, Type.CONFIRMED));
+    relationshipStorage.saveRelationship(new Relationship(identity2, identity0, Type.CONFIRMED));
+    relationshipStorage.saveRelationship(new Relationship(identity1, identity3, Type.CONFIRMED));
+    relationshipStorage.saveRelationship(new Relationship(identity3, identity2, Type.CONFIRMED));
+    relationshipStorage.saveRelationship(new Relationship(identity1, identity4, Type.CONFIRMED));
+    relationshipStorage.saveRelationship(new Relationship(identity2, identity5, Type.CONFIRMED));
+    relationshipStorage.saveRelationship(new Relationship(identity0, identity5, Type.PENDING));
+    relationshipStorage.saveRelationship(new Relationship(identity2, identity6, Type.PENDING));
+
+    suggestions = relationshipStorage.getSuggestions(identity0, -1, -1, 10);
+    assertEquals(2, suggestions.size());
+    List<Map.Entry<Identity, Integer>> entries = new ArrayList<>(suggestions.entrySet());
+    assertEquals(identity3.getId(), entries.get(0).getKey().getId());
+    assertEquals(2, entries.get(0).getValue().intValue());
+    assertEquals(identity4.getId(), entries.get(1).getKey().getId());
+    assertEquals(1, entries.get(1).getValue().intValue());
+
+    suggestions = relationshipStorage.getSuggestions(identity0, -1, -1, 1);
+    assertEquals(1, suggestions.size());
+    assertEquals(identity3.getId(), suggestions.keySet().iterator().next().getId());
+
+    suggestions = relationshipStorage.getSuggestions(identity0, -1, 1, 10);
+    assertFalse(suggestions.isEmpty());
+    assertFalse(suggestions.containsKey(identity0));
+  }
+
   /**
    * Builds the ProfileFilter and exclude the Identity.
    * @param filter
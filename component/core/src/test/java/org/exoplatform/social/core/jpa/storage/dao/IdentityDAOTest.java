@@ -265,6 +265,28 @@ public class IdentityDAOTest extends BaseCoreTest {
     deleteIdentities.add(identitySpace1);
   }
 
+  public void testGetRemoteIdsByLastLoginTime() {
+    long now = System.currentTimeMillis();
+    IdentityEntity recentUser = createIdentity(OrganizationIdentityProvider.NAME, "recentUser");
+    recentUser.getProperties().put(Profile.LAST_LOGIN_TIME, String.valueOf(now - 1000));
+    recentUser = identityDAO.create(recentUser);
+    deleteIdentities.add(recentUser);
+    IdentityEntity oldUser = createIdentity(OrganizationIdentityProvider.NAME, "oldUser");
+    oldUser.getProperties().put(Profile.LAST_LOGIN_TIME, String.valueOf(now - 10L * 24 * 3600 * 1000));
+    oldUser = identityDAO.create(oldUser);
+    deleteIdentities.add(oldUser);
+    IdentityEntity neverLoggedUser = identityDAO.create(createIdentity(OrganizationIdentityProvider.NAME, "neverLoggedUser"));
+    deleteIdentities.add(neverLoggedUser);
+
+    List<String> remoteIds = identityDAO.getRemoteIdsByLastLoginTime(OrganizationIdentityProvider.NAME,
+                                                                      now - 2L * 24 * 3600 * 1000,
+                                                                      0,
+                                                                      10);
+    assertTrue(remoteIds.contains("recentUser"));
+    assertFalse(remoteIds.contains("oldUser"));
+    assertFalse(remoteIds.contains("neverLoggedUser"));
+  }
+
   public void testSaveNewIdentity() {
     IdentityEntity entity = createIdentity();
 
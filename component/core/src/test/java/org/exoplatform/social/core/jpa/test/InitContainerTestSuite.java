@@ -44,6 +44,7 @@ import org.exoplatform.social.core.space.SpaceLifeCycleTest;
 import org.exoplatform.social.core.space.SpaceUtilsTest;
 import org.exoplatform.social.core.space.spi.SpaceServiceTest;
 import org.exoplatform.social.core.space.spi.SpaceTemplateServiceTest;
+import org.exoplatform.social.core.upgrade.LastLoginTimeUpgradePluginTest;
 import org.exoplatform.social.metadata.MetadataServiceTest;
 import org.exoplatform.social.metadata.favorite.FavoriteServiceTest;
 import org.exoplatform.social.metadata.tag.TagServiceTest;
@@ -51,6 +52,7 @@ import org.exoplatform.social.metadata.tag.TagServiceTest;
 import io.meeds.social.core.richeditor.RichEditorConfigurationServiceTest;
 
 import org.exoplatform.social.core.application.SpaceActivityPublisherTest;
+import org.exoplatform.social.core.binding.job.QueueGroupSpaceBindingJobTest;
 import org.exoplatform.social.core.binding.spi.GroupSpaceBindingServiceTest;
 import org.exoplatform.social.core.binding.spi.RDBMSGroupSpaceBindingStorageTest;
 
@@ -77,6 +79,7 @@ import org.exoplatform.social.core.binding.spi.RDBMSGroupSpaceBindingStorageTest
   RDBMSActivityStorageImplTest.class,
   ActivityManagerTest.class,
   IdentityManagerTest.class,
+  LastLoginTimeUpgradePluginTest.class,
   SpaceServiceTest.class,
   RelationshipManagerTest.class,
   SpaceUtilsTest.class,
@@ -89,6 +92,7 @@ import org.exoplatform.social.core.binding.spi.RDBMSGroupSpaceBindingStorageTest
   SpaceTemplateServiceTest.class,
   SortingTest.class,
   GroupSpaceBindingServiceTest.class,
+  QueueGroupSpaceBindingJobTest.class,
   RDBMSGroupSpaceBindingStorageTest.class,
   MetadataServiceTest.class,
   FavoriteServiceTest.class,
@@ -35,6 +35,7 @@ import org.exoplatform.social.core.jpa.storage.dao.jpa.MetadataDAO;
 import org.exoplatform.social.core.manager.ActivityManager;
 import org.exoplatform.social.core.manager.IdentityManager;
 import org.exoplatform.social.core.space.model.Space;
+import org.exoplatform.social.core.storage.cache.CachedMetadataStorage;
 import org.exoplatform.social.core.test.AbstractCoreTest;
 import org.exoplatform.social.metadata.MetadataService;
 import org.exoplatform.social.metadata.MetadataTypePlugin;
@@ -108,6 +109,7 @@ public class ActivityMetadataListenerTest extends AbstractCoreTest {
     identityManager.deleteIdentity(johnIdentity);
     identityManager.deleteIdentity(maryIdentity);
     metadataDAO.deleteAll();
+    getContainer().getComponentInstanceOfType(CachedMetadataStorage.class).clearCaches();
 
     for (ExoSocialActivity activity : tearDownActivityList) {
       try {
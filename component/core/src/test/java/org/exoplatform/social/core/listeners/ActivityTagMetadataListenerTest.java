@@ -29,6 +29,7 @@ import org.exoplatform.social.core.identity.model.Identity;
 import org.exoplatform.social.core.jpa.storage.dao.jpa.MetadataDAO;
 import org.exoplatform.social.core.manager.ActivityManager;
 import org.exoplatform.social.core.manager.IdentityManager;
+import org.exoplatform.social.core.storage.cache.CachedMetadataStorage;
 import org.exoplatform.social.core.test.AbstractCoreTest;
 import org.exoplatform.social.metadata.MetadataService;
 import org.exoplatform.social.metadata.model.Metadata;
@@ -81,6 +82,7 @@ public class ActivityTagMetadataListenerTest extends AbstractCoreTest {
     identityManager.deleteIdentity(johnIdentity);
     identityManager.deleteIdentity(maryIdentity);
     metadataDAO.deleteAll();
+    getContainer().getComponentInstanceOfType(CachedMetadataStorage.class).clearCaches();
 
     for (ExoSocialActivity activity : tearDownActivityList) {
       try {
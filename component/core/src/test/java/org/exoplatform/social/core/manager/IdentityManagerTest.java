@@ -18,6 +18,7 @@ package org.exoplatform.social.core.manager;
 
 import java.io.InputStream;
 import java.util.*;
+import java.util.concurrent.TimeUnit;
 
 import org.exoplatform.commons.utils.ListAccess;
 import org.exoplatform.services.security.ConversationState;
@@ -25,6 +26,7 @@ import org.exoplatform.services.security.IdentityRegistry;
 import org.exoplatform.social.common.RealtimeListAccess;
 import org.exoplatform.social.core.activity.model.ExoSocialActivity;
 import org.exoplatform.social.core.identity.SpaceMemberFilterListAccess;
+import org.exoplatform.social.core.identity.model.ActiveIdentityFilter;
 import org.exoplatform.social.core.identity.model.Identity;
 import org.exoplatform.social.core.identity.model.Profile;
 import org.exoplatform.social.core.identity.provider.OrganizationIdentityProvider;
@@ -42,6 +44,7 @@ import org.exoplatform.social.core.space.impl.DefaultSpaceApplicationHandler;
 import org.exoplatform.social.core.space.model.Space;
 import org.exoplatform.social.core.space.spi.SpaceService;
 import org.exoplatform.social.core.storage.ActivityStorageException;
+import org.exoplatform.social.core.storage.api.IdentityStorage;
 import org.exoplatform.social.core.test.AbstractCoreTest;
 import org.junit.FixMethodOrder;
 import org.junit.runners.MethodSorters;
@@ -536,6 +539,28 @@ public class IdentityManagerTest extends AbstractCoreTest {
     tearDownIdentityList.add(rootIdentity);
   }
 
+  public void testGetActiveUsersByLastLoginTime() throws Exception {
+    long now = System.currentTimeMillis();
+    Identity rootIdentity = identityManager.getOrCreateIdentity(OrganizationIdentityProvider.NAME, "root");
+    Profile rootProfile = rootIdentity.getProfile();
+    rootProfile.setProperty(Profile.LAST_LOGIN_TIME, now - 1000);
+    identityManager.updateProfile(rootProfile);
+    tearDownIdentityList.add(rootIdentity);
+
+    Identity johnIdentity = identityManager.getOrCreateIdentity(OrganizationIdentityProvider.NAME, "john");
+    Profile johnProfile = johnIdentity.getProfile();
+    johnProfile.setProperty(Profile.LAST_LOGIN_TIME, now - TimeUnit.DAYS.toMillis(10));
+    identityManager.updateProfile(johnProfile);
+    tearDownIdentityList.add(johnIdentity);
+
+    end();
+    begin();
+
+    Set<String> activeUsers = getService(IdentityStorage.class).getActiveUsers(new ActiveIdentityFilter(2));
+    assertTrue(activeUsers.contains("root"));
+    assertFalse(activeUsers.contains("john"));
+  }
+
   /**
    * Test {@link IdentityManager#updateProfile(Profile, boolean)}
    */
@@ -18,6 +18,7 @@ package org.exoplatform.social.core.metadata.thumbnail;
 import org.exoplatform.commons.file.model.FileInfo;
 import org.exoplatform.commons.file.model.FileItem;
 import org.exoplatform.commons.file.services.FileService;
+import org.exoplatform.services.cache.CacheService;
 import org.exoplatform.services.thumbnail.ImageResizeService;
 import org.exoplatform.social.core.identity.model.Identity;
 import org.exoplatform.social.core.identity.provider.OrganizationIdentityProvider;
@@ -31,8 +32,21 @@ import org.exoplatform.social.metadata.thumbnail.model.ThumbnailObject;
 import java.io.ByteArrayInputStream;
 import java.io.File;
 import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Date;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
 
 public class ImageThumbnailServiceImplTest extends AbstractCoreTest {
 
@@ -42,6 +56,8 @@ public class ImageThumbnailServiceImplTest extends AbstractCoreTest {
 
   private ImageResizeService        imageResizeService;
 
+  private CacheService              cacheService;
+
   private ImageThumbnailServiceImpl imageThumbnailService;
 
   private IdentityManager           identityManager;
@@ -54,7 +70,9 @@ public class ImageThumbnailServiceImplTest extends AbstractCoreTest {
     fileService = getContainer().getComponentInstanceOfType(FileService.class);
     imageResizeService = getContainer().getComponentInstanceOfType(ImageResizeService.class);
     identityManager = getContainer().getComponentInstanceOfType(IdentityManager.class);
-    imageThumbnailService = new ImageThumbnailServiceImpl(metadataService, fileService, imageResizeService);
+    cacheService = getContainer().getComponentInstanceOfType(CacheService.class);
+    cacheService.getCacheInstance("social.ThumbnailIdsCache").clearCache();
+    imageThumbnailService = new ImageThumbnailServiceImpl(metadataService, fileService, imageResizeService, cacheService);
     userIdentity = identityManager.getOrCreateIdentity(OrganizationIdentityProvider.NAME, "john");
   }
 
@@ -90,4 +108,78 @@ public class ImageThumbnailServiceImplTest extends AbstractCoreTest {
             thumbnailObject);
     assertEquals(1, metadataItemList.size());
   }
+
+  public void testGetOrCreateThumbnailOnce() throws Exception {
+    MetadataService metadataServiceMock = mock(MetadataService.class);
+    FileService fileServiceMock = mock(FileService.class);
+    ImageResizeService imageResizeServiceMock = mock(ImageResizeService.class);
+    when(metadataServiceMock.getMetadataItemsByMetadataTypeAndObject(anyString(), any())).thenReturn(Collections.emptyList());
+    when(imageResizeServiceMock.scaleImage(any(), anyInt(), anyInt(), anyBoolean(), anyBoolean())).thenAnswer(invocation -> {
+      Thread.sleep(200);
+      return new byte[] { 1 };
+    });
+    FileItem thumbnail = new FileItem(2L,
+                                      "image",
+                                      "image/png",
+                                      "social",
+                                      1,
+                                      new Date(),
+                                      userIdentity.getRemoteId(),
+                                      false,
+                                      new ByteArrayInputStream(new byte[] { 1 }));
+    when(fileServiceMock.writeFile(any())).thenReturn(thumbnail);
+    when(fileServiceMock.getFile(2L)).thenReturn(thumbnail);
+    FileItem image = new FileItem(1L,
+                                  "image",
+                                  "image/png",
+                                  "social",
+                                  1,
+                                  new Date(),
+                                  userIdentity.getRemoteId(),
+                                  false,
+                                  new ByteArrayInputStream(new byte[] { 0 }));
+    ImageThumbnailServiceImpl thumbnailService = new ImageThumbnailServiceImpl(metadataServiceMock,
+                                                                               fileServiceMock,
+                                                                               imageResizeServiceMock,
+                                                                               cacheService);
+
+    ExecutorService executorService = Executors.newFixedThreadPool(5);
+    try {
+      List<Future<FileItem>> futures = new ArrayList<>();
+      for (int i = 0; i < 5; i++) {
+        futures.add(executorService.submit(() -> thumbnailService.getOrCreateThumbnail(image, userIdentity, 45, 45)));
+      }
+      for (Future<FileItem> future : futures) {
+        assertEquals(Long.valueOf(2L), future.get().getFileInfo().getId());
+      }
+    } finally {
+      executorService.shutdown();
+    }
+    verify(fileServiceMock, times(1)).writeFile(any());
+    verify(metadataServiceMock, times(1)).createMetadataItem(any(), any(), any(), anyLong());
+
+    // Existing thumbnail is retrieved without looking up metadata
+    clearInvocations(metadataServiceMock);
+    assertEquals(Long.valueOf(2L), thumbnailService.getOrCreateThumbnail(image, userIdentity, 45, 45).getFileInfo().getId());
+    verify(metadataServiceMock, never()).getMetadataItemsByMetadataTypeAndObject(anyString(), any());
+
+    // Deleted thumbnails are removed from the index with their files
+    Map<String, String> properties = new HashMap<>();
+    properties.put("width", "45");
+    properties.put("height", "45");
+    MetadataItem thumbnailItem = new MetadataItem();
+    thumbnailItem.setParentObjectId("2");
+    thumbnailItem.setProperties(properties);
+    when(metadataServiceMock.getMetadataItemsByMetadataTypeAndObject(anyString(),
+                                                                     any())).thenReturn(Collections.singletonList(thumbnailItem));
+    thumbnailService.deleteThumbnails(1L);
+    verify(fileServiceMock, times(1)).deleteFile(2L);
+    verify(metadataServiceMock, times(1)).deleteMetadataItemsByMetadataTypeAndObject(anyString(), any());
+
+    when(metadataServiceMock.getMetadataItemsByMetadataTypeAndObject(anyString(), any())).thenReturn(Collections.emptyList());
+    clearInvocations(metadataServiceMock);
+    thumbnailService.getOrCreateThumbnail(image, userIdentity, 45, 45);
+    verify(metadataServiceMock, times(1)).getMetadataItemsByMetadataTypeAndObject(anyString(), any());
+    verify(fileServiceMock, times(2)).writeFile(any());
+  }
 }
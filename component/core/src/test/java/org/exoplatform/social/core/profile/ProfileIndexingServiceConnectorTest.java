@@ -0,0 +1,131 @@
+package org.exoplatform.social.core.profile;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+import org.exoplatform.commons.search.es.client.ElasticIndexingClient;
+import org.exoplatform.commons.search.es.client.ElasticSearchingClient;
+import org.exoplatform.container.xml.InitParams;
+import org.exoplatform.container.xml.PropertiesParam;
+import org.exoplatform.social.core.jpa.search.ProfileIndexingServiceConnector;
+import org.exoplatform.social.core.jpa.storage.dao.ConnectionDAO;
+import org.exoplatform.social.core.jpa.storage.dao.IdentityDAO;
+import org.exoplatform.social.core.manager.IdentityManager;
+import org.exoplatform.social.core.profileproperty.ProfilePropertyService;
+
+@RunWith(MockitoJUnitRunner.class)
+public class ProfileIndexingServiceConnectorTest {
+
+  @Mock
+  IdentityManager        identityManager;
+
+  @Mock
+  IdentityDAO            identityDAO;
+
+  @Mock
+  ConnectionDAO          connectionDAO;
+
+  @Mock
+  ProfilePropertyService profilePropertyService;
+
+  @Mock
+  ElasticIndexingClient  indexingClient;
+
+  @Mock
+  ElasticSearchingClient searchingClient;
+
+  @Test
+  public void testAddConnection() {
+    ProfileIndexingServiceConnector connector = newConnector();
+    mockIndexedIds("1", "2");
+    assertTrue(connector.addConnection("1", "2").isEmpty());
+
+    String[] lines = getBulkRequestLines();
+    assertEquals(4, lines.length);
+    assertEquals("{\"update\":{\"_index\":\"profile_alias\",\"_id\":\"1\",\"retry_on_conflict\":3}}", lines[0]);
+    assertTrue(lines[1].contains("ctx._source.connections.add(params.connection)"));
+    assertTrue(lines[1].endsWith("\"params\":{\"connection\":2}}}"));
+    assertEquals("{\"update\":{\"_index\":\"profile_alias\",\"_id\":\"2\",\"retry_on_conflict\":3}}", lines[2]);
+    assertTrue(lines[3].endsWith("\"params\":{\"connection\":1}}}"));
+  }
+
+  @Test
+  public void testRemoveConnection() {
+    ProfileIndexingServiceConnector connector = newConnector();
+    mockIndexedIds("1", "2");
+    assertTrue(connector.removeConnection("1", "2").isEmpty());
+
+    String[] lines = getBulkRequestLines();
+    assertEquals(4, lines.length);
+    assertTrue(lines[1].contains("ctx._source.connections.removeIf"));
+    assertTrue(lines[3].contains("ctx._source.connections.removeIf"));
+  }
+
+  @Test
+  public void testAddConnectionToNotIndexedProfile() {
+    ProfileIndexingServiceConnector connector = newConnector();
+    mockIndexedIds("1");
+    assertEquals(Collections.singletonList("2"), connector.addConnection("1", "2"));
+
+    String[] lines = getBulkRequestLines();
+    assertEquals(2, lines.length);
+    assertEquals("{\"update\":{\"_index\":\"profile_alias\",\"_id\":\"1\",\"retry_on_conflict\":3}}", lines[0]);
+  }
+
+  @Test
+  public void testRemoveConnectionOfNotIndexedProfiles() {
+    ProfileIndexingServiceConnector connector = newConnector();
+    mockIndexedIds();
+    List<String> notUpdatedIds = connector.removeConnection("1", "2");
+    assertEquals(2, notUpdatedIds.size());
+    verify(indexingClient, never()).sendCUDRequest(anyString());
+  }
+
+  private void mockIndexedIds(String... ids) {
+    StringBuilder hits = new StringBuilder();
+    for (String id : ids) {
+      if (hits.length() > 0) {
+        hits.append(",");
+      }
+      hits.append("{\"_index\":\"profile_v2\",\"_id\":\"").append(id).append("\"}");
+    }
+    when(searchingClient.sendRequest(anyString(), eq("profile_alias"))).thenReturn("{\"hits\":{\"hits\":[" + hits + "]}}");
+  }
+
+  private String[] getBulkRequestLines() {
+    ArgumentCaptor<String> bulkRequest = ArgumentCaptor.forClass(String.class);
+    verify(indexingClient).sendCUDRequest(bulkRequest.capture());
+    return bulkRequest.getValue().split("\n");
+  }
+
+  private ProfileIndexingServiceConnector newConnector() {
+    InitParams params = new InitParams();
+    PropertiesParam propertiesParam = new PropertiesParam();
+    propertiesParam.setName("constructor.params");
+    propertiesParam.setProperty("index_alias", "profile_alias");
+    propertiesParam.setProperty("index_current", "profile_v2");
+    params.addParameter(propertiesParam);
+    return new ProfileIndexingServiceConnector(params,
+                                               identityManager,
+                                               identityDAO,
+                                               connectionDAO,
+                                               profilePropertyService,
+                                               indexingClient,
+                                               searchingClient);
+  }
+
+}
@@ -0,0 +1,70 @@
+package org.exoplatform.social.core.search;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.Mockito.*;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+import org.exoplatform.commons.search.index.IndexingService;
+import org.exoplatform.container.xml.InitParams;
+import org.exoplatform.container.xml.ValueParam;
+import org.exoplatform.social.core.jpa.search.SocialIndexingBuffer;
+
+@RunWith(MockitoJUnitRunner.class)
+public class SocialIndexingBufferTest {
+
+  @Mock
+  IndexingService indexingService;
+
+  @Test
+  public void testCoalesceOperations() {
+    SocialIndexingBuffer indexingBuffer = new SocialIndexingBuffer(indexingService, getParams("1000"));
+    indexingBuffer.reindex("activity", "1");
+    indexingBuffer.reindex("activity", "1");
+    indexingBuffer.reindex("profile", "1");
+    indexingBuffer.index("activity", "2");
+    indexingBuffer.reindex("activity", "2");
+    indexingBuffer.reindex("activity", "3");
+    indexingBuffer.unindex("activity", "3");
+    verifyNoInteractions(indexingService);
+    assertEquals(4, indexingBuffer.getPendingOperations());
+
+    indexingBuffer.flush();
+
+    InOrder inOrder = inOrder(indexingService);
+    inOrder.verify(indexingService).reindex("activity", "1");
+    inOrder.verify(indexingService).reindex("profile", "1");
+    inOrder.verify(indexingService).index("activity", "2");
+    inOrder.verify(indexingService).unindex("activity", "3");
+    verifyNoMoreInteractions(indexingService);
+    assertEquals(0, indexingBuffer.getPendingOperations());
+    assertEquals(7, indexingBuffer.getReceivedOperations());
+    assertEquals(3, indexingBuffer.getCoalescedOperations());
+    assertEquals(4, indexingBuffer.getEmittedOperations());
+  }
+
+  @Test
+  public void testWithoutWindow() {
+    SocialIndexingBuffer indexingBuffer = new SocialIndexingBuffer(indexingService, getParams("0"));
+    indexingBuffer.reindex("activity", "1");
+    indexingBuffer.reindex("activity", "1");
+
+    verify(indexingService, times(2)).reindex("activity", "1");
+    assertEquals(0, indexingBuffer.getPendingOperations());
+    assertEquals(2, indexingBuffer.getEmittedOperations());
+  }
+
+  private InitParams getParams(String window) {
+    InitParams params = new InitParams();
+    ValueParam windowParam = new ValueParam();
+    windowParam.setName("window");
+    windowParam.setValue(window);
+    params.addParameter(windowParam);
+    return params;
+  }
+
+}
@@ -0,0 +1,128 @@
+package org.exoplatform.social.core.space;
+
+import static org.junit.Assert.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.*;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+import org.exoplatform.commons.search.domain.Document;
+import org.exoplatform.container.xml.InitParams;
+import org.exoplatform.container.xml.PropertiesParam;
+import org.exoplatform.social.core.jpa.search.SpaceIndexingServiceConnector;
+import org.exoplatform.social.core.jpa.storage.dao.SpaceDAO;
+import org.exoplatform.social.core.jpa.storage.dao.SpaceMemberDAO;
+import org.exoplatform.social.core.jpa.storage.entity.SpaceEntity;
+import org.exoplatform.social.core.jpa.storage.entity.SpaceMemberEntity.Status;
+import org.exoplatform.social.core.search.DocumentWithMetadata;
+import org.exoplatform.social.metadata.MetadataService;
+import org.exoplatform.social.metadata.model.MetadataItem;
+
+@RunWith(MockitoJUnitRunner.class)
+public class SpaceIndexingServiceConnectorTest {
+
+  SpaceIndexingServiceConnector spaceIndexingServiceConnector = null;
+
+  @Mock
+  SpaceDAO                      spaceDAO;
+
+  @Mock
+  SpaceMemberDAO                spaceMemberDAO;
+
+  @Mock
+  MetadataService               metadataService;
+
+  @Before
+  public void setUp() {
+    spaceIndexingServiceConnector = new SpaceIndexingServiceConnector(getParams(), spaceDAO, spaceMemberDAO, metadataService);
+  }
+
+  @Test
+  public void testGetAllIds() {
+    when(spaceDAO.getAllIds(10, 5)).thenReturn(Arrays.asList(11L, 12L));
+
+    assertEquals(Arrays.asList("11", "12"), spaceIndexingServiceConnector.getAllIds(10, 5));
+  }
+
+  @Test
+  public void testCreate() {
+    try {
+      spaceIndexingServiceConnector.create((String) null);
+      fail("IllegalArgumentException should be thrown");
+    } catch (IllegalArgumentException e) {
+      // Expected
+    }
+
+    assertNull(spaceIndexingServiceConnector.create("1"));
+    assertNull(spaceIndexingServiceConnector.create("not-a-number"));
+
+    when(spaceDAO.getSpacesByIds(Collections.singletonList(1L))).thenReturn(Collections.singletonList(newSpaceEntity(1L)));
+    when(spaceMemberDAO.getSpacesMembers(eq(Collections.singletonList(1L)),
+                                         anyList())).thenReturn(Collections.singletonMap(1L,
+                                                                                         new HashSet<>(Arrays.asList("john",
+                                                                                                                     "mary"))));
+    Document document = spaceIndexingServiceConnector.create("1");
+    assertNotNull(document);
+    assertEquals("1", document.getId());
+    assertEquals("space1", document.getFields().get("prettyName"));
+    assertEquals("private", document.getFields().get("visibility"));
+    assertEquals("validation", document.getFields().get("registration"));
+    assertEquals(new HashSet<>(Arrays.asList("john", "mary")), document.getPermissions());
+  }
+
+  @Test
+  public void testCreateBulk() {
+    List<SpaceEntity> spaces = Arrays.asList(newSpaceEntity(3L), newSpaceEntity(1L));
+    when(spaceDAO.getSpacesByIds(Arrays.asList(1L, 2L, 3L))).thenReturn(spaces);
+    Map<Long, Set<String>> members = new HashMap<>();
+    members.put(1L, Collections.singleton("john"));
+    when(spaceMemberDAO.getSpacesMembers(eq(Arrays.asList(1L, 3L)), anyList())).thenReturn(members);
+    MetadataItem metadataItem = new MetadataItem();
+    when(metadataService.getMetadataItemsByObjects(SpaceIndexingServiceConnector.SPACE_METADATA_OBJECT_TYPE,
+                                                   Arrays.asList("1", "3"))).thenReturn(Collections.singletonMap("3",
+                                                                                                                 Collections.singletonList(metadataItem)));
+
+    List<Document> documents = spaceIndexingServiceConnector.create(Arrays.asList("1", "2", "3"));
+    assertEquals(2, documents.size());
+    assertEquals("1", documents.get(0).getId());
+    assertEquals(Collections.singleton("john"), documents.get(0).getPermissions());
+    assertTrue(((DocumentWithMetadata) documents.get(0)).getMetadataItems().isEmpty());
+    assertEquals("3", documents.get(1).getId());
+    assertTrue(documents.get(1).getPermissions().isEmpty());
+    assertEquals(Collections.singletonList(metadataItem), ((DocumentWithMetadata) documents.get(1)).getMetadataItems());
+    verify(spaceDAO, times(1)).getSpacesByIds(any());
+    // Managers are members too, only members are allowed to see the space
+    verify(spaceMemberDAO, times(1)).getSpacesMembers(any(), eq(Collections.singletonList(Status.MEMBER)));
+  }
+
+  private SpaceEntity newSpaceEntity(long id) {
+    SpaceEntity spaceEntity = new SpaceEntity();
+    spaceEntity.setId(id);
+    spaceEntity.setPrettyName("space" + id);
+    spaceEntity.setDisplayName("Space " + id);
+    spaceEntity.setVisibility(SpaceEntity.VISIBILITY.PRIVATE);
+    spaceEntity.setRegistration(SpaceEntity.REGISTRATION.VALIDATION);
+    spaceEntity.setCreatedDate(new Date());
+    return spaceEntity;
+  }
+
+  private InitParams getParams() {
+    InitParams params = new InitParams();
+    PropertiesParam propertiesParam = new PropertiesParam();
+    propertiesParam.setName("constructor.params");
+    params.addParameter(propertiesParam);
+    propertiesParam.setProperty("index_current", "index_name");
+    return params;
+  }
+
+}
@@ -2620,6 +2620,34 @@ public class SpaceServiceTest extends AbstractCoreTest {
                 spaceService.isMember(savedSpace, "stranger"));
   }
 
+  public void testIsMemberAfterMembersUpdate() throws Exception {
+    Space space = this.getSpaceInstance(0);
+    Space savedSpace = spaceService.getSpaceByDisplayName(space.getDisplayName());
+    assertFalse(spaceService.isMember(savedSpace, "stranger"));
+
+    spaceService.addMember(savedSpace, "stranger");
+    assertTrue(spaceService.isMember(savedSpace, "stranger"));
+    assertTrue(spaceService.isMember(savedSpace.getId(), "stranger"));
+
+    spaceService.removeMember(savedSpace, "stranger");
+    assertFalse(spaceService.isMember(savedSpace, "stranger"));
+    assertFalse(spaceService.isMember(savedSpace.getId(), "stranger"));
+
+    spaceService.addMember(savedSpace, "stranger");
+    spaceService.setManager(savedSpace, "stranger", true);
+    assertTrue(spaceService.isManager(savedSpace, "stranger"));
+    assertTrue(spaceService.hasSettingPermission(savedSpace, "stranger"));
+
+    spaceService.setManager(savedSpace, "stranger", false);
+    assertFalse(spaceService.isManager(savedSpace, "stranger"));
+    assertTrue(spaceService.isMember(savedSpace, "stranger"));
+
+    Space unsavedSpace = new Space();
+    unsavedSpace.setMembers(new String[] { "stranger" });
+    assertTrue(spaceService.isMember(unsavedSpace, "stranger"));
+    assertFalse(spaceService.isMember(unsavedSpace, "raul"));
+  }
+
   /**
    * Test {@link SpaceService#hasAccessPermission(Space, String)}
    *
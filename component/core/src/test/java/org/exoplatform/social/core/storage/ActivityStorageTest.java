@@ -421,6 +421,28 @@ public class ActivityStorageTest extends AbstractCoreTest {
 
   }
   
+  public void testGetActivitiesByIds() throws ActivityStorageException {
+    List<String> activityIds = new ArrayList<>();
+    for (int i = 0; i < 5; i++) {
+      ExoSocialActivity activity = new ExoSocialActivityImpl();
+      activity.setTitle("activity title " + i);
+      activityStorage.saveActivity(rootIdentity, activity);
+      tearDownActivityList.add(activity);
+      activityIds.add(0, activity.getId());
+    }
+    // Load a part of activities in cache
+    activityStorage.getActivity(activityIds.get(1));
+    activityStorage.getActivity(activityIds.get(3));
+
+    List<String> requestedIds = new ArrayList<>(activityIds);
+    requestedIds.add(2, String.valueOf(Long.MAX_VALUE));
+    List<ExoSocialActivity> activities = activityStorage.getActivities(requestedIds);
+    assertEquals(activityIds.size(), activities.size());
+    for (int i = 0; i < activityIds.size(); i++) {
+      assertEquals(activityIds.get(i), activities.get(i).getId());
+    }
+  }
+
   public void testGetUserActivityIds() throws ActivityStorageException {
     final int totalNumber = 10;
     final String activityTitle = "activity title";
@@ -0,0 +1,82 @@
+package org.exoplatform.social.core.storage.cache;
+
+import static org.junit.Assert.*;
+
+import java.util.*;
+
+import org.junit.Test;
+
+public class ActivityStreamGenerationsTest {
+
+  @Test
+  public void testInvalidateOnlyModifiedStreams() {
+    Map<String, Set<Long>> feedOwners = new HashMap<>();
+    feedOwners.put("1", new HashSet<>(Arrays.asList(1L, 10L)));
+    feedOwners.put("2", new HashSet<>(Arrays.asList(2L, 20L)));
+    ActivityStreamGenerations generations = new ActivityStreamGenerations(feedOwners::get, 100, 60000);
+
+    long feed1 = generations.getFeedGeneration("1");
+    long feed2 = generations.getFeedGeneration("2");
+    long space10 = generations.getIdentityGeneration("10");
+    long activity5 = generations.getActivityGeneration("5");
+    long global = generations.getGlobalGeneration();
+
+    generations.invalidate(Collections.singleton("10"), Collections.emptySet());
+
+    assertNotEquals(feed1, generations.getFeedGeneration("1"));
+    assertEquals(feed2, generations.getFeedGeneration("2"));
+    assertNotEquals(space10, generations.getIdentityGeneration("10"));
+    assertEquals(activity5, generations.getActivityGeneration("5"));
+    assertNotEquals(global, generations.getGlobalGeneration());
+
+    generations.invalidate(Collections.emptySet(), Collections.singleton("5"));
+    assertNotEquals(activity5, generations.getActivityGeneration("5"));
+  }
+
+  @Test
+  public void testInvalidateIncrementsGeneration() {
+    ActivityStreamGenerations generations = new ActivityStreamGenerations(id -> Collections.emptySet(), 100, 60000);
+    long identity = generations.getIdentityGeneration("1");
+
+    generations.invalidate(Collections.singleton("1"), Collections.emptySet());
+    assertEquals(identity + 1, generations.getIdentityGeneration("1"));
+
+    generations.invalidate(Collections.singleton("1"), Collections.emptySet());
+    assertEquals(identity + 2, generations.getIdentityGeneration("1"));
+    assertEquals(identity, generations.getIdentityGeneration("2"));
+  }
+
+  @Test
+  public void testInvalidateStreamKeysFromOtherNode() {
+    ActivityStreamGenerations generations = new ActivityStreamGenerations(id -> Collections.emptySet(), 100, 60000);
+    ActivityStreamGenerations otherNodeGenerations = new ActivityStreamGenerations(id -> Collections.emptySet(), 100, 60000);
+    assertNotEquals(generations.getGlobalGeneration(), otherNodeGenerations.getGlobalGeneration());
+    long identity = generations.getIdentityGeneration("1");
+    long activity = generations.getActivityGeneration("5");
+    long global = generations.getGlobalGeneration();
+
+    String[] streamKeys = ActivityStreamGenerations.getStreamKeys(Collections.singleton("1"), Collections.singleton("5"));
+    otherNodeGenerations.invalidate(streamKeys);
+    generations.invalidate(streamKeys);
+
+    assertNotEquals(identity, generations.getIdentityGeneration("1"));
+    assertNotEquals(activity, generations.getActivityGeneration("5"));
+    assertNotEquals(global, generations.getGlobalGeneration());
+  }
+
+  @Test
+  public void testReset() {
+    ActivityStreamGenerations generations = new ActivityStreamGenerations(id -> Collections.emptySet(), 2, 60000);
+    generations.invalidate(Arrays.asList("1", "2"), Collections.emptySet());
+    long identity1 = generations.getIdentityGeneration("1");
+    long identity3 = generations.getIdentityGeneration("3");
+    assertEquals(2, generations.getSize());
+
+    // Exceeding the maximum number of generations resets all of them
+    generations.invalidate(Collections.singleton("4"), Collections.emptySet());
+    assertEquals(1, generations.getSize());
+    assertTrue(generations.getIdentityGeneration("1") > identity1);
+    assertTrue(generations.getIdentityGeneration("3") > identity3);
+  }
+
+}
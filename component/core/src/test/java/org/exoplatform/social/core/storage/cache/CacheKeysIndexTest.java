@@ -0,0 +1,102 @@
+package org.exoplatform.social.core.storage.cache;
+
+import static org.junit.Assert.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+import java.util.*;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+import org.exoplatform.services.cache.ExoCache;
+import org.exoplatform.social.core.identity.model.Identity;
+import org.exoplatform.social.core.storage.cache.model.data.ListIdentitiesData;
+import org.exoplatform.social.core.storage.cache.model.key.*;
+import org.exoplatform.social.core.storage.cache.selector.RelationshipCacheSelector;
+
+@RunWith(MockitoJUnitRunner.class)
+public class CacheKeysIndexTest {
+
+  @Mock
+  ExoCache<ListRelationshipsKey, ListIdentitiesData> cache;
+
+  @Test
+  public void testRemoveIndexedKeys() throws Exception {
+    CacheKeysIndex<ListRelationshipsKey, ListIdentitiesData> index = newIndex(0);
+    verify(cache).addCacheListener(index);
+    assertTrue(index.isAvailable());
+
+    ListRelationshipsKey key1 = newKey("1");
+    ListRelationshipsKey key2 = newKey("2");
+    ListRelationshipsKey key3 = newKey("3");
+    ListRelationshipsKey anyKey = new ListRelationshipsKey<>(null, RelationshipType.CONNECTION, 0, 10);
+    index.onPut(null, key1, null);
+    index.onPutLocal(null, key2, null);
+    index.onPut(null, key3, null);
+    index.onPut(null, anyKey, null);
+    index.onRemove(null, key3, null);
+    assertEquals(3, index.getSize());
+
+    RelationshipCacheSelector selector = new RelationshipCacheSelector("1", "3");
+    index.remove(selector.getIndexValues(), selector);
+
+    verify(cache).remove(key1);
+    verify(cache).remove(anyKey);
+    verify(cache, never()).remove(key2);
+    verify(cache, never()).remove(key3);
+    verify(cache, never()).select(any());
+  }
+
+  @Test
+  public void testScanWhenUnavailable() throws Exception {
+    when(cache.getCacheSize()).thenReturn(1);
+    CacheKeysIndex<ListRelationshipsKey, ListIdentitiesData> index = newIndex(0);
+    assertFalse(index.isAvailable());
+
+    ListRelationshipsKey key1 = newKey("1");
+    index.onPut(null, key1, null);
+    assertEquals(0, index.getSize());
+
+    RelationshipCacheSelector selector = new RelationshipCacheSelector("1", "2");
+    index.remove(selector.getIndexValues(), selector);
+    verify(cache).select(any());
+    verify(cache, never()).remove(any());
+    assertTrue(index.isAvailable());
+
+    index.onPut(null, key1, null);
+    index.remove(selector.getIndexValues(), selector);
+    verify(cache).remove(key1);
+
+    index.onClearCache(null);
+    assertEquals(0, index.getSize());
+    assertTrue(index.isAvailable());
+  }
+
+  @Test
+  public void testDisableWhenFull() throws Exception {
+    CacheKeysIndex<ListRelationshipsKey, ListIdentitiesData> index = newIndex(2);
+    index.onPut(null, newKey("1"), null);
+    index.onPut(null, newKey("2"), null);
+    assertTrue(index.isAvailable());
+
+    index.onPut(null, newKey("3"), null);
+    assertFalse(index.isAvailable());
+    assertEquals(0, index.getSize());
+
+    RelationshipCacheSelector selector = new RelationshipCacheSelector("1", "3");
+    index.remove(selector.getIndexValues(), selector);
+    verify(cache).select(any());
+  }
+
+  private CacheKeysIndex<ListRelationshipsKey, ListIdentitiesData> newIndex(int maxKeys) {
+    return new CacheKeysIndex<>(cache, (key, data) -> RelationshipCacheSelector.getIndexValues(key), maxKeys);
+  }
+
+  private ListRelationshipsKey newKey(String identityId) {
+    return new ListRelationshipsKey<>(new IdentityKey(new Identity(identityId)), RelationshipType.CONNECTION, 0, 10);
+  }
+
+}
@@ -0,0 +1,135 @@
+package org.exoplatform.social.core.storage.cache.model.data;
+
+import static org.junit.Assert.*;
+
+import java.io.*;
+import java.util.*;
+
+import org.junit.Test;
+
+import org.exoplatform.social.core.activity.model.ActivityStream;
+import org.exoplatform.social.core.activity.model.ExoSocialActivity;
+import org.exoplatform.social.core.activity.model.ExoSocialActivityImpl;
+import org.exoplatform.social.core.identity.model.Identity;
+import org.exoplatform.social.core.identity.model.Profile;
+import org.exoplatform.social.core.space.model.Space;
+import org.exoplatform.social.core.storage.cache.model.key.ActivityKey;
+import org.exoplatform.social.core.storage.cache.model.key.IdentityKey;
+
+public class CacheDataSerializationTest {
+
+  @Test
+  public void testActivityData() throws Exception {
+    ExoSocialActivity activity = new ExoSocialActivityImpl();
+    activity.setId("125");
+    activity.setTitle("Activity title with a long enough text");
+    activity.setType("DEFAULT_ACTIVITY");
+    activity.setUserId("3");
+    activity.setPosterId("3");
+    activity.setLikeIdentityIds(new String[] { "3", "4", "12" });
+    activity.setMentionedIds(new String[] { "4@2", "12@1" });
+    activity.setCommentedIds(new String[] { "3@1" });
+    activity.setReplyToId(new String[] { "commentactivity126", "commentactivity127" });
+    Map<String, String> templateParams = new LinkedHashMap<>();
+    templateParams.put("link", "https://meeds.io");
+    templateParams.put("comment", null);
+    activity.setTemplateParams(templateParams);
+    activity.getActivityStream().setId("7");
+    activity.getActivityStream().setPrettyId("engineering");
+    activity.getActivityStream().setType(ActivityStream.Type.SPACE);
+    activity.setPinned(true);
+    activity.setPinAuthorId(3L);
+
+    ActivityData data = new ActivityData(activity);
+    ActivityData deserializedData = serialize(data);
+
+    assertEquals(data, deserializedData);
+    ExoSocialActivity deserializedActivity = deserializedData.build();
+    assertEquals("125", deserializedActivity.getId());
+    assertArrayEquals(activity.getLikeIdentityIds(), deserializedActivity.getLikeIdentityIds());
+    assertEquals(templateParams, deserializedActivity.getTemplateParams());
+    assertEquals(ActivityStream.Type.SPACE, deserializedActivity.getActivityStream().getType());
+    assertEquals(activity.getUpdated(), deserializedActivity.getUpdated());
+  }
+
+  @Test
+  public void testSpaceData() throws Exception {
+    Space space = new Space();
+    space.setId("7");
+    space.setPrettyName("engineering");
+    space.setDisplayName("Engineering");
+    space.setGroupId("/spaces/engineering");
+    space.setMembers(new String[] { "john", "mary", "james" });
+    space.setManagers(new String[] { "john" });
+    space.setRedactors(new String[] { "mary" });
+    space.setCreatedTime(1000L);
+
+    SpaceData data = new SpaceData(space);
+    SpaceData deserializedData = serialize(data);
+
+    assertEquals(data, deserializedData);
+    assertTrue(deserializedData.build().hasMember("james"));
+    assertTrue(deserializedData.build().hasManager("john"));
+  }
+
+  @Test
+  public void testProfileData() throws Exception {
+    Identity identity = new Identity("organization", "john");
+    identity.setId("3");
+    Profile profile = new Profile(identity);
+    profile.setId("3");
+    profile.setProperty(Profile.FIRST_NAME, "John");
+    profile.setProperty(Profile.EXPERIENCES, new ArrayList<>(Collections.singletonList(new HashMap<>())));
+
+    ProfileData data = new ProfileData(profile);
+    ProfileData deserializedData = serialize(data);
+
+    assertEquals(data, deserializedData);
+    assertEquals("John", deserializedData.build().getProperty(Profile.FIRST_NAME));
+    assertEquals(serialize(ProfileData.NULL_OBJECT), ProfileData.NULL_OBJECT);
+  }
+
+  @Test
+  public void testListData() throws Exception {
+    ListActivitiesData activities = new ListActivitiesData(Arrays.asList(new ActivityKey("12"),
+                                                                         new ActivityKey("11"),
+                                                                         new ActivityKey("12")));
+    assertEquals(activities, serialize(activities));
+
+    ListIdentitiesData identities = new ListIdentitiesData(Arrays.asList(new IdentityKey(new Identity("3")),
+                                                                         new IdentityKey(new Identity("john"))));
+    assertEquals(identities, serialize(identities));
+    assertNull(serialize(new ListSpacesData(null)).getIds());
+  }
+
+  @Test
+  public void testActiveIdentitiesData() throws Exception {
+    Set<String> users = new HashSet<>(Arrays.asList("mary", "john", "james"));
+    ActiveIdentitiesData data = new ActiveIdentitiesData(users);
+    ActiveIdentitiesData deserializedData = serialize(data);
+
+    assertEquals(data, deserializedData);
+    Set<String> activeUsers = deserializedData.build();
+    assertEquals(users, activeUsers);
+    assertTrue(activeUsers.contains("john"));
+    assertFalse(activeUsers.contains("raul"));
+    try {
+      activeUsers.add("raul");
+      fail("Cached active users shouldn't be modifiable");
+    } catch (UnsupportedOperationException e) {
+      // expected
+    }
+  }
+
+  @SuppressWarnings("unchecked")
+  private static <T> T serialize(T data) throws IOException, ClassNotFoundException {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+      out.writeObject(data);
+    }
+    try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+      return (T) in.readObject();
+    }
+  }
+
+}
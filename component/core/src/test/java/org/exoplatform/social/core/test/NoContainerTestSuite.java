@@ -28,11 +28,17 @@ import org.exoplatform.social.core.identity.model.GlobalIdTest;
 import org.exoplatform.social.core.identity.model.IdentityTest;
 import org.exoplatform.social.core.image.ImageUtilsTest;
 import org.exoplatform.social.core.processor.ActivityResourceBundlePluginTest;
+import org.exoplatform.social.core.profile.ProfileIndexingServiceConnectorTest;
 import org.exoplatform.social.core.profile.UserProfileComparatorTest;
 import org.exoplatform.social.core.relationship.RelationshipTest;
 import org.exoplatform.social.core.search.SearchServiceTest;
+import org.exoplatform.social.core.search.SocialIndexingBufferTest;
+import org.exoplatform.social.core.space.SpaceIndexingServiceConnectorTest;
 import org.exoplatform.social.core.service.GettingStartedServiceTest;
 import org.exoplatform.social.core.storage.StorageUtilsTest;
+import org.exoplatform.social.core.storage.cache.ActivityStreamGenerationsTest;
+import org.exoplatform.social.core.storage.cache.CacheKeysIndexTest;
+import org.exoplatform.social.core.storage.cache.model.data.CacheDataSerializationTest;
 
 @RunWith(Suite.class)
 @SuiteClasses({
@@ -48,6 +54,12 @@ import org.exoplatform.social.core.storage.StorageUtilsTest;
     UserProfileComparatorTest.class,
     ActivityIndexingServiceConnectorTest.class,
     ActivitySearchConnectorTest.class,
+    SpaceIndexingServiceConnectorTest.class,
+    SocialIndexingBufferTest.class,
+    ProfileIndexingServiceConnectorTest.class,
+    ActivityStreamGenerationsTest.class,
+    CacheKeysIndexTest.class,
+    CacheDataSerializationTest.class,
 })
 public class NoContainerTestSuite {
 
@@ -0,0 +1,95 @@
+/*
+ * This file is part of the Meeds project (https://meeds.io/).
+ * Copyright (C) 2022 Meeds Association contact@meeds.io
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package org.exoplatform.social.core.upgrade;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+import org.exoplatform.container.xml.InitParams;
+import org.exoplatform.container.xml.ValueParam;
+import org.exoplatform.social.core.identity.model.Profile;
+import org.exoplatform.social.core.identity.provider.OrganizationIdentityProvider;
+import org.exoplatform.social.core.jpa.storage.dao.IdentityDAO;
+import org.exoplatform.social.core.jpa.storage.entity.IdentityEntity;
+import org.exoplatform.social.core.jpa.test.BaseCoreTest;
+
+public class LastLoginTimeUpgradePluginTest extends BaseCoreTest {
+
+  private IdentityDAO          identityDAO;
+
+  private List<IdentityEntity> deleteIdentities = new ArrayList<>();
+
+  @Override
+  public void setUp() throws Exception {
+    super.setUp();
+    identityDAO = getService(IdentityDAO.class);
+    deleteIdentities = new ArrayList<>();
+  }
+
+  @Override
+  public void tearDown() throws Exception {
+    for (IdentityEntity entity : deleteIdentities) {
+      identityDAO.delete(entity);
+    }
+    super.tearDown();
+  }
+
+  public void testProcessUpgrade() {
+    long legacyTime = 1760000000000L;
+    long time = System.currentTimeMillis();
+    IdentityEntity legacyUser = createIdentity("legacyLoginUser", new Date(legacyTime).toString());
+    IdentityEntity convertedUser = createIdentity("convertedLoginUser", String.valueOf(time));
+    IdentityEntity invalidUser = createIdentity("invalidLoginUser", "invalid date");
+
+    List<String> remoteIds = identityDAO.getRemoteIdsByLastLoginTime(OrganizationIdentityProvider.NAME, 0, 0, 10);
+    assertFalse(remoteIds.contains("legacyLoginUser"));
+    assertTrue(remoteIds.contains("convertedLoginUser"));
+
+    InitParams initParams = new InitParams();
+    ValueParam valueParam = new ValueParam();
+    valueParam.setName("product.group.id");
+    valueParam.setValue("org.exoplatform.social");
+    initParams.addParameter(valueParam);
+    new LastLoginTimeUpgradePlugin(identityDAO, initParams).processUpgrade(null, null);
+
+    assertEquals(String.valueOf(legacyTime), getLastLoginTime(legacyUser));
+    assertEquals(String.valueOf(time), getLastLoginTime(convertedUser));
+    assertNull(getLastLoginTime(invalidUser));
+
+    remoteIds = identityDAO.getRemoteIdsByLastLoginTime(OrganizationIdentityProvider.NAME, 0, 0, 10);
+    assertTrue(remoteIds.contains("legacyLoginUser"));
+    assertTrue(remoteIds.contains("convertedLoginUser"));
+    assertFalse(remoteIds.contains("invalidLoginUser"));
+  }
+
+  private String getLastLoginTime(IdentityEntity entity) {
+    return identityDAO.find(entity.getId()).getProperties().get(Profile.LAST_LOGIN_TIME);
+  }
+
+  private IdentityEntity createIdentity(String remoteId, String lastLoginTime) {
+    IdentityEntity entity = new IdentityEntity();
+    entity.setProviderId(OrganizationIdentityProvider.NAME);
+    entity.setRemoteId(remoteId);
+    entity.setEnabled(true);
+    entity.setDeleted(false);
+    entity.getProperties().put(Profile.LAST_LOGIN_TIME, lastLoginTime);
+    entity = identityDAO.create(entity);
+    deleteIdentities.add(entity);
+    return entity;
+  }
+
+}
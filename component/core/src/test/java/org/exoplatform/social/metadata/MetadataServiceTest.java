@@ -38,6 +38,7 @@ import org.exoplatform.social.core.identity.provider.SpaceIdentityProvider;
 import org.exoplatform.social.core.jpa.storage.dao.jpa.MetadataDAO;
 import org.exoplatform.social.core.manager.IdentityManager;
 import org.exoplatform.social.core.space.model.Space;
+import org.exoplatform.social.core.storage.cache.CachedMetadataStorage;
 import org.exoplatform.social.core.test.AbstractCoreTest;
 import org.exoplatform.social.metadata.model.Metadata;
 import org.exoplatform.social.metadata.model.MetadataItem;
@@ -119,6 +120,7 @@ public class MetadataServiceTest extends AbstractCoreTest {
     identityManager.deleteIdentity(johnIdentity);
     identityManager.deleteIdentity(maryIdentity);
     metadataDAO.deleteAll();
+    getContainer().getComponentInstanceOfType(CachedMetadataStorage.class).clearCaches();
 
     for (Space space : tearDownSpaceList) {
       Identity spaceIdentity = identityManager.getOrCreateIdentity(SpaceIdentityProvider.NAME, space.getPrettyName());
@@ -845,6 +847,46 @@ public class MetadataServiceTest extends AbstractCoreTest {
     assertEquals(1, metadataItems.size());
   }
 
+  public void testGetMetadataItemsByObjects() throws Exception {
+    long creatorId = Long.parseLong(johnIdentity.getId());
+    long audienceId = creatorId;
+    String type = userMetadataType.getName();
+
+    createNewMetadataItem(type, "testMetadata7", "objectType1", "objectId1", "parentObjectId1", creatorId, audienceId);
+    createNewMetadataItem(type, "testMetadata8", "objectType1", "objectId1", "parentObjectId1", creatorId, audienceId);
+    createNewMetadataItem(type, "testMetadata7", "objectType1", "objectId2", "parentObjectId1", creatorId, audienceId);
+    createNewMetadataItem(type, "testMetadata7", "objectType2", "objectId3", "parentObjectId1", creatorId, audienceId);
+
+    // Put objectId1 in cache before retrieving the list
+    assertEquals(2, getMetadataItemsByObject("objectType1", "objectId1").size());
+
+    Map<String, List<MetadataItem>> metadataItems =
+                                                  metadataService.getMetadataItemsByObjects("objectType1",
+                                                                                            Arrays.asList("objectId1",
+                                                                                                          "objectId2",
+                                                                                                          "objectId3"));
+    assertEquals(3, metadataItems.size());
+    assertEquals(2, metadataItems.get("objectId1").size());
+    assertEquals(1, metadataItems.get("objectId2").size());
+    assertEquals(0, metadataItems.get("objectId3").size());
+
+    // Cached lists must be invalidated when the items of the object change
+    MetadataItem metadataItem = createNewMetadataItem(type,
+                                                      "testMetadata8",
+                                                      "objectType1",
+                                                      "objectId3",
+                                                      "parentObjectId1",
+                                                      creatorId,
+                                                      audienceId);
+    metadataService.deleteMetadataItem(getMetadataItemsByObject("objectType1", "objectId2").get(0).getId(), creatorId);
+    metadataItems = metadataService.getMetadataItemsByObjects("objectType1", Arrays.asList("objectId1", "objectId2", "objectId3"));
+    assertEquals(2, metadataItems.get("objectId1").size());
+    assertEquals(0, metadataItems.get("objectId2").size());
+    assertEquals(1, metadataItems.get("objectId3").size());
+    assertEquals(metadataItem.getId(), metadataItems.get("objectId3").get(0).getId());
+    assertEquals(metadataItems.get("objectId3"), getMetadataItemsByObject("objectType1", "objectId3"));
+  }
+
   public void testGetMetadataItemsByMetadataTypeAndCreator() throws Exception { // NOSONAR
 
     long creatorId = Long.parseLong(johnIdentity.getId());
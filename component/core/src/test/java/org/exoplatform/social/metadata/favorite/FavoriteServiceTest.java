@@ -28,6 +28,7 @@ import org.exoplatform.social.common.ObjectAlreadyExistsException;
 import org.exoplatform.social.core.identity.model.Identity;
 import org.exoplatform.social.core.jpa.storage.dao.jpa.MetadataDAO;
 import org.exoplatform.social.core.manager.IdentityManager;
+import org.exoplatform.social.core.storage.cache.CachedMetadataStorage;
 import org.exoplatform.social.core.test.AbstractCoreTest;
 import org.exoplatform.social.metadata.MetadataService;
 import org.exoplatform.social.metadata.MetadataTypePlugin;
@@ -87,6 +88,7 @@ public class FavoriteServiceTest extends AbstractCoreTest {
     begin();
     identityManager.deleteIdentity(johnIdentity);
     metadataDAO.deleteAll();
+    getContainer().getComponentInstanceOfType(CachedMetadataStorage.class).clearCaches();
 
     super.tearDown();
   }
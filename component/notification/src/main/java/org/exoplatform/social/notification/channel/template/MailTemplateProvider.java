@@ -899,7 +899,7 @@ public class MailTemplateProvider extends TemplateProvider {
           if (space == null) {
             continue;
           }
-          if (!Arrays.asList(space.getMembers()).contains(message.getTo())) {
+          if (!space.hasMember(message.getTo())) {
             continue;
           }
           if(message.getTo() != null && poster != null && poster.equals(message.getTo())) {
@@ -982,7 +982,7 @@ public class MailTemplateProvider extends TemplateProvider {
           if (activity != null) {
             Space space = Utils.getSpaceService().getSpaceByPrettyName(activity.getStreamOwner());
             if (space != null) {
-              if (!Arrays.asList(space.getMembers()).contains(message.getTo())) {
+              if (!space.hasMember(message.getTo())) {
                 continue;
               }
               if(message.getTo() != null && poster != null && poster.equals(message.getTo())) {
@@ -1118,7 +1118,7 @@ public class MailTemplateProvider extends TemplateProvider {
           if (space == null) {
             continue;
           }
-          if (ArrayUtils.contains(space.getPendingUsers(), fromUser) == false || !ArrayUtils.contains(space.getManagers(), message.getTo())) {
+          if (ArrayUtils.contains(space.getPendingUsers(), fromUser) == false || !space.hasManager(message.getTo())) {
             continue;
           }
           //
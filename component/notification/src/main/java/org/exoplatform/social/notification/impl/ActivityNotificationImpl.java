@@ -20,13 +20,17 @@ package org.exoplatform.social.notification.impl;
 
 import org.exoplatform.commons.api.notification.NotificationContext;
 import org.exoplatform.commons.api.notification.model.PluginKey;
+import org.exoplatform.commons.api.notification.plugin.BaseNotificationPlugin;
 import org.exoplatform.commons.notification.impl.NotificationContextImpl;
 import org.exoplatform.commons.utils.CommonsUtils;
 import org.exoplatform.social.core.activity.ActivityLifeCycleEvent;
 import org.exoplatform.social.core.activity.ActivityListenerPlugin;
 import org.exoplatform.social.core.activity.model.ExoSocialActivity;
 import org.exoplatform.social.core.manager.ActivityManager;
+import org.exoplatform.social.core.space.model.Space;
+import org.exoplatform.social.notification.Utils;
 import org.exoplatform.social.notification.plugin.*;
+import org.exoplatform.social.notification.service.SpaceRecipientsProvider;
 
 import java.util.HashMap;
 import java.util.Map;
@@ -41,9 +45,9 @@ public class ActivityNotificationImpl extends ActivityListenerPlugin {
     ctx.append(SocialNotificationUtils.ORIGINAL_TITLE, originalActivity.getTitle());
 
     ctx.getNotificationExecutor().with(ctx.makeCommand(PluginKey.key(PostActivityPlugin.ID)))
-                                 .with(ctx.makeCommand(PluginKey.key(PostActivitySpaceStreamPlugin.ID)))
                                  .with(ctx.makeCommand(PluginKey.key(ActivityMentionPlugin.ID)))
                                  .execute(ctx);
+    notifySpaceMembers(activity, PostActivitySpaceStreamPlugin.ID, originalActivity.getTitle(), null);
   }
 
   @Override
@@ -126,10 +130,40 @@ public class ActivityNotificationImpl extends ActivityListenerPlugin {
     // Create a new notification that contains all objects needed to create Mail notification with information about initial activity and new one
     ExoSocialActivity originalActivity = event.getSource();
     ExoSocialActivity activity = CommonsUtils.getService(ActivityManager.class).getActivity(originalActivity.getId());
-    NotificationContext ctx = NotificationContextImpl.cloneInstance().append(SocialNotificationUtils.ACTIVITY, activity);
-    ctx.append(SocialNotificationUtils.ORIGINAL_TITLE, originalActivity.getTitle());
-    ctx.append(SocialNotificationUtils.ORIGINAL_TITLE_SHARED, originalActivity.getBody());
-    ctx.getNotificationExecutor().with(ctx.makeCommand(PluginKey.key(SharedActivitySpaceStreamPlugin.ID)))
-       .execute(ctx);
+    notifySpaceMembers(activity,
+                       SharedActivitySpaceStreamPlugin.ID,
+                       originalActivity.getTitle(),
+                       originalActivity.getBody());
+  }
+
+  /**
+   * Notifies the members of the space where the activity is posted with one
+   * notification by chunk of recipients, to not build and send a notification
+   * holding all the members of large spaces. The members are enumerated only
+   * when the plugin would make a notification of the activity.
+   */
+  private void notifySpaceMembers(ExoSocialActivity activity, String pluginId, String originalTitle, String originalTitleShared) {
+    if (activity == null || activity.getActivityStream() == null || !activity.getActivityStream().isSpace()) {
+      return;
+    }
+    NotificationContext validationCtx = NotificationContextImpl.cloneInstance().append(SocialNotificationUtils.ACTIVITY, activity);
+    BaseNotificationPlugin plugin = validationCtx.getPluginContainer().getPlugin(PluginKey.key(pluginId));
+    if (plugin == null || !plugin.isValid(validationCtx)) {
+      return;
+    }
+    Space space = Utils.getSpaceService().getSpaceByPrettyName(activity.getStreamOwner());
+    if (space == null) {
+      return;
+    }
+    String poster = Utils.getUserId(activity.getPosterId());
+    CommonsUtils.getService(SpaceRecipientsProvider.class).forEachRecipientsChunk(space, poster, pluginId, receivers -> {
+      NotificationContext ctx = NotificationContextImpl.cloneInstance().append(SocialNotificationUtils.ACTIVITY, activity);
+      ctx.append(SocialNotificationUtils.ORIGINAL_TITLE, originalTitle);
+      if (originalTitleShared != null) {
+        ctx.append(SocialNotificationUtils.ORIGINAL_TITLE_SHARED, originalTitleShared);
+      }
+      ctx.append(SocialNotificationUtils.RECEIVERS, receivers);
+      ctx.getNotificationExecutor().with(ctx.makeCommand(PluginKey.key(pluginId))).execute(ctx);
+    });
   }
 }
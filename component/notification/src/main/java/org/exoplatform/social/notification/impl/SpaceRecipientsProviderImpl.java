@@ -0,0 +1,137 @@
+/*
+ * This file is part of the Meeds project (https://meeds.io/).
+ * 
+ * Copyright (C) 2022 Meeds Association contact@meeds.io
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.exoplatform.social.notification.impl;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+import org.apache.commons.lang3.StringUtils;
+
+import org.exoplatform.commons.api.notification.channel.AbstractChannel;
+import org.exoplatform.commons.api.notification.channel.ChannelManager;
+import org.exoplatform.commons.api.notification.model.UserSetting;
+import org.exoplatform.commons.api.notification.service.setting.UserSettingService;
+import org.exoplatform.container.xml.InitParams;
+import org.exoplatform.container.xml.ValueParam;
+import org.exoplatform.services.log.ExoLogger;
+import org.exoplatform.services.log.Log;
+import org.exoplatform.social.core.jpa.storage.dao.SpaceMemberDAO;
+import org.exoplatform.social.core.jpa.storage.entity.SpaceMemberEntity.Status;
+import org.exoplatform.social.core.space.model.Space;
+import org.exoplatform.social.notification.service.SpaceRecipientsProvider;
+
+public class SpaceRecipientsProviderImpl implements SpaceRecipientsProvider {
+
+  private static final Log      LOG                = ExoLogger.getLogger(SpaceRecipientsProviderImpl.class);
+
+  private static final String   CHUNK_SIZE_PARAM   = "chunk-size";
+
+  private static final int      DEFAULT_CHUNK_SIZE = 500;
+
+  private SpaceMemberDAO        spaceMemberDAO;
+
+  private UserSettingService    userSettingService;
+
+  private ChannelManager        channelManager;
+
+  private int                   chunkSize          = DEFAULT_CHUNK_SIZE;
+
+  public SpaceRecipientsProviderImpl(SpaceMemberDAO spaceMemberDAO,
+                                     UserSettingService userSettingService,
+                                     ChannelManager channelManager,
+                                     InitParams params) {
+    this.spaceMemberDAO = spaceMemberDAO;
+    this.userSettingService = userSettingService;
+    this.channelManager = channelManager;
+    ValueParam chunkSizeParam = params == null ? null : params.getValueParam(CHUNK_SIZE_PARAM);
+    if (chunkSizeParam != null) {
+      try {
+        this.chunkSize = Integer.parseInt(chunkSizeParam.getValue());
+      } catch (NumberFormatException e) {
+        LOG.warn("Invalid value '{}' of parameter {}, use default value {}",
+                 chunkSizeParam.getValue(),
+                 CHUNK_SIZE_PARAM,
+                 DEFAULT_CHUNK_SIZE);
+      }
+    }
+    if (this.chunkSize <= 0) {
+      this.chunkSize = DEFAULT_CHUNK_SIZE;
+    }
+  }
+
+  @Override
+  public void forEachRecipientsChunk(Space space,
+                                     String excludedUser,
+                                     String pluginId,
+                                     Consumer<List<String>> recipientsConsumer) {
+    if (space == null || StringUtils.isBlank(space.getId())) {
+      return;
+    }
+    long spaceId = Long.parseLong(space.getId());
+    List<String> recipients = new ArrayList<>(chunkSize);
+    int offset = 0;
+    List<String> members;
+    do {
+      members = spaceMemberDAO.getSpaceMembers(spaceId, Status.MEMBER, offset, chunkSize);
+      offset += chunkSize;
+      for (String member : members) {
+        if (!StringUtils.equals(member, excludedUser) && canReceive(member, pluginId)) {
+          recipients.add(member);
+          if (recipients.size() >= chunkSize) {
+            recipientsConsumer.accept(recipients);
+            recipients = new ArrayList<>(chunkSize);
+          }
+        }
+      }
+    } while (members.size() == chunkSize);
+    if (!recipients.isEmpty()) {
+      recipientsConsumer.accept(recipients);
+    }
+  }
+
+  public int getChunkSize() {
+    return chunkSize;
+  }
+
+  /**
+   * Excludes the members which settings would make the notification service
+   * drop the notification anyway, to not ship them in the notification.
+   */
+  private boolean canReceive(String username, String pluginId) {
+    UserSetting userSetting = userSettingService.get(username);
+    if (userSetting == null) {
+      // Default settings will be applied by notification service
+      return true;
+    }
+    if (!userSetting.isEnabled()) {
+      return false;
+    }
+    if (userSetting.isInDaily(pluginId) || userSetting.isInWeekly(pluginId)) {
+      return true;
+    }
+    for (AbstractChannel channel : channelManager.getChannels()) {
+      if (userSetting.isActive(channel.getId(), pluginId)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+}
@@ -27,6 +27,8 @@ import org.exoplatform.social.core.identity.provider.SpaceIdentityProvider;
 import org.exoplatform.social.core.space.model.Space;
 import org.exoplatform.social.notification.Utils;
 
+import java.util.List;
+
 public class PostActivitySpaceStreamPlugin extends BaseNotificationPlugin {
   
   public PostActivitySpaceStreamPlugin(InitParams initParams) {
@@ -46,7 +48,6 @@ public class PostActivitySpaceStreamPlugin extends BaseNotificationPlugin {
       
       ExoSocialActivity activity = ctx.value(SocialNotificationUtils.ACTIVITY);
       String originalTitle = ctx.value(SocialNotificationUtils.ORIGINAL_TITLE);
-      Space space = Utils.getSpaceService().getSpaceByPrettyName(activity.getStreamOwner());
       String poster = Utils.getUserId(activity.getPosterId());
       
       return NotificationInfo.instance()
@@ -54,7 +55,7 @@ public class PostActivitySpaceStreamPlugin extends BaseNotificationPlugin {
                                 .with(SocialNotificationUtils.POSTER.getKey(), poster)
                                 .with(SocialNotificationUtils.ACTIVITY_ID.getKey(), activity.getId())
                                 .with(SocialNotificationUtils.ORIGINAL_TITLE.getKey(), originalTitle)
-                                .to(Utils.getDestinataires(activity, space)).end();
+                                .to(getReceivers(ctx, activity)).end();
     } catch (Exception e) {
       ctx.setException(e);
     }
@@ -78,4 +79,13 @@ public class PostActivitySpaceStreamPlugin extends BaseNotificationPlugin {
 
     return false;
   }
+
+  private List<String> getReceivers(NotificationContext ctx, ExoSocialActivity activity) {
+    List<String> receivers = ctx.value(SocialNotificationUtils.RECEIVERS);
+    if (receivers == null) {
+      Space space = Utils.getSpaceService().getSpaceByPrettyName(activity.getStreamOwner());
+      receivers = Utils.getDestinataires(activity, space);
+    }
+    return receivers;
+  }
 }
@@ -25,6 +25,8 @@ import org.exoplatform.social.core.space.model.Space;
 import org.exoplatform.social.core.storage.api.ActivityStorage;
 import org.exoplatform.social.notification.Utils;
 
+import java.util.List;
+
 public class SharedActivitySpaceStreamPlugin extends BaseNotificationPlugin {
 
   public static final String ID = "SharedActivitySpaceStreamPlugin";
@@ -52,7 +54,6 @@ public class SharedActivitySpaceStreamPlugin extends BaseNotificationPlugin {
       ExoSocialActivity activity = ctx.value(SocialNotificationUtils.ACTIVITY);
       String originalTitle = ctx.value(SocialNotificationUtils.ORIGINAL_TITLE);
       String titleShared = ctx.value(SocialNotificationUtils.ORIGINAL_TITLE_SHARED);
-      Space space = Utils.getSpaceService().getSpaceByPrettyName(activity.getStreamOwner());
       String poster = Utils.getUserId(activity.getPosterId());
 
       return NotificationInfo.instance()
@@ -61,10 +62,19 @@ public class SharedActivitySpaceStreamPlugin extends BaseNotificationPlugin {
                              .with(SocialNotificationUtils.ACTIVITY_ID.getKey(), activity.getId())
                              .with(SocialNotificationUtils.ORIGINAL_TITLE.getKey(), originalTitle)
                              .with(SocialNotificationUtils.ORIGINAL_TITLE_SHARED.getKey(),titleShared)
-                             .to(Utils.getDestinataires(activity, space)).end();
+                             .to(getReceivers(ctx, activity)).end();
     } catch (Exception e) {
       ctx.setException(e);
     }
     return null;
   }
+
+  private List<String> getReceivers(NotificationContext ctx, ExoSocialActivity activity) {
+    List<String> receivers = ctx.value(SocialNotificationUtils.RECEIVERS);
+    if (receivers == null) {
+      Space space = Utils.getSpaceService().getSpaceByPrettyName(activity.getStreamOwner());
+      receivers = Utils.getDestinataires(activity, space);
+    }
+    return receivers;
+  }
 }
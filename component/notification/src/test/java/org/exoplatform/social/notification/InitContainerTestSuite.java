@@ -5,6 +5,7 @@ import org.exoplatform.commons.testing.ConfigTestCase;
 import org.exoplatform.social.notification.channel.MailTemplateProviderTest;
 import org.exoplatform.social.notification.channel.WebTemplateProviderTest;
 import org.exoplatform.social.notification.channel.template.*;
+import org.exoplatform.social.notification.impl.SpaceRecipientsProviderTest;
 import org.exoplatform.social.notification.impl.SpaceWebNotificationServiceTest;
 import org.exoplatform.social.notification.plugin.SocialNotificationUtilsTest;
 import org.exoplatform.social.notification.web.template.*;
@@ -39,6 +40,7 @@ import org.junit.runners.Suite.SuiteClasses;
   EditCommentWebBuilderTest.class,
   ActivitySpaceWebNotificationTest.class,
   SpaceWebNotificationServiceTest.class,
+  SpaceRecipientsProviderTest.class,
   SocialNotificationUtilsTest.class,
   UtilsTestCase.class,
 })
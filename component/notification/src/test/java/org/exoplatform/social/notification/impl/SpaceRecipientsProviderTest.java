@@ -0,0 +1,83 @@
+package org.exoplatform.social.notification.impl;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+import org.exoplatform.commons.api.notification.channel.AbstractChannel;
+import org.exoplatform.commons.api.notification.channel.ChannelManager;
+import org.exoplatform.commons.api.notification.model.UserSetting;
+import org.exoplatform.commons.api.notification.service.setting.UserSettingService;
+import org.exoplatform.container.xml.InitParams;
+import org.exoplatform.container.xml.ValueParam;
+import org.exoplatform.social.core.jpa.storage.dao.SpaceMemberDAO;
+import org.exoplatform.social.core.jpa.storage.entity.SpaceMemberEntity.Status;
+import org.exoplatform.social.core.space.model.Space;
+
+@RunWith(MockitoJUnitRunner.class)
+public class SpaceRecipientsProviderTest {
+
+  private static final String         PLUGIN_ID = "PostActivitySpaceStreamPlugin";
+
+  @Mock
+  private SpaceMemberDAO              spaceMemberDAO;
+
+  @Mock
+  private UserSettingService          userSettingService;
+
+  @Mock
+  private ChannelManager              channelManager;
+
+  private SpaceRecipientsProviderImpl spaceRecipientsProvider;
+
+  @Before
+  public void setUp() {
+    InitParams params = new InitParams();
+    ValueParam chunkSizeParam = new ValueParam();
+    chunkSizeParam.setName("chunk-size");
+    chunkSizeParam.setValue("2");
+    params.addParameter(chunkSizeParam);
+    spaceRecipientsProvider = new SpaceRecipientsProviderImpl(spaceMemberDAO, userSettingService, channelManager, params);
+  }
+
+  @Test
+  public void testForEachRecipientsChunk() {
+    AbstractChannel channel = mock(AbstractChannel.class);
+    when(channel.getId()).thenReturn("MAIL_CHANNEL");
+    when(channelManager.getChannels()).thenReturn(Collections.singletonList(channel));
+
+    UserSetting activeSetting = mock(UserSetting.class);
+    when(activeSetting.isEnabled()).thenReturn(true);
+    when(activeSetting.isActive("MAIL_CHANNEL", PLUGIN_ID)).thenReturn(true);
+    UserSetting disabledSetting = mock(UserSetting.class);
+    when(disabledSetting.isEnabled()).thenReturn(false);
+    when(userSettingService.get(anyString())).thenReturn(activeSetting);
+    when(userSettingService.get("mary")).thenReturn(disabledSetting);
+
+    when(spaceMemberDAO.getSpaceMembers(3L, Status.MEMBER, 0, 2)).thenReturn(Arrays.asList("root", "john"));
+    when(spaceMemberDAO.getSpaceMembers(3L, Status.MEMBER, 2, 2)).thenReturn(Arrays.asList("mary", "james"));
+    when(spaceMemberDAO.getSpaceMembers(3L, Status.MEMBER, 4, 2)).thenReturn(Arrays.asList("demo", "raul"));
+    when(spaceMemberDAO.getSpaceMembers(3L, Status.MEMBER, 6, 2)).thenReturn(Collections.singletonList("paul"));
+
+    Space space = new Space();
+    space.setId("3");
+    List<List<String>> chunks = new ArrayList<>();
+    spaceRecipientsProvider.forEachRecipientsChunk(space, "root", PLUGIN_ID, chunks::add);
+
+    assertEquals(Arrays.asList(Arrays.asList("john", "james"), Arrays.asList("demo", "raul"), Collections.singletonList("paul")),
+                 chunks);
+  }
+
+}
@@ -43,6 +43,10 @@ import com.github.scribejava.core.model.OAuth2AccessToken;
 import org.exoplatform.container.ExoContainerContext;
 import org.exoplatform.container.xml.InitParams;
 import org.exoplatform.container.xml.ValueParam;
+import org.exoplatform.management.annotations.Managed;
+import org.exoplatform.management.annotations.ManagedDescription;
+import org.exoplatform.management.jmx.annotations.NameTemplate;
+import org.exoplatform.management.jmx.annotations.Property;
 import org.exoplatform.services.log.ExoLogger;
 import org.exoplatform.services.log.Log;
 import org.exoplatform.services.organization.UserProfile;
@@ -61,6 +65,9 @@ import io.meeds.oauth.utils.HttpResponseContext;
 import io.meeds.oauth.utils.OAuthPersistenceUtils;
 import io.meeds.oauth.utils.OAuthUtils;
 
+@Managed
+@ManagedDescription("OpenId Connect processor")
+@NameTemplate({ @Property(key = "service", value = "social"), @Property(key = "view", value = "OpenIdProcessor") })
 public class OpenIdProcessorImpl implements OpenIdProcessor, Startable {
 
   private static Log                  log    = ExoLogger.getLogger(OpenIdProcessorImpl.class);
@@ -91,6 +98,16 @@ public class OpenIdProcessorImpl implements OpenIdProcessor, Startable {
 
   private RemoteJwkSigningKeyResolver remoteJwkSigningKeyResolver;
 
+  private final int                   jwksConnectTimeout;
+
+  private final int                   jwksReadTimeout;
+
+  private final long                  jwksRefreshPeriod;
+
+  private final long                  jwksMinRefreshInterval;
+
+  private final long                  jwksUnknownKeyTtl;
+
   private final SecureRandomService   secureRandomService;
 
   public OpenIdProcessorImpl(ExoContainerContext context, InitParams params, SecureRandomService secureRandomService) {
@@ -125,6 +142,13 @@ public class OpenIdProcessorImpl implements OpenIdProcessor, Startable {
     addScopesFromString(scope, this.scopes);
 
     this.chunkLength = OAuthPersistenceUtils.getChunkLength(params);
+    this.jwksConnectTimeout = (int) getLongParam(params, "jwksConnectTimeout", RemoteJwkSigningKeyResolver.DEFAULT_CONNECT_TIMEOUT);
+    this.jwksReadTimeout = (int) getLongParam(params, "jwksReadTimeout", RemoteJwkSigningKeyResolver.DEFAULT_READ_TIMEOUT);
+    this.jwksRefreshPeriod = getLongParam(params, "jwksRefreshPeriod", RemoteJwkSigningKeyResolver.DEFAULT_REFRESH_PERIOD);
+    this.jwksMinRefreshInterval = getLongParam(params,
+                                               "jwksMinRefreshInterval",
+                                               RemoteJwkSigningKeyResolver.DEFAULT_MIN_REFRESH_INTERVAL);
+    this.jwksUnknownKeyTtl = getLongParam(params, "jwksUnknownKeyTtl", RemoteJwkSigningKeyResolver.DEFAULT_UNKNOWN_KEY_TTL);
 
     if (log.isDebugEnabled()) {
       log.debug("configuration: clientId=" + clientID
@@ -456,7 +480,13 @@ public class OpenIdProcessorImpl implements OpenIdProcessor, Startable {
           this.accessTokenURL = json.getString("token_endpoint");
           this.userInfoURL = json.getString("userinfo_endpoint");
           this.issuer = json.getString("issuer");
-          this.remoteJwkSigningKeyResolver = new RemoteJwkSigningKeyResolver(this.wellKnownConfigurationUrl);
+          this.remoteJwkSigningKeyResolver = new RemoteJwkSigningKeyResolver(this.wellKnownConfigurationUrl,
+                                                                             this.jwksConnectTimeout,
+                                                                             this.jwksReadTimeout,
+                                                                             this.jwksRefreshPeriod,
+                                                                             this.jwksMinRefreshInterval,
+                                                                             this.jwksUnknownKeyTtl);
+          this.remoteJwkSigningKeyResolver.start();
         }
       } catch (JSONException e) {
         log.error("Unable to read webKnownUrl content : " + this.wellKnownConfigurationUrl, e);
@@ -468,7 +498,52 @@ public class OpenIdProcessorImpl implements OpenIdProcessor, Startable {
 
   @Override
   public void stop() {
-    // Nothing to stop
+    if (this.remoteJwkSigningKeyResolver != null) {
+      this.remoteJwkSigningKeyResolver.stop();
+    }
+  }
+
+  public RemoteJwkSigningKeyResolver getRemoteJwkSigningKeyResolver() {
+    return remoteJwkSigningKeyResolver;
+  }
+
+  @Managed
+  @ManagedDescription("Number of signing keys of the OpenId provider in cache")
+  public int getKeysCount() {
+    return remoteJwkSigningKeyResolver == null ? 0 : remoteJwkSigningKeyResolver.getKeysCount();
+  }
+
+  @Managed
+  @ManagedDescription("Number of refreshes of the signing keys")
+  public long getRefreshCount() {
+    return remoteJwkSigningKeyResolver == null ? 0 : remoteJwkSigningKeyResolver.getRefreshCount();
+  }
+
+  @Managed
+  @ManagedDescription("Number of failed refreshes of the signing keys")
+  public long getRefreshFailureCount() {
+    return remoteJwkSigningKeyResolver == null ? 0 : remoteJwkSigningKeyResolver.getRefreshFailureCount();
+  }
+
+  @Managed
+  @ManagedDescription("Number of refreshes of the signing keys triggered by a token signed with an unknown key")
+  public long getOnDemandRefreshCount() {
+    return remoteJwkSigningKeyResolver == null ? 0 : remoteJwkSigningKeyResolver.getOnDemandRefreshCount();
+  }
+
+  @Managed
+  @ManagedDescription("Number of token verifications with a signing key unknown by the OpenId provider")
+  public long getUnknownKeyCount() {
+    return remoteJwkSigningKeyResolver == null ? 0 : remoteJwkSigningKeyResolver.getUnknownKeyCount();
+  }
+
+  private static long getLongParam(InitParams params, String name, long defaultValue) {
+    ValueParam valueParam = params.getValueParam(name);
+    if (valueParam != null && StringUtils.isNumeric(valueParam.getValue())) {
+      return Long.parseLong(valueParam.getValue());
+    } else {
+      return defaultValue;
+    }
   }
 
   private static String readUrl(URL url) {
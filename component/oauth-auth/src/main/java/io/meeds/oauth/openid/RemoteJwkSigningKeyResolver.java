@@ -21,7 +21,9 @@ import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.io.Reader;
 import java.math.BigInteger;
+import java.net.HttpURLConnection;
 import java.net.URL;
+import java.net.URLConnection;
 import java.nio.charset.StandardCharsets;
 import java.security.Key;
 import java.security.KeyFactory;
@@ -35,6 +37,14 @@ import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
 import org.json.JSONArray;
 import org.json.JSONException;
@@ -48,18 +58,121 @@ import io.jsonwebtoken.JwsHeader;
 import io.jsonwebtoken.SigningKeyResolver;
 import io.jsonwebtoken.io.Decoders;
 
+/**
+ * Resolves the signing keys of the OpenId tokens from the JWKS published by
+ * the provider. The keys are refreshed in background, at the period given by
+ * the {@code Cache-Control} header of the JWKS response. An unknown key id
+ * triggers an on-demand refresh, at most once per minimum refresh interval,
+ * then is cached as unknown so that a burst of tokens with an invalid key id
+ * doesn't call the provider for each token.
+ */
 public class RemoteJwkSigningKeyResolver implements SigningKeyResolver {
 
-  private final String     wellKnownUrl;
+  public static final int           DEFAULT_CONNECT_TIMEOUT      = 5000;
+
+  public static final int           DEFAULT_READ_TIMEOUT         = 5000;
+
+  public static final long          DEFAULT_REFRESH_PERIOD       = 3600000L;
+
+  public static final long          DEFAULT_MIN_REFRESH_INTERVAL = 30000L;
+
+  public static final long          DEFAULT_UNKNOWN_KEY_TTL      = 300000L;
+
+  /** Maximum number of cached unknown key ids, the cache is cleared beyond */
+  private static final int          MAX_UNKNOWN_KEYS             = 1000;
+
+  private static final Pattern      MAX_AGE_PATTERN              = Pattern.compile("max-age\\s*=\\s*\"?(\\d+)\"?");
+
+  private static final Log          LOG                          = ExoLogger.getLogger(RemoteJwkSigningKeyResolver.class);
+
+  private final String              wellKnownUrl;
+
+  private final int                 connectTimeout;
+
+  private final int                 readTimeout;
+
+  private final long                refreshPeriod;
+
+  private final long                minRefreshInterval;
+
+  private final long                unknownKeyTtl;
+
+  private final ReentrantLock       lock                         = new ReentrantLock();
+
+  private final Map<String, Long>   unknownKeys                  = new ConcurrentHashMap<>();
+
+  private final AtomicLong          refreshCount                 = new AtomicLong();
+
+  private final AtomicLong          refreshFailureCount          = new AtomicLong();
+
+  private final AtomicLong          onDemandRefreshCount         = new AtomicLong();
 
-  private final Object     lock   = new Object();
+  private final AtomicLong          unknownKeyCount              = new AtomicLong();
 
-  private Map<String, Key> keyMap = new HashMap<>();
+  private volatile Map<String, Key> keyMap                       = Collections.emptyMap();
 
-  private static final Log LOG    = ExoLogger.getLogger(RemoteJwkSigningKeyResolver.class);
+  private volatile String           jwksUrl;
+
+  private volatile long             lastRefreshAttemptTime;
+
+  private volatile long             lastRefreshTime;
+
+  private ScheduledExecutorService  scheduledExecutor;
 
   RemoteJwkSigningKeyResolver(String wellKnownUrl) {
+    this(wellKnownUrl,
+         DEFAULT_CONNECT_TIMEOUT,
+         DEFAULT_READ_TIMEOUT,
+         DEFAULT_REFRESH_PERIOD,
+         DEFAULT_MIN_REFRESH_INTERVAL,
+         DEFAULT_UNKNOWN_KEY_TTL);
+  }
+
+  /**
+   * @param wellKnownUrl URL of the OpenId configuration document
+   * @param connectTimeout connect timeout of the HTTP calls in milliseconds
+   * @param readTimeout read timeout of the HTTP calls in milliseconds
+   * @param refreshPeriod maximum period of the background refresh in
+   *          milliseconds, used as is when the JWKS response has no max-age
+   * @param minRefreshInterval minimum interval between two refreshes in
+   *          milliseconds
+   * @param unknownKeyTtl duration in milliseconds during which an unknown key
+   *          id doesn't trigger a refresh again
+   */
+  RemoteJwkSigningKeyResolver(String wellKnownUrl,
+                              int connectTimeout,
+                              int readTimeout,
+                              long refreshPeriod,
+                              long minRefreshInterval,
+                              long unknownKeyTtl) {
     this.wellKnownUrl = wellKnownUrl;
+    this.connectTimeout = connectTimeout;
+    this.readTimeout = readTimeout;
+    this.refreshPeriod = refreshPeriod;
+    this.minRefreshInterval = minRefreshInterval;
+    this.unknownKeyTtl = unknownKeyTtl;
+  }
+
+  /**
+   * Loads the keys in background then refreshes them periodically
+   */
+  public synchronized void start() {
+    if (scheduledExecutor != null) {
+      return;
+    }
+    scheduledExecutor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+      Thread thread = new Thread(runnable, "openid-jwks-refresh");
+      thread.setDaemon(true);
+      return thread;
+    });
+    scheduledExecutor.execute(this::refreshInBackground);
+  }
+
+  public synchronized void stop() {
+    if (scheduledExecutor != null) {
+      scheduledExecutor.shutdownNow();
+      scheduledExecutor = null;
+    }
   }
 
   @Override
@@ -72,56 +185,179 @@ public class RemoteJwkSigningKeyResolver implements SigningKeyResolver {
     return getKey(header.getKeyId());
   }
 
-  private Key getKey(String keyId) {
-    // check non synchronized to avoid a lock
+  public int getKeysCount() {
+    return keyMap.size();
+  }
+
+  public long getLastRefreshTime() {
+    return lastRefreshTime;
+  }
+
+  public long getRefreshCount() {
+    return refreshCount.get();
+  }
+
+  public long getRefreshFailureCount() {
+    return refreshFailureCount.get();
+  }
+
+  public long getOnDemandRefreshCount() {
+    return onDemandRefreshCount.get();
+  }
+
+  public long getUnknownKeyCount() {
+    return unknownKeyCount.get();
+  }
+
+  Key getKey(String keyId) {
+    if (keyId == null) {
+      return null;
+    }
     Key result = keyMap.get(keyId);
-    if (result != null) {
+    if (result != null || isUnknownKey(keyId)) {
       return result;
     }
 
-    synchronized (lock) {
-      // once synchronized, check the map once again the a previously
-      // synchronized thread could have already updated they keys
+    // Only one refresh at a time: the threads waiting for the lock will find
+    // the refreshed keys, or won't refresh again before the minimum interval
+    long unknownKeyExpirationTime;
+    lock.lock();
+    try {
       result = keyMap.get(keyId);
-      if (result != null) {
-        return result;
+      if (result == null && System.currentTimeMillis() - lastRefreshAttemptTime >= minRefreshInterval) {
+        onDemandRefreshCount.incrementAndGet();
+        refreshKeys();
+        result = keyMap.get(keyId);
+        unknownKeyExpirationTime = System.currentTimeMillis() + unknownKeyTtl;
+      } else {
+        // not refreshed yet, thus check the key id again once allowed
+        unknownKeyExpirationTime = lastRefreshAttemptTime + minRefreshInterval;
       }
-      // finally, fallback to updating the keys, an return a value (or null)
-      updateKeys();
-      return keyMap.get(keyId);
+    } finally {
+      lock.unlock();
+    }
+    if (result == null) {
+      addUnknownKey(keyId, unknownKeyExpirationTime);
     }
+    return result;
   }
 
-  private void updateKeys() {
+  private boolean isUnknownKey(String keyId) {
+    Long expirationTime = unknownKeys.get(keyId);
+    if (expirationTime == null) {
+      return false;
+    } else if (expirationTime > System.currentTimeMillis()) {
+      unknownKeyCount.incrementAndGet();
+      return true;
+    } else {
+      unknownKeys.remove(keyId, expirationTime);
+      return false;
+    }
+  }
+
+  private void addUnknownKey(String keyId, long expirationTime) {
+    unknownKeyCount.incrementAndGet();
+    if (unknownKeys.size() >= MAX_UNKNOWN_KEYS) {
+      unknownKeys.clear();
+    }
+    unknownKeys.put(keyId, expirationTime);
+    LOG.debug("Unknown signing key id {}", keyId);
+  }
+
+  private void refreshInBackground() {
+    long delay;
+    lock.lock();
+    try {
+      delay = refreshKeys();
+    } catch (RuntimeException e) {
+      LOG.warn("Error while refreshing OpenId signing keys", e);
+      delay = minRefreshInterval;
+    } finally {
+      lock.unlock();
+    }
+    synchronized (this) {
+      if (scheduledExecutor != null) {
+        scheduledExecutor.schedule(this::refreshInBackground, Math.max(delay, 1000L), TimeUnit.MILLISECONDS);
+      }
+    }
+  }
 
-    JSONObject configuration = getJson(wellKnownUrl);
+  /**
+   * Retrieves the keys from the JWKS of the provider. Must be called while
+   * holding the lock.
+   *
+   * @return delay of the next refresh in milliseconds
+   */
+  private long refreshKeys() {
+    lastRefreshAttemptTime = System.currentTimeMillis();
+    refreshCount.incrementAndGet();
     try {
-      String jwksUrl = configuration != null ? configuration.getString("jwks_uri") : null;
-      JSONObject keys = getJson(jwksUrl);
-      JSONArray arraylist = keys != null ? keys.getJSONArray("keys") : null;
-      Map<String, Key> newKeys = new HashMap<>();
-      if (arraylist != null) {
-        for (int i = 0; i < arraylist.length(); i++) {
-          JSONObject jsonobjects = arraylist.getJSONObject(i);
-          if (("sig".equals(jsonobjects.get("use"))) && ("RSA".equals(jsonobjects.get("kty")))) {
-            BigInteger modulus = base64ToBigInteger(jsonobjects.getString("n"));
-            BigInteger exponent = base64ToBigInteger(jsonobjects.getString("e"));
-            RSAPublicKeySpec rsaPublicKeySpec = new RSAPublicKeySpec(modulus, exponent);
-            PublicKey publicKey = null;
-            KeyFactory keyFactory = KeyFactory.getInstance("RSA");
-            publicKey = keyFactory.generatePublic(rsaPublicKeySpec);
-            newKeys.put(jsonobjects.getString("kid"), publicKey);
-          }
-        }
-        keyMap = Collections.unmodifiableMap(newKeys);
+      if (jwksUrl == null) {
+        JSONObject configuration = new JSONObject(getContent(wellKnownUrl, null));
+        jwksUrl = configuration.getString("jwks_uri");
       }
-    } catch (JSONException e) {
-      LOG.error("can't get keys in JSONObject");
+      StringBuilder cacheControl = new StringBuilder();
+      JSONObject keys = new JSONObject(getContent(jwksUrl, cacheControl));
+      keyMap = Collections.unmodifiableMap(parseKeys(keys.getJSONArray("keys")));
+      // The keys of the new JWKS mustn't remain cached as unknown
+      unknownKeys.keySet().removeAll(keyMap.keySet());
+      lastRefreshTime = System.currentTimeMillis();
+      return getRefreshDelay(cacheControl.toString());
+    } catch (IOException | JSONException e) {
+      refreshFailureCount.incrementAndGet();
+      // The JWKS URL may have changed, read it again at next refresh
+      jwksUrl = null;
+      LOG.warn("Error while refreshing OpenId signing keys from {}: {}", wellKnownUrl, e.getMessage());
+      return minRefreshInterval;
     } catch (NoSuchAlgorithmException | InvalidKeySpecException e) {
-      throw new IllegalStateException("Failed to parse public key");
+      refreshFailureCount.incrementAndGet();
+      throw new IllegalStateException("Failed to parse public key", e);
     }
   }
 
+  private Map<String, Key> parseKeys(JSONArray arraylist) throws NoSuchAlgorithmException, InvalidKeySpecException {
+    Map<String, Key> newKeys = new HashMap<>();
+    KeyFactory keyFactory = KeyFactory.getInstance("RSA");
+    for (int i = 0; i < arraylist.length(); i++) {
+      JSONObject jsonobjects = arraylist.getJSONObject(i);
+      if (("sig".equals(jsonobjects.opt("use"))) && ("RSA".equals(jsonobjects.opt("kty")))) {
+        BigInteger modulus = base64ToBigInteger(jsonobjects.getString("n"));
+        BigInteger exponent = base64ToBigInteger(jsonobjects.getString("e"));
+        PublicKey publicKey = keyFactory.generatePublic(new RSAPublicKeySpec(modulus, exponent));
+        newKeys.put(jsonobjects.getString("kid"), publicKey);
+      }
+    }
+    return newKeys;
+  }
+
+  /**
+   * @return the max-age of the Cache-Control header bounded by the minimum
+   *         refresh interval and the refresh period, else the refresh period
+   */
+  long getRefreshDelay(String cacheControl) {
+    long maxAge = getMaxAge(cacheControl);
+    if (maxAge < 0) {
+      return refreshPeriod;
+    }
+    return Math.max(minRefreshInterval, Math.min(refreshPeriod, TimeUnit.SECONDS.toMillis(maxAge)));
+  }
+
+  /**
+   * @return the max-age of a Cache-Control header in seconds, 0 when the
+   *         response mustn't be cached, else -1
+   */
+  static long getMaxAge(String cacheControl) {
+    if (cacheControl == null || cacheControl.isEmpty()) {
+      return -1;
+    }
+    String value = cacheControl.toLowerCase();
+    if (value.contains("no-cache") || value.contains("no-store")) {
+      return 0;
+    }
+    Matcher matcher = MAX_AGE_PATTERN.matcher(value);
+    return matcher.find() ? Long.parseLong(matcher.group(1)) : -1;
+  }
+
   public static Map<String, Object> toMap(JSONObject jsonobj) throws JSONException {
     Map<String, Object> map = new HashMap<>();
     Iterator<String> keys = jsonobj.keys();
@@ -152,31 +388,31 @@ public class RemoteJwkSigningKeyResolver implements SigningKeyResolver {
     return list;
   }
 
-  private JSONObject getJson(String url) {
-    try (InputStream input = new URL(url).openStream()) {
-      // Input Stream Object To Start Streaming.
-      BufferedReader re = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8));
-      // Buffer Reading In UTF-8
-      String text = read(re); // Handy Method To Read Data From BufferReader
-      return new JSONObject(text); // Returning JSON
-    } catch (Exception e) {
-      LOG.error("Error when Read Data From BufferReader" + e.getMessage());
-      return null;
+  private String getContent(String url, StringBuilder cacheControl) throws IOException {
+    URLConnection connection = new URL(url).openConnection();
+    connection.setConnectTimeout(connectTimeout);
+    connection.setReadTimeout(readTimeout);
+    try (InputStream input = connection.getInputStream()) {
+      if (cacheControl != null && connection.getHeaderField("Cache-Control") != null) {
+        cacheControl.append(connection.getHeaderField("Cache-Control"));
+      }
+      return read(new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8)));
+    } finally {
+      if (connection instanceof HttpURLConnection) {
+        ((HttpURLConnection) connection).disconnect();
+      }
     }
   }
 
-  public String read(Reader re) throws IOException { // class Declaration
-    StringBuilder str = new StringBuilder(); // To Store Url Data In String.
-    int temp;
-    do {
-      temp = re.read(); // reading Charcter By Chracter.
-      str.append((char) temp);
-
-    } while (temp != -1);
-    // re.read() return -1 when there is end of buffer , data or end of file.
-
+  public String read(Reader re) throws IOException {
+    StringBuilder str = new StringBuilder();
+    char[] buffer = new char[1024];
+    int length = re.read(buffer);
+    while (length != -1) {
+      str.append(buffer, 0, length);
+      length = re.read(buffer);
+    }
     return str.toString();
-
   }
 
   private BigInteger base64ToBigInteger(String value) {
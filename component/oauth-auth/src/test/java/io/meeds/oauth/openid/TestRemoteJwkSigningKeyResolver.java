@@ -0,0 +1,181 @@
+/*
+ * This file is part of the Meeds project (https://meeds.io/).
+ * Copyright (C) 2022 Meeds Association contact@meeds.io
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package io.meeds.oauth.openid;
+
+import static org.junit.Assert.*;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigInteger;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.security.KeyPairGenerator;
+import java.security.interfaces.RSAPublicKey;
+import java.util.Base64;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+public class TestRemoteJwkSigningKeyResolver {
+
+  private HttpServer             server;
+
+  private String                 wellKnownUrl;
+
+  private final AtomicInteger    jwksRequests = new AtomicInteger();
+
+  private volatile String        jwks;
+
+  private volatile String        cacheControl;
+
+  private volatile long          responseDelay;
+
+  private RSAPublicKey           publicKey;
+
+  @Before
+  public void setUp() throws Exception {
+    KeyPairGenerator keyPairGenerator = KeyPairGenerator.getInstance("RSA");
+    keyPairGenerator.initialize(2048);
+    publicKey = (RSAPublicKey) keyPairGenerator.generateKeyPair().getPublic();
+    jwks = newJwks("key1");
+
+    server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+    String baseUrl = "http://localhost:" + server.getAddress().getPort();
+    wellKnownUrl = baseUrl + "/.well-known/openid-configuration";
+    server.createContext("/.well-known/openid-configuration",
+                         exchange -> respond(exchange, "{\"jwks_uri\":\"" + baseUrl + "/jwks\"}", null));
+    server.createContext("/jwks", exchange -> {
+      jwksRequests.incrementAndGet();
+      if (responseDelay > 0) {
+        try {
+          Thread.sleep(responseDelay);
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+        }
+      }
+      respond(exchange, jwks, cacheControl);
+    });
+    server.start();
+  }
+
+  @After
+  public void tearDown() {
+    server.stop(0);
+  }
+
+  @Test
+  public void testResolveKnownKey() {
+    RemoteJwkSigningKeyResolver resolver = new RemoteJwkSigningKeyResolver(wellKnownUrl, 1000, 1000, 60000, 60000, 60000);
+    assertEquals(publicKey, resolver.getKey("key1"));
+    assertEquals(publicKey, resolver.getKey("key1"));
+    assertEquals(1, jwksRequests.get());
+    assertEquals(1, resolver.getKeysCount());
+    assertEquals(1, resolver.getRefreshCount());
+    assertEquals(1, resolver.getOnDemandRefreshCount());
+    assertTrue(resolver.getLastRefreshTime() > 0);
+  }
+
+  @Test
+  public void testUnknownKeyDoesNotRefreshRepeatedly() {
+    RemoteJwkSigningKeyResolver resolver = new RemoteJwkSigningKeyResolver(wellKnownUrl, 1000, 1000, 60000, 60000, 60000);
+    for (int i = 0; i < 10; i++) {
+      assertNull(resolver.getKey("unknown"));
+      assertNull(resolver.getKey("unknown" + i));
+    }
+    assertEquals(1, jwksRequests.get());
+    assertEquals(20, resolver.getUnknownKeyCount());
+    assertEquals(publicKey, resolver.getKey("key1"));
+    assertEquals(1, jwksRequests.get());
+  }
+
+  @Test
+  public void testRotatedKey() {
+    RemoteJwkSigningKeyResolver resolver = new RemoteJwkSigningKeyResolver(wellKnownUrl, 1000, 1000, 60000, 0, 0);
+    assertEquals(publicKey, resolver.getKey("key1"));
+    jwks = newJwks("key2");
+    assertEquals(publicKey, resolver.getKey("key2"));
+    assertNull(resolver.getKey("key1"));
+    assertEquals(3, jwksRequests.get());
+  }
+
+  @Test
+  public void testReadTimeout() {
+    responseDelay = 2000;
+    RemoteJwkSigningKeyResolver resolver = new RemoteJwkSigningKeyResolver(wellKnownUrl, 1000, 200, 60000, 60000, 60000);
+    long startTime = System.currentTimeMillis();
+    assertNull(resolver.getKey("key1"));
+    assertTrue(System.currentTimeMillis() - startTime < 2000);
+    assertEquals(1, resolver.getRefreshFailureCount());
+    assertEquals(0, resolver.getKeysCount());
+  }
+
+  @Test
+  public void testBackgroundRefresh() throws Exception {
+    cacheControl = "public, max-age=1";
+    RemoteJwkSigningKeyResolver resolver = new RemoteJwkSigningKeyResolver(wellKnownUrl, 1000, 1000, 60000, 0, 60000);
+    resolver.start();
+    try {
+      long timeout = System.currentTimeMillis() + 10000;
+      while (jwksRequests.get() < 2 && System.currentTimeMillis() < timeout) {
+        Thread.sleep(50);
+      }
+      assertTrue(jwksRequests.get() >= 2);
+      assertEquals(publicKey, resolver.getKey("key1"));
+      assertEquals(0, resolver.getOnDemandRefreshCount());
+    } finally {
+      resolver.stop();
+    }
+  }
+
+  @Test
+  public void testRefreshDelay() {
+    RemoteJwkSigningKeyResolver resolver = new RemoteJwkSigningKeyResolver(wellKnownUrl, 1000, 1000, 3600000, 30000, 60000);
+    assertEquals(3600000, resolver.getRefreshDelay(null));
+    assertEquals(3600000, resolver.getRefreshDelay("public"));
+    assertEquals(600000, resolver.getRefreshDelay("public, max-age=600"));
+    assertEquals(3600000, resolver.getRefreshDelay("max-age=86400, must-revalidate"));
+    assertEquals(30000, resolver.getRefreshDelay("max-age=1"));
+    assertEquals(30000, resolver.getRefreshDelay("no-cache"));
+  }
+
+  private String newJwks(String keyId) {
+    return "{\"keys\":[{\"kid\":\"" + keyId + "\",\"use\":\"sig\",\"kty\":\"RSA\",\"n\":\"" + toBase64(publicKey.getModulus())
+        + "\",\"e\":\"" + toBase64(publicKey.getPublicExponent()) + "\"}]}";
+  }
+
+  private static String toBase64(BigInteger value) {
+    return Base64.getUrlEncoder().withoutPadding().encodeToString(value.toByteArray());
+  }
+
+  private static void respond(HttpExchange exchange, String body, String cacheControl) throws IOException {
+    byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+    if (cacheControl != null) {
+      exchange.getResponseHeaders().add("Cache-Control", cacheControl);
+    }
+    exchange.sendResponseHeaders(200, bytes.length);
+    try (OutputStream output = exchange.getResponseBody()) {
+      output.write(bytes);
+    } catch (IOException e) {
+      // the client may have timed out
+    }
+  }
+
+}
@@ -541,7 +541,7 @@ public class EntityBuilder {
       IdentityManager identityManager = getIdentityManager();
       SpaceService spaceService = getSpaceService();
       GroupSpaceBindingService groupSpaceBindingService = CommonsUtils.getService(GroupSpaceBindingService.class);
-      if (ArrayUtils.contains(space.getMembers(), userId) || spaceService.isSuperManager(userId)) {
+      if (space.hasMember(userId) || spaceService.isSuperManager(userId)) {
         spaceEntity.setHref(RestUtils.getRestUrl(SPACES_TYPE, space.getId(), restPath));
         Identity spaceIdentity = identityManager.getOrCreateIdentity(SpaceIdentityProvider.NAME, space.getPrettyName());
 
@@ -18,6 +18,11 @@ package org.exoplatform.social.rest.api;
 
 import java.util.*;
 
+/**
+ * Progress of a CSV users import, updated concurrently by the import workers.
+ * The phases durations are summed over all workers, thus they may exceed the
+ * whole import duration.
+ */
 public class UserImportResultEntity implements Cloneable {
 
   private long                      count;
@@ -28,6 +33,18 @@ public class UserImportResultEntity implements Cloneable {
 
   private Map<String, List<String>> warnMessages;
 
+  private long                      startTime;
+
+  private long                      endTime;
+
+  private long                      parseDuration;
+
+  private long                      usersDuration;
+
+  private long                      membershipsDuration;
+
+  private long                      profilesDuration;
+
   public UserImportResultEntity() {
   }
 
@@ -42,60 +59,179 @@ public class UserImportResultEntity implements Cloneable {
     this.warnMessages = warnMessages;
   }
 
-  public long getCount() {
+  public synchronized long getCount() {
     return count;
   }
 
-  public void setCount(long count) {
+  public synchronized void setCount(long count) {
     this.count = count;
   }
 
-  public long getProcessedCount() {
+  public synchronized long getProcessedCount() {
     return processedCount;
   }
 
-  public void setProcessedCount(long processedCount) {
+  public synchronized void setProcessedCount(long processedCount) {
     this.processedCount = processedCount;
   }
 
-  public Map<String, String> getErrorMessages() {
+  public synchronized Map<String, String> getErrorMessages() {
     return errorMessages;
   }
 
-  public void setErrorMessages(Map<String, String> errorMessages) {
+  public synchronized void setErrorMessages(Map<String, String> errorMessages) {
     this.errorMessages = errorMessages;
   }
 
-  public Map<String, List<String>> getWarnMessages() {
+  public synchronized Map<String, List<String>> getWarnMessages() {
     return warnMessages;
   }
 
-  public void setWarnMessages(Map<String, List<String>> warnMessages) {
+  public synchronized void setWarnMessages(Map<String, List<String>> warnMessages) {
     this.warnMessages = warnMessages;
   }
 
-  public void incrementProcessed() {
+  public synchronized long getStartTime() {
+    return startTime;
+  }
+
+  public synchronized void setStartTime(long startTime) {
+    this.startTime = startTime;
+  }
+
+  public synchronized long getEndTime() {
+    return endTime;
+  }
+
+  public synchronized void setEndTime(long endTime) {
+    this.endTime = endTime;
+  }
+
+  /**
+   * @return elapsed time of the import in milliseconds, until now when the
+   *         import is still processing
+   */
+  public synchronized long getDuration() {
+    if (startTime == 0) {
+      return 0;
+    }
+    return (endTime == 0 ? System.currentTimeMillis() : endTime) - startTime;
+  }
+
+  /**
+   * @return number of processed lines per second
+   */
+  public synchronized double getThroughput() {
+    long duration = getDuration();
+    return duration == 0 ? 0 : processedCount * 1000d / duration;
+  }
+
+  public synchronized long getParseDuration() {
+    return parseDuration;
+  }
+
+  public synchronized void setParseDuration(long parseDuration) {
+    this.parseDuration = parseDuration;
+  }
+
+  public synchronized long getUsersDuration() {
+    return usersDuration;
+  }
+
+  public synchronized void setUsersDuration(long usersDuration) {
+    this.usersDuration = usersDuration;
+  }
+
+  public synchronized long getMembershipsDuration() {
+    return membershipsDuration;
+  }
+
+  public synchronized void setMembershipsDuration(long membershipsDuration) {
+    this.membershipsDuration = membershipsDuration;
+  }
+
+  public synchronized long getProfilesDuration() {
+    return profilesDuration;
+  }
+
+  public synchronized void setProfilesDuration(long profilesDuration) {
+    this.profilesDuration = profilesDuration;
+  }
+
+  public synchronized void incrementProcessed() {
     this.processedCount++;
   }
 
-  public void addErrorMessage(String userName, String errorMessage) {
+  public synchronized void addParseDuration(long duration) {
+    this.parseDuration += duration;
+  }
+
+  public synchronized void addUsersDuration(long duration) {
+    this.usersDuration += duration;
+  }
+
+  public synchronized void addMembershipsDuration(long duration) {
+    this.membershipsDuration += duration;
+  }
+
+  public synchronized void addProfilesDuration(long duration) {
+    this.profilesDuration += duration;
+  }
+
+  public synchronized void addErrorMessage(String userName, String errorMessage) {
     if (errorMessages == null) {
       errorMessages = new HashMap<>();
     }
     errorMessages.put(userName, errorMessage);
   }
 
-  public void addWarnMessage(String userName, String warnMessage) {
+  public synchronized void addWarnMessage(String userName, String warnMessage) {
     if (warnMessages == null) {
       warnMessages = new HashMap<>();
     }
     warnMessages.computeIfAbsent(userName, key -> new ArrayList<>()).add(warnMessage);
   }
 
+  /**
+   * Adds the processed lines, durations and messages of another result, such
+   * as the result of a chunk of lines imported separately.
+   *
+   * @param result result to add
+   */
+  public synchronized void addResult(UserImportResultEntity result) {
+    this.processedCount += result.getProcessedCount();
+    this.parseDuration += result.getParseDuration();
+    this.usersDuration += result.getUsersDuration();
+    this.membershipsDuration += result.getMembershipsDuration();
+    this.profilesDuration += result.getProfilesDuration();
+    if (result.getErrorMessages() != null) {
+      result.getErrorMessages().forEach(this::addErrorMessage);
+    }
+    if (result.getWarnMessages() != null) {
+      result.getWarnMessages()
+            .forEach((userName, messages) -> messages.forEach(message -> addWarnMessage(userName, message)));
+    }
+  }
+
   @Override
-  public UserImportResultEntity clone() { // NOSONAR
-    Map<String, String> errorMessagesCopy = errorMessages == null ? null : Collections.unmodifiableMap(errorMessages);
-    Map<String, List<String>> warnMessagesCopy = warnMessages == null ? null : Collections.unmodifiableMap(warnMessages);
-    return new UserImportResultEntity(count, processedCount, errorMessagesCopy, warnMessagesCopy);
+  public synchronized UserImportResultEntity clone() { // NOSONAR
+    Map<String, String> errorMessagesCopy = errorMessages == null ? null
+                                                                  : Collections.unmodifiableMap(new HashMap<>(errorMessages));
+    Map<String, List<String>> warnMessagesCopy = null;
+    if (warnMessages != null) {
+      warnMessagesCopy = new HashMap<>();
+      for (Map.Entry<String, List<String>> entry : warnMessages.entrySet()) {
+        warnMessagesCopy.put(entry.getKey(), Collections.unmodifiableList(new ArrayList<>(entry.getValue())));
+      }
+      warnMessagesCopy = Collections.unmodifiableMap(warnMessagesCopy);
+    }
+    UserImportResultEntity copy = new UserImportResultEntity(count, processedCount, errorMessagesCopy, warnMessagesCopy);
+    copy.startTime = startTime;
+    copy.endTime = endTime;
+    copy.parseDuration = parseDuration;
+    copy.usersDuration = usersDuration;
+    copy.membershipsDuration = membershipsDuration;
+    copy.profilesDuration = profilesDuration;
+    return copy;
   }
 }
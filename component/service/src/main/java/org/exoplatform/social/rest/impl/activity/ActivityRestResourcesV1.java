@@ -16,6 +16,7 @@
  */
 package org.exoplatform.social.rest.impl.activity;
 
+import java.nio.charset.StandardCharsets;
 import java.text.ParseException;
 import java.util.*;
 import java.util.stream.Collectors;
@@ -44,6 +45,7 @@ import org.exoplatform.services.log.Log;
 import org.exoplatform.services.rest.resource.ResourceContainer;
 import org.exoplatform.services.security.ConversationState;
 import org.exoplatform.social.common.RealtimeListAccess;
+import org.exoplatform.social.core.activity.ActivityCursor;
 import org.exoplatform.social.core.activity.ActivityFilter;
 import org.exoplatform.social.core.activity.ActivityStreamType;
 import org.exoplatform.social.core.activity.filter.ActivitySearchFilter;
@@ -122,6 +124,16 @@ public class ActivityRestResourcesV1 implements ResourceContainer {
                                     required = false
                                 ) @Schema(defaultValue = "0")
                                 @QueryParam("afterTime") String afterTime,
+                                @Parameter(
+                                    description = "Cursor returned as 'before' by a previous call, used to retrieve the next older page of activities. An empty value retrieves the first page using cursors",
+                                    required = false
+                                )
+                                @QueryParam("before") String before,
+                                @Parameter(
+                                    description = "Cursor returned as 'after' by a previous call, used to retrieve the activities updated since then. It can't be used with 'before'",
+                                    required = false
+                                )
+                                @QueryParam("after") String after,
                                 @Parameter(description = "Offset", required = false)
                                 @QueryParam("offset") int offset,
                                 @Parameter(description = "Limit", required = false) @Schema(defaultValue = "20")
@@ -167,6 +179,16 @@ public class ActivityRestResourcesV1 implements ResourceContainer {
     } else if (!StringUtils.isBlank(spaceId)) {
       activityFilter.setStreamType(ActivityStreamType.ANY_SPACE_ACTIVITY);
     }
+    if (before != null || after != null) {
+      return getActivitiesByCursor(uriInfo,
+                                   currentUserIdentity,
+                                   activityFilter,
+                                   before,
+                                   after,
+                                   limit,
+                                   expand,
+                                   canPost);
+    }
     if (!StringUtils.isEmpty(activityFilter.getSpaceId()) || activityFilter.getStreamType() != null) {
       listAccess = activityManager.getActivitiesByFilterWithListAccess(currentUserIdentity, activityFilter);
     } else {
@@ -225,6 +247,78 @@ public class ActivityRestResourcesV1 implements ResourceContainer {
     return responseBuilder.build();
   }
 
+  private Response getActivitiesByCursor(UriInfo uriInfo,
+                                         Identity currentUserIdentity,
+                                         ActivityFilter activityFilter,
+                                         String before,
+                                         String after,
+                                         int limit,
+                                         String expand,
+                                         boolean canPost) {
+    if (StringUtils.isNotBlank(before) && StringUtils.isNotBlank(after)) {
+      return Response.status(Status.BAD_REQUEST).entity("Only one of 'before' and 'after' cursors can be used").build();
+    }
+    boolean newer = StringUtils.isNotBlank(after);
+    ActivityCursor cursor;
+    try {
+      cursor = decodeCursor(newer ? after : before);
+    } catch (IllegalArgumentException e) {
+      return Response.status(Status.BAD_REQUEST).entity("Invalid activity stream cursor").build();
+    }
+    List<ActivityCursor> cursors = activityManager.getActivityCursorsByFilter(currentUserIdentity,
+                                                                             activityFilter,
+                                                                             cursor,
+                                                                             newer,
+                                                                             limit);
+    List<String> activityIds = cursors.stream().map(ActivityCursor::getActivityId).collect(Collectors.toList());
+
+    String entitiesName;
+    List<DataEntity> activityEntities;
+    if (StringUtils.contains(expand, "ids")) {
+      activityEntities = activityIds.stream().map(id -> {
+        DataEntity dataEntity = new DataEntity();
+        dataEntity.setProperty("id", id);
+        return dataEntity;
+      }).collect(Collectors.toList());
+      entitiesName = EntityBuilder.ACTIVITY_IDS_TYPE;
+    } else {
+      List<ExoSocialActivity> activities = activityIds.isEmpty() ? Collections.emptyList()
+                                                                 : activityManager.getActivities(activityIds);
+      activityEntities = convertToEntities(activities, currentUserIdentity, uriInfo, expand);
+      entitiesName = EntityBuilder.ACTIVITIES_TYPE;
+    }
+    CollectionEntity collectionActivity = new CollectionEntity(activityEntities, entitiesName, 0, limit);
+    collectionActivity.put("canPost", canPost);
+    if (cursors.isEmpty()) {
+      // Keep the same position so that the client can poll again later
+      collectionActivity.put("before", newer ? null : before);
+      collectionActivity.put("after", newer ? after : null);
+    } else {
+      collectionActivity.put("before", encodeCursor(cursors.get(cursors.size() - 1)));
+      collectionActivity.put("after", encodeCursor(cursors.get(0)));
+    }
+    return EntityBuilder.getResponseBuilder(collectionActivity, uriInfo, RestUtils.getJsonMediaType(), Response.Status.OK)
+                        .build();
+  }
+
+  private static String encodeCursor(ActivityCursor cursor) {
+    String value = cursor.getUpdatedTime() + ":" + cursor.getActivityId();
+    return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+  }
+
+  private static ActivityCursor decodeCursor(String value) {
+    if (StringUtils.isBlank(value)) {
+      return null;
+    }
+    String decodedValue = new String(Base64.getUrlDecoder().decode(value), StandardCharsets.UTF_8);
+    String[] parts = decodedValue.split(":");
+    if (parts.length != 2) {
+      throw new IllegalArgumentException("Invalid cursor " + value);
+    }
+    long updatedTime = Long.parseLong(parts[0]);
+    return new ActivityCursor(String.valueOf(Long.parseLong(parts[1])), updatedTime);
+  }
+
   @POST
   @Produces(MediaType.APPLICATION_JSON)
   @RolesAllowed("users")
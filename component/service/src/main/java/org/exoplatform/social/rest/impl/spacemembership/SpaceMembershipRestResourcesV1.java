@@ -419,11 +419,11 @@ public class SpaceMembershipRestResourcesV1 implements SpaceMembershipRestResour
     SpaceMembershipEntity membershipEntity = null;
     for (Space space : spaces) {
       if (userId != null) {
-        if (ArrayUtils.contains(space.getMembers(), userId)) {
+        if (space.hasMember(userId)) {
           membershipEntity = EntityBuilder.buildEntityFromSpaceMembership(space, userId, "member", path, expand);
           spaceMemberships.add(membershipEntity.getDataEntity());
         }
-        if (ArrayUtils.contains(space.getManagers(), userId)) {
+        if (space.hasManager(userId)) {
           membershipEntity = EntityBuilder.buildEntityFromSpaceMembership(space, userId, "manager", path, expand);
           spaceMemberships.add(membershipEntity.getDataEntity());
         }
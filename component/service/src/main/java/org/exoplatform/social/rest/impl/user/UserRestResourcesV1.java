@@ -34,18 +34,28 @@ import java.util.Calendar;
 import java.util.Collections;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Objects;
+import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Collectors;
 
 import javax.annotation.security.RolesAllowed;
+import javax.persistence.EntityManager;
 import javax.servlet.http.HttpServletRequest;
 import javax.ws.rs.DELETE;
 import javax.ws.rs.DefaultValue;
@@ -77,9 +87,11 @@ import org.picocontainer.Startable;
 
 import org.exoplatform.common.http.HTTPStatus;
 import org.exoplatform.commons.exception.ObjectNotFoundException;
+import org.exoplatform.commons.persistence.impl.EntityManagerService;
 import org.exoplatform.commons.utils.CommonsUtils;
 import org.exoplatform.commons.utils.IOUtil;
 import org.exoplatform.commons.utils.ListAccess;
+import org.exoplatform.commons.utils.PropertyManager;
 import org.exoplatform.container.ExoContainerContext;
 import org.exoplatform.container.PortalContainer;
 import org.exoplatform.container.component.RequestLifeCycle;
@@ -186,7 +198,15 @@ public class UserRestResourcesV1 implements UserRestResources, Startable {
                                                                                               FIRSTNAME_VALIDATOR,
                                                                                               PASSWORD_VALIDATOR);
 
-  private static Map<String, UserImportResultEntity> importUsersProcessing       = new HashMap<>();
+  public static final String   IMPORT_WORKERS_PROPERTY_NAME    = "exo.social.users.import.workers";
+
+  public static final String   IMPORT_CHUNK_SIZE_PROPERTY_NAME = "exo.social.users.import.chunkSize";
+
+  private static final int     DEFAULT_IMPORT_WORKERS          = 4;
+
+  private static final int     DEFAULT_IMPORT_CHUNK_SIZE       = 50;
+
+  private static Map<String, UserImportResultEntity> importUsersProcessing       = new ConcurrentHashMap<>();
 
   private UserACL userACL;
 
@@ -217,6 +237,10 @@ public class UserRestResourcesV1 implements UserRestResources, Startable {
   private UploadService       uploadService;
 
   private ExecutorService     importExecutorService = null;
+
+  private ExecutorService     importWorkersExecutorService = null;
+
+  private int                 importChunkSize;
   
   public UserRestResourcesV1(ActivityRestResourcesV1 activityRestResourcesV1,
                              UserACL userACL,
@@ -241,6 +265,8 @@ public class UserRestResourcesV1 implements UserRestResources, Startable {
     this.imageThumbnailService = imageThumbnailService;
     this.profilePropertyService = profilePropertyService;
     this.importExecutorService = Executors.newSingleThreadExecutor();
+    this.importWorkersExecutorService = createImportWorkersExecutorService();
+    this.importChunkSize = getIntegerProperty(IMPORT_CHUNK_SIZE_PROPERTY_NAME, DEFAULT_IMPORT_CHUNK_SIZE);
 
     CACHE_CONTROL.setMaxAge(CACHE_IN_SECONDS);
   }
@@ -253,6 +279,28 @@ public class UserRestResourcesV1 implements UserRestResources, Startable {
   @Override
   public void stop() {
     this.importExecutorService.shutdownNow();
+    this.importWorkersExecutorService.shutdownNow();
+  }
+
+  private static ExecutorService createImportWorkersExecutorService() {
+    int workers = getIntegerProperty(IMPORT_WORKERS_PROPERTY_NAME, DEFAULT_IMPORT_WORKERS);
+    AtomicInteger threadNumber = new AtomicInteger(1);
+    return new ThreadPoolExecutor(workers,
+                                  workers,
+                                  0L,
+                                  TimeUnit.MILLISECONDS,
+                                  new ArrayBlockingQueue<>(workers),
+                                  runnable -> {
+                                    Thread thread = new Thread(runnable, "social-users-import-" + threadNumber.getAndIncrement());
+                                    thread.setDaemon(true);
+                                    return thread;
+                                  },
+                                  new ThreadPoolExecutor.CallerRunsPolicy());
+  }
+
+  private static int getIntegerProperty(String propertyName, int defaultValue) {
+    String value = PropertyManager.getProperty(propertyName);
+    return StringUtils.isNumeric(value) && Integer.parseInt(value) > 0 ? Integer.parseInt(value) : defaultValue;
   }
 
   @GET
@@ -1501,9 +1549,9 @@ public class UserRestResourcesV1 implements UserRestResources, Startable {
     UserImportResultEntity userImportResultEntity = new UserImportResultEntity();
     importUsersProcessing.put(uploadId, userImportResultEntity);
 
-    // count file lines
-    try (BufferedReader reader = new BufferedReader(new FileReader(fileLocation))) {
-      userImportResultEntity.setCount(reader.lines().count() - 1);
+    // count file lines without decoding them, to compute the progress
+    try {
+      userImportResultEntity.setCount(countLines(fileLocation) - 1);
     } catch (FileNotFoundException e) {
       return Response.status(Response.Status.NOT_FOUND).entity("UPLOAD_ID_FILE:NOT_FOUND").build();
     } catch (IOException e) {
@@ -1514,8 +1562,9 @@ public class UserRestResourcesV1 implements UserRestResources, Startable {
       return Response.status(Response.Status.BAD_REQUEST).entity("BAD_FORMAT:FILE_EMPTY").build();      
     }
 
+    userImportResultEntity.setStartTime(System.currentTimeMillis());
     if (sync) {
-      importUsers(fileLocation, userImportResultEntity, locale, url);
+      importUsers(fileLocation, userImportResultEntity, locale, url, ConversationState.getCurrent());
     } else {
       importUsersAsync(fileLocation, userImportResultEntity, locale, url, ConversationState.getCurrent());
     }
@@ -1529,14 +1578,25 @@ public class UserRestResourcesV1 implements UserRestResources, Startable {
                                 ConversationState currentState) {
     importExecutorService.execute(() -> {
       ConversationState.setCurrent(currentState);
-      this.importUsers(fileLocation, userImportResultEntity, locale, url);
+      this.importUsers(fileLocation, userImportResultEntity, locale, url, currentState);
     });
   }
 
+  /**
+   * Reads the CSV file once and submits its lines by chunks to the import
+   * workers, then waits until all the chunks are imported. The bounded queue of
+   * the workers executor makes the reading thread import a chunk itself when
+   * the workers are busy, so that the file isn't loaded in memory. The lines
+   * having the user name or the email of a previous line are imported last, in
+   * the file order, so that two chunks never create or update the same user
+   * concurrently.
+   */
   private void importUsers(String fileLocation,
                            UserImportResultEntity userImportResultEntity,
                            Locale locale,
-                           StringBuilder url) {
+                           StringBuilder url,
+                           ConversationState currentState) {
+    List<Future<?>> chunkFutures = new ArrayList<>();
     try (BufferedReader reader = new BufferedReader(new FileReader(fileLocation))) {
       // Retrieve header line and import others
       String headerLine = null;
@@ -1545,41 +1605,276 @@ public class UserRestResourcesV1 implements UserRestResources, Startable {
         return;
       }
       List<String> fields = Arrays.asList(headerLine.split(","));
+      UserImport userImport = new UserImport(userImportResultEntity, locale, url, fields, currentState);
 
+      int userNameIndex = fields.indexOf("userName");
+      int emailIndex = fields.indexOf("email");
+      Set<String> importedUserKeys = new HashSet<>();
+      List<String> duplicatedUserCSVLines = new ArrayList<>();
+      List<String> userCSVLines = new ArrayList<>(importChunkSize);
       String userCSVLine = reader.readLine();
       while (userCSVLine != null) {
-        ExoContainerContext.setCurrentContainer(PortalContainer.getInstance());
-        RequestLifeCycle.begin(PortalContainer.getInstance());
-        String userName = null;
+        if (isDuplicatedUser(userCSVLine, userNameIndex, emailIndex, importedUserKeys)) {
+          duplicatedUserCSVLines.add(userCSVLine);
+        } else {
+          userCSVLines.add(userCSVLine);
+        }
+        if (userCSVLines.size() >= importChunkSize) {
+          chunkFutures.add(submitImportChunk(userImport, userCSVLines));
+          userCSVLines = new ArrayList<>(importChunkSize);
+        }
+        userCSVLine = reader.readLine();
+      }
+      if (!userCSVLines.isEmpty()) {
+        chunkFutures.add(submitImportChunk(userImport, userCSVLines));
+      }
+      waitImportChunks(chunkFutures);
+      chunkFutures.clear();
+      if (!duplicatedUserCSVLines.isEmpty()) {
+        importUsers(userImport, duplicatedUserCSVLines);
+      }
+    } catch (Exception e) {
+      LOG.error("Error while importing CSV file", e);
+    } finally {
+      waitImportChunks(chunkFutures);
+      userImportResultEntity.setEndTime(System.currentTimeMillis());
+      if (LOG.isDebugEnabled()) {
+        LOG.debug("Imported {} users lines in {}ms ({} lines/s): parse {}ms, users {}ms, memberships {}ms, profiles {}ms",
+                  userImportResultEntity.getProcessedCount(),
+                  userImportResultEntity.getDuration(),
+                  Math.round(userImportResultEntity.getThroughput()),
+                  userImportResultEntity.getParseDuration(),
+                  userImportResultEntity.getUsersDuration(),
+                  userImportResultEntity.getMembershipsDuration(),
+                  userImportResultEntity.getProfilesDuration());
+      }
+    }
+  }
+
+  /**
+   * @return true if the user name or the email of the CSV line was already
+   *         read in a previous line
+   */
+  private boolean isDuplicatedUser(String userCSVLine, int userNameIndex, int emailIndex, Set<String> importedUserKeys) {
+    String[] userProperties = userCSVLine.split(",");
+    boolean duplicated = false;
+    if (userNameIndex >= 0 && userNameIndex < userProperties.length && StringUtils.isNotBlank(userProperties[userNameIndex])) {
+      duplicated = !importedUserKeys.add("userName:" + userProperties[userNameIndex]);
+    }
+    if (emailIndex >= 0 && emailIndex < userProperties.length && StringUtils.isNotBlank(userProperties[emailIndex])) {
+      duplicated = !importedUserKeys.add("email:" + StringUtils.lowerCase(userProperties[emailIndex])) || duplicated;
+    }
+    return duplicated;
+  }
+
+  private Future<?> submitImportChunk(UserImport userImport, List<String> userCSVLines) {
+    return importWorkersExecutorService.submit(() -> {
+      ConversationState previousState = ConversationState.getCurrent();
+      ConversationState.setCurrent(userImport.conversationState);
+      try {
+        importUsers(userImport, userCSVLines);
+      } finally {
+        ConversationState.setCurrent(previousState);
+      }
+    });
+  }
+
+  private void waitImportChunks(List<Future<?>> chunkFutures) {
+    for (Future<?> chunkFuture : chunkFutures) {
+      try {
+        chunkFuture.get();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        LOG.warn("Interrupted while waiting for users import");
+        return;
+      } catch (ExecutionException e) {
+        LOG.error("Error while importing CSV file", e.getCause());
+      }
+    }
+  }
+
+  /**
+   * Imports a chunk of CSV lines in a single request lifecycle. When a user or
+   * a membership of the chunk fails to be saved, the chunk transaction is
+   * rolled back and its lines are imported again one by one, each in its own
+   * lifecycle, so that the failure doesn't undo the other users of the chunk.
+   */
+  private void importUsers(UserImport userImport, List<String> userCSVLines) {
+    if (userCSVLines.size() > 1) {
+      // The chunk result is only added once the chunk is saved
+      UserImport chunkImport = userImport.forChunk();
+      if (importUsersChunk(chunkImport, userCSVLines)) {
+        userImport.result.addResult(chunkImport.result);
+        return;
+      }
+      LOG.debug("Error while importing a chunk of {} users, import its users one by one", userCSVLines.size());
+    }
+    for (String userCSVLine : userCSVLines) {
+      importUsersChunk(userImport, Collections.singletonList(userCSVLine));
+    }
+  }
+
+  /**
+   * Imports CSV lines in a single request lifecycle: the users are created or
+   * updated first, then their memberships are linked, then their profiles are
+   * updated. A new lifecycle is started after an unexpected error, to not
+   * import the following users in a broken session.
+   *
+   * @return false if the import is a chunk which failed before completing its
+   *         users, in which case its transaction is rolled back
+   */
+  private boolean importUsersChunk(UserImport userImport, List<String> userCSVLines) {
+    UserImportResultEntity userImportResultEntity = userImport.result;
+    PortalContainer container = PortalContainer.getInstance();
+    ExoContainerContext.setCurrentContainer(container);
+    RequestLifeCycle.begin(container);
+    try {
+      List<ImportedUser> importedUsers = new ArrayList<>(userCSVLines.size());
+      for (String userCSVLine : userCSVLines) {
+        userImportResultEntity.incrementProcessed();
+        if (StringUtils.isBlank(userCSVLine)) {
+          continue;
+        }
+        ImportedUser importedUser = new ImportedUser();
         try { // NOSONAR
-          userImportResultEntity.incrementProcessed();
-          if (StringUtils.isBlank(userCSVLine)) {
-            userCSVLine = reader.readLine();
-            continue;
+          if (importUser(userImport, importedUser, userCSVLine)) {
+            importedUsers.add(importedUser);
+          }
+        } catch (Throwable e) { // NOSONAR
+          if (userImport.chunk) {
+            return abortChunk(e);
           }
+          handleImportUserError(userImport, importedUser.userName, e);
+        }
+        if (userImport.failed) {
+          return abortChunk(null);
+        }
+      }
 
-          userName = importUser(userImportResultEntity, locale, url, fields, userCSVLine);
-        } catch (Throwable e) {
-          LOG.warn("Error importing user data {}", userName, e);
+      long startTime = System.currentTimeMillis();
+      Iterator<ImportedUser> importedUsersIterator = importedUsers.iterator();
+      while (importedUsersIterator.hasNext()) {
+        ImportedUser importedUser = importedUsersIterator.next();
+        try { // NOSONAR
+          importMemberships(userImport, importedUser);
+        } catch (Throwable e) { // NOSONAR
+          if (userImport.chunk) {
+            return abortChunk(e);
+          }
+          importedUsersIterator.remove();
+          handleImportUserError(userImport, importedUser.userName, e);
+        }
+        if (userImport.failed) {
+          return abortChunk(null);
+        }
+      }
+      userImportResultEntity.addMembershipsDuration(System.currentTimeMillis() - startTime);
 
-          if (StringUtils.isNotBlank(userName)) {
-            userImportResultEntity.addErrorMessage(userName, "CREATE_USER_ERROR:" + e.getMessage());
+      for (ImportedUser importedUser : importedUsers) {
+        try { // NOSONAR
+          completeUserImport(userImport, importedUser);
+        } catch (Throwable e) { // NOSONAR
+          handleImportUserError(userImport, importedUser.userName, e);
+        }
+      }
+      return true;
+    } finally {
+      RequestLifeCycle.end();
+    }
+  }
+
+  /**
+   * Marks the transaction of a failed chunk as rollback only, so that none of
+   * its users is saved when its lifecycle ends.
+   */
+  private boolean abortChunk(Throwable e) {
+    if (e != null) {
+      LOG.debug("Error while importing a chunk of users", e);
+    }
+    EntityManagerService entityManagerService = CommonsUtils.getService(EntityManagerService.class);
+    EntityManager entityManager = entityManagerService == null ? null : entityManagerService.getEntityManager();
+    if (entityManager != null && entityManager.getTransaction().isActive()) {
+      entityManager.getTransaction().setRollbackOnly();
+    }
+    return false;
+  }
+
+  private void handleImportUserError(UserImport userImport, String userName, Throwable e) {
+    LOG.warn("Error importing user data {}", userName, e);
+    if (StringUtils.isNotBlank(userName)) {
+      userImport.result.addErrorMessage(userName, "CREATE_USER_ERROR:" + e.getMessage());
+    }
+    RequestLifeCycle.end();
+    RequestLifeCycle.begin(PortalContainer.getInstance());
+  }
+
+  /**
+   * Parses a CSV line then creates or updates its user
+   *
+   * @return true if the user was saved, else the error is added to the import
+   *         result
+   */
+  private boolean importUser(UserImport userImport, ImportedUser importedUser, String userCSVLine) throws Exception {
+    UserImportResultEntity userImportResultEntity = userImport.result;
+    long startTime = System.currentTimeMillis();
+    boolean parsed;
+    try {
+      parsed = parseUser(userImport, importedUser, userCSVLine);
+    } finally {
+      userImportResultEntity.addParseDuration(System.currentTimeMillis() - startTime);
+    }
+    if (!parsed) {
+      return false;
+    }
+    String userName = importedUser.userName;
+    UserImpl user = importedUser.user;
+    JSONObject userObject = importedUser.userObject;
+    boolean onboardUser = importedUser.onboardUser;
+    boolean userStatus = importedUser.userStatus;
+
+    startTime = System.currentTimeMillis();
+    try {
+      User existingUser = organizationService.getUserHandler().findUserByName(userName, UserStatus.ANY);
+      if (existingUser != null ) {
+        if(LOG.isDebugEnabled()){
+          LOG.debug("Skipping password update for: {}",userName);
+        }
+        // skipping password overwrite from csvLine
+        user.setPassword(null);
+        if (userStatus) {
+          organizationService.getUserHandler().setEnabled(userName, Boolean.valueOf(userObject.getString("enabled")), true);
+        }
+        organizationService.getUserHandler().saveUser(user, true);
+        onboardUser = onboardUser && existingUser.isEnabled() && (existingUser.getLastLoginTime().getTime() == existingUser.getCreatedDate().getTime());
+      }
+      else {
+        if (isEmailAlreadyExists(user.getUserName(), user.getEmail())) {
+          userImportResultEntity.addErrorMessage(userName, "EMAIL:ALREADY_EXISTS");
+          return false;
+        }
+        try {
+          organizationService.getUserHandler().createUser(user, true);
+        } catch (Exception e) {
+          if (userImport.chunk) {
+            // The chunk is imported again line by line
+            userImport.failed = true;
+            return false;
           }
-        } finally {
-          RequestLifeCycle.end();
+          LOG.warn("Error importing user {}", userName, e);
+          userImportResultEntity.addErrorMessage(userName, "CREATE_USER_ERROR:" + e.getMessage());
+          return false;
         }
-        userCSVLine = reader.readLine();
       }
-    } catch (Exception e) {
-      LOG.error("Error while importing CSV file", e);
+    } finally {
+      userImportResultEntity.addUsersDuration(System.currentTimeMillis() - startTime);
     }
+    importedUser.onboardUser = onboardUser;
+    return true;
   }
 
-  private String importUser(UserImportResultEntity userImportResultEntity,
-                            Locale locale,
-                            StringBuilder url,
-                            List<String> fields,
-                            String userCSVLine) throws Exception {
+  private boolean parseUser(UserImport userImport, ImportedUser importedUser, String userCSVLine) throws Exception {
+    UserImportResultEntity userImportResultEntity = userImport.result;
+    List<String> fields = userImport.fields;
     List<String> userProperties = Arrays.asList(userCSVLine.split(","));
     JSONObject userObject = new JSONObject();
     for (int i = 0; i < fields.size(); i++) {
@@ -1589,55 +1884,37 @@ public class UserRestResourcesV1 implements UserRestResources, Startable {
     }
     UserImpl user = EntityBuilder.fromJsonString(userObject.toString(), UserImpl.class);
     String userName = user.getUserName();
+    importedUser.userName = userName;
+    importedUser.user = user;
+    importedUser.userObject = userObject;
     if (StringUtils.isBlank(userName)) {
       userImportResultEntity.addErrorMessage(userName, "BAD_LINE_FORMAT:MISSING_USERNAME");
-      return userName;
+      return false;
     }
     if (userProperties.size() != fields.size()) {
       userImportResultEntity.addErrorMessage(userName, "BAD_LINE_FORMAT");
-      return userName;
+      return false;
     }
 
     String errorMessage = null;
     try {
-      errorMessage = validateUser(userObject, locale);
+      errorMessage = validateUser(userObject, userImport.locale);
     } catch (Exception e) {
       errorMessage = "USER_VALIDATION_ERROR:" + e.getMessage();
     }
     if (StringUtils.isNotBlank(errorMessage)) {
       userImportResultEntity.addErrorMessage(userName, errorMessage);
-      return userName;
-    }
-    boolean onboardUser = !userObject.isNull("onboardUser") && userObject.getString("onboardUser").equals("true");
-    boolean userStatus = !userObject.isNull("enabled") && ( "true".equalsIgnoreCase(userObject.getString("enabled")) ||"false".equalsIgnoreCase(userObject.getString("enabled")));
-
-    User existingUser = organizationService.getUserHandler().findUserByName(userName, UserStatus.ANY);
-    if (existingUser != null ) {
-      if(LOG.isDebugEnabled()){
-        LOG.debug("Skipping password update for: {}",userName);
-      }
-      // skipping password overwrite from csvLine
-      user.setPassword(null);
-      if (userStatus) {
-        organizationService.getUserHandler().setEnabled(userName, Boolean.valueOf(userObject.getString("enabled")), true);
-      }
-      organizationService.getUserHandler().saveUser(user, true);
-      onboardUser = onboardUser && existingUser.isEnabled() && (existingUser.getLastLoginTime().getTime() == existingUser.getCreatedDate().getTime());
-    }
-    else {
-      if (isEmailAlreadyExists(user.getUserName(), user.getEmail())) {
-        userImportResultEntity.addErrorMessage(userName, "EMAIL:ALREADY_EXISTS");
-        return userName;
-      }
-      try {
-        organizationService.getUserHandler().createUser(user, true);
-      } catch (Exception e) {
-        LOG.warn("Error importing user {}", userName, e);
-        userImportResultEntity.addErrorMessage(userName, "CREATE_USER_ERROR:" + e.getMessage());
-        return userName;
-      }
+      return false;
     }
+    importedUser.onboardUser = !userObject.isNull("onboardUser") && userObject.getString("onboardUser").equals("true");
+    importedUser.userStatus = !userObject.isNull("enabled") && ( "true".equalsIgnoreCase(userObject.getString("enabled")) ||"false".equalsIgnoreCase(userObject.getString("enabled")));
+    return true;
+  }
 
+  private void importMemberships(UserImport userImport, ImportedUser importedUser) throws Exception {
+    UserImportResultEntity userImportResultEntity = userImport.result;
+    JSONObject userObject = importedUser.userObject;
+    String userName = importedUser.userName;
     if (!userObject.isNull("groups")) {
       String groups = userObject.getString("groups");
       if (StringUtils.isNotBlank(groups)) {
@@ -1649,20 +1926,24 @@ public class UserRestResourcesV1 implements UserRestResources, Startable {
           String groupId = groupMembershipExpression.contains(":") ? StringUtils.trim(groupMembershipExpression.split(":")[1])
                   : groupMembershipExpression;
           if (groupId.equals("/platform/externals")) continue;
-          Group groupObject = organizationService.getGroupHandler().findGroupById(groupId);
+          Group groupObject = userImport.getGroup(groupId);
           if (groupObject == null) {
             userImportResultEntity.addWarnMessage(userName, "GROUP_NOT_EXISTS:" + groupId);
             continue;
           }
-          MembershipType membershipTypeObject =
-                  organizationService.getMembershipTypeHandler().findMembershipType(membershipType);
+          MembershipType membershipTypeObject = userImport.getMembershipType(membershipType);
           if (membershipTypeObject == null) {
             userImportResultEntity.addWarnMessage(userName, "MEMBERSHIP_TYPE_NOT_EXISTS:" + membershipType);
             continue;
           }
           try {
-            organizationService.getMembershipHandler().linkMembership(user, groupObject, membershipTypeObject, true);
+            organizationService.getMembershipHandler().linkMembership(importedUser.user, groupObject, membershipTypeObject, true);
           } catch (Exception e) {
+            if (userImport.chunk) {
+              // The chunk is imported again line by line
+              userImport.failed = true;
+              return;
+            }
             userImportResultEntity.addWarnMessage(userName, "IMPORT_MEMBERSHIP_ERROR:" + e.getMessage());
           }
         }
@@ -1670,14 +1951,22 @@ public class UserRestResourcesV1 implements UserRestResources, Startable {
         userImportResultEntity.addWarnMessage(userName, "GROUP_NOT_EXISTS:");
       }
     }
+  }
+
+  private void completeUserImport(UserImport userImport, ImportedUser importedUser) throws Exception {
+    UserImportResultEntity userImportResultEntity = userImport.result;
+    JSONObject userObject = importedUser.userObject;
+    String userName = importedUser.userName;
+    long startTime = System.currentTimeMillis();
     //onboard user if the onboardUser csv field is true, the user is enabled and not yet logged in 
-    if (onboardUser) {
-      sendOnBoardingEmail(user, url);
+    if (importedUser.onboardUser) {
+      sendOnBoardingEmail(importedUser.user, userImport.url);
     }
 
-    if (userStatus) {
+    if (importedUser.userStatus) {
       organizationService.getUserHandler().setEnabled(userName, Boolean.parseBoolean(userObject.getString("enabled")), true);
     }
+    userImportResultEntity.addUsersDuration(System.currentTimeMillis() - startTime);
 
     // Delete imported User object properties
     userObject.remove("userName");
@@ -1688,6 +1977,7 @@ public class UserRestResourcesV1 implements UserRestResources, Startable {
     userObject.remove("groups");
     userObject.remove("enabled");
 
+    startTime = System.currentTimeMillis();
     ProfileEntity profileEntity = EntityBuilder.fromJsonString(userObject.toString(), ProfileEntity.class);
     String warnMessage = null;
     try {
@@ -1702,11 +1992,12 @@ public class UserRestResourcesV1 implements UserRestResources, Startable {
     } catch (Exception e) {
       LOG.warn("Error saving user profile {}", userName, e);
       warnMessage = "CREATE_USER_PROFILE_ERROR:" + e.getMessage();
+    } finally {
+      userImportResultEntity.addProfilesDuration(System.currentTimeMillis() - startTime);
     }
     if (warnMessage != null) {
       userImportResultEntity.addWarnMessage(userName, warnMessage);
     }
-    return userName;
   }
 
   private String validateUser(JSONObject userObject, Locale locale) throws Exception {
@@ -1982,4 +2273,134 @@ public class UserRestResourcesV1 implements UserRestResources, Startable {
     }
     return url;
   }
+
+  /**
+   * Counts the lines of a file as {@link BufferedReader#readLine()} does,
+   * without decoding them
+   */
+  private static long countLines(String fileLocation) throws IOException {
+    long count = 0;
+    int previous = -1;
+    byte[] buffer = new byte[8192];
+    try (InputStream inputStream = new FileInputStream(fileLocation)) {
+      int length = inputStream.read(buffer);
+      while (length > 0) {
+        for (int i = 0; i < length; i++) {
+          byte b = buffer[i];
+          if (b == '\r' || (b == '\n' && previous != '\r')) {
+            count++;
+          }
+          previous = b;
+        }
+        length = inputStream.read(buffer);
+      }
+    }
+    if (previous != -1 && previous != '\n' && previous != '\r') {
+      count++;
+    }
+    return count;
+  }
+
+  /**
+   * Shared state of the chunks of a CSV file import. The groups and membership
+   * types are looked up once per import.
+   */
+  private class UserImport {
+
+    private final UserImportResultEntity      result;
+
+    private final Locale                      locale;
+
+    private final StringBuilder               url;
+
+    private final List<String>                fields;
+
+    private final ConversationState           conversationState;
+
+    private final Map<String, Optional<Group>>          groups;
+
+    private final Map<String, Optional<MembershipType>> membershipTypes;
+
+    /** Whether the lines are imported as a chunk, which fails on errors */
+    private final boolean                     chunk;
+
+    /** Whether a user or a membership of the chunk failed to be saved */
+    private boolean                           failed;
+
+    private UserImport(UserImportResultEntity result,
+                       Locale locale,
+                       StringBuilder url,
+                       List<String> fields,
+                       ConversationState conversationState) {
+      this(result, locale, url, fields, conversationState, new ConcurrentHashMap<>(), new ConcurrentHashMap<>(), false);
+    }
+
+    private UserImport(UserImportResultEntity result, // NOSONAR
+                       Locale locale,
+                       StringBuilder url,
+                       List<String> fields,
+                       ConversationState conversationState,
+                       Map<String, Optional<Group>> groups,
+                       Map<String, Optional<MembershipType>> membershipTypes,
+                       boolean chunk) {
+      this.result = result;
+      this.locale = locale;
+      this.url = url;
+      this.fields = fields;
+      this.conversationState = conversationState;
+      this.groups = groups;
+      this.membershipTypes = membershipTypes;
+      this.chunk = chunk;
+    }
+
+    /**
+     * @return an import of a chunk of lines, with its own result
+     */
+    private UserImport forChunk() {
+      return new UserImport(new UserImportResultEntity(),
+                            locale,
+                            url,
+                            fields,
+                            conversationState,
+                            groups,
+                            membershipTypes,
+                            true);
+    }
+
+    private Group getGroup(String groupId) throws Exception {
+      Optional<Group> group = groups.get(groupId);
+      if (group == null) {
+        group = Optional.ofNullable(organizationService.getGroupHandler().findGroupById(groupId));
+        groups.put(groupId, group);
+      }
+      return group.orElse(null);
+    }
+
+    private MembershipType getMembershipType(String membershipType) throws Exception {
+      Optional<MembershipType> membershipTypeObject = membershipTypes.get(membershipType);
+      if (membershipTypeObject == null) {
+        membershipTypeObject = Optional.ofNullable(organizationService.getMembershipTypeHandler()
+                                                                      .findMembershipType(membershipType));
+        membershipTypes.put(membershipType, membershipTypeObject);
+      }
+      return membershipTypeObject.orElse(null);
+    }
+  }
+
+  /**
+   * A user saved in the first phase of a chunk import, which memberships and
+   * profile remain to import
+   */
+  private static class ImportedUser {
+
+    private String     userName;
+
+    private UserImpl   user;
+
+    private JSONObject userObject;
+
+    private boolean    onboardUser;
+
+    private boolean    userStatus;
+  }
 }
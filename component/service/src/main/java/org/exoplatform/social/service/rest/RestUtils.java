@@ -29,7 +29,6 @@ import java.util.concurrent.ConcurrentHashMap;
 
 import javax.ws.rs.core.MediaType;
 
-import org.apache.commons.lang.ArrayUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.exoplatform.commons.utils.CommonsUtils;
 import org.exoplatform.services.rest.ApplicationContext;
@@ -130,7 +129,7 @@ public class RestUtils {
    */
   public static Map<String, Object> buildEntityFromSpace(Space space, String userId, String restPath, String expand) {
     Map<String, Object> map = new LinkedHashMap<String, Object>();
-    if (ArrayUtils.contains(space.getMembers(), userId) || isMemberOfAdminGroup()) {
+    if (space.hasMember(userId) || isMemberOfAdminGroup()) {
       map.put(RestProperties.ID, space.getId());
       map.put(RestProperties.HREF, (expand != null && RestProperties.HREF.equals(expand)) ? buildEntityFromSpace(space, userId, restPath, null) : Util.getRestUrl(SPACES_TYPE, space.getId(), restPath));
       Identity spaceIdentity = CommonsUtils.getService(IdentityManager.class).getOrCreateIdentity(SpaceIdentityProvider.NAME, space.getPrettyName(), true);
@@ -301,6 +301,13 @@ public class ActivityRestResourcesTest extends AbstractResourceTest {
     assertEquals(5, collections.getEntities().size());
   }
 
+  public void testGetActivitiesWithBothCursors() throws Exception {
+    startSessionAs("root");
+    ContainerResponse response = service("GET", getURLResource("activities?before=abc&after=def&limit=5"), "", null, null);
+    assertNotNull(response);
+    assertEquals(400, response.getStatus());
+  }
+
   public void testGetActivity() throws Exception {
     startSessionAs("root");
 
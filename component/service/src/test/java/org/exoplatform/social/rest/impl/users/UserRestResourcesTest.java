@@ -26,6 +26,7 @@ import org.mortbay.cometd.continuation.EXoContinuationBayeux;
 
 import org.exoplatform.commons.utils.IOUtil;
 import org.exoplatform.commons.utils.ListAccess;
+import org.exoplatform.commons.utils.PropertyManager;
 import org.exoplatform.portal.config.UserACL;
 import org.exoplatform.services.cache.CacheService;
 import org.exoplatform.services.organization.OrganizationService;
@@ -855,6 +856,9 @@ public class UserRestResourcesTest extends AbstractResourceTest {
     UserImportResultEntity importResultEntity = (UserImportResultEntity) response.getEntity();
     assertEquals(4, importResultEntity.getCount());
     assertEquals(importResultEntity.getCount(), importResultEntity.getProcessedCount());
+    assertTrue(importResultEntity.getStartTime() > 0);
+    assertTrue(importResultEntity.getEndTime() >= importResultEntity.getStartTime());
+    assertEquals(importResultEntity.getEndTime() - importResultEntity.getStartTime(), importResultEntity.getDuration());
     UploadResource uploadResource = uploadService.getUploadResource(uploadId);
 
     BufferedReader reader = new BufferedReader(new FileReader(uploadResource.getStoreLocation()));
@@ -985,6 +989,64 @@ public class UserRestResourcesTest extends AbstractResourceTest {
     assertEquals(1, importResultEntity.getWarnMessages().size());
   }
 
+  public void testImportUsersByChunks() throws Exception {
+    startSessionAs("root");
+    PropertyManager.setProperty(UserRestResourcesV1.IMPORT_CHUNK_SIZE_PROPERTY_NAME, "2");
+    PropertyManager.setProperty(UserRestResourcesV1.IMPORT_WORKERS_PROPERTY_NAME, "2");
+    removeResource(UserRestResourcesV1.class);
+    UserRestResourcesV1 userRestResources = new UserRestResourcesV1(new ActivityRestResourcesV1(activityManager,
+                                                                                                identityManager,
+                                                                                                spaceService,
+                                                                                                null),
+                                                                    userACL,
+                                                                    organizationService,
+                                                                    identityManager,
+                                                                    relationshipManager,
+                                                                    userStateService,
+                                                                    spaceService,
+                                                                    uploadService,
+                                                                    userSearchService,
+                                                                    imageThumbnailService,
+                                                                    profilePropertyService);
+    registry(userRestResources);
+    try {
+      String uploadId = "users-chunks.csv";
+      MultivaluedMap<String, String> headers = new MultivaluedMapImpl();
+      headers.putSingle("Content-Type", "application/x-www-form-urlencoded");
+      URL resource = getClass().getClassLoader().getResource(uploadId);
+      uploadService.createUploadResource(uploadId, resource.getFile(), uploadId, "text/csv");
+      ContainerResponse response = service("POST",
+                                           getURLResource("users/csv"),
+                                           "",
+                                           headers,
+                                           ("uploadId=" + uploadId + "&sync=true").getBytes());
+      assertNotNull(response);
+      assertEquals(204, response.getStatus());
+
+      response = service("POST", getURLResource("users/csv"), "", headers, ("uploadId=" + uploadId + "&progress=true").getBytes());
+      assertEquals(200, response.getStatus());
+      UserImportResultEntity importResultEntity = (UserImportResultEntity) response.getEntity();
+      assertEquals(7, importResultEntity.getCount());
+      assertEquals(importResultEntity.getCount(), importResultEntity.getProcessedCount());
+      // The line with the email of a previous line is imported after it
+      assertNotNull(importResultEntity.getErrorMessages());
+      assertEquals(1, importResultEntity.getErrorMessages().size());
+      assertEquals("EMAIL:ALREADY_EXISTS", importResultEntity.getErrorMessages().get("chunkuser6"));
+      assertNull(importResultEntity.getWarnMessages());
+      for (int i = 1; i <= 5; i++) {
+        assertNotNull(organizationService.getUserHandler().findUserByName("chunkuser" + i));
+      }
+      assertNull(organizationService.getUserHandler().findUserByName("chunkuser6"));
+      // The line with the user name of a previous line updates the user last
+      assertEquals("updated", organizationService.getUserHandler().findUserByName("chunkuser2").getFirstName());
+    } finally {
+      userRestResources.stop();
+      System.clearProperty(UserRestResourcesV1.IMPORT_CHUNK_SIZE_PROPERTY_NAME);
+      System.clearProperty(UserRestResourcesV1.IMPORT_WORKERS_PROPERTY_NAME);
+      PropertyManager.refresh();
+    }
+  }
+
   public void testUpdateProfileAtributes() throws Exception {
     String firstName = "Johnny";
     String lastName = "Bravo";